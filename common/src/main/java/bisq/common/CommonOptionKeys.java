@@ -20,4 +20,5 @@ package bisq.common;
 public class CommonOptionKeys {
     public static final String LOG_LEVEL_KEY = "logLevel";
     public static final String USE_DEV_MODE = "useDevMode";
+    public static final String METRICS_PORT = "metricsPort";
 }
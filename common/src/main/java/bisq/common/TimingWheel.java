@@ -0,0 +1,116 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Hashed timing wheel used by the TimingWheelTimer. The timers are stored in doubly linked lists in wheelSize buckets,
+ * each covering one tick. Adding and removing a timer is O(1) and a tick only visits the timers of one bucket. Timers
+ * with a deadline beyond one rotation of the wheel carry the number of remaining rotations.
+ * <p>
+ * The wheel is thread safe. The expired timers are executed on the thread which calls advance, outside of the lock.
+ */
+class TimingWheel {
+    private final long tickDurationMs;
+    private final TimingWheelTimer[] heads;
+    private final int mask;
+    private final LongSupplier clock;
+    private final long startTs;
+    // Last processed tick
+    private long currentTick;
+    private int size;
+
+    TimingWheel(long tickDurationMs, int wheelSize, LongSupplier clock) {
+        if (Integer.bitCount(wheelSize) != 1)
+            throw new IllegalArgumentException("wheelSize must be a power of 2. wheelSize=" + wheelSize);
+
+        this.tickDurationMs = tickDurationMs;
+        this.heads = new TimingWheelTimer[wheelSize];
+        this.mask = wheelSize - 1;
+        this.clock = clock;
+        this.startTs = clock.getAsLong();
+    }
+
+    synchronized void schedule(TimingWheelTimer timer, long delayMs) {
+        remove(timer);
+
+        // We round up so a timer never fires before its delay has passed
+        long deadlineTick = (clock.getAsLong() - startTs + Math.max(0, delayMs) + tickDurationMs - 1) / tickDurationMs;
+        deadlineTick = Math.max(currentTick + 1, deadlineTick);
+        timer.remainingRounds = (deadlineTick - currentTick - 1) / heads.length;
+
+        int index = (int) (deadlineTick & mask);
+        timer.bucket = index;
+        timer.prev = null;
+        timer.next = heads[index];
+        if (heads[index] != null)
+            heads[index].prev = timer;
+        heads[index] = timer;
+        size++;
+    }
+
+    synchronized void remove(TimingWheelTimer timer) {
+        if (timer.bucket < 0)
+            return;
+
+        if (timer.prev != null)
+            timer.prev.next = timer.next;
+        else
+            heads[timer.bucket] = timer.next;
+        if (timer.next != null)
+            timer.next.prev = timer.prev;
+
+        timer.bucket = -1;
+        timer.prev = null;
+        timer.next = null;
+        size--;
+    }
+
+    void advance() {
+        List<TimingWheelTimer> expired = new ArrayList<>();
+        synchronized (this) {
+            long targetTick = (clock.getAsLong() - startTs) / tickDurationMs;
+            while (currentTick < targetTick) {
+                currentTick++;
+                collectExpired((int) (currentTick & mask), expired);
+            }
+        }
+        expired.forEach(TimingWheelTimer::onExpired);
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    private void collectExpired(int index, List<TimingWheelTimer> expired) {
+        TimingWheelTimer timer = heads[index];
+        while (timer != null) {
+            TimingWheelTimer next = timer.next;
+            if (timer.remainingRounds <= 0) {
+                remove(timer);
+                expired.add(timer);
+            } else {
+                timer.remainingRounds--;
+            }
+            timer = next;
+        }
+    }
+}
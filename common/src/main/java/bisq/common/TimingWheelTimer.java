@@ -0,0 +1,106 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common;
+
+import java.time.Duration;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Timer for headless applications backed by a hashed timing wheel. Can be used instead of the FrameRateTimer with
+ * UserThread.setTimerClass(TimingWheelTimer.class).
+ * <p>
+ * The FrameRateTimer registers at the MasterTimer which copies its listener set at each add and remove and runs all
+ * timers at each frame. Here starting and stopping a timer is O(1) and each tick only visits the timers of the
+ * current bucket. The resolution is the same as with the MasterTimer. Timers are executed on the user thread.
+ */
+@Slf4j
+public class TimingWheelTimer implements Timer {
+    private static final TimingWheel DEFAULT_WHEEL = new TimingWheel(MasterTimer.FRAME_INTERVAL_MS, 512,
+            System::currentTimeMillis);
+
+    static {
+        java.util.Timer ticker = new java.util.Timer("TimingWheelTimer", true);
+        ticker.scheduleAtFixedRate(new java.util.TimerTask() {
+            @Override
+            public void run() {
+                UserThread.execute(DEFAULT_WHEEL::advance);
+            }
+        }, MasterTimer.FRAME_INTERVAL_MS, MasterTimer.FRAME_INTERVAL_MS);
+    }
+
+    private final TimingWheel wheel;
+    private Runnable runnable;
+    private long interval;
+    private boolean isPeriodically;
+    private volatile boolean stopped;
+
+    // Managed by the TimingWheel
+    int bucket = -1;
+    long remainingRounds;
+    TimingWheelTimer prev;
+    TimingWheelTimer next;
+
+    public TimingWheelTimer() {
+        this(DEFAULT_WHEEL);
+    }
+
+    TimingWheelTimer(TimingWheel wheel) {
+        this.wheel = wheel;
+    }
+
+    @Override
+    public Timer runLater(Duration delay, Runnable runnable) {
+        this.interval = delay.toMillis();
+        this.runnable = runnable;
+        wheel.schedule(this, interval);
+        return this;
+    }
+
+    @Override
+    public Timer runPeriodically(Duration interval, Runnable runnable) {
+        this.interval = interval.toMillis();
+        isPeriodically = true;
+        this.runnable = runnable;
+        wheel.schedule(this, this.interval);
+        return this;
+    }
+
+    @Override
+    public void stop() {
+        stopped = true;
+        wheel.remove(this);
+    }
+
+    void onExpired() {
+        if (stopped)
+            return;
+
+        try {
+            runnable.run();
+        } catch (Throwable t) {
+            // We don't rethrow as that would prevent the other timers expired at the same tick from being executed
+            log.error("exception in TimingWheelTimer", t);
+            stop();
+            return;
+        }
+
+        if (isPeriodically && !stopped)
+            wheel.schedule(this, interval);
+    }
+}
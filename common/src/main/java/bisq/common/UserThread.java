@@ -17,6 +17,8 @@
 
 package bisq.common;
 
+import bisq.common.metrics.Metrics;
+
 import com.google.common.util.concurrent.MoreExecutors;
 
 import java.time.Duration;
@@ -24,6 +26,7 @@ import java.time.Duration;
 import java.util.Random;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 import java.lang.reflect.InvocationTargetException;
 
@@ -37,7 +40,7 @@ import lombok.extern.slf4j.Slf4j;
  * For JavaFX it is usually the Platform::RunLater executor, for a headless application it is any single threaded
  * executor.
  * Additionally sets a timer class so JavaFX and headless applications can set different timers (UITimer for JavaFX
- * otherwise we use the default FrameRateTimer).
+ * otherwise we use the default FrameRateTimer). Headless applications with many timers can use the TimingWheelTimer.
  * <p>
  * Provides also methods for delayed and periodic executions.
  */
@@ -47,6 +50,9 @@ public class UserThread {
     @Getter
     @Setter
     private static Executor executor;
+    // Tasks passed to execute which have not started yet. Only counted if the executor queues the tasks.
+    private static final LongAdder numQueuedTasks = new LongAdder();
+    private static final Executor DIRECT_EXECUTOR = MoreExecutors.directExecutor();
 
     public static void setTimerClass(Class<? extends Timer> timerClass) {
         UserThread.timerClass = timerClass;
@@ -54,12 +60,27 @@ public class UserThread {
 
     static {
         // If not defined we use same thread as caller thread
-        executor = MoreExecutors.directExecutor();
+        executor = DIRECT_EXECUTOR;
         timerClass = FrameRateTimer.class;
+
+        Metrics.gauge("bisq_user_thread_queue_depth",
+                "Number of tasks passed to UserThread.execute which have not started yet", numQueuedTasks::sum);
     }
 
     public static void execute(Runnable command) {
-        UserThread.executor.execute(command);
+        // The direct executor runs the task in the caller thread, so nothing is queued and we do not need to wrap
+        // the task for counting.
+        Executor executor = UserThread.executor;
+        if (executor == DIRECT_EXECUTOR) {
+            command.run();
+            return;
+        }
+
+        numQueuedTasks.increment();
+        executor.execute(() -> {
+            numQueuedTasks.decrement();
+            command.run();
+        });
     }
 
     // Prefer FxTimer if a delay is needed in a JavaFx class (gui module)
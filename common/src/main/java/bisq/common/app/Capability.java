@@ -40,5 +40,7 @@ public enum Capability {
     SIGNED_ACCOUNT_AGE_WITNESS,         // Supports the signed account age witness feature
     MEDIATION,                          // Supports mediation feature
     REFUND_AGENT,                       // Supports refund agents
-    TRADE_STATISTICS_HASH_UPDATE        // We changed the hash method in 1.2.0 and that requires update to 1.2.2 for handling it correctly, otherwise the seed nodes have to process too much data.
+    TRADE_STATISTICS_HASH_UPDATE,       // We changed the hash method in 1.2.0 and that requires update to 1.2.2 for handling it correctly, otherwise the seed nodes have to process too much data.
+    GET_DATA_KEY_BLOOM_FILTER,          // Supports a bloom filter instead of the list of excluded keys in GetDataRequests
+    GET_DATA_RESPONSE_CHUNKS            // Supports receiving the GetDataResponse as sequence of acknowledged chunks
 }
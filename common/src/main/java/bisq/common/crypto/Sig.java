@@ -51,6 +51,10 @@ public class Sig {
     public static final String KEY_ALGO = "DSA";
     private static final String ALGO = "SHA256withDSA";
 
+    // Looking up a Signature instance is expensive and they are not thread safe, so we keep one per thread for
+    // verification. initVerify resets the state of a previous use.
+    private static final ThreadLocal<Signature> verifySignature = new ThreadLocal<>();
+
 
     /**
      * @return keyPair
@@ -104,7 +108,7 @@ public class Sig {
      */
     public static boolean verify(PublicKey publicKey, byte[] data, byte[] signature) throws CryptoException {
         try {
-            Signature sig = Signature.getInstance(ALGO);
+            Signature sig = getVerifySignature();
             sig.initVerify(publicKey);
             sig.update(data);
             return sig.verify(signature);
@@ -113,6 +117,15 @@ public class Sig {
         }
     }
 
+    private static Signature getVerifySignature() throws NoSuchAlgorithmException {
+        Signature sig = verifySignature.get();
+        if (sig == null) {
+            sig = Signature.getInstance(ALGO);
+            verifySignature.set(sig);
+        }
+        return sig;
+    }
+
     /**
      * @param publicKey
      * @param message   UTF-8 encoded message
@@ -0,0 +1,48 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.common.metrics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * A value which is read from the supplier only when the metrics are scraped, so it does not cost anything in between.
+ * The supplier is called from the thread serving the scrape request and must be thread safe.
+ */
+public class Gauge extends Metric {
+    private final LongSupplier supplier;
+
+    Gauge(String name, String help, String labels, LongSupplier supplier) {
+        super(name, help, labels);
+        this.supplier = supplier;
+    }
+
+    public long get() {
+        return supplier.getAsLong();
+    }
+
+    @Override
+    String getType() {
+        return "gauge";
+    }
+
+    @Override
+    void writeSamples(StringBuilder out) {
+        writeSample(out, "", "", String.valueOf(get()));
+    }
+}
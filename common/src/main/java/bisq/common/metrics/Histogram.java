@@ -0,0 +1,85 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.common.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts observations in buckets with fixed upper bounds. Observations are lock-free and do not allocate; the
+ * cumulative bucket counts are only computed when the metrics are scraped.
+ */
+public class Histogram extends Metric {
+    private final double[] upperBounds;
+    // One counter per bucket and a last one for the observations above the largest bound
+    private final LongAdder[] bucketCounts;
+    private final DoubleAdder sum = new DoubleAdder();
+
+    Histogram(String name, String help, String labels, double[] upperBounds) {
+        super(name, help, labels);
+        this.upperBounds = upperBounds.clone();
+        bucketCounts = new LongAdder[upperBounds.length + 1];
+        for (int i = 0; i < bucketCounts.length; i++)
+            bucketCounts[i] = new LongAdder();
+    }
+
+    public void observe(double value) {
+        int bucket = 0;
+        while (bucket < upperBounds.length && value > upperBounds[bucket])
+            bucket++;
+        bucketCounts[bucket].increment();
+        sum.add(value);
+    }
+
+    /**
+     * Observes the time in seconds since startNanos, which has to be a value of {@link System#nanoTime()}.
+     */
+    public void observeNanosSince(long startNanos) {
+        observe((double) (System.nanoTime() - startNanos) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucketCount : bucketCounts)
+            count += bucketCount.sum();
+        return count;
+    }
+
+    public double getSum() {
+        return sum.sum();
+    }
+
+    @Override
+    String getType() {
+        return "histogram";
+    }
+
+    @Override
+    void writeSamples(StringBuilder out) {
+        long cumulativeCount = 0;
+        for (int i = 0; i < bucketCounts.length; i++) {
+            cumulativeCount += bucketCounts[i].sum();
+            double upperBound = i < upperBounds.length ? upperBounds[i] : Double.POSITIVE_INFINITY;
+            writeSample(out, "_bucket", "le=\"" + format(upperBound) + "\"", String.valueOf(cumulativeCount));
+        }
+        writeSample(out, "_sum", "", format(getSum()));
+        writeSample(out, "_count", "", String.valueOf(cumulativeCount));
+    }
+}
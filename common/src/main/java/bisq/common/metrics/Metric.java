@@ -0,0 +1,64 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.common.metrics;
+
+import lombok.Getter;
+
+/**
+ * Base class of the metrics in the {@link Metrics} registry. Subclasses write their samples in the Prometheus text
+ * exposition format.
+ */
+public abstract class Metric {
+    @Getter
+    private final String name;
+    @Getter
+    private final String help;
+    // Formatted label pairs without braces, e.g. map="protected". Empty if the metric has no labels.
+    @Getter
+    private final String labels;
+
+    Metric(String name, String help, String labels) {
+        this.name = name;
+        this.help = help;
+        this.labels = labels;
+    }
+
+    abstract String getType();
+
+    abstract void writeSamples(StringBuilder out);
+
+    void writeSample(StringBuilder out, String suffix, String extraLabel, String value) {
+        out.append(name).append(suffix);
+        if (!labels.isEmpty() || !extraLabel.isEmpty()) {
+            out.append('{').append(labels);
+            if (!labels.isEmpty() && !extraLabel.isEmpty())
+                out.append(',');
+            out.append(extraLabel).append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+
+    static String format(double value) {
+        if (value == Double.POSITIVE_INFINITY)
+            return "+Inf";
+        if (value == Math.rint(value) && Math.abs(value) < 1e15)
+            return String.valueOf((long) value);
+        return String.valueOf(value);
+    }
+}
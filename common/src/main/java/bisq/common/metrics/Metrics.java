@@ -0,0 +1,131 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.common.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * In-process registry of node-internal metrics which can be scraped in the Prometheus text format (see
+ * {@link MetricsServer}).
+ * <p>
+ * Metrics are created once, usually as static fields, and then updated on the hot path without locking. A metric is
+ * identified by its name and its labels, which are passed as name/value pairs, e.g.
+ * <code>Metrics.counter("bisq_p2p_storage_added_total", "...", "map", "protected")</code>. Requesting the same
+ * metric twice returns the same instance.
+ */
+public class Metrics {
+    // In seconds
+    public static final double[] DURATION_BUCKETS = {0.0001, 0.0005, 0.001, 0.005, 0.01, 0.05, 0.1, 0.5, 1, 5, 10, 60};
+    // In bytes
+    public static final double[] SIZE_BUCKETS = {100, 1_000, 10_000, 100_000, 1_000_000, 10_000_000};
+
+    private static final Map<String, Metric> metricsByKey = new ConcurrentHashMap<>();
+
+    public static Counter counter(String name, String help, String... labelNamesAndValues) {
+        return getOrCreate(Counter.class, name, labelNamesAndValues,
+                labels -> new Counter(name, help, labels));
+    }
+
+    public static Histogram histogram(String name, String help, double[] upperBounds, String... labelNamesAndValues) {
+        return getOrCreate(Histogram.class, name, labelNamesAndValues,
+                labels -> new Histogram(name, help, labels, upperBounds));
+    }
+
+    /**
+     * Registers a gauge. An already registered gauge with the same name and labels is replaced, so a new instance of
+     * the measured object can take over the gauge.
+     */
+    public static Gauge gauge(String name, String help, LongSupplier supplier, String... labelNamesAndValues) {
+        String labels = formatLabels(labelNamesAndValues);
+        Gauge gauge = new Gauge(name, help, labels, supplier);
+        Metric previous = metricsByKey.put(getKey(name, labels), gauge);
+        checkArgument(previous == null || previous instanceof Gauge,
+                "Metric %s is already registered with another type", name);
+        return gauge;
+    }
+
+    /**
+     * @return all metrics in the Prometheus text exposition format (version 0.0.4)
+     */
+    public static String scrape() {
+        List<Metric> metrics = new ArrayList<>(metricsByKey.values());
+        metrics.sort(Comparator.comparing(Metric::getName).thenComparing(Metric::getLabels));
+
+        StringBuilder out = new StringBuilder();
+        String previousName = null;
+        for (Metric metric : metrics) {
+            if (!metric.getName().equals(previousName)) {
+                out.append("# HELP ").append(metric.getName()).append(' ').append(escapeHelp(metric.getHelp())).append('\n');
+                out.append("# TYPE ").append(metric.getName()).append(' ').append(metric.getType()).append('\n');
+                previousName = metric.getName();
+            }
+            metric.writeSamples(out);
+        }
+        return out.toString();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static <T extends Metric> T getOrCreate(Class<T> type,
+                                                    String name,
+                                                    String[] labelNamesAndValues,
+                                                    Function<String, T> factory) {
+        String labels = formatLabels(labelNamesAndValues);
+        Metric metric = metricsByKey.computeIfAbsent(getKey(name, labels), key -> factory.apply(labels));
+        checkArgument(type.isInstance(metric), "Metric %s is already registered with another type", name);
+        return type.cast(metric);
+    }
+
+    private static String getKey(String name, String labels) {
+        return name + "{" + labels + "}";
+    }
+
+    private static String formatLabels(String[] labelNamesAndValues) {
+        checkArgument(labelNamesAndValues.length % 2 == 0, "Labels must be passed as name/value pairs");
+        StringBuilder labels = new StringBuilder();
+        for (int i = 0; i < labelNamesAndValues.length; i += 2) {
+            if (labels.length() > 0)
+                labels.append(',');
+            labels.append(labelNamesAndValues[i])
+                    .append("=\"")
+                    .append(escapeLabelValue(labelNamesAndValues[i + 1]))
+                    .append('"');
+        }
+        return labels.toString();
+    }
+
+    private static String escapeLabelValue(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String escapeHelp(String help) {
+        return help.replace("\\", "\\\\").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.common.metrics;
+
+import bisq.common.util.Utilities;
+
+import com.sun.net.httpserver.HttpServer;
+
+import com.google.common.base.Charsets;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import java.util.concurrent.ExecutorService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serves the {@link Metrics} at http://127.0.0.1:port/metrics for a Prometheus scraper. The server only binds to the
+ * loopback interface; expose it with a reverse proxy or ssh tunnel if it needs to be scraped from another host.
+ */
+@Slf4j
+public class MetricsServer {
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static HttpServer server;
+    private static ExecutorService executor;
+
+    public static synchronized void start(int port) throws IOException {
+        if (server != null)
+            return;
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/metrics", exchange -> {
+            try {
+                byte[] response = Metrics.scrape().getBytes(Charsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+                exchange.sendResponseHeaders(200, response.length);
+                try (OutputStream outputStream = exchange.getResponseBody()) {
+                    outputStream.write(response);
+                }
+            } finally {
+                exchange.close();
+            }
+        });
+        executor = Utilities.getSingleThreadExecutor("MetricsServer");
+        server.setExecutor(executor);
+        server.start();
+        log.info("Metrics are served at http://127.0.0.1:{}/metrics", server.getAddress().getPort());
+    }
+
+    public static synchronized void stop() {
+        if (server == null)
+            return;
+
+        server.stop(0);
+        executor.shutdownNow();
+        server = null;
+        executor = null;
+    }
+
+    // Useful if the server got started with port 0
+    public static synchronized int getPort() {
+        return server != null ? server.getAddress().getPort() : -1;
+    }
+}
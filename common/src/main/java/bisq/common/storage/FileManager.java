@@ -18,6 +18,8 @@
 package bisq.common.storage;
 
 import bisq.common.UserThread;
+import bisq.common.metrics.Histogram;
+import bisq.common.metrics.Metrics;
 import bisq.common.proto.persistable.PersistableEnvelope;
 import bisq.common.proto.persistable.PersistenceProtoResolver;
 import bisq.common.util.Utilities;
@@ -51,6 +53,7 @@ public class FileManager<T extends PersistableEnvelope> {
     private final Callable<Void> saveFileTask;
     private T persistable;
     private final PersistenceProtoResolver persistenceProtoResolver;
+    private final Histogram saveDuration;
     private final ReentrantLock writeLock = CycleDetectingLockFactory.newInstance(CycleDetectingLockFactory.Policies.THROW).newReentrantLock("writeLock");
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -61,6 +64,8 @@ public class FileManager<T extends PersistableEnvelope> {
         this.dir = dir;
         this.storageFile = storageFile;
         this.persistenceProtoResolver = persistenceProtoResolver;
+        saveDuration = Metrics.histogram("bisq_storage_save_duration_seconds",
+                "Time for writing a persisted file", Metrics.DURATION_BUCKETS, "file", storageFile.getName());
 
         executor = Utilities.getScheduledThreadPoolExecutor("FileManager", 1, 10, 5);
 
@@ -98,9 +103,11 @@ public class FileManager<T extends PersistableEnvelope> {
 
     /**
      * Actually write the wallet file to disk, using an atomic rename when possible. Runs on the current thread.
+     *
+     * @return true if the file was written successfully
      */
-    public void saveNow(T persistable) {
-        saveNowInternal(persistable);
+    public boolean saveNow(T persistable) {
+        return saveNowInternal(persistable);
     }
 
     /**
@@ -187,13 +194,15 @@ public class FileManager<T extends PersistableEnvelope> {
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private void saveNowInternal(T persistable) {
-        long now = System.currentTimeMillis();
-        saveToFile(persistable, dir, storageFile);
-        log.debug("Save {} completed in {} msec", storageFile, System.currentTimeMillis() - now);
+    private boolean saveNowInternal(T persistable) {
+        long startNanos = System.nanoTime();
+        boolean success = saveToFile(persistable, dir, storageFile);
+        saveDuration.observeNanosSince(startNanos);
+        log.debug("Save {} completed in {} msec", storageFile, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        return success;
     }
 
-    private synchronized void saveToFile(T persistable, File dir, File storageFile) {
+    private synchronized boolean saveToFile(T persistable, File dir, File storageFile) {
         File tempFile = null;
         FileOutputStream fileOutputStream = null;
         PrintWriter printWriter = null;
@@ -232,8 +241,10 @@ public class FileManager<T extends PersistableEnvelope> {
             // when rename temp file
             fileOutputStream.close();
             FileUtil.renameFile(tempFile, storageFile);
+            return true;
         } catch (Throwable t) {
             log.error("Error at saveToFile, storageFile=" + storageFile.toString(), t);
+            return false;
         } finally {
             if (writeLock.isLocked())
                 writeLock.unlock();
@@ -17,7 +17,7 @@
 
 package bisq.common.storage;
 
-import bisq.common.UserThread;
+import bisq.common.crypto.Hash;
 import bisq.common.util.Utilities;
 
 import java.nio.file.Paths;
@@ -25,15 +25,44 @@ import java.nio.file.Paths;
 import java.io.File;
 import java.io.PrintWriter;
 
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Writes json files on a background executor.
+ * <p>
+ * Writes to the same file are coalesced: if a file is written again before the previous write was executed only the
+ * latest content gets written. Files are only rewritten if their content has changed since the last write. We keep
+ * the content hashes of the MAX_CONTENT_HASHES most recently written files for that check.
+ * <p>
+ * The owner has to call shutDown at application shut down.
+ */
 @Slf4j
 public class JsonFileManager {
-    private final ThreadPoolExecutor executor = Utilities.getThreadPoolExecutor("saveToDiscExecutor", 5, 50, 60);
+    private static final int MAX_CONTENT_HASHES = 100_000;
+
+    // The queue must not reject tasks. A rejected task would leave its pending entry behind and the file would never
+    // get written again.
+    private final ExecutorService executor = Utilities.getFixedThreadPoolExecutor("saveToDiscExecutor", 5);
     private final File dir;
+    // Latest not yet written content by file name. An entry exists as long as a write for that file is scheduled or
+    // running.
+    private final Map<String, String> pendingContentByFileName = new ConcurrentHashMap<>();
+    private final Map<String, byte[]> writtenContentHashByFileName = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+                    return size() > MAX_CONTENT_HASHES;
+                }
+            });
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -46,10 +75,6 @@ public class JsonFileManager {
         if (!dir.exists())
             if (!dir.mkdir())
                 log.warn("make dir failed");
-
-        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            UserThread.execute(JsonFileManager.this::shutDown);
-        }, "WriteOnlyFileManager.ShutDownHook"));
     }
 
     public void shutDown() {
@@ -59,42 +84,68 @@ public class JsonFileManager {
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
+        writtenContentHashByFileName.clear();
     }
 
     public void writeToDisc(String json, String fileName) {
-        executor.execute(() -> {
-            File jsonFile = new File(Paths.get(dir.getAbsolutePath(), fileName + ".json").toString());
-            File tempFile = null;
-            PrintWriter printWriter = null;
+        if (pendingContentByFileName.put(fileName, json) == null) {
             try {
-                tempFile = File.createTempFile("temp", null, dir);
-                if (!executor.isShutdown() && !executor.isTerminated() && !executor.isTerminating())
-                    tempFile.deleteOnExit();
-
-                printWriter = new PrintWriter(tempFile);
-                printWriter.println(json);
-
-                // This close call and comment is borrowed from FileManager. Not 100% sure it that is really needed but
-                // seems that had fixed in the past and we got reported issues on Windows so that fix might be still
-                // required.
-                // Close resources before replacing file with temp file because otherwise it causes problems on windows
-                // when rename temp file
-                printWriter.close();
+                executor.execute(() -> writePendingContent(fileName));
+            } catch (RejectedExecutionException e) {
+                // Only happens after shutDown
+                pendingContentByFileName.remove(fileName);
+                log.warn("We could not write {} as we got shut down already.", fileName);
+            }
+        }
+    }
 
-                FileUtil.renameFile(tempFile, jsonFile);
-            } catch (Throwable t) {
-                log.error("storageFile " + jsonFile.toString());
-                t.printStackTrace();
-            } finally {
-                if (tempFile != null && tempFile.exists()) {
-                    log.warn("Temp file still exists after failed save. We will delete it now. storageFile=" + fileName);
-                    if (!tempFile.delete())
-                        log.error("Cannot delete temp file.");
-                }
+    // Only one task per file is scheduled or running at a time, so writes to the same file are never executed
+    // concurrently. If new content was set while we were writing we write again.
+    private void writePendingContent(String fileName) {
+        String json;
+        do {
+            json = pendingContentByFileName.get(fileName);
+            write(json, fileName);
+        } while (!pendingContentByFileName.remove(fileName, json));
+    }
 
-                if (printWriter != null)
-                    printWriter.close();
+    private void write(String json, String fileName) {
+        byte[] contentHash = Hash.getSha256Hash(json);
+        if (Arrays.equals(contentHash, writtenContentHashByFileName.get(fileName)))
+            return;
+
+        File jsonFile = new File(Paths.get(dir.getAbsolutePath(), fileName + ".json").toString());
+        File tempFile = null;
+        PrintWriter printWriter = null;
+        try {
+            tempFile = File.createTempFile("temp", null, dir);
+            if (!executor.isShutdown())
+                tempFile.deleteOnExit();
+
+            printWriter = new PrintWriter(tempFile);
+            printWriter.println(json);
+
+            // This close call and comment is borrowed from FileManager. Not 100% sure it that is really needed but
+            // seems that had fixed in the past and we got reported issues on Windows so that fix might be still
+            // required.
+            // Close resources before replacing file with temp file because otherwise it causes problems on windows
+            // when rename temp file
+            printWriter.close();
+
+            FileUtil.renameFile(tempFile, jsonFile);
+            writtenContentHashByFileName.put(fileName, contentHash);
+        } catch (Throwable t) {
+            log.error("storageFile " + jsonFile.toString());
+            t.printStackTrace();
+        } finally {
+            if (tempFile != null && tempFile.exists()) {
+                log.warn("Temp file still exists after failed save. We will delete it now. storageFile=" + fileName);
+                if (!tempFile.delete())
+                    log.error("Cannot delete temp file.");
             }
-        });
+
+            if (printWriter != null)
+                printWriter.close();
+        }
     }
 }
@@ -0,0 +1,182 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.common.storage;
+
+import bisq.common.util.Utilities;
+
+import java.nio.charset.StandardCharsets;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Appends objects as json lines (newline delimited json) to segment files named fileName_000000.ndjson,
+ * fileName_000001.ndjson,... A new segment is started after MAX_LINES_PER_SEGMENT lines, so a consumer only needs to
+ * read the last segment to pick up new entries.
+ * <p>
+ * Appended objects are collected, serialized and written in one batch after WRITE_DELAY_MS on a background thread,
+ * so they must not be changed afterwards. Existing segments are deleted at construction and at reset as the caller
+ * is expected to append all entries again.
+ * <p>
+ * The owner has to call shutDown at application shut down to write the pending lines.
+ */
+@Slf4j
+public class NdjsonFileManager {
+    private static final long WRITE_DELAY_MS = 1000;
+    private static final int MAX_LINES_PER_SEGMENT = 10_000;
+
+    private final File dir;
+    private final String fileName;
+    private final ScheduledThreadPoolExecutor executor;
+    private final ConcurrentLinkedQueue<Object> pendingObjects = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean writePending = new AtomicBoolean();
+    private int segmentIndex;
+    private int numLinesInSegment;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public NdjsonFileManager(File dir, String fileName) {
+        this.dir = dir;
+        this.fileName = fileName;
+
+        if (!dir.exists() && !dir.mkdirs())
+            log.warn("make dir failed");
+
+        executor = Utilities.getScheduledThreadPoolExecutor("NdjsonFileManager-" + fileName, 1, 1, 5);
+        executor.execute(this::deleteSegments);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public void append(Object object) {
+        pendingObjects.add(object);
+        scheduleWrite();
+    }
+
+    public void append(Collection<?> objects) {
+        if (objects.isEmpty())
+            return;
+
+        pendingObjects.addAll(objects);
+        scheduleWrite();
+    }
+
+    // Deletes all segments. Lines which have been appended before but are not written yet get discarded.
+    public void reset() {
+        pendingObjects.clear();
+        executor.execute(this::deleteSegments);
+    }
+
+    public void shutDown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Write what is left in case the scheduled write did not run anymore
+        write();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void scheduleWrite() {
+        if (writePending.getAndSet(true))
+            return;   // Already pending. Lines will be written with the next batch.
+
+        executor.schedule(() -> {
+            try {
+                write();
+            } catch (Throwable t) {
+                log.error("Error at writing " + fileName, t);
+            }
+        }, WRITE_DELAY_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void write() {
+        writePending.set(false);
+        List<String> lines = new ArrayList<>();
+        Object object;
+        while ((object = pendingObjects.poll()) != null) {
+            lines.add(Utilities.objectToCompactJson(object));
+        }
+
+        int index = 0;
+        while (index < lines.size()) {
+            if (numLinesInSegment >= MAX_LINES_PER_SEGMENT) {
+                segmentIndex++;
+                numLinesInSegment = 0;
+            }
+
+            int toIndex = Math.min(lines.size(), index + MAX_LINES_PER_SEGMENT - numLinesInSegment);
+            File segment = getSegment(segmentIndex);
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(segment, true),
+                    StandardCharsets.UTF_8))) {
+                for (String json : lines.subList(index, toIndex)) {
+                    writer.write(json);
+                    writer.write('\n');
+                }
+            } catch (IOException e) {
+                log.error("Could not write {} lines to {}. {}", toIndex - index, segment, e.toString());
+                return;
+            }
+            numLinesInSegment += toIndex - index;
+            index = toIndex;
+        }
+    }
+
+    private synchronized void deleteSegments() {
+        File[] segments = dir.listFiles((file, name) -> name.startsWith(fileName + "_") && name.endsWith(".ndjson"));
+        if (segments != null) {
+            for (File segment : segments) {
+                if (!segment.delete())
+                    log.warn("Could not delete {}", segment);
+            }
+        }
+        segmentIndex = 0;
+        numLinesInSegment = 0;
+    }
+
+    private File getSegment(int index) {
+        return new File(dir, String.format("%s_%06d.ndjson", fileName, index));
+    }
+}
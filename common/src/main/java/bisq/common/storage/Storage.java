@@ -131,6 +131,12 @@ public class Storage<T extends PersistableEnvelope> {
         }
     }
 
+    // Save immediately on the calling thread. Returns true if the file was written successfully.
+    public boolean saveNow(T persistable) {
+        checkNotNull(storageFile, "storageFile = null. Call setupFileStorage before using read/write.");
+        return fileManager.saveNow(persistable);
+    }
+
     public void remove(String fileName) {
         fileManager.removeFile(fileName);
     }
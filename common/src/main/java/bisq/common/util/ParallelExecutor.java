@@ -0,0 +1,48 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.common.util;
+
+import com.google.common.util.concurrent.ListeningExecutorService;
+
+/**
+ * Shared worker pool for CPU bound work which we split up into batches, like verifying signatures or decrypting
+ * messages. It uses one thread less than the number of available processors so the user thread keeps a core.
+ * <p>
+ * The threads are daemon threads and the pool lives as long as the application, so it must not be shut down by its
+ * users.
+ */
+public class ParallelExecutor {
+    private static final int NUM_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    private static final ListeningExecutorService EXECUTOR =
+            Utilities.getFixedThreadPoolExecutor("ParallelExecutor", NUM_THREADS);
+
+    public static ListeningExecutorService getExecutor() {
+        return EXECUTOR;
+    }
+
+    public static int getNumThreads() {
+        return NUM_THREADS;
+    }
+
+    // Returns the batch size for splitting numItems items into one batch per thread. Batches have at least
+    // minBatchSize items so the overhead of a task does not exceed the work for small inputs.
+    public static int getBatchSize(int numItems, int minBatchSize) {
+        return Math.max(Math.max(1, minBatchSize), (numItems + NUM_THREADS - 1) / NUM_THREADS);
+    }
+}
@@ -89,6 +89,14 @@ public class Utilities {
         return gson.toJson(object);
     }
 
+    // Same as objectToJson but without line breaks, so the result can be used as a line of a newline delimited json file
+    public static String objectToCompactJson(Object object) {
+        Gson gson = new GsonBuilder()
+                .setExclusionStrategies(new AnnotationExclusionStrategy())
+                .create();
+        return gson.toJson(object);
+    }
+
     public static ListeningExecutorService getSingleThreadExecutor(String name) {
         final ThreadFactory threadFactory = new ThreadFactoryBuilder()
                 .setNameFormat(name)
@@ -104,6 +112,15 @@ public class Utilities {
         return MoreExecutors.listeningDecorator(getThreadPoolExecutor(name, corePoolSize, maximumPoolSize, keepAliveTimeInSec));
     }
 
+    // In contrast to getListeningExecutorService the tasks are queued in an unbounded queue and never get rejected.
+    public static ListeningExecutorService getFixedThreadPoolExecutor(String name, int numThreads) {
+        final ThreadFactory threadFactory = new ThreadFactoryBuilder()
+                .setNameFormat(name + "-%d")
+                .setDaemon(true)
+                .build();
+        return MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(numThreads, threadFactory));
+    }
+
     public static ThreadPoolExecutor getThreadPoolExecutor(String name,
                                                            int corePoolSize,
                                                            int maximumPoolSize,
@@ -0,0 +1,167 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common;
+
+import java.time.Duration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class TimingWheelTimerTest {
+    private static final Logger log = LoggerFactory.getLogger(TimingWheelTimerTest.class);
+    private static final long TICK_MS = 100;
+
+    private AtomicLong now;
+    private TimingWheel wheel;
+
+    @Before
+    public void setUp() {
+        now = new AtomicLong(1_000_000);
+        wheel = new TimingWheel(TICK_MS, 8, now::get);
+    }
+
+    @Test
+    public void testRunLater() {
+        AtomicInteger counter = new AtomicInteger();
+        new TimingWheelTimer(wheel).runLater(Duration.ofMillis(250), counter::incrementAndGet);
+
+        advance(200);
+        assertEquals(0, counter.get());
+        advance(100);
+        assertEquals(1, counter.get());
+        advance(10_000);
+        assertEquals(1, counter.get());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testDelayLongerThanOneRotation() {
+        AtomicInteger counter = new AtomicInteger();
+        // 8 buckets of 100 ms, so the timer has to survive 2 rotations
+        new TimingWheelTimer(wheel).runLater(Duration.ofMillis(2_000), counter::incrementAndGet);
+
+        advance(1_900);
+        assertEquals(0, counter.get());
+        advance(100);
+        assertEquals(1, counter.get());
+    }
+
+    @Test
+    public void testStop() {
+        AtomicInteger counter = new AtomicInteger();
+        Timer timer = new TimingWheelTimer(wheel).runLater(Duration.ofMillis(300), counter::incrementAndGet);
+        new TimingWheelTimer(wheel).runLater(Duration.ofMillis(300), counter::incrementAndGet);
+        assertEquals(2, wheel.size());
+
+        timer.stop();
+        assertEquals(1, wheel.size());
+        advance(1_000);
+        assertEquals(1, counter.get());
+    }
+
+    @Test
+    public void testRunPeriodically() {
+        AtomicInteger counter = new AtomicInteger();
+        Timer timer = new TimingWheelTimer(wheel).runPeriodically(Duration.ofMillis(300), counter::incrementAndGet);
+
+        for (int i = 0; i < 10; i++) {
+            advance(100);
+        }
+        assertEquals(3, counter.get());
+
+        timer.stop();
+        advance(1_000);
+        assertEquals(3, counter.get());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testExceptionStopsOnlyFailingTimer() {
+        AtomicInteger counter = new AtomicInteger();
+        new TimingWheelTimer(wheel).runPeriodically(Duration.ofMillis(100), () -> {
+            throw new RuntimeException("test");
+        });
+        new TimingWheelTimer(wheel).runPeriodically(Duration.ofMillis(100), counter::incrementAndGet);
+
+        advance(100);
+        advance(100);
+        assertEquals(2, counter.get());
+        assertEquals(1, wheel.size());
+    }
+
+    // Compares the cost of starting and stopping timers and of processing one frame with many pending timers.
+    // Results on a single core VM with 20000 timers:
+    // FrameRateTimer: start 2017 ms, frame 5 ms, stop 202 ms
+    // TimingWheelTimer: start 18 ms, frame 0 ms, stop 10 ms
+    @Ignore("Benchmark")
+    @Test
+    public void benchmarkAgainstFrameRateTimer() {
+        int numTimers = 20_000;
+        Runnable noOp = () -> {
+        };
+
+        long ts = System.currentTimeMillis();
+        List<FrameRateTimer> frameRateTimers = new ArrayList<>();
+        for (int i = 0; i < numTimers; i++) {
+            FrameRateTimer timer = new FrameRateTimer();
+            timer.runLater(Duration.ofMinutes(10), noOp);
+            frameRateTimers.add(timer);
+        }
+        long startDuration = System.currentTimeMillis() - ts;
+        ts = System.currentTimeMillis();
+        // That is what the MasterTimer does at each frame
+        frameRateTimers.forEach(FrameRateTimer::run);
+        long frameDuration = System.currentTimeMillis() - ts;
+        ts = System.currentTimeMillis();
+        frameRateTimers.forEach(FrameRateTimer::stop);
+        log.info("FrameRateTimer: start {} ms, frame {} ms, stop {} ms",
+                startDuration, frameDuration, System.currentTimeMillis() - ts);
+
+        ts = System.currentTimeMillis();
+        List<TimingWheelTimer> timingWheelTimers = new ArrayList<>();
+        for (int i = 0; i < numTimers; i++) {
+            TimingWheelTimer timer = new TimingWheelTimer(wheel);
+            timer.runLater(Duration.ofMinutes(10), noOp);
+            timingWheelTimers.add(timer);
+        }
+        startDuration = System.currentTimeMillis() - ts;
+        ts = System.currentTimeMillis();
+        advance(TICK_MS);
+        frameDuration = System.currentTimeMillis() - ts;
+        ts = System.currentTimeMillis();
+        timingWheelTimers.forEach(TimingWheelTimer::stop);
+        log.info("TimingWheelTimer: start {} ms, frame {} ms, stop {} ms",
+                startDuration, frameDuration, System.currentTimeMillis() - ts);
+    }
+
+    private void advance(long ms) {
+        now.addAndGet(ms);
+        wheel.advance();
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.common.metrics;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.ByteStreams;
+
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class MetricsTest {
+
+    @Test
+    public void testCounterIsRegisteredOncePerLabels() {
+        Counter counter = Metrics.counter("test_counter_total", "Test counter", "map", "a");
+        counter.inc();
+        Metrics.counter("test_counter_total", "Test counter", "map", "a").inc(2);
+        Metrics.counter("test_counter_total", "Test counter", "map", "b").inc();
+
+        assertSame(counter, Metrics.counter("test_counter_total", "Test counter", "map", "a"));
+        assertEquals(3, counter.get());
+
+        String scrape = Metrics.scrape();
+        assertTrue(scrape.contains("# HELP test_counter_total Test counter\n" +
+                "# TYPE test_counter_total counter\n" +
+                "test_counter_total{map=\"a\"} 3\n" +
+                "test_counter_total{map=\"b\"} 1\n"));
+    }
+
+    @Test
+    public void testHistogramBucketsAreCumulative() {
+        Histogram histogram = Metrics.histogram("test_size_bytes", "Test histogram", new double[]{10, 100});
+        histogram.observe(5);
+        histogram.observe(10);
+        histogram.observe(50);
+        histogram.observe(500);
+
+        assertEquals(4, histogram.getCount());
+        assertEquals(565, histogram.getSum(), 0);
+        assertTrue(Metrics.scrape().contains("# TYPE test_size_bytes histogram\n" +
+                "test_size_bytes_bucket{le=\"10\"} 2\n" +
+                "test_size_bytes_bucket{le=\"100\"} 3\n" +
+                "test_size_bytes_bucket{le=\"+Inf\"} 4\n" +
+                "test_size_bytes_sum 565\n" +
+                "test_size_bytes_count 4\n"));
+    }
+
+    @Test
+    public void testGaugeIsReadAtScrape() {
+        AtomicLong value = new AtomicLong(1);
+        Metrics.gauge("test_gauge", "Test gauge", value::get, "name", "quote\"d");
+        value.set(42);
+
+        assertTrue(Metrics.scrape().contains("test_gauge{name=\"quote\\\"d\"} 42\n"));
+    }
+
+    @Test
+    public void testMetricsServer() throws IOException {
+        Metrics.counter("test_served_total", "Test counter").inc();
+        MetricsServer.start(0);
+        try {
+            URL url = new URL("http://127.0.0.1:" + MetricsServer.getPort() + "/metrics");
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            assertEquals(200, connection.getResponseCode());
+            assertTrue(connection.getContentType().startsWith("text/plain; version=0.0.4"));
+            try (InputStream inputStream = connection.getInputStream()) {
+                String body = new String(ByteStreams.toByteArray(inputStream), Charsets.UTF_8);
+                assertTrue(body.contains("test_served_total 1\n"));
+            }
+        } finally {
+            MetricsServer.stop();
+        }
+    }
+}
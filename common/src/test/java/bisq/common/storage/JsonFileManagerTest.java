@@ -0,0 +1,77 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.storage;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class JsonFileManagerTest {
+    private File dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("JsonFileManagerTest").toFile();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtil.deleteDirectory(dir);
+    }
+
+    @Test
+    public void testBurstOfWritesToManyFilesIsWritten() throws IOException {
+        JsonFileManager jsonFileManager = new JsonFileManager(dir);
+        int numFiles = 500;
+        for (int i = 0; i < numFiles; i++) {
+            jsonFileManager.writeToDisc("{\"id\":" + i + "}", "file" + i);
+        }
+        // Files of the first burst must not be stuck, so later writes must get written as well
+        for (int i = 0; i < numFiles; i++) {
+            jsonFileManager.writeToDisc("{\"id\":" + i + ",\"updated\":true}", "file" + i);
+        }
+        jsonFileManager.shutDown();
+
+        for (int i = 0; i < numFiles; i++) {
+            List<String> lines = Files.readAllLines(new File(dir, "file" + i + ".json").toPath(), StandardCharsets.UTF_8);
+            assertEquals(List.of("{\"id\":" + i + ",\"updated\":true}"), lines);
+        }
+    }
+
+    @Test
+    public void testLatestContentIsWritten() throws IOException {
+        JsonFileManager jsonFileManager = new JsonFileManager(dir);
+        for (int i = 0; i < 100; i++) {
+            jsonFileManager.writeToDisc("{\"id\":" + i + "}", "file");
+        }
+        jsonFileManager.shutDown();
+
+        List<String> lines = Files.readAllLines(new File(dir, "file.json").toPath(), StandardCharsets.UTF_8);
+        assertEquals(List.of("{\"id\":99}"), lines);
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.common.storage;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class NdjsonFileManagerTest {
+    private File dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("NdjsonFileManagerTest").toFile();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtil.deleteDirectory(dir);
+    }
+
+    @Test
+    public void testAppendedObjectsAreWrittenAsLines() throws IOException {
+        NdjsonFileManager ndjsonFileManager = new NdjsonFileManager(dir, "test");
+        ndjsonFileManager.append(Map.of("id", 1));
+        ndjsonFileManager.append(List.of(Map.of("id", 2), Map.of("id", 3)));
+        ndjsonFileManager.shutDown();
+
+        List<String> lines = Files.readAllLines(new File(dir, "test_000000.ndjson").toPath(), StandardCharsets.UTF_8);
+        assertEquals(List.of("{\"id\":1}", "{\"id\":2}", "{\"id\":3}"), lines);
+    }
+
+    @Test
+    public void testNewSegmentIsStartedWhenSegmentIsFull() throws IOException {
+        NdjsonFileManager ndjsonFileManager = new NdjsonFileManager(dir, "test");
+        List<Integer> objects = new ArrayList<>();
+        for (int i = 0; i < 10_005; i++) {
+            objects.add(i);
+        }
+        ndjsonFileManager.append(objects);
+        ndjsonFileManager.shutDown();
+
+        assertEquals(10_000, Files.readAllLines(new File(dir, "test_000000.ndjson").toPath()).size());
+        assertEquals(List.of("10000", "10001", "10002", "10003", "10004"),
+                Files.readAllLines(new File(dir, "test_000001.ndjson").toPath()));
+    }
+
+    @Test
+    public void testExistingSegmentsAreDeleted() throws IOException {
+        NdjsonFileManager ndjsonFileManager = new NdjsonFileManager(dir, "test");
+        ndjsonFileManager.append(1);
+        ndjsonFileManager.shutDown();
+
+        new NdjsonFileManager(dir, "test").shutDown();
+
+        assertFalse(new File(dir, "test_000000.ndjson").exists());
+    }
+}
@@ -39,6 +39,8 @@ import javax.inject.Inject;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Charsets;
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Multiset;
 
 import java.security.PublicKey;
 import java.security.SignatureException;
@@ -46,13 +48,13 @@ import java.security.SignatureException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.Stack;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -68,6 +70,16 @@ public class SignedWitnessService {
     private final User user;
 
     private final Map<P2PDataStorage.ByteArray, SignedWitness> signedWitnessMap = new HashMap<>();
+    // Indexes of the signedWitnessMap by accountAgeWitnessHash and by witnessOwnerPubKey
+    private final Map<P2PDataStorage.ByteArray, Set<SignedWitness>> signedWitnessSetByAccountAgeWitnessHash = new HashMap<>();
+    private final Map<P2PDataStorage.ByteArray, Set<SignedWitness>> signedWitnessSetByOwnerPubKey = new HashMap<>();
+    // Result of verifySignature by SignedWitness hash. The SignedWitness is immutable and the arbitrators' public keys
+    // are a fixed list, so the result cannot change.
+    private final Map<P2PDataStorage.ByteArray, Boolean> verifySignatureCache = new HashMap<>();
+    // Whether there is a valid chain of signers from the SignedWitness up to an arbitrator, by SignedWitness hash.
+    // That does not depend on the time of signing, which is only checked for the SignedWitness itself. A new
+    // SignedWitness can complete a chain, so we remove the negative results when a SignedWitness gets added.
+    private final Map<P2PDataStorage.ByteArray, Boolean> hasValidSignerChainCache = new HashMap<>();
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
@@ -203,11 +215,19 @@ public class SignedWitnessService {
     }
 
     public boolean verifySignature(SignedWitness signedWitness) {
+        P2PDataStorage.ByteArray hash = signedWitness.getHashAsByteArray();
+        Boolean cachedResult = verifySignatureCache.get(hash);
+        if (cachedResult != null)
+            return cachedResult;
+
+        boolean result;
         if (signedWitness.isSignedByArbitrator()) {
-            return verifySignatureWithECKey(signedWitness);
+            result = verifySignatureWithECKey(signedWitness);
         } else {
-            return verifySignatureWithDSAKey(signedWitness);
+            result = verifySignatureWithDSAKey(signedWitness);
         }
+        verifySignatureCache.put(hash, result);
+        return result;
     }
 
     private boolean verifySignatureWithECKey(SignedWitness signedWitness) {
@@ -242,33 +262,30 @@ public class SignedWitnessService {
     }
 
     private Set<SignedWitness> getSignedWitnessSet(AccountAgeWitness accountAgeWitness) {
-        return signedWitnessMap.values().stream()
-                .filter(e -> Arrays.equals(e.getAccountAgeWitnessHash(), accountAgeWitness.getHash()))
-                .collect(Collectors.toSet());
+        return signedWitnessSetByAccountAgeWitnessHash.getOrDefault(new P2PDataStorage.ByteArray(accountAgeWitness.getHash()),
+                Collections.emptySet());
     }
 
     // SignedWitness objects signed by arbitrators
     public Set<SignedWitness> getArbitratorsSignedWitnessSet(AccountAgeWitness accountAgeWitness) {
-        return signedWitnessMap.values().stream()
+        return getSignedWitnessSet(accountAgeWitness).stream()
                 .filter(SignedWitness::isSignedByArbitrator)
-                .filter(e -> Arrays.equals(e.getAccountAgeWitnessHash(), accountAgeWitness.getHash()))
                 .collect(Collectors.toSet());
     }
 
     // SignedWitness objects signed by any other peer
     public Set<SignedWitness> getTrustedPeerSignedWitnessSet(AccountAgeWitness accountAgeWitness) {
-        return signedWitnessMap.values().stream()
+        return getSignedWitnessSet(accountAgeWitness).stream()
                 .filter(e -> !e.isSignedByArbitrator())
-                .filter(e -> Arrays.equals(e.getAccountAgeWitnessHash(), accountAgeWitness.getHash()))
                 .collect(Collectors.toSet());
     }
 
     // We go one level up by using the signer Key to lookup for SignedWitness objects which contain the signerKey as
     // witnessOwnerPubKey
     private Set<SignedWitness> getSignedWitnessSetByOwnerPubKey(byte[] ownerPubKey,
-                                                                Stack<P2PDataStorage.ByteArray> excluded) {
-        return signedWitnessMap.values().stream()
-                .filter(e -> Arrays.equals(e.getWitnessOwnerPubKey(), ownerPubKey))
+                                                                Multiset<P2PDataStorage.ByteArray> excluded) {
+        return signedWitnessSetByOwnerPubKey.getOrDefault(new P2PDataStorage.ByteArray(ownerPubKey), Collections.emptySet())
+                .stream()
                 .filter(e -> !excluded.contains(new P2PDataStorage.ByteArray(e.getSignerPubKey())))
                 .collect(Collectors.toSet());
     }
@@ -290,10 +307,9 @@ public class SignedWitnessService {
      * @return true if accountAgeWitness is allowed to sign at time, false otherwise.
      */
     private boolean isSignerAccountAgeWitness(AccountAgeWitness accountAgeWitness, long time) {
-        Stack<P2PDataStorage.ByteArray> excludedPubKeys = new Stack<>();
         Set<SignedWitness> signedWitnessSet = getSignedWitnessSet(accountAgeWitness);
         for (SignedWitness signedWitness : signedWitnessSet) {
-            if (isValidSignerWitnessInternal(signedWitness, time, excludedPubKeys)) {
+            if (isValidSignerWitness(signedWitness, time)) {
                 return true;
             }
         }
@@ -301,17 +317,42 @@ public class SignedWitnessService {
         return false;
     }
 
+    /**
+     * Same as isValidSignerWitnessInternal with an empty set of excluded keys, but the result of the check of the
+     * signer chain is cached.
+     */
+    private boolean isValidSignerWitness(SignedWitness signedWitness, long time) {
+        if (!verifySignature(signedWitness)) {
+            return false;
+        }
+        if (signedWitness.isSignedByArbitrator()) {
+            return true;
+        }
+        if (!verifyDate(signedWitness, time)) {
+            return false;
+        }
+
+        P2PDataStorage.ByteArray hash = signedWitness.getHashAsByteArray();
+        Boolean cachedResult = hasValidSignerChainCache.get(hash);
+        if (cachedResult != null)
+            return cachedResult;
+
+        boolean result = hasValidSignerChain(signedWitness, HashMultiset.create());
+        hasValidSignerChainCache.put(hash, result);
+        return result;
+    }
+
     /**
      * Helper to isValidAccountAgeWitness(accountAgeWitness)
      *
      * @param signedWitness                the signedWitness to validate
      * @param childSignedWitnessDateMillis the date the child SignedWitness was signed or current time if it is a leave.
-     * @param excludedPubKeys              stack to prevent recursive loops
+     * @param excludedPubKeys              keys of the signers and owners further down the chain to prevent loops
      * @return true if signedWitness is valid, false otherwise.
      */
     private boolean isValidSignerWitnessInternal(SignedWitness signedWitness,
                                                  long childSignedWitnessDateMillis,
-                                                 Stack<P2PDataStorage.ByteArray> excludedPubKeys) {
+                                                 Multiset<P2PDataStorage.ByteArray> excludedPubKeys) {
         if (!verifySignature(signedWitness)) {
             return false;
         }
@@ -322,23 +363,31 @@ public class SignedWitnessService {
             if (!verifyDate(signedWitness, childSignedWitnessDateMillis)) {
                 return false;
             }
-            if (excludedPubKeys.size() >= 2000) {
-                // Prevent DoS attack: an attacker floods the SignedWitness db with a long chain that takes lots of time to verify.
-                return false;
-            }
-            excludedPubKeys.push(new P2PDataStorage.ByteArray(signedWitness.getSignerPubKey()));
-            excludedPubKeys.push(new P2PDataStorage.ByteArray(signedWitness.getWitnessOwnerPubKey()));
-            // Iterate over signedWitness signers
-            Set<SignedWitness> signerSignedWitnessSet = getSignedWitnessSetByOwnerPubKey(signedWitness.getSignerPubKey(), excludedPubKeys);
-            for (SignedWitness signerSignedWitness : signerSignedWitnessSet) {
-                if (isValidSignerWitnessInternal(signerSignedWitness, signedWitness.getDate(), excludedPubKeys)) {
-                    return true;
-                }
+            return hasValidSignerChain(signedWitness, excludedPubKeys);
+        }
+    }
+
+    // Checks whether any of the SignedWitness objects of the signer of signedWitness is a valid signer at the date
+    // signedWitness was signed.
+    private boolean hasValidSignerChain(SignedWitness signedWitness, Multiset<P2PDataStorage.ByteArray> excludedPubKeys) {
+        if (excludedPubKeys.size() >= 2000) {
+            // Prevent DoS attack: an attacker floods the SignedWitness db with a long chain that takes lots of time to verify.
+            return false;
+        }
+        P2PDataStorage.ByteArray signerPubKey = new P2PDataStorage.ByteArray(signedWitness.getSignerPubKey());
+        P2PDataStorage.ByteArray ownerPubKey = new P2PDataStorage.ByteArray(signedWitness.getWitnessOwnerPubKey());
+        excludedPubKeys.add(signerPubKey);
+        excludedPubKeys.add(ownerPubKey);
+        // Iterate over signedWitness signers
+        Set<SignedWitness> signerSignedWitnessSet = getSignedWitnessSetByOwnerPubKey(signedWitness.getSignerPubKey(), excludedPubKeys);
+        for (SignedWitness signerSignedWitness : signerSignedWitnessSet) {
+            if (isValidSignerWitnessInternal(signerSignedWitness, signedWitness.getDate(), excludedPubKeys)) {
+                return true;
             }
-            excludedPubKeys.pop();
-            excludedPubKeys.pop();
         }
-        // If we have not returned in the loops or they have been empty we have not found a valid signer.
+        excludedPubKeys.remove(signerPubKey);
+        excludedPubKeys.remove(ownerPubKey);
+        // If we have not returned in the loop or it has been empty we have not found a valid signer.
         return false;
     }
 
@@ -356,7 +405,17 @@ public class SignedWitnessService {
     @VisibleForTesting
     void addToMap(SignedWitness signedWitness) {
         // TODO: Perhaps filter out all but one signedwitness per accountagewitness
-        signedWitnessMap.putIfAbsent(signedWitness.getHashAsByteArray(), signedWitness);
+        if (signedWitnessMap.putIfAbsent(signedWitness.getHashAsByteArray(), signedWitness) != null)
+            return;
+
+        signedWitnessSetByAccountAgeWitnessHash.computeIfAbsent(
+                new P2PDataStorage.ByteArray(signedWitness.getAccountAgeWitnessHash()), e -> new HashSet<>())
+                .add(signedWitness);
+        signedWitnessSetByOwnerPubKey.computeIfAbsent(
+                new P2PDataStorage.ByteArray(signedWitness.getWitnessOwnerPubKey()), e -> new HashSet<>())
+                .add(signedWitness);
+        // The new SignedWitness might complete a signer chain which was invalid before
+        hasValidSignerChainCache.values().removeIf(hasValidSignerChain -> !hasValidSignerChain);
     }
 
     private void publishSignedWitness(SignedWitness signedWitness) {
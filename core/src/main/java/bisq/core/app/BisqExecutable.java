@@ -25,11 +25,13 @@ import bisq.core.btc.wallet.BtcWalletService;
 import bisq.core.dao.DaoOptionKeys;
 import bisq.core.dao.DaoSetup;
 import bisq.core.exceptions.BisqException;
+import bisq.core.offer.OfferBookService;
 import bisq.core.offer.OpenOfferManager;
 import bisq.core.setup.CorePersistedDataHost;
 import bisq.core.setup.CoreSetup;
 import bisq.core.support.dispute.arbitration.arbitrator.ArbitratorManager;
 import bisq.core.trade.TradeManager;
+import bisq.core.trade.statistics.TradeStatisticsManager;
 
 import bisq.network.NetworkOptionKeys;
 import bisq.network.p2p.P2PService;
@@ -40,6 +42,7 @@ import bisq.common.UserThread;
 import bisq.common.app.AppModule;
 import bisq.common.app.DevEnv;
 import bisq.common.handlers.ResultHandler;
+import bisq.common.metrics.MetricsServer;
 import bisq.common.proto.persistable.PersistedDataHost;
 import bisq.common.setup.GracefulShutDownHandler;
 
@@ -152,6 +155,7 @@ public abstract class BisqExecutable implements GracefulShutDownHandler, BisqSet
 
     protected void doExecute(OptionSet options) {
         setupEnvironment(options);
+        startMetricsServer();
         configUserThread();
         configCoreSetup(options);
         addCapabilities();
@@ -188,6 +192,17 @@ public abstract class BisqExecutable implements GracefulShutDownHandler, BisqSet
         }
     }
 
+    protected void startMetricsServer() {
+        int port = bisqEnvironment.getProperty(CommonOptionKeys.METRICS_PORT, Integer.class, 0);
+        if (port > 0) {
+            try {
+                MetricsServer.start(port);
+            } catch (IOException e) {
+                log.error("Could not start metrics server at port {}. {}", port, e.toString());
+            }
+        }
+    }
+
     protected void configCoreSetup(OptionSet options) {
         CoreSetup.setup(getBisqEnvironment(options));
     }
@@ -280,6 +295,8 @@ public abstract class BisqExecutable implements GracefulShutDownHandler, BisqSet
                 injector.getInstance(ArbitratorManager.class).shutDown();
                 injector.getInstance(TradeManager.class).shutDown();
                 injector.getInstance(DaoSetup.class).shutDown();
+                injector.getInstance(TradeStatisticsManager.class).shutDown();
+                injector.getInstance(OfferBookService.class).shutDown();
                 injector.getInstance(OpenOfferManager.class).shutDown(() -> {
                     log.info("OpenOfferManager shutdown completed");
                     injector.getInstance(P2PService.class).shutDown(() -> {
@@ -347,6 +364,18 @@ public abstract class BisqExecutable implements GracefulShutDownHandler, BisqSet
                 .withRequiredArg()
                 .ofType(boolean.class);
 
+        parser.accepts(NetworkOptionKeys.USE_NIO_TRANSPORT,
+                format("Serve all P2P connections of the localhost network node from a single selector thread " +
+                        "instead of a thread per connection (default: %s)", "false"))
+                .withRequiredArg()
+                .ofType(boolean.class);
+
+        parser.accepts(NetworkOptionKeys.USE_STORE_JOURNAL,
+                format("Append changes of the append-only data stores to a journal instead of rewriting " +
+                        "the whole store file (default: %s)", "false"))
+                .withRequiredArg()
+                .ofType(boolean.class);
+
         parser.accepts(NetworkOptionKeys.MAX_CONNECTIONS,
                 format("Max. connections a peer will try to keep (default: %s)", P2PService.MAX_CONNECTIONS_DEFAULT))
                 .withRequiredArg()
@@ -471,12 +500,24 @@ public abstract class BisqExecutable implements GracefulShutDownHandler, BisqSet
                 .withRequiredArg()
                 .ofType(boolean.class);
 
+        parser.accepts(CommonOptionKeys.METRICS_PORT,
+                format("Port of the local HTTP endpoint (bound to 127.0.0.1) serving the metrics for Prometheus " +
+                        "at /metrics. Disabled if 0 (default: %s)", "0"))
+                .withRequiredArg()
+                .ofType(int.class);
+
         parser.accepts(AppOptionKeys.DUMP_STATISTICS,
                 format("If set to true the trade statistics are stored as json file in the data dir. (default: %s)",
                         "false"))
                 .withRequiredArg()
                 .ofType(boolean.class);
 
+        parser.accepts(AppOptionKeys.DUMP_INCREMENTAL,
+                format("If set to true the trade statistics and blockchain data dumps append new entries to " +
+                        "newline delimited json files instead of rewriting the whole history. (default: %s)", "false"))
+                .withRequiredArg()
+                .ofType(boolean.class);
+
         parser.accepts(AppOptionKeys.PROVIDERS,
                 "Custom providers (comma separated)")
                 .withRequiredArg()
@@ -550,6 +591,12 @@ public abstract class BisqExecutable implements GracefulShutDownHandler, BisqSet
                 "Bitcoind rpc accepted incoming host for block notifications")
                 .withRequiredArg();
 
+        parser.accepts(DaoOptionKeys.RPC_BLOCK_REQUEST_WINDOW,
+                format("Max. number of parallel block requests to Bitcoin Core when a full DAO node " +
+                        "parses blocks in batch (default: %s)", 8))
+                .withRequiredArg()
+                .ofType(int.class);
+
         parser.accepts(DaoOptionKeys.DUMP_BLOCKCHAIN_DATA,
                 format("If set to true the blockchain data from RPC requests to Bitcoin Core are " +
                         "stored as json file in the data dir. (default: %s)", "false"))
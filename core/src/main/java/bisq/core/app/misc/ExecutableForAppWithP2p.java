@@ -23,11 +23,15 @@ import bisq.core.app.BisqExecutable;
 import bisq.core.btc.setup.WalletsSetup;
 import bisq.core.btc.wallet.BsqWalletService;
 import bisq.core.btc.wallet.BtcWalletService;
+import bisq.core.dao.DaoSetup;
+import bisq.core.offer.OfferBookService;
 import bisq.core.offer.OpenOfferManager;
 import bisq.core.support.dispute.arbitration.arbitrator.ArbitratorManager;
+import bisq.core.trade.statistics.TradeStatisticsManager;
 
 import bisq.network.p2p.P2PService;
 
+import bisq.common.TimingWheelTimer;
 import bisq.common.UserThread;
 import bisq.common.handlers.ResultHandler;
 import bisq.common.setup.GracefulShutDownHandler;
@@ -66,6 +70,8 @@ public abstract class ExecutableForAppWithP2p extends BisqExecutable implements
                 .setDaemon(true)
                 .build();
         UserThread.setExecutor(Executors.newSingleThreadExecutor(threadFactory));
+        // Seed nodes run many timers for their connections which are cheaper to manage in a timing wheel
+        UserThread.setTimerClass(TimingWheelTimer.class);
     }
 
     @Override
@@ -80,6 +86,9 @@ public abstract class ExecutableForAppWithP2p extends BisqExecutable implements
         try {
             if (injector != null) {
                 injector.getInstance(ArbitratorManager.class).shutDown();
+                injector.getInstance(DaoSetup.class).shutDown();
+                injector.getInstance(TradeStatisticsManager.class).shutDown();
+                injector.getInstance(OfferBookService.class).shutDown();
                 injector.getInstance(OpenOfferManager.class).shutDown(() -> injector.getInstance(P2PService.class).shutDown(() -> {
                     injector.getInstance(WalletsSetup.class).shutDownComplete.addListener((ov, o, n) -> {
                         module.close(injector);
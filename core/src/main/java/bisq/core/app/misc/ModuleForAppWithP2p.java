@@ -94,6 +94,9 @@ public class ModuleForAppWithP2p extends AppModule {
         String referralId = environment.getProperty(AppOptionKeys.REFERRAL_ID, String.class, "");
         bind(String.class).annotatedWith(Names.named(AppOptionKeys.REFERRAL_ID)).toInstance(referralId);
 
+        Boolean dumpIncremental = environment.getProperty(AppOptionKeys.DUMP_INCREMENTAL, Boolean.class, false);
+        bind(boolean.class).annotatedWith(Names.named(AppOptionKeys.DUMP_INCREMENTAL)).toInstance(dumpIncremental);
+
         // ordering is used for shut down sequence
         install(tradeModule());
         install(encryptionServiceModule());
@@ -0,0 +1,200 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.btc.wallet;
+
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.model.blockchain.Block;
+import bisq.core.dao.state.model.blockchain.TxOutput;
+import bisq.core.dao.state.model.blockchain.TxOutputType;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Maintains the balances of the BSQ locked for voting, in lockup bonds and in unlocking bonds of our confirmed wallet
+ * transactions.
+ * <p>
+ * Instead of scanning all blind vote stake, lockup and unlock outputs of the DAO state at each update we keep the
+ * relevant txOutputs of our confirmed transactions. At an update we only look up the transactions which got confirmed
+ * since the last update (or which the DAO had not parsed yet) and evaluate the spent and confiscation state of the few
+ * indexed outputs. If the last block we have seen is not part of the DAO chain anymore (reorg or applied snapshot) we
+ * rebuild the index.
+ * <p>
+ * In verify mode each update is compared with the result of a full scan of the DAO state.
+ */
+@Slf4j
+class BsqLockedBalanceIndex {
+    private static final Set<TxOutputType> LOCKED_TX_OUTPUT_TYPES = EnumSet.of(TxOutputType.BLIND_VOTE_LOCK_STAKE_OUTPUT,
+            TxOutputType.LOCKUP_OUTPUT,
+            TxOutputType.UNLOCK_OUTPUT);
+
+    private final DaoStateService daoStateService;
+    // Outputs of LOCKED_TX_OUTPUT_TYPES by txId of our confirmed transactions
+    private final Map<String, List<TxOutput>> lockedTxOutputsByTxId = new HashMap<>();
+    // Our confirmed transactions which have not been parsed by the DAO yet
+    private final Set<String> notParsedTxIds = new HashSet<>();
+    private Set<String> confirmedTxIds = new HashSet<>();
+    // Height and hash of the last DAO block at the previous update
+    private int lastBlockHeight;
+    @Nullable
+    private String lastBlockHash;
+
+    @Setter
+    private boolean verifyMode;
+
+    @Getter
+    private long lockedForVotingBalance;
+    @Getter
+    private long lockupBondsBalance;
+    @Getter
+    private long unlockingBondsBalance;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    BsqLockedBalanceIndex(DaoStateService daoStateService) {
+        this.daoStateService = daoStateService;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void update(Set<String> newConfirmedTxIds) {
+        if (lastBlockHash != null && !isLastBlockInChain()) {
+            log.info("DAO block {} at height {} is not part of the chain anymore. We rebuild the index.",
+                    lastBlockHash, lastBlockHeight);
+            lockedTxOutputsByTxId.clear();
+            notParsedTxIds.clear();
+            confirmedTxIds = new HashSet<>();
+        }
+        Optional<Block> lastBlock = daoStateService.getLastBlock();
+        lastBlockHeight = lastBlock.map(Block::getHeight).orElse(0);
+        lastBlockHash = lastBlock.map(Block::getHash).orElse(null);
+
+        // Txs which are not confirmed anymore (e.g. wallet reorg)
+        confirmedTxIds.stream()
+                .filter(txId -> !newConfirmedTxIds.contains(txId))
+                .forEach(txId -> {
+                    lockedTxOutputsByTxId.remove(txId);
+                    notParsedTxIds.remove(txId);
+                });
+        newConfirmedTxIds.stream()
+                .filter(txId -> !confirmedTxIds.contains(txId))
+                .forEach(notParsedTxIds::add);
+        confirmedTxIds = new HashSet<>(newConfirmedTxIds);
+
+        Iterator<String> iterator = notParsedTxIds.iterator();
+        while (iterator.hasNext()) {
+            String txId = iterator.next();
+            daoStateService.getTx(txId).ifPresent(tx -> {
+                List<TxOutput> lockedTxOutputs = tx.getTxOutputs().stream()
+                        .filter(txOutput -> LOCKED_TX_OUTPUT_TYPES.contains(txOutput.getTxOutputType()))
+                        .collect(Collectors.toList());
+                if (!lockedTxOutputs.isEmpty())
+                    lockedTxOutputsByTxId.put(txId, lockedTxOutputs);
+                iterator.remove();
+            });
+        }
+
+        lockedForVotingBalance = 0;
+        lockupBondsBalance = 0;
+        unlockingBondsBalance = 0;
+        lockedTxOutputsByTxId.values().forEach(txOutputs -> txOutputs.forEach(txOutput -> {
+            switch (txOutput.getTxOutputType()) {
+                case BLIND_VOTE_LOCK_STAKE_OUTPUT:
+                    if (daoStateService.isUnspent(txOutput.getKey()))
+                        lockedForVotingBalance += txOutput.getValue();
+                    break;
+                case LOCKUP_OUTPUT:
+                    if (daoStateService.isUnspent(txOutput.getKey()) &&
+                            !daoStateService.isConfiscatedLockupTxOutput(txOutput.getTxId()))
+                        lockupBondsBalance += txOutput.getValue();
+                    break;
+                case UNLOCK_OUTPUT:
+                    if (daoStateService.isUnlockingAndUnspent(txOutput) &&
+                            !daoStateService.isConfiscatedUnlockTxOutput(txOutput.getTxId()))
+                        unlockingBondsBalance += txOutput.getValue();
+                    break;
+            }
+        }));
+
+        if (verifyMode)
+            verify();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private boolean isLastBlockInChain() {
+        return daoStateService.getBlockAtHeight(lastBlockHeight)
+                .map(block -> block.getHash().equals(lastBlockHash))
+                .orElse(false);
+    }
+
+    @VisibleForTesting
+    void verify() {
+        long expectedLockedForVotingBalance = daoStateService.getUnspentBlindVoteStakeTxOutputs().stream()
+                .filter(txOutput -> confirmedTxIds.contains(txOutput.getTxId()))
+                .mapToLong(TxOutput::getValue)
+                .sum();
+        long expectedLockupBondsBalance = daoStateService.getLockupTxOutputs().stream()
+                .filter(txOutput -> daoStateService.isUnspent(txOutput.getKey()))
+                .filter(txOutput -> !daoStateService.isConfiscatedLockupTxOutput(txOutput.getTxId()))
+                .filter(txOutput -> confirmedTxIds.contains(txOutput.getTxId()))
+                .mapToLong(TxOutput::getValue)
+                .sum();
+        long expectedUnlockingBondsBalance = daoStateService.getUnspentUnlockingTxOutputsStream()
+                .filter(txOutput -> confirmedTxIds.contains(txOutput.getTxId()))
+                .filter(txOutput -> !daoStateService.isConfiscatedUnlockTxOutput(txOutput.getTxId()))
+                .mapToLong(TxOutput::getValue)
+                .sum();
+
+        if (expectedLockedForVotingBalance != lockedForVotingBalance ||
+                expectedLockupBondsBalance != lockupBondsBalance ||
+                expectedUnlockingBondsBalance != unlockingBondsBalance) {
+            String errorMessage = "Incremental locked balances do not match full scan. " +
+                    "lockedForVotingBalance=" + lockedForVotingBalance + "/" + expectedLockedForVotingBalance +
+                    ", lockupBondsBalance=" + lockupBondsBalance + "/" + expectedLockupBondsBalance +
+                    ", unlockingBondsBalance=" + unlockingBondsBalance + "/" + expectedUnlockingBondsBalance;
+            log.error(errorMessage);
+            throw new IllegalStateException(errorMessage);
+        }
+    }
+}
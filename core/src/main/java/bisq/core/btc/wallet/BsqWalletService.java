@@ -36,6 +36,7 @@ import bisq.core.provider.fee.FeeService;
 import bisq.core.user.Preferences;
 
 import bisq.common.UserThread;
+import bisq.common.app.DevEnv;
 
 import org.bitcoinj.core.Address;
 import org.bitcoinj.core.AddressFormatException;
@@ -93,6 +94,7 @@ public class BsqWalletService extends WalletService implements DaoStateListener
     private final NonBsqCoinSelector nonBsqCoinSelector;
     private final DaoStateService daoStateService;
     private final UnconfirmedBsqChangeOutputListService unconfirmedBsqChangeOutputListService;
+    private final BsqLockedBalanceIndex bsqLockedBalanceIndex;
     private final List<Transaction> walletTransactions = new ArrayList<>();
     private final CopyOnWriteArraySet<BsqBalanceListener> bsqBalanceListeners = new CopyOnWriteArraySet<>();
     private final List<WalletTransactionsChangeListener> walletTransactionsChangeListeners = new ArrayList<>();
@@ -138,6 +140,10 @@ public class BsqWalletService extends WalletService implements DaoStateListener
         this.unconfirmedBsqChangeOutputListService = unconfirmedBsqChangeOutputListService;
         this.daoKillSwitch = daoKillSwitch;
 
+        bsqLockedBalanceIndex = new BsqLockedBalanceIndex(daoStateService);
+        // In dev mode we verify the incremental balances with a full scan of the DAO state
+        bsqLockedBalanceIndex.setVerifyMode(DevEnv.isDevMode());
+
         walletsSetup.addSetupCompletedHandler(() -> {
             wallet = walletsSetup.getBsqWallet();
             if (wallet != null) {
@@ -278,23 +284,12 @@ public class BsqWalletService extends WalletService implements DaoStateListener
                 .map(Transaction::getHashAsString)
                 .collect(Collectors.toSet());
 
-        lockedForVotingBalance = Coin.valueOf(daoStateService.getUnspentBlindVoteStakeTxOutputs().stream()
-                .filter(txOutput -> confirmedTxIdSet.contains(txOutput.getTxId()))
-                .mapToLong(TxOutput::getValue)
-                .sum());
-
-        lockupBondsBalance = Coin.valueOf(daoStateService.getLockupTxOutputs().stream()
-                .filter(txOutput -> daoStateService.isUnspent(txOutput.getKey()))
-                .filter(txOutput -> !daoStateService.isConfiscatedLockupTxOutput(txOutput.getTxId()))
-                .filter(txOutput -> confirmedTxIdSet.contains(txOutput.getTxId()))
-                .mapToLong(TxOutput::getValue)
-                .sum());
-
-        unlockingBondsBalance = Coin.valueOf(daoStateService.getUnspentUnlockingTxOutputsStream()
-                .filter(txOutput -> confirmedTxIdSet.contains(txOutput.getTxId()))
-                .filter(txOutput -> !daoStateService.isConfiscatedUnlockTxOutput(txOutput.getTxId()))
-                .mapToLong(TxOutput::getValue)
-                .sum());
+        // We only look up the txs which got confirmed since the last update instead of scanning all blind vote, lockup
+        // and unlock outputs of the DAO state.
+        bsqLockedBalanceIndex.update(confirmedTxIdSet);
+        lockedForVotingBalance = Coin.valueOf(bsqLockedBalanceIndex.getLockedForVotingBalance());
+        lockupBondsBalance = Coin.valueOf(bsqLockedBalanceIndex.getLockupBondsBalance());
+        unlockingBondsBalance = Coin.valueOf(bsqLockedBalanceIndex.getUnlockingBondsBalance());
 
         availableConfirmedBalance = bsqCoinSelector.select(NetworkParameters.MAX_MONEY,
                 wallet.calculateAllSpendCandidates()).valueGathered;
@@ -27,6 +27,7 @@ import bisq.core.btc.setup.WalletsSetup;
 import bisq.core.provider.fee.FeeService;
 import bisq.core.user.Preferences;
 
+import bisq.common.UserThread;
 import bisq.common.handlers.ErrorMessageHandler;
 import bisq.common.handlers.ResultHandler;
 
@@ -75,8 +76,12 @@ import javafx.beans.property.SimpleIntegerProperty;
 import org.spongycastle.crypto.params.KeyParameter;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.stream.Collectors;
 
@@ -101,9 +106,13 @@ public abstract class WalletService {
     protected final NetworkParameters params;
     @SuppressWarnings("deprecation")
     protected final WalletEventListener walletEventListener = new BisqWalletListener();
-    protected final CopyOnWriteArraySet<AddressConfidenceListener> addressConfidenceListeners = new CopyOnWriteArraySet<>();
-    protected final CopyOnWriteArraySet<TxConfidenceListener> txConfidenceListeners = new CopyOnWriteArraySet<>();
+    // Confidence listeners are keyed by the address and the tx hash they are interested in so that we only need to
+    // look up the affected listeners when a tx confidence changes.
+    protected final Map<Address, Set<AddressConfidenceListener>> addressConfidenceListenersByAddress = new ConcurrentHashMap<>();
+    protected final Map<Sha256Hash, Set<TxConfidenceListener>> txConfidenceListenersByTxHash = new ConcurrentHashMap<>();
     protected final CopyOnWriteArraySet<BalanceListener> balanceListeners = new CopyOnWriteArraySet<>();
+    // Txs with a changed confidence which have not been dispatched to the listeners yet. Accessed on the user thread.
+    private final Map<Sha256Hash, Transaction> pendingConfidenceChangedTxs = new LinkedHashMap<>();
     @Getter
     protected Wallet wallet;
     @Getter
@@ -171,19 +180,29 @@ public abstract class WalletService {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public void addAddressConfidenceListener(AddressConfidenceListener listener) {
-        addressConfidenceListeners.add(listener);
+        if (listener.getAddress() != null)
+            addToListenerMap(addressConfidenceListenersByAddress, listener.getAddress(), listener);
+        else
+            log.warn("addAddressConfidenceListener called with a listener without an address. We ignore it.");
     }
 
     public void removeAddressConfidenceListener(AddressConfidenceListener listener) {
-        addressConfidenceListeners.remove(listener);
+        if (listener.getAddress() != null)
+            removeFromListenerMap(addressConfidenceListenersByAddress, listener.getAddress(), listener);
     }
 
     public void addTxConfidenceListener(TxConfidenceListener listener) {
-        txConfidenceListeners.add(listener);
+        Sha256Hash txHash = toTxHash(listener.getTxID());
+        if (txHash != null)
+            addToListenerMap(txConfidenceListenersByTxHash, txHash, listener);
+        else
+            log.warn("addTxConfidenceListener called with an invalid txId {}. We ignore it.", listener.getTxID());
     }
 
     public void removeTxConfidenceListener(TxConfidenceListener listener) {
-        txConfidenceListeners.remove(listener);
+        Sha256Hash txHash = toTxHash(listener.getTxID());
+        if (txHash != null)
+            removeFromListenerMap(txConfidenceListenersByTxHash, txHash, listener);
     }
 
     public void addBalanceListener(BalanceListener listener) {
@@ -726,6 +745,70 @@ public abstract class WalletService {
     }
 
 
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void notifyConfidenceListeners() {
+        List<Transaction> txs = new ArrayList<>(pendingConfidenceChangedTxs.values());
+        pendingConfidenceChangedTxs.clear();
+
+        // Confidences of the changed txs per address. Only addresses with a listener are collected.
+        Map<Address, List<TransactionConfidence>> confidencesByAddress = new HashMap<>();
+        txs.forEach(tx -> {
+            TransactionConfidence confidence = tx.getConfidence();
+            Set<TxConfidenceListener> txListeners = txConfidenceListenersByTxHash.get(tx.getHash());
+            if (txListeners != null)
+                txListeners.forEach(listener -> listener.onTransactionConfidenceChanged(confidence));
+
+            if (!addressConfidenceListenersByAddress.isEmpty()) {
+                getOutputsWithConnectedOutputs(tx).stream()
+                        .filter(WalletService::isOutputScriptConvertibleToAddress)
+                        .map(WalletService::getAddressFromOutput)
+                        .filter(address -> address != null && addressConfidenceListenersByAddress.containsKey(address))
+                        .distinct()
+                        .forEach(address -> confidencesByAddress.computeIfAbsent(address, k -> new ArrayList<>())
+                                .add(confidence));
+            }
+        });
+
+        confidencesByAddress.forEach((address, confidences) -> {
+            Set<AddressConfidenceListener> addressListeners = addressConfidenceListenersByAddress.get(address);
+            if (addressListeners != null) {
+                TransactionConfidence confidence = getMostRecentConfidence(confidences);
+                addressListeners.forEach(listener -> listener.onTransactionConfidenceChanged(confidence));
+            }
+        });
+    }
+
+    private static <K, L> void addToListenerMap(Map<K, Set<L>> map, K key, L listener) {
+        map.compute(key, (k, listeners) -> {
+            Set<L> set = listeners != null ? listeners : new CopyOnWriteArraySet<>();
+            set.add(listener);
+            return set;
+        });
+    }
+
+    private static <K, L> void removeFromListenerMap(Map<K, Set<L>> map, K key, L listener) {
+        map.computeIfPresent(key, (k, listeners) -> {
+            listeners.remove(listener);
+            return listeners.isEmpty() ? null : listeners;
+        });
+    }
+
+    @Nullable
+    private static Sha256Hash toTxHash(@Nullable String txId) {
+        if (txId == null)
+            return null;
+
+        try {
+            return Sha256Hash.wrap(txId);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // bisqWalletEventListener
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -747,22 +830,18 @@ public abstract class WalletService {
             log.warn("onReorganize ");
         }
 
+        // A new block changes the confidence of all wallet txs and bitcoinj fires one event per tx. We collect the
+        // changed txs and dispatch them in one go after the burst of events queued up on the user thread got
+        // processed.
         @Override
         public void onTransactionConfidenceChanged(Wallet wallet, Transaction tx) {
-            for (AddressConfidenceListener addressConfidenceListener : addressConfidenceListeners) {
-                List<TransactionConfidence> transactionConfidenceList = new ArrayList<>();
-                transactionConfidenceList.add(getTransactionConfidence(tx, addressConfidenceListener.getAddress()));
+            if (tx == null)
+                return;
 
-                TransactionConfidence transactionConfidence = getMostRecentConfidence(transactionConfidenceList);
-                addressConfidenceListener.onTransactionConfidenceChanged(transactionConfidence);
-            }
-            txConfidenceListeners.stream()
-                    .filter(txConfidenceListener -> tx != null &&
-                            tx.getHashAsString() != null &&
-                            txConfidenceListener != null &&
-                            tx.getHashAsString().equals(txConfidenceListener.getTxID()))
-                    .forEach(txConfidenceListener ->
-                            txConfidenceListener.onTransactionConfidenceChanged(tx.getConfidence()));
+            boolean dispatchScheduled = !pendingConfidenceChangedTxs.isEmpty();
+            pendingConfidenceChangedTxs.put(tx.getHash(), tx);
+            if (!dispatchScheduled)
+                UserThread.execute(WalletService.this::notifyConfidenceListeners);
         }
 
         void notifyBalanceListeners(Transaction tx) {
@@ -231,6 +231,8 @@ public class DaoModule extends AppModule {
                 .to(environment.getRequiredProperty(DaoOptionKeys.RPC_BLOCK_NOTIFICATION_PORT));
         bindConstant().annotatedWith(named(DaoOptionKeys.RPC_BLOCK_NOTIFICATION_HOST))
                 .to(environment.getRequiredProperty(DaoOptionKeys.RPC_BLOCK_NOTIFICATION_HOST));
+        Integer rpcBlockRequestWindow = environment.getProperty(DaoOptionKeys.RPC_BLOCK_REQUEST_WINDOW, Integer.class, 8);
+        bind(int.class).annotatedWith(Names.named(DaoOptionKeys.RPC_BLOCK_REQUEST_WINDOW)).toInstance(rpcBlockRequestWindow);
         bindConstant().annotatedWith(named(DaoOptionKeys.DUMP_BLOCKCHAIN_DATA))
                 .to(environment.getRequiredProperty(DaoOptionKeys.DUMP_BLOCKCHAIN_DATA));
         bindConstant().annotatedWith(named(DaoOptionKeys.FULL_DAO_NODE))
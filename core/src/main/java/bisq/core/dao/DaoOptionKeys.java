@@ -27,6 +27,7 @@ public class DaoOptionKeys {
     public static final String RPC_BLOCK_NOTIFICATION_PORT = "rpcBlockNotificationPort";
     public static final String RPC_BLOCK_NOTIFICATION_HOST = "rpcBlockNotificationHost";
     public static final String RPC_HOST = "rpcHost";
+    public static final String RPC_BLOCK_REQUEST_WINDOW = "rpcBlockRequestWindow";
 
     public static final String DUMP_BLOCKCHAIN_DATA = "dumpBlockchainData";
     public static final String FULL_DAO_NODE = "fullDaoNode";
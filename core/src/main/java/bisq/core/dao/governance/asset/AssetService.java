@@ -61,13 +61,10 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -93,7 +90,7 @@ public class AssetService implements DaoSetupService, DaoStateListener {
     private IntegerProperty updateFlag = new SimpleIntegerProperty(0);
     @Getter
     private final List<StatefulAsset> statefulAssets = new ArrayList<>();
-    private Map<String, List<TradeStatistics2>> tradeStatsByTickerSymbol;
+    private boolean tradeStatisticsInitialized;
     private long bsqFeePerDay;
     private long minVolumeInBtc;
     private Timer timer;
@@ -119,15 +116,14 @@ public class AssetService implements DaoSetupService, DaoStateListener {
     }
 
     public void onAllServicesInitialized() {
-        tradeStatsByTickerSymbol = getTradeStatsByTickerSymbol();
+        tradeStatisticsInitialized = true;
         tradeStatisticsManager.getObservableTradeStatisticsSet().addListener((SetChangeListener<TradeStatistics2>) change -> {
             // At startup if a user has downloaded the app long after the release he might receive a lots of trade statistic
-            // objects from the seed node. We don't want to trigger the expensive getTradeStatsByTickerSymbol call in
-            // between so we delay 20 sec. to be sure to call it after the data has been processed.
+            // objects from the seed node. We don't want to trigger the updateList call for each of them so we delay
+            // 20 sec. to be sure to call it after the data has been processed.
             // To use a listener would be better but that requires bigger effort at the p2p lib side.
             if (timer == null)
                 timer = UserThread.runAfter(() -> {
-                    tradeStatsByTickerSymbol = getTradeStatsByTickerSymbol();
                     updateList();
                     timer = null;
                 }, 20);
@@ -153,7 +149,7 @@ public class AssetService implements DaoSetupService, DaoStateListener {
     }
 
     private void updateList() {
-        if (tradeStatsByTickerSymbol == null)
+        if (!tradeStatisticsInitialized)
             return;
 
         statefulAssets.forEach(statefulAsset -> {
@@ -181,17 +177,6 @@ public class AssetService implements DaoSetupService, DaoStateListener {
         updateFlag.set(updateFlag.get() + 1);
     }
 
-    private Map<String, List<TradeStatistics2>> getTradeStatsByTickerSymbol() {
-        Map<String, List<TradeStatistics2>> map = new HashMap<>();
-        tradeStatisticsManager.getObservableTradeStatisticsSet().stream()
-                .filter(e -> CurrencyUtil.isCryptoCurrency(e.getBaseCurrency()))
-                .forEach(e -> {
-                    map.putIfAbsent(e.getBaseCurrency(), new ArrayList<>());
-                    map.get(e.getBaseCurrency()).add(e);
-                });
-        return map;
-    }
-
     private boolean isInTrialPeriod(StatefulAsset statefulAsset) {
         for (FeePayment feePayment : statefulAsset.getFeePayments()) {
             Optional<Integer> passedDays = feePayment.getPassedDays(daoStateService);
@@ -206,13 +191,17 @@ public class AssetService implements DaoSetupService, DaoStateListener {
     }
 
     private long getTradeVolume(StatefulAsset statefulAsset, long lookBackPeriodInDays) {
-        String tickerSymbol = statefulAsset.getTickerSymbol();
-        if (tradeStatsByTickerSymbol.containsKey(tickerSymbol)) {
-            List<TradeStatistics2> tradeStatisticsForAsset = tradeStatsByTickerSymbol.get(tickerSymbol);
-            return getTradeVolume(tradeStatisticsForAsset, lookBackPeriodInDays);
-        } else {
-            return 0;
-        }
+        // We cannot use blocks as the block height is not in the TradeStatistics2 object and the lookup for all the
+        // deposit txs would be too expensive.
+        // For altcoins the currency code is the ticker symbol of the asset.
+        long lookBackPeriodInMs = TimeUnit.DAYS.toMillis(lookBackPeriodInDays);
+        long now = new Date().getTime();
+        return tradeStatisticsManager.getTradeStatisticsIndex().getByCurrencyCode(statefulAsset.getTickerSymbol(),
+                new Date(now - lookBackPeriodInMs + 1),
+                new Date(Long.MAX_VALUE))
+                .stream()
+                .mapToLong(stat -> stat.getTradeAmount().value)
+                .sum();
     }
 
     @NotNull
@@ -229,21 +218,6 @@ public class AssetService implements DaoSetupService, DaoStateListener {
                 .orElse(DEFAULT_LOOK_BACK_PERIOD);
     }
 
-    private long getTradeVolume(List<TradeStatistics2> tradeStatisticsForAsset, long lookBackPeriodInDays) {
-        // We cannot use blocks as the block height is not in the TradeStatistics2 object and the lookup for all the
-        // deposit txs would be too expensive.
-        long lookBackPeriodInMs = TimeUnit.DAYS.toMillis(lookBackPeriodInDays);
-        AtomicLong accumulatedTradeAmount = new AtomicLong(0);
-        long now = new Date().getTime();
-        tradeStatisticsForAsset.forEach(stat -> {
-            long timePassed = now - stat.getTradeDate().getTime();
-            if (timePassed < lookBackPeriodInMs) {
-                accumulatedTradeAmount.addAndGet(stat.getTradeAmount().value);
-            }
-        });
-        return accumulatedTradeAmount.get();
-    }
-
     private List<FeePayment> getFeePayments(StatefulAsset statefulAsset) {
         return getFeeTxs(statefulAsset).stream()
                 .map(tx -> {
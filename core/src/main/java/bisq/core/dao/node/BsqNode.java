@@ -33,6 +33,10 @@ import bisq.network.p2p.P2PServiceListener;
 
 import com.google.inject.Inject;
 
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
@@ -73,6 +77,9 @@ public abstract class BsqNode implements DaoSetupService {
     @Getter
     protected int chainTipHeight;
 
+    // Share of the parsed blocks of the currently processed batch of blocks or -1 if no batch is processed.
+    protected final DoubleProperty parseBlocksProgress = new SimpleDoubleProperty(-1);
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
@@ -159,6 +166,10 @@ public abstract class BsqNode implements DaoSetupService {
         exportJsonFilesService.shutDown();
     }
 
+    public ReadOnlyDoubleProperty getParseBlocksProgress() {
+        return parseBlocksProgress;
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Protected
@@ -17,18 +17,22 @@
 
 package bisq.core.dao.node.explorer;
 
+import bisq.core.app.AppOptionKeys;
 import bisq.core.dao.DaoOptionKeys;
 import bisq.core.dao.DaoSetupService;
 import bisq.core.dao.state.DaoStateService;
-import bisq.core.dao.state.model.DaoState;
 import bisq.core.dao.state.model.blockchain.Block;
 import bisq.core.dao.state.model.blockchain.PubKeyScript;
 import bisq.core.dao.state.model.blockchain.Tx;
+import bisq.core.dao.state.model.blockchain.TxInput;
 import bisq.core.dao.state.model.blockchain.TxOutput;
 import bisq.core.dao.state.model.blockchain.TxType;
+import bisq.core.dao.state.model.governance.Issuance;
+import bisq.core.dao.state.model.governance.IssuanceType;
 
 import bisq.common.storage.FileUtil;
 import bisq.common.storage.JsonFileManager;
+import bisq.common.storage.NdjsonFileManager;
 import bisq.common.storage.Storage;
 import bisq.common.util.Utilities;
 
@@ -49,32 +53,56 @@ import java.io.File;
 import java.io.IOException;
 
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import lombok.extern.slf4j.Slf4j;
 
 import org.jetbrains.annotations.NotNull;
 
+import javax.annotation.Nullable;
+
+/**
+ * Exports the BSQ blocks, txs and tx outputs as json files.
+ * <p>
+ * By default all blocks are written to blocks.json and all txs and tx outputs to one file each at every new block.
+ * The JsonFileManager only rewrites files whose content has changed. With the dumpIncremental option the new blocks
+ * are appended to newline delimited json files (all/blocks_*.ndjson) and we only export the txs of the new blocks,
+ * the txs whose outputs got spent by them and the compensation and reimbursement requests which got issued.
+ */
 @Slf4j
 public class ExportJsonFilesService implements DaoSetupService {
     private final DaoStateService daoStateService;
     private final File storageDir;
     private final boolean dumpBlockchainData;
+    private final boolean dumpIncremental;
 
-    private final ListeningExecutorService executor = Utilities.getListeningExecutorService("JsonExporter",
-            1, 1, 1200);
+    // In incremental mode each task appends the new blocks, so no task must get dropped and the order must be kept.
+    private final ListeningExecutorService executor = Utilities.getSingleThreadExecutor("JsonExporter");
     private JsonFileManager txFileManager, txOutputFileManager, bsqStateFileManager;
+    @Nullable
+    private NdjsonFileManager blocksNdjsonFileManager;
+    // Last block we have exported in incremental mode
+    @Nullable
+    private Block lastExportedBlock;
 
     @Inject
     public ExportJsonFilesService(DaoStateService daoStateService,
                                   @Named(Storage.STORAGE_DIR) File storageDir,
-                                  @Named(DaoOptionKeys.DUMP_BLOCKCHAIN_DATA) boolean dumpBlockchainData) {
+                                  @Named(DaoOptionKeys.DUMP_BLOCKCHAIN_DATA) boolean dumpBlockchainData,
+                                  @Named(AppOptionKeys.DUMP_INCREMENTAL) boolean dumpIncremental) {
         this.daoStateService = daoStateService;
         this.storageDir = storageDir;
         this.dumpBlockchainData = dumpBlockchainData;
+        this.dumpIncremental = dumpIncremental;
     }
 
 
@@ -122,54 +150,165 @@ public class ExportJsonFilesService implements DaoSetupService {
             txFileManager = new JsonFileManager(txDir);
             txOutputFileManager = new JsonFileManager(txOutputDir);
             bsqStateFileManager = new JsonFileManager(bsqStateDir);
+            if (dumpIncremental)
+                blocksNdjsonFileManager = new NdjsonFileManager(bsqStateDir, "blocks");
         }
     }
 
     public void shutDown() {
+        // We let the submitted exports complete before we shut down the file managers
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
         if (dumpBlockchainData && txFileManager != null) {
             txFileManager.shutDown();
             txOutputFileManager.shutDown();
             bsqStateFileManager.shutDown();
+            if (blocksNdjsonFileManager != null)
+                blocksNdjsonFileManager.shutDown();
         }
     }
 
     public void maybeExportToJson() {
         if (dumpBlockchainData &&
                 daoStateService.isParseBlockChainComplete()) {
-            // We store the data we need once we write the data to disk (in the thread) locally.
-            // Access to daoStateService is single threaded, we must not access daoStateService from the thread.
-            List<JsonTxOutput> allJsonTxOutputs = new ArrayList<>();
-
-            List<JsonTx> jsonTxs = daoStateService.getTxStream()
-                    .map(tx -> {
-                        JsonTx jsonTx = getJsonTx(tx);
-                        allJsonTxOutputs.addAll(jsonTx.getOutputs());
-                        return jsonTx;
-                    }).collect(Collectors.toList());
-
-            DaoState daoState = daoStateService.getClone();
-            List<JsonBlock> jsonBlockList = daoState.getBlocks().stream()
-                    .map(this::getJsonBlock)
-                    .collect(Collectors.toList());
-            JsonBlocks jsonBlocks = new JsonBlocks(daoState.getChainHeight(), jsonBlockList);
-
-            ListenableFuture<Void> future = executor.submit(() -> {
-                bsqStateFileManager.writeToDisc(Utilities.objectToJson(jsonBlocks), "blocks");
-                allJsonTxOutputs.forEach(jsonTxOutput -> txOutputFileManager.writeToDisc(Utilities.objectToJson(jsonTxOutput), jsonTxOutput.getId()));
-                jsonTxs.forEach(jsonTx -> txFileManager.writeToDisc(Utilities.objectToJson(jsonTx), jsonTx.getId()));
-                return null;
-            });
-
-            Futures.addCallback(future, new FutureCallback<>() {
-                public void onSuccess(Void ignore) {
-                }
-
-                public void onFailure(@NotNull Throwable throwable) {
-                    log.error(throwable.toString());
-                    throwable.printStackTrace();
-                }
-            });
+            if (blocksNdjsonFileManager != null)
+                exportNewBlocks(blocksNdjsonFileManager);
+            else
+                exportAll();
+        }
+    }
+
+    private void exportAll() {
+        // We store the data we need once we write the data to disk (in the thread) locally.
+        // Access to daoStateService is single threaded, we must not access daoStateService from the thread.
+        List<JsonTxOutput> allJsonTxOutputs = new ArrayList<>();
+
+        List<JsonTx> jsonTxs = daoStateService.getTxStream()
+                .map(tx -> {
+                    JsonTx jsonTx = getJsonTx(tx);
+                    allJsonTxOutputs.addAll(jsonTx.getOutputs());
+                    return jsonTx;
+                }).collect(Collectors.toList());
+
+        // Blocks are not changed anymore once they are parsed, so we don't need to clone the DaoState
+        List<JsonBlock> jsonBlockList = daoStateService.getBlocks().stream()
+                .map(this::getJsonBlock)
+                .collect(Collectors.toList());
+        JsonBlocks jsonBlocks = new JsonBlocks(daoStateService.getChainHeight(), jsonBlockList);
+
+        submit(() -> {
+            bsqStateFileManager.writeToDisc(Utilities.objectToJson(jsonBlocks), "blocks");
+            allJsonTxOutputs.forEach(jsonTxOutput -> txOutputFileManager.writeToDisc(Utilities.objectToJson(jsonTxOutput), jsonTxOutput.getId()));
+            jsonTxs.forEach(jsonTx -> txFileManager.writeToDisc(Utilities.objectToJson(jsonTx), jsonTx.getId()));
+        });
+    }
+
+    private void exportNewBlocks(NdjsonFileManager blocksNdjsonFileManager) {
+        LinkedList<Block> blocks = daoStateService.getBlocks();
+        if (blocks.isEmpty())
+            return;
+
+        // After a reorg the blocks we have exported might not be part of our chain anymore, so we start over.
+        if (lastExportedBlock != null && !isInChain(lastExportedBlock)) {
+            log.info("Last exported block at height {} is not in our chain anymore. We export all blocks again.",
+                    lastExportedBlock.getHeight());
+            // We reset on the executor so that appends which are submitted already are discarded as well
+            submit(blocksNdjsonFileManager::reset);
+            lastExportedBlock = null;
         }
+
+        List<Block> newBlocks = getBlocksAfter(blocks, lastExportedBlock);
+        if (newBlocks.isEmpty())
+            return;
+
+        int fromHeight = lastExportedBlock != null ? lastExportedBlock.getHeight() : -1;
+        lastExportedBlock = blocks.getLast();
+
+        // Beside the new txs we need to export the txs whose outputs got spent by them as the spent info and unspent
+        // state of those outputs has changed.
+        Set<String> txIds = new LinkedHashSet<>();
+        newBlocks.forEach(block -> block.getTxs().forEach(tx -> {
+            txIds.add(tx.getId());
+            tx.getTxInputs().stream()
+                    .map(TxInput::getConnectedTxOutputTxId)
+                    .forEach(txIds::add);
+        }));
+        // The DaoState changes the BSQ and unspent state of the issuance candidate outputs of compensation and
+        // reimbursement requests when their issuance gets applied, so we export the requests which got an issuance
+        // in the new blocks.
+        Stream.of(IssuanceType.values())
+                .flatMap(issuanceType -> daoStateService.getIssuanceSet(issuanceType).stream())
+                .filter(issuance -> issuance.getChainHeight() > fromHeight)
+                .map(Issuance::getTxId)
+                .forEach(txIds::add);
+
+        List<JsonTxOutput> jsonTxOutputs = new ArrayList<>();
+        List<JsonTx> jsonTxs = txIds.stream()
+                .map(daoStateService::getTx)
+                .flatMap(Optional::stream)
+                .map(tx -> {
+                    JsonTx jsonTx = getJsonTx(tx);
+                    jsonTxOutputs.addAll(jsonTx.getOutputs());
+                    return jsonTx;
+                }).collect(Collectors.toList());
+        List<JsonBlock> jsonBlocks = newBlocks.stream()
+                .map(this::getJsonBlock)
+                .collect(Collectors.toList());
+
+        submit(() -> {
+            blocksNdjsonFileManager.append(jsonBlocks);
+            jsonTxOutputs.forEach(jsonTxOutput -> txOutputFileManager.writeToDisc(Utilities.objectToJson(jsonTxOutput), jsonTxOutput.getId()));
+            jsonTxs.forEach(jsonTx -> txFileManager.writeToDisc(Utilities.objectToJson(jsonTx), jsonTx.getId()));
+        });
+    }
+
+    private boolean isInChain(Block block) {
+        return daoStateService.getBlockAtHeight(block.getHeight())
+                .map(e -> e.getHash().equals(block.getHash()))
+                .orElse(false);
+    }
+
+    // Returns the blocks after the given block in height order or all blocks if the given block is null
+    private static List<Block> getBlocksAfter(LinkedList<Block> blocks, @Nullable Block block) {
+        if (block == null)
+            return new ArrayList<>(blocks);
+
+        LinkedList<Block> result = new LinkedList<>();
+        Iterator<Block> iterator = blocks.descendingIterator();
+        while (iterator.hasNext()) {
+            Block candidate = iterator.next();
+            if (candidate.getHeight() <= block.getHeight())
+                break;
+            result.addFirst(candidate);
+        }
+        return result;
+    }
+
+    private void submit(Runnable runnable) {
+        if (executor.isShutdown()) {
+            log.warn("We do not export as we got shut down already.");
+            return;
+        }
+
+        ListenableFuture<Void> future = executor.submit(() -> {
+            runnable.run();
+            return null;
+        });
+
+        Futures.addCallback(future, new FutureCallback<>() {
+            public void onSuccess(Void ignore) {
+            }
+
+            public void onFailure(@NotNull Throwable throwable) {
+                log.error(throwable.toString());
+                throwable.printStackTrace();
+            }
+        });
     }
 
     private JsonBlock getJsonBlock(Block block) {
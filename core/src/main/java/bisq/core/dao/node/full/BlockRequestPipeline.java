@@ -0,0 +1,154 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.node.full;
+
+import bisq.common.UserThread;
+import bisq.common.handlers.ResultHandler;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Requests a range of blocks with up to windowSize requests in flight and delivers the RawBlocks strictly in height
+ * order on the user thread. A new request is only sent after a block has been consumed by the rawBlockHandler, so the
+ * number of fetched but not yet parsed blocks is bounded by the window size.
+ * <p>
+ * All state is accessed on the user thread.
+ */
+@Slf4j
+class BlockRequestPipeline {
+    private final IntFunction<ListenableFuture<RawBlock>> blockRequester;
+    private final int toHeight;
+    private final int windowSize;
+    private final Consumer<RawBlock> rawBlockHandler;
+    private final ResultHandler resultHandler;
+    private final Consumer<Throwable> errorHandler;
+
+    // Futures of the requested blocks in height order
+    private final ArrayDeque<ListenableFuture<RawBlock>> requestedBlocks = new ArrayDeque<>();
+    private int nextHeightToRequest;
+    private boolean canceled;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    BlockRequestPipeline(IntFunction<ListenableFuture<RawBlock>> blockRequester,
+                         int fromHeight,
+                         int toHeight,
+                         int windowSize,
+                         Consumer<RawBlock> rawBlockHandler,
+                         ResultHandler resultHandler,
+                         Consumer<Throwable> errorHandler) {
+        this.blockRequester = blockRequester;
+        this.nextHeightToRequest = fromHeight;
+        this.toHeight = toHeight;
+        this.windowSize = Math.max(1, windowSize);
+        this.rawBlockHandler = rawBlockHandler;
+        this.resultHandler = resultHandler;
+        this.errorHandler = errorHandler;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void start() {
+        fillWindow();
+        deliverNextBlock();
+    }
+
+    // We do not deliver any further block and cancel the pending requests. Used if the rawBlockHandler triggered
+    // a reorg.
+    void cancel() {
+        canceled = true;
+        requestedBlocks.forEach(future -> future.cancel(true));
+        requestedBlocks.clear();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void fillWindow() {
+        while (requestedBlocks.size() < windowSize && nextHeightToRequest <= toHeight) {
+            ListenableFuture<RawBlock> future;
+            try {
+                future = blockRequester.apply(nextHeightToRequest);
+            } catch (RuntimeException e) {
+                // E.g. a RejectedExecutionException. We fail at the delivery of that block, so we do not wait forever.
+                future = Futures.immediateFailedFuture(e);
+            }
+            requestedBlocks.add(future);
+            nextHeightToRequest++;
+        }
+    }
+
+    private void deliverNextBlock() {
+        if (canceled)
+            return;
+
+        ListenableFuture<RawBlock> future = requestedBlocks.peek();
+        if (future == null) {
+            resultHandler.handleResult();
+            return;
+        }
+
+        Futures.addCallback(future, new FutureCallback<>() {
+            @Override
+            public void onSuccess(RawBlock rawBlock) {
+                UserThread.execute(() -> {
+                    if (canceled)
+                        return;
+
+                    requestedBlocks.poll();
+                    rawBlockHandler.accept(rawBlock);
+                    // The handler might have canceled us
+                    if (canceled)
+                        return;
+
+                    fillWindow();
+                    deliverNextBlock();
+                });
+            }
+
+            @Override
+            public void onFailure(@NotNull Throwable throwable) {
+                UserThread.execute(() -> {
+                    if (canceled)
+                        return;
+
+                    cancel();
+                    errorHandler.accept(throwable);
+                });
+            }
+        });
+    }
+}
@@ -42,6 +42,8 @@ import java.util.function.Consumer;
 
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 /**
  * Main class for a full node which have Bitcoin Core with rpc running and does the blockchain lookup itself.
  * It also provides the BSQ transactions to lite nodes on request and broadcasts new BSQ blocks.
@@ -57,6 +59,8 @@ public class FullNode extends BsqNode {
     private boolean addBlockHandlerAdded;
     private int blocksToParseInBatch;
     private long parseInBatchStartTime;
+    @Nullable
+    private BlockRequestPipeline blockRequestPipeline;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -111,6 +115,12 @@ public class FullNode extends BsqNode {
 
     @Override
     protected void startReOrgFromLastSnapshot() {
+        // Blocks which are still in the pipeline are not connecting anymore after the snapshot got applied
+        if (blockRequestPipeline != null) {
+            blockRequestPipeline.cancel();
+            blockRequestPipeline = null;
+        }
+
         super.startReOrgFromLastSnapshot();
 
         int startBlockHeight = getStartBlockHeight();
@@ -161,6 +171,7 @@ public class FullNode extends BsqNode {
 
                             doParseBlock(rawBlock).ifPresent(this::onNewBlock);
                         } catch (RequiredReorgFromSnapshotException ignore) {
+                            // The reorg from the last snapshot got already started in doParseBlock
                         }
                     },
                     this::handleError);
@@ -228,31 +239,22 @@ public class FullNode extends BsqNode {
                              Consumer<Block> newBlockHandler,
                              ResultHandler resultHandler,
                              Consumer<Throwable> errorHandler) {
-        parseBlockRecursively(startBlockHeight, chainHeight, newBlockHandler, resultHandler, errorHandler);
-    }
-
-    private void parseBlockRecursively(int blockHeight,
-                                       int chainHeight,
-                                       Consumer<Block> newBlockHandler,
-                                       ResultHandler resultHandler,
-                                       Consumer<Throwable> errorHandler) {
-        rpcService.requestBtcBlock(blockHeight,
+        // The blocks are requested in parallel but delivered in height order, so we parse them one after another as
+        // before. In case of a reorg startReOrgFromLastSnapshot cancels the pipeline.
+        blockRequestPipeline = rpcService.requestBtcBlocks(startBlockHeight,
+                chainHeight,
                 rawBlock -> {
                     try {
                         doParseBlock(rawBlock).ifPresent(newBlockHandler);
-
-                        // Increment blockHeight and recursively call parseBlockAsync until we reach chainHeight
-                        if (blockHeight < chainHeight) {
-                            int newBlockHeight = blockHeight + 1;
-                            parseBlockRecursively(newBlockHeight, chainHeight, newBlockHandler, resultHandler, errorHandler);
-                        } else {
-                            // We are done
-                            resultHandler.handleResult();
-                        }
                     } catch (RequiredReorgFromSnapshotException ignore) {
-                        // If we get a reorg we don't continue to call parseBlockRecursively
+                        // If we get a reorg startReOrgFromLastSnapshot has canceled the pipeline, so no further
+                        // blocks get delivered
                     }
                 },
+                () -> {
+                    blockRequestPipeline = null;
+                    resultHandler.handleResult();
+                },
                 errorHandler);
     }
 
@@ -77,12 +77,15 @@ public class RpcService {
     private final String rpcBlockPort;
     private final String rpcBlockHost;
 
+    private final int blockRequestWindow;
+
     private BtcdClient client;
     private BtcdDaemon daemon;
 
-    // We could use multiple threads but then we need to support ordering of results in a queue
-    // Keep that for optimization after measuring performance differences
     private final ListeningExecutorService executor = Utilities.getSingleThreadExecutor("RpcService");
+    // Used for requesting blocks in parallel at batch parsing. The ordering of the results is handled by the
+    // BlockRequestPipeline.
+    private final ListeningExecutorService blockRequestExecutor;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -95,7 +98,8 @@ public class RpcService {
                       @Named(DaoOptionKeys.RPC_HOST) String rpcHost,
                       @Named(DaoOptionKeys.RPC_PORT) String rpcPort,
                       @Named(DaoOptionKeys.RPC_BLOCK_NOTIFICATION_PORT) String rpcBlockPort,
-                      @Named(DaoOptionKeys.RPC_BLOCK_NOTIFICATION_HOST) String rpcBlockHost) {
+                      @Named(DaoOptionKeys.RPC_BLOCK_NOTIFICATION_HOST) String rpcBlockHost,
+                      @Named(DaoOptionKeys.RPC_BLOCK_REQUEST_WINDOW) int blockRequestWindow) {
         this.rpcUser = preferences.getRpcUser();
         this.rpcPassword = preferences.getRpcPw();
 
@@ -114,6 +118,12 @@ public class RpcService {
         boolean isBlockHostSet = rpcBlockHost != null && !rpcBlockHost.isEmpty();
         this.rpcBlockPort = isBlockPortSet ? rpcBlockPort : "5125";
         this.rpcBlockHost = isBlockHostSet ? rpcBlockHost : "127.0.0.1";
+
+        this.blockRequestWindow = Math.max(1, blockRequestWindow);
+        // The queue must not reject tasks as the BlockRequestPipeline waits for each requested block. After a reorg
+        // the requests of the new pipeline get queued behind the ones of the canceled pipeline which are still running.
+        blockRequestExecutor = Utilities.getFixedThreadPoolExecutor("RpcService-block-requests",
+                this.blockRequestWindow);
     }
 
 
@@ -131,6 +141,9 @@ public class RpcService {
 
                 long startTs = System.currentTimeMillis();
                 PoolingHttpClientConnectionManager cm = new PoolingHttpClientConnectionManager();
+                // Default is 2 connections per route which would limit parallel block requests
+                cm.setDefaultMaxPerRoute(blockRequestWindow + 1);
+                cm.setMaxTotal(blockRequestWindow + 1);
                 CloseableHttpClient httpProvider = HttpClients.custom().setConnectionManager(cm).build();
                 Properties nodeConfig = new Properties();
                 nodeConfig.setProperty("node.bitcoind.rpc.protocol", "http");
@@ -224,21 +237,7 @@ public class RpcService {
     void requestBtcBlock(int blockHeight,
                          Consumer<RawBlock> resultHandler,
                          Consumer<Throwable> errorHandler) {
-        ListenableFuture<RawBlock> future = executor.submit(() -> {
-            long startTs = System.currentTimeMillis();
-            String blockHash = client.getBlockHash(blockHeight);
-            com.neemre.btcdcli4j.core.domain.RawBlock rawBtcBlock = client.getBlock(blockHash, 2);
-            List<RawTx> txList = rawBtcBlock.getTx().stream()
-                    .map(e -> getTxFromRawTransaction(e, rawBtcBlock))
-                    .collect(Collectors.toList());
-            log.info("requestBtcBlock from bitcoind at blockHeight {} with {} txs took {} ms",
-                    blockHeight, txList.size(), System.currentTimeMillis() - startTs);
-            return new RawBlock(rawBtcBlock.getHeight(),
-                    rawBtcBlock.getTime() * 1000, // rawBtcBlock.getTime() is in sec but we want ms
-                    rawBtcBlock.getHash(),
-                    rawBtcBlock.getPreviousBlockHash(),
-                    ImmutableList.copyOf(txList));
-        });
+        ListenableFuture<RawBlock> future = executor.submit(() -> getRawBlock(blockHeight));
 
         Futures.addCallback(future, new FutureCallback<>() {
             @Override
@@ -255,10 +254,53 @@ public class RpcService {
     }
 
 
+    /**
+     * Requests the blocks from fromHeight to toHeight with up to blockRequestWindow requests in parallel. The blocks
+     * are delivered to the rawBlockHandler in height order on the user thread.
+     *
+     * @return The pipeline which can be used to cancel the delivery of further blocks
+     */
+    BlockRequestPipeline requestBtcBlocks(int fromHeight,
+                                          int toHeight,
+                                          Consumer<RawBlock> rawBlockHandler,
+                                          ResultHandler resultHandler,
+                                          Consumer<Throwable> errorHandler) {
+        BlockRequestPipeline pipeline = new BlockRequestPipeline(
+                blockHeight -> blockRequestExecutor.submit(() -> getRawBlock(blockHeight)),
+                fromHeight,
+                toHeight,
+                blockRequestWindow,
+                rawBlockHandler,
+                resultHandler,
+                throwable -> {
+                    log.error("Error at requestBtcBlocks: fromHeight={}, toHeight={}", fromHeight, toHeight);
+                    errorHandler.accept(throwable);
+                });
+        pipeline.start();
+        return pipeline;
+    }
+
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    private RawBlock getRawBlock(int blockHeight) throws BitcoindException, CommunicationException {
+        long startTs = System.currentTimeMillis();
+        String blockHash = client.getBlockHash(blockHeight);
+        com.neemre.btcdcli4j.core.domain.RawBlock rawBtcBlock = client.getBlock(blockHash, 2);
+        List<RawTx> txList = rawBtcBlock.getTx().stream()
+                .map(e -> getTxFromRawTransaction(e, rawBtcBlock))
+                .collect(Collectors.toList());
+        log.info("requestBtcBlock from bitcoind at blockHeight {} with {} txs took {} ms",
+                blockHeight, txList.size(), System.currentTimeMillis() - startTs);
+        return new RawBlock(rawBtcBlock.getHeight(),
+                rawBtcBlock.getTime() * 1000, // rawBtcBlock.getTime() is in sec but we want ms
+                rawBtcBlock.getHash(),
+                rawBtcBlock.getPreviousBlockHash(),
+                ImmutableList.copyOf(txList));
+    }
+
     private RawTx getTxFromRawTransaction(RawTransaction rawBtcTx,
                                           com.neemre.btcdcli4j.core.domain.RawBlock rawBtcBlock) {
         String txId = rawBtcTx.getTxId();
@@ -182,14 +182,10 @@ public class LiteNode extends BsqNode {
             log.info("We received blocks from height {} to {}", blockList.get(0).getHeight(), chainTipHeight);
         }
 
-        // We delay the parsing to next render frame to avoid that the UI get blocked in case we parse a lot of blocks.
-        // Parsing itself is very fast (3 sec. for 7000 blocks) but creating the hash chain slows down batch processing a lot
-        // (30 sec for 7000 blocks).
-        // The updates at block height change are not much optimized yet, so that can be for sure improved
-        // 144 blocks a day would result in about 4000 in a month, so if a user downloads the app after 1 months latest
-        // release it will be a bit of a performance hit. It is a one time event as the snapshots gets created and be
-        // used at next startup. New users will get the shipped snapshot. Users who have not used Bisq for longer might
-        // experience longer durations for batch processing.
+        // Parsing itself is very fast (3 sec. for 7000 blocks) but the listeners at each block (e.g. creating the hash
+        // chain) slow down batch processing. We parse the blocks in slices on the user thread so the UI does not get
+        // blocked and we notify the domain listeners (onParseBlockCompleteAfterBatchProcessing) only once at the end
+        // of the batch.
         long ts = System.currentTimeMillis();
 
         if (blockList.isEmpty()) {
@@ -197,33 +193,33 @@ public class LiteNode extends BsqNode {
             return;
         }
 
-        runDelayedBatchProcessing(new ArrayList<>(blockList),
+        daoStateService.onBatchProcessingStarted();
+        new RawBlockBatchProcessor(blockList,
+                this::doParseBlock,
+                progress -> {
+                    parseBlocksProgress.set(progress);
+                    log.info("Parsed {} % of {} received blocks", Math.round(progress * 100), blockList.size());
+                },
                 () -> {
-                    log.debug("Parsing {} blocks took {} seconds.", blockList.size(), (System.currentTimeMillis() - ts) / 1000d);
+                    parseBlocksProgress.set(-1);
+                    log.info("Parsing {} blocks took {} seconds.", blockList.size(), (System.currentTimeMillis() - ts) / 1000d);
                     if (daoStateService.getChainHeight() < bsqWalletService.getBestChainHeight()) {
+                        daoStateService.onBatchProcessingComplete();
                         liteNodeNetworkService.requestBlocks(getStartBlockHeight());
                     } else {
                         onParsingComplete.run();
+                        // Notifies the listeners about the last block as well
                         onParseBlockChainComplete();
                     }
-                });
-    }
-
-    private void runDelayedBatchProcessing(List<RawBlock> blocks, Runnable resultHandler) {
-        UserThread.execute(() -> {
-            if (blocks.isEmpty()) {
-                resultHandler.run();
-                return;
-            }
-
-            RawBlock block = blocks.remove(0);
-            try {
-                doParseBlock(block);
-                runDelayedBatchProcessing(blocks, resultHandler);
-            } catch (RequiredReorgFromSnapshotException e) {
-                resultHandler.run();
-            }
-        });
+                },
+                throwable -> {
+                    // We must not stay in batch processing mode, otherwise the listeners would not get notified
+                    // about new blocks anymore
+                    log.error("Parsing the received blocks failed.", throwable);
+                    parseBlocksProgress.set(-1);
+                    daoStateService.onBatchProcessingComplete();
+                })
+                .start();
     }
 
     // We received a new block
@@ -238,6 +234,7 @@ public class LiteNode extends BsqNode {
         try {
             doParseBlock(block);
         } catch (RequiredReorgFromSnapshotException ignore) {
+            // The reorg from the last snapshot got already started in doParseBlock
         }
 
         maybeExportToJson();
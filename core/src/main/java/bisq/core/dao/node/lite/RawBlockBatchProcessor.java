@@ -0,0 +1,183 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.dao.node.lite;
+
+import bisq.core.dao.node.full.RawBlock;
+import bisq.core.dao.node.full.RawTx;
+import bisq.core.dao.node.parser.exceptions.RequiredReorgFromSnapshotException;
+
+import bisq.common.UserThread;
+import bisq.common.handlers.ResultHandler;
+import bisq.common.util.ParallelExecutor;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Applies the blocks of a GetBlocksResponse in height order.
+ * <p>
+ * The consistency checks which do not depend on the DAO state (heights and hashes of the blocks are connecting, txs
+ * belong to their block) are done in parallel on the shared ParallelExecutor before we start parsing. If a block fails
+ * those checks we only apply the blocks before it.
+ * <p>
+ * Parsing requires the DAO state of the previous block so it is done sequentially on the user thread. Instead of
+ * scheduling each block separately we parse as many blocks as fit into MAX_SLICE_DURATION_MS and yield to the user
+ * thread after that, so the UI stays responsive. After each slice the progressHandler gets called with the share of
+ * the parsed blocks. If parsing fails with another exception than RequiredReorgFromSnapshotException the errorHandler
+ * gets called instead of the resultHandler.
+ */
+@Slf4j
+class RawBlockBatchProcessor {
+    private static final long MAX_SLICE_DURATION_MS = 50;
+    private static final int MIN_VALIDATION_SLICE_SIZE = 100;
+
+    interface RawBlockHandler {
+        void handle(RawBlock rawBlock) throws RequiredReorgFromSnapshotException;
+    }
+
+    private final List<RawBlock> rawBlocks;
+    private final RawBlockHandler rawBlockHandler;
+    private final Consumer<Double> progressHandler;
+    private final ResultHandler resultHandler;
+    private final Consumer<Throwable> errorHandler;
+
+    private int numValidBlocks;
+    private int nextIndex;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    RawBlockBatchProcessor(List<RawBlock> rawBlocks,
+                           RawBlockHandler rawBlockHandler,
+                           Consumer<Double> progressHandler,
+                           ResultHandler resultHandler,
+                           Consumer<Throwable> errorHandler) {
+        this.rawBlocks = rawBlocks;
+        this.rawBlockHandler = rawBlockHandler;
+        this.progressHandler = progressHandler;
+        this.resultHandler = resultHandler;
+        this.errorHandler = errorHandler;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void start() {
+        int size = rawBlocks.size();
+        int sliceSize = ParallelExecutor.getBatchSize(size, MIN_VALIDATION_SLICE_SIZE);
+        List<ListenableFuture<Integer>> futures = new ArrayList<>();
+        for (int fromIndex = 0; fromIndex < size; fromIndex += sliceSize) {
+            int from = fromIndex;
+            int to = Math.min(size, fromIndex + sliceSize);
+            futures.add(ParallelExecutor.getExecutor().submit(() -> findFirstInvalidBlock(from, to)));
+        }
+
+        Futures.addCallback(Futures.allAsList(futures), new FutureCallback<>() {
+            @Override
+            public void onSuccess(List<Integer> result) {
+                int firstInvalidBlock = result.stream().mapToInt(Integer::intValue).min().orElse(size);
+                UserThread.execute(() -> {
+                    if (firstInvalidBlock < size) {
+                        RawBlock rawBlock = rawBlocks.get(firstInvalidBlock);
+                        log.warn("Received blocks are not consistent at height {}. We only apply the {} blocks " +
+                                "before it. rawBlock: height/hash/previousBlockHash={}/{}/{}", rawBlock.getHeight(),
+                                firstInvalidBlock, rawBlock.getHeight(), rawBlock.getHash(),
+                                rawBlock.getPreviousBlockHash());
+                    }
+                    numValidBlocks = firstInvalidBlock;
+                    applyNextSlice();
+                });
+            }
+
+            @Override
+            public void onFailure(@NotNull Throwable throwable) {
+                // The parser validates each block against the DAO state anyway, so we can continue without the
+                // pre-validation.
+                log.error("Validation of received blocks failed. We apply them without pre-validation.", throwable);
+                UserThread.execute(() -> {
+                    numValidBlocks = size;
+                    applyNextSlice();
+                });
+            }
+        });
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Returns the index of the first block in the range [from, to) which is not consistent or rawBlocks.size() if all
+    // are consistent. The first block of the range is checked against its predecessor in the list as well.
+    private int findFirstInvalidBlock(int from, int to) {
+        for (int i = from; i < to; i++) {
+            RawBlock rawBlock = rawBlocks.get(i);
+            if (i > 0) {
+                RawBlock previous = rawBlocks.get(i - 1);
+                if (previous.getHeight() + 1 != rawBlock.getHeight() ||
+                        !previous.getHash().equals(rawBlock.getPreviousBlockHash())) {
+                    return i;
+                }
+            }
+
+            for (RawTx rawTx : rawBlock.getRawTxs()) {
+                if (rawTx.getBlockHeight() != rawBlock.getHeight() || !rawTx.getBlockHash().equals(rawBlock.getHash()))
+                    return i;
+            }
+        }
+        return rawBlocks.size();
+    }
+
+    private void applyNextSlice() {
+        long ts = System.currentTimeMillis();
+        try {
+            while (nextIndex < numValidBlocks && System.currentTimeMillis() - ts < MAX_SLICE_DURATION_MS) {
+                rawBlockHandler.handle(rawBlocks.get(nextIndex));
+                nextIndex++;
+            }
+        } catch (RequiredReorgFromSnapshotException e) {
+            resultHandler.handleResult();
+            return;
+        } catch (Throwable t) {
+            errorHandler.accept(t);
+            return;
+        }
+
+        if (nextIndex < numValidBlocks) {
+            progressHandler.accept((double) nextIndex / numValidBlocks);
+            UserThread.execute(this::applyNextSlice);
+        } else {
+            progressHandler.accept(1d);
+            resultHandler.handleResult();
+        }
+    }
+}
@@ -25,6 +25,8 @@ import bisq.core.dao.state.model.blockchain.Block;
 import bisq.core.dao.state.model.blockchain.Tx;
 
 import bisq.common.app.DevEnv;
+import bisq.common.metrics.Histogram;
+import bisq.common.metrics.Metrics;
 
 import org.bitcoinj.core.Coin;
 
@@ -32,6 +34,7 @@ import javax.inject.Inject;
 
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -44,6 +47,9 @@ import javax.annotation.concurrent.Immutable;
 @Slf4j
 @Immutable
 public class BlockParser {
+    private static final Histogram PARSE_DURATION = Metrics.histogram("bisq_dao_block_parse_duration_seconds",
+            "Time for parsing the transactions of a block", Metrics.DURATION_BUCKETS);
+
     private final TxParser txParser;
     private final DaoStateService daoStateService;
     private final String genesisTxId;
@@ -105,7 +111,7 @@ public class BlockParser {
         // There are some blocks with testing such dependency chains like block 130768 where at each iteration only
         // one get resolved.
         // Lately there is a patter with 24 iterations observed
-        long startTs = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
         List<Tx> txList = block.getTxs();
 
         rawBlock.getRawTxs().forEach(rawTx ->
@@ -115,8 +121,9 @@ public class BlockParser {
                         genesisTotalSupply)
                         .ifPresent(txList::add));
 
+        PARSE_DURATION.observeNanosSince(startNanos);
         log.info("Parsing {} transactions at block height {} took {} ms", rawBlock.getRawTxs().size(),
-                blockHeight, System.currentTimeMillis() - startTs);
+                blockHeight, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
 
         daoStateService.onParseBlockComplete(block);
         return block;
@@ -0,0 +1,177 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.dao.state;
+
+import bisq.core.dao.state.model.DaoState;
+import bisq.core.dao.state.model.blockchain.SpentInfo;
+import bisq.core.dao.state.model.blockchain.TxOutput;
+import bisq.core.dao.state.model.blockchain.TxOutputKey;
+import bisq.core.dao.state.model.governance.Cycle;
+import bisq.core.dao.state.model.governance.DecryptedBallotsWithMerits;
+import bisq.core.dao.state.model.governance.EvaluatedProposal;
+import bisq.core.dao.state.model.governance.Issuance;
+import bisq.core.dao.state.model.governance.ParamChange;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+
+/**
+ * Produces the same bytes as DaoState.getSerializedStateForHashChain but keeps the encoded bytes of the entries of
+ * the maps and lists from the previous call. Only entries which have been added or replaced since then get encoded.
+ * <p>
+ * A protobuf message is serialized as the concatenation of its fields in field number order and a repeated or map
+ * field as the concatenation of its elements. The encoding of a DaoState which only contains one field or element is
+ * therefore exactly the fragment of that element in the full encoding, so we cache those fragments.
+ * <p>
+ * The cache is keyed by object identity. That is safe as the cached model classes are immutable
+ * (ImmutableDaoStateModel), so a changed entry is always a new object. The last block is mutable and is encoded at
+ * each call.
+ * <p>
+ * Not thread safe. Is used on the user thread.
+ */
+class DaoStateHashChainSerializer {
+    private final MapFragmentCache<TxOutputKey, TxOutput> unspentTxOutputFragments = new MapFragmentCache<>(
+            TxOutputKey::toString,
+            (key, value) -> protobuf.DaoState.newBuilder().putUnspentTxOutputMap(key, value.toProtoMessage()));
+    private final MapFragmentCache<String, Issuance> issuanceFragments = new MapFragmentCache<>(
+            Function.identity(),
+            (key, value) -> protobuf.DaoState.newBuilder().putIssuanceMap(key, value.toProtoMessage()));
+    private final MapFragmentCache<TxOutputKey, SpentInfo> spentInfoFragments = new MapFragmentCache<>(
+            TxOutputKey::toString,
+            (key, value) -> protobuf.DaoState.newBuilder().putSpentInfoMap(key, value.toProtoMessage()));
+    private final ListFragmentCache<Cycle> cycleFragments = new ListFragmentCache<>(
+            cycle -> protobuf.DaoState.newBuilder().addCycles(cycle.toProtoMessage()));
+    private final ListFragmentCache<ParamChange> paramChangeFragments = new ListFragmentCache<>(
+            paramChange -> protobuf.DaoState.newBuilder().addParamChangeList(paramChange.toProtoMessage()));
+    private final ListFragmentCache<EvaluatedProposal> evaluatedProposalFragments = new ListFragmentCache<>(
+            evaluatedProposal -> protobuf.DaoState.newBuilder().addEvaluatedProposalList(evaluatedProposal.toProtoMessage()));
+    private final ListFragmentCache<DecryptedBallotsWithMerits> decryptedBallotsWithMeritsFragments = new ListFragmentCache<>(
+            decryptedBallotsWithMerits -> protobuf.DaoState.newBuilder().addDecryptedBallotsWithMeritsList(decryptedBallotsWithMerits.toProtoMessage()));
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    byte[] getSerializedStateForHashChain(DaoState daoState) {
+        List<byte[]> fragments = new ArrayList<>();
+        // Same order as the field numbers in the DaoState proto message
+        fragments.add(protobuf.DaoState.newBuilder().setChainHeight(daoState.getChainHeight()).build().toByteArray());
+        fragments.add(protobuf.DaoState.newBuilder().addBlocks(daoState.getBlocks().getLast().toProtoMessage()).build().toByteArray());
+        cycleFragments.addFragments(daoState.getCycles(), fragments);
+        unspentTxOutputFragments.addFragments(daoState.getUnspentTxOutputMap(), fragments);
+        issuanceFragments.addFragments(daoState.getIssuanceMap(), fragments);
+        fragments.add(protobuf.DaoState.newBuilder().addAllConfiscatedLockupTxList(daoState.getConfiscatedLockupTxList()).build().toByteArray());
+        spentInfoFragments.addFragments(daoState.getSpentInfoMap(), fragments);
+        paramChangeFragments.addFragments(daoState.getParamChangeList(), fragments);
+        evaluatedProposalFragments.addFragments(daoState.getEvaluatedProposalList(), fragments);
+        decryptedBallotsWithMeritsFragments.addFragments(daoState.getDecryptedBallotsWithMeritsList(), fragments);
+
+        int size = 0;
+        for (byte[] fragment : fragments) {
+            size += fragment.length;
+        }
+        byte[] result = new byte[size];
+        int position = 0;
+        for (byte[] fragment : fragments) {
+            System.arraycopy(fragment, 0, result, position, fragment.length);
+            position += fragment.length;
+        }
+        return result;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Static classes
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static class MapFragment<V> {
+        private final V value;
+        private final String key;
+        private final byte[] bytes;
+
+        MapFragment(V value, String key, byte[] bytes) {
+            this.value = value;
+            this.key = key;
+            this.bytes = bytes;
+        }
+    }
+
+    private static class MapFragmentCache<K, V> {
+        private final Function<K, String> keyMapper;
+        private final BiFunction<String, V, protobuf.DaoState.Builder> encoder;
+        private Map<K, MapFragment<V>> fragmentByKey = new HashMap<>();
+
+        MapFragmentCache(Function<K, String> keyMapper, BiFunction<String, V, protobuf.DaoState.Builder> encoder) {
+            this.keyMapper = keyMapper;
+            this.encoder = encoder;
+        }
+
+        void addFragments(TreeMap<K, V> map, List<byte[]> fragments) {
+            Map<K, MapFragment<V>> newFragmentByKey = new HashMap<>(fragmentByKey.size());
+            List<MapFragment<V>> orderedFragments = new ArrayList<>(map.size());
+            map.forEach((key, value) -> {
+                MapFragment<V> fragment = fragmentByKey.get(key);
+                if (fragment == null || fragment.value != value) {
+                    String keyAsString = fragment != null ? fragment.key : keyMapper.apply(key);
+                    fragment = new MapFragment<>(value, keyAsString, encoder.apply(keyAsString, value).build().toByteArray());
+                }
+                newFragmentByKey.put(key, fragment);
+                orderedFragments.add(fragment);
+            });
+            fragmentByKey = newFragmentByKey;
+
+            // DaoState.getBsqStateBuilderExcludingBlocks collects the entries with Collectors.toMap into a HashMap
+            // and protobuf serializes map fields in the iteration order of that map. Inserting the same keys in the
+            // same order into a HashMap results in the same iteration order, so we get the same bytes.
+            Map<String, byte[]> bytesByKey = orderedFragments.stream()
+                    .collect(Collectors.toMap(fragment -> fragment.key, fragment -> fragment.bytes));
+            fragments.addAll(bytesByKey.values());
+        }
+    }
+
+    private static class ListFragmentCache<T> {
+        private final Function<T, protobuf.DaoState.Builder> encoder;
+        private Map<T, byte[]> fragmentByElement = new IdentityHashMap<>();
+
+        ListFragmentCache(Function<T, protobuf.DaoState.Builder> encoder) {
+            this.encoder = encoder;
+        }
+
+        void addFragments(List<T> list, List<byte[]> fragments) {
+            Map<T, byte[]> newFragmentByElement = new IdentityHashMap<>(list.size());
+            list.forEach(element -> {
+                byte[] fragment = fragmentByElement.get(element);
+                if (fragment == null)
+                    fragment = encoder.apply(element).build().toByteArray();
+                newFragmentByElement.put(element, fragment);
+                fragments.add(fragment);
+            });
+            fragmentByElement = newFragmentByElement;
+        }
+    }
+}
@@ -44,9 +44,12 @@ import javax.inject.Inject;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
@@ -73,6 +76,16 @@ public class DaoStateService implements DaoSetupService {
     @Getter
     private boolean parseBlockChainComplete;
     private boolean allowDaoStateChange;
+    // Set while a lite node applies a batch of received blocks
+    private boolean batchProcessing;
+
+    // Secondary indexes of the blockchain data. Blocks and txs are immutable once parsed, so we only add entries when
+    // a block gets added or completed and rebuild the indexes when the state gets replaced by a snapshot.
+    private final TreeMap<String, Tx> txByIdIndex = new TreeMap<>();
+    private final Map<TxOutputType, Set<TxOutput>> txOutputsByTypeIndex = new EnumMap<>(TxOutputType.class);
+    private final Map<Integer, Block> blockByHeightIndex = new HashMap<>();
+    private final Set<String> blockHashIndex = new HashSet<>();
+    private final DaoStateHashChainSerializer hashChainSerializer = new DaoStateHashChainSerializer();
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -141,18 +154,20 @@ public class DaoStateService implements DaoSetupService {
 
         daoState.getDecryptedBallotsWithMeritsList().clear();
         daoState.getDecryptedBallotsWithMeritsList().addAll(snapshot.getDecryptedBallotsWithMeritsList());
+
+        rebuildIndexes();
     }
 
     public DaoState getClone() {
         return DaoState.getClone(daoState);
     }
 
-    DaoState getClone(DaoState snapshotCandidate) {
-        return DaoState.getClone(snapshotCandidate);
+    DaoState getSnapshot() {
+        return DaoState.getSnapshot(daoState);
     }
 
     public byte[] getSerializedStateForHashChain() {
-        return daoState.getSerializedStateForHashChain();
+        return hashChainSerializer.getSerializedStateForHashChain(daoState);
     }
 
 
@@ -220,6 +235,7 @@ public class DaoStateService implements DaoSetupService {
                     "That might happen in edge cases at reorgs. Received block={}", block);
         } else {
             daoState.getBlocks().add(block);
+            addBlockToIndexes(block);
 
             if (parseBlockChainComplete)
                 log.info("New Block added at blockHeight {}", block.getHeight());
@@ -231,6 +247,9 @@ public class DaoStateService implements DaoSetupService {
         if (parseBlockChainComplete)
             log.info("Parse block completed: Block height {}, {} BSQ transactions.", block.getHeight(), block.getTxs().size());
 
+        // The txs have been added to the block at parsing, so we can index them now before any listener gets called.
+        addTxsToIndexes(block);
+
         // Need to be called before onParseTxsCompleteAfterBatchProcessing as we use it in
         // VoteResult and other listeners like balances usually listen on onParseTxsCompleteAfterBatchProcessing
         // so we need to make sure that vote result calculation is completed before (e.g. for comp. request to
@@ -241,7 +260,7 @@ public class DaoStateService implements DaoSetupService {
         // blocks as that cause performance issues. In earlier versions when we updated at each block it took
         // 50 sec. for 4000 blocks, after that change it was about 4 sec.
         // Clients
-        if (parseBlockChainComplete)
+        if (parseBlockChainComplete && !batchProcessing)
             daoStateListeners.forEach(l -> l.onParseBlockCompleteAfterBatchProcessing(block));
 
         // Here listeners must not trigger any state change in the DAO as we trigger the validation service to
@@ -250,10 +269,30 @@ public class DaoStateService implements DaoSetupService {
         daoStateListeners.forEach(l -> l.onDaoStateChanged(block));
     }
 
+    // Called before a batch of blocks gets parsed. Until onBatchProcessingComplete or onParseBlockChainComplete is
+    // called we don't call onParseBlockCompleteAfterBatchProcessing for each block even if the initial parsing was
+    // completed already.
+    public void onBatchProcessingStarted() {
+        batchProcessing = true;
+    }
+
+    // Called after a batch of blocks is parsed. If the initial parsing was completed already we call
+    // onParseBlockCompleteAfterBatchProcessing once with the last block.
+    public void onBatchProcessingComplete() {
+        batchProcessing = false;
+
+        if (parseBlockChainComplete) {
+            getLastBlock().ifPresent(block -> {
+                daoStateListeners.forEach(l -> l.onParseBlockCompleteAfterBatchProcessing(block));
+            });
+        }
+    }
+
     // Called after parsing of all pending blocks is completed
     public void onParseBlockChainComplete() {
         log.info("Parse blockchain completed");
         parseBlockChainComplete = true;
+        batchProcessing = false;
 
         getLastBlock().ifPresent(block -> {
             daoStateListeners.forEach(l -> l.onParseBlockCompleteAfterBatchProcessing(block));
@@ -275,7 +314,7 @@ public class DaoStateService implements DaoSetupService {
      * {@code false}.
      */
     public boolean isBlockHashKnown(String blockHash) {
-        return getBlocks().stream().anyMatch(block -> block.getHash().equals(blockHash));
+        return blockHashIndex.contains(blockHash);
     }
 
     public Optional<Block> getLastBlock() {
@@ -290,9 +329,7 @@ public class DaoStateService implements DaoSetupService {
     }
 
     public Optional<Block> getBlockAtHeight(int height) {
-        return getBlocks().stream()
-                .filter(block -> block.getHeight() == height)
-                .findAny();
+        return Optional.ofNullable(blockByHeightIndex.get(height));
     }
 
     public boolean containsBlock(Block block) {
@@ -300,7 +337,7 @@ public class DaoStateService implements DaoSetupService {
     }
 
     public boolean containsBlockHash(String blockHash) {
-        return getBlocks().stream().anyMatch(block -> block.getHash().equals(blockHash));
+        return blockHashIndex.contains(blockHash);
     }
 
     public long getBlockTime(int height) {
@@ -349,15 +386,22 @@ public class DaoStateService implements DaoSetupService {
     }
 
     public TreeMap<String, Tx> getTxMap() {
-        return new TreeMap<>(getTxStream().collect(Collectors.toMap(Tx::getId, tx -> tx)));
+        return new TreeMap<>(txByIdIndex);
     }
 
     public Set<Tx> getTxs() {
-        return getTxStream().collect(Collectors.toSet());
+        return new HashSet<>(txByIdIndex.values());
     }
 
     public Optional<Tx> getTx(String txId) {
-        return getTxStream().filter(tx -> tx.getId().equals(txId)).findAny();
+        Tx tx = txByIdIndex.get(txId);
+        if (tx != null)
+            return Optional.of(tx);
+
+        // While a block is getting parsed its txs are not indexed yet, so we look them up in the last block.
+        return getLastBlock().flatMap(block -> block.getTxs().stream()
+                .filter(e -> e.getId().equals(txId))
+                .findAny());
     }
 
     public List<Tx> getInvalidTxs() {
@@ -424,13 +468,14 @@ public class DaoStateService implements DaoSetupService {
     }
 
     public boolean existsTxOutput(TxOutputKey key) {
-        return getTxOutputStream().anyMatch(txOutput -> txOutput.getKey().equals(key));
+        return getTxOutput(key).isPresent();
     }
 
     public Optional<TxOutput> getTxOutput(TxOutputKey txOutputKey) {
-        return getTxOutputStream()
-                .filter(txOutput -> txOutput.getKey().equals(txOutputKey))
-                .findAny();
+        return getTx(txOutputKey.getTxId())
+                .flatMap(tx -> tx.getTxOutputs().stream()
+                        .filter(txOutput -> txOutput.getKey().equals(txOutputKey))
+                        .findAny());
     }
 
 
@@ -514,9 +559,7 @@ public class DaoStateService implements DaoSetupService {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public Set<TxOutput> getTxOutputsByTxOutputType(TxOutputType txOutputType) {
-        return getTxOutputStream()
-                .filter(txOutput -> txOutput.getTxOutputType() == txOutputType)
-                .collect(Collectors.toSet());
+        return new HashSet<>(txOutputsByTypeIndex.getOrDefault(txOutputType, new HashSet<>()));
     }
 
     public boolean isBsqTxOutputType(TxOutput txOutput) {
@@ -1040,5 +1083,31 @@ public class DaoStateService implements DaoSetupService {
         if (!allowDaoStateChange)
             throw new RuntimeException("We got a call which would change the daoState outside of the allowed event phase");
     }
+
+    private void rebuildIndexes() {
+        txByIdIndex.clear();
+        txOutputsByTypeIndex.clear();
+        blockByHeightIndex.clear();
+        blockHashIndex.clear();
+
+        getBlocks().forEach(block -> {
+            addBlockToIndexes(block);
+            addTxsToIndexes(block);
+        });
+    }
+
+    private void addBlockToIndexes(Block block) {
+        blockByHeightIndex.put(block.getHeight(), block);
+        blockHashIndex.add(block.getHash());
+    }
+
+    private void addTxsToIndexes(Block block) {
+        block.getTxs().forEach(tx -> {
+            txByIdIndex.put(tx.getId(), tx);
+            tx.getTxOutputs().forEach(txOutput -> txOutputsByTypeIndex
+                    .computeIfAbsent(txOutput.getTxOutputType(), key -> new HashSet<>())
+                    .add(txOutput));
+        });
+    }
 }
 
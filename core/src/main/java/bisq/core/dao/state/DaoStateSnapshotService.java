@@ -92,22 +92,23 @@ public class DaoStateSnapshotService {
             // At trigger event we store the latest snapshotCandidate to disc
             long ts = System.currentTimeMillis();
             if (daoStateSnapshotCandidate != null) {
-                // We clone because storage is in a threaded context and we set the snapshotCandidate to our current
-                // state in the next step
-                DaoState clonedDaoState = daoStateService.getClone(daoStateSnapshotCandidate);
-                LinkedList<DaoStateHash> clonedDaoStateHashChain = new LinkedList<>(daoStateHashChainSnapshotCandidate);
-                daoStateStorageService.persist(clonedDaoState, clonedDaoStateHashChain);
+                // The snapshotCandidate is not changed after it got created, so storage can serialize it in its
+                // threaded context without cloning it again. We set the snapshotCandidate to our current state in the
+                // next step.
+                daoStateStorageService.persist(daoStateSnapshotCandidate, daoStateHashChainSnapshotCandidate);
 
                 log.debug("Saved snapshotCandidate with height {} to Disc at height {} took {} ms",
                         daoStateSnapshotCandidate.getChainHeight(), chainHeight, System.currentTimeMillis() - ts);
             }
 
             ts = System.currentTimeMillis();
-            // Now we clone and keep it in memory for the next trigger event
-            daoStateSnapshotCandidate = daoStateService.getClone();
+            // Now we take a snapshot and keep it in memory for the next trigger event. The snapshot shares the
+            // immutable blocks and model objects with our current state. Only the collections get copied, which is
+            // linear in their size but much cheaper than the protobuf round trip of a clone.
+            daoStateSnapshotCandidate = daoStateService.getSnapshot();
             daoStateHashChainSnapshotCandidate = new LinkedList<>(daoStateMonitoringService.getDaoStateHashChain());
 
-            log.debug("Cloned new snapshotCandidate at height {} took {} ms", chainHeight, System.currentTimeMillis() - ts);
+            log.debug("Created new snapshotCandidate at height {} took {} ms", chainHeight, System.currentTimeMillis() - ts);
         }
     }
 
@@ -64,6 +64,25 @@ public class DaoState implements PersistablePayload {
         return DaoState.fromProto(daoState.getBsqStateBuilder().build());
     }
 
+    /**
+     * Creates a copy which shares the blocks and all other model objects with the given daoState. Those are immutable
+     * once a block is complete, so only the collections get copied and no serialization is needed as in getClone.
+     * Copying the maps and lists is still linear in the number of entries, but it allocates only the collection
+     * nodes, not the model objects. Must only be called after the last block has been completed.
+     */
+    public static DaoState getSnapshot(DaoState daoState) {
+        return new DaoState(daoState.getChainHeight(),
+                new LinkedList<>(daoState.getBlocks()),
+                new LinkedList<>(daoState.getCycles()),
+                new TreeMap<>(daoState.getUnspentTxOutputMap()),
+                new TreeMap<>(daoState.getSpentInfoMap()),
+                new ArrayList<>(daoState.getConfiscatedLockupTxList()),
+                new TreeMap<>(daoState.getIssuanceMap()),
+                new ArrayList<>(daoState.getParamChangeList()),
+                new ArrayList<>(daoState.getEvaluatedProposalList()),
+                new ArrayList<>(daoState.getDecryptedBallotsWithMeritsList()));
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Fields
@@ -221,6 +240,8 @@ public class DaoState implements PersistablePayload {
         // Reorgs are handled by rebuilding the hash chain from last snapshot.
         // Using the full blocks list becomes quite heavy. 7000 blocks are
         // about 1.4 MB and creating the hash takes 30 sec. With using just the last block we reduce the time to 7 sec.
+        // DaoStateService uses the DaoStateHashChainSerializer which produces the same bytes but only encodes the
+        // changed entries. Any change here must be reflected there.
         return getBsqStateBuilderExcludingBlocks().addBlocks(getBlocks().getLast().toProtoMessage()).build().toByteArray();
     }
 
@@ -0,0 +1,179 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.offer;
+
+import bisq.common.UserThread;
+
+import javax.inject.Inject;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the offers of the OfferBookService indexed by offer ID, so adding, replacing and removing an offer does not
+ * require to iterate over all offers.
+ * <p>
+ * We get onAdded called by the OfferBookService each time a new ProtectedStorageEntry is received (e.g. at a refresh
+ * of the offer's TTL). If the offer payload is the same as the one we have already we ignore it, so we keep the offer
+ * object and its state. If the payload has changed we replace the offer.
+ * <p>
+ * Changes are not reported individually but collected and delivered to the listeners in one batch at the next
+ * execution on the user thread. Offers which were added and removed again within one batch are not reported. A
+ * replaced offer is reported as removed and its successor as added.
+ * <p>
+ * Not thread safe. All access is expected on the user thread.
+ */
+@Slf4j
+public class OfferBookIndex {
+
+    public interface Listener {
+        void onOffersChanged(Collection<Offer> addedOffers, Collection<Offer> removedOffers);
+    }
+
+    private final Map<String, Offer> offersById = new LinkedHashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    // Changes which have not been delivered to the listeners yet
+    private Map<String, Offer> pendingAddedOffers = new LinkedHashMap<>();
+    private Map<String, Offer> pendingRemovedOffers = new LinkedHashMap<>();
+    private boolean deliveryScheduled;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Inject
+    public OfferBookIndex(OfferBookService offerBookService) {
+        // The offers we have at construction are not reported to listeners, they are expected to be read with getOffers
+        offerBookService.getOffers().forEach(this::addToIndex);
+
+        offerBookService.addOfferBookChangedListener(new OfferBookService.OfferBookChangedListener() {
+            @Override
+            public void onAdded(Offer offer) {
+                addOrReplace(offer);
+            }
+
+            @Override
+            public void onRemoved(Offer offer) {
+                remove(offer);
+            }
+        });
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    // Offers in the order they have been added
+    public Collection<Offer> getOffers() {
+        return Collections.unmodifiableCollection(offersById.values());
+    }
+
+    public Optional<Offer> getOfferById(String offerId) {
+        return Optional.ofNullable(offersById.get(offerId));
+    }
+
+    public int size() {
+        return offersById.size();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void addOrReplace(Offer offer) {
+        String offerId = offer.getId();
+        Offer existingOffer = offersById.get(offerId);
+        if (existingOffer != null) {
+            if (existingOffer.getOfferPayload().equals(offer.getOfferPayload())) {
+                log.debug("We have the exact same offer already and ignore the onAdded call. ID={}", offerId);
+                return;
+            }
+
+            log.info("We replace the offer with ID {} as the offer payload has changed.", offerId);
+            removeFromIndex(existingOffer);
+            // If the existing offer has not been reported yet we only report its successor
+            if (pendingAddedOffers.remove(offerId) == null)
+                pendingRemovedOffers.putIfAbsent(offerId, existingOffer);
+        }
+
+        addToIndex(offer);
+        pendingAddedOffers.put(offerId, offer);
+        scheduleDelivery();
+    }
+
+    private void remove(Offer offer) {
+        // The offer object is a new instance created from the removed payload, so we look up our instance by ID
+        Offer existingOffer = offersById.get(offer.getId());
+        if (existingOffer == null)
+            return;
+
+        removeFromIndex(existingOffer);
+        if (pendingAddedOffers.remove(existingOffer.getId()) == null)
+            pendingRemovedOffers.putIfAbsent(existingOffer.getId(), existingOffer);
+        scheduleDelivery();
+    }
+
+    private void addToIndex(Offer offer) {
+        offersById.put(offer.getId(), offer);
+    }
+
+    private void removeFromIndex(Offer offer) {
+        offersById.remove(offer.getId());
+    }
+
+    private void scheduleDelivery() {
+        if (deliveryScheduled)
+            return;
+
+        deliveryScheduled = true;
+        UserThread.execute(this::deliverPendingChanges);
+    }
+
+    private void deliverPendingChanges() {
+        deliveryScheduled = false;
+        if (pendingAddedOffers.isEmpty() && pendingRemovedOffers.isEmpty())
+            return;
+
+        Collection<Offer> addedOffers = Collections.unmodifiableCollection(new ArrayList<>(pendingAddedOffers.values()));
+        Collection<Offer> removedOffers = Collections.unmodifiableCollection(new ArrayList<>(pendingRemovedOffers.values()));
+        pendingAddedOffers = new LinkedHashMap<>();
+        pendingRemovedOffers = new LinkedHashMap<>();
+        listeners.forEach(listener -> listener.onOffersChanged(addedOffers, removedOffers));
+    }
+}
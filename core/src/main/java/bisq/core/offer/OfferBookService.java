@@ -212,6 +212,10 @@ public class OfferBookService {
         return p2PService.isBootstrapped();
     }
 
+    public void shutDown() {
+        jsonFileManager.shutDown();
+    }
+
     public void addOfferBookChangedListener(OfferBookChangedListener offerBookChangedListener) {
         offerBookChangedListeners.add(offerBookChangedListener);
     }
@@ -64,6 +64,8 @@ import bisq.network.p2p.BundleOfEnvelopes;
 import bisq.network.p2p.CloseConnectionMessage;
 import bisq.network.p2p.PrefixedSealedAndSignedMessage;
 import bisq.network.p2p.peers.getdata.messages.GetDataResponse;
+import bisq.network.p2p.peers.getdata.messages.GetDataResponseChunk;
+import bisq.network.p2p.peers.getdata.messages.GetDataResponseChunkAck;
 import bisq.network.p2p.peers.getdata.messages.GetUpdatedDataRequest;
 import bisq.network.p2p.peers.getdata.messages.PreliminaryGetDataRequest;
 import bisq.network.p2p.peers.keepalive.messages.Ping;
@@ -107,6 +109,10 @@ public class CoreNetworkProtoResolver extends CoreProtoResolver implements Netwo
                     return PreliminaryGetDataRequest.fromProto(proto.getPreliminaryGetDataRequest(), messageVersion);
                 case GET_DATA_RESPONSE:
                     return GetDataResponse.fromProto(proto.getGetDataResponse(), this, messageVersion);
+                case GET_DATA_RESPONSE_CHUNK:
+                    return GetDataResponseChunk.fromProto(proto.getGetDataResponseChunk(), this, messageVersion);
+                case GET_DATA_RESPONSE_CHUNK_ACK:
+                    return GetDataResponseChunkAck.fromProto(proto.getGetDataResponseChunkAck(), messageVersion);
                 case GET_UPDATED_DATA_REQUEST:
                     return GetUpdatedDataRequest.fromProto(proto.getGetUpdatedDataRequest(), messageVersion);
 
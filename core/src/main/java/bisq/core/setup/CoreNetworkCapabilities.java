@@ -40,7 +40,9 @@ public class CoreNetworkCapabilities {
                 Capability.MEDIATION,
                 Capability.SIGNED_ACCOUNT_AGE_WITNESS,
                 Capability.REFUND_AGENT,
-                Capability.TRADE_STATISTICS_HASH_UPDATE
+                Capability.TRADE_STATISTICS_HASH_UPDATE,
+                Capability.GET_DATA_KEY_BLOOM_FILTER,
+                Capability.GET_DATA_RESPONSE_CHUNKS
         );
 
         if (BisqEnvironment.isDaoActivated(bisqEnvironment)) {
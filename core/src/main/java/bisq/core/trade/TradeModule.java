@@ -27,6 +27,7 @@ import bisq.core.trade.failed.FailedTradesManager;
 import bisq.core.trade.statistics.AssetTradeActivityCheck;
 import bisq.core.trade.statistics.ReferralIdService;
 import bisq.core.trade.statistics.TradeStatistics2StorageService;
+import bisq.core.trade.statistics.TradeStatisticsCandleService;
 import bisq.core.trade.statistics.TradeStatisticsManager;
 
 import bisq.common.app.AppModule;
@@ -47,6 +48,7 @@ public class TradeModule extends AppModule {
     protected void configure() {
         bind(TradeManager.class).in(Singleton.class);
         bind(TradeStatisticsManager.class).in(Singleton.class);
+        bind(TradeStatisticsCandleService.class).in(Singleton.class);
         bind(TradeStatistics2StorageService.class).in(Singleton.class);
         bind(ClosedTradableManager.class).in(Singleton.class);
         bind(FailedTradesManager.class).in(Singleton.class);
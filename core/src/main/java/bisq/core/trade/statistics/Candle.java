@@ -0,0 +1,105 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.trade.statistics;
+
+import bisq.core.monetary.Volume;
+
+import bisq.common.util.MathUtils;
+
+import java.util.Arrays;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Open, high, low and close price and the accumulated amount and volume of the trades of one market within one tick
+ * interval. Candles are updated by the TradeStatisticsCandleService as new trade statistics arrive and are read only
+ * for clients.
+ */
+@Getter
+public class Candle {
+    // Start of the tick interval
+    private final long startTime;
+    private long open;
+    private long close;
+    private long high;
+    private long low;
+    private long accumulatedAmount;
+    private long accumulatedVolume;
+    private int numTrades;
+    private long openTradeDate;
+    private long closeTradeDate;
+    // We keep the prices sorted so we can get the median without sorting
+    @Getter(AccessLevel.NONE)
+    private long[] sortedPrices = new long[4];
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    Candle(long startTime) {
+        this.startTime = startTime;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void add(TradeStatistics2 tradeStatistics) {
+        long price = tradeStatistics.getTradePrice().getValue();
+        long tradeDate = tradeStatistics.getTradeDate().getTime();
+        if (numTrades == 0 || tradeDate < openTradeDate) {
+            open = price;
+            openTradeDate = tradeDate;
+        }
+        if (numTrades == 0 || tradeDate >= closeTradeDate) {
+            close = price;
+            closeTradeDate = tradeDate;
+        }
+        high = numTrades == 0 ? price : Math.max(high, price);
+        low = numTrades == 0 ? price : Math.min(low, price);
+
+        accumulatedAmount += tradeStatistics.getTradeAmount().getValue();
+        Volume tradeVolume = tradeStatistics.getTradeVolume();
+        accumulatedVolume += tradeVolume != null ? tradeVolume.getValue() : 0;
+
+        if (numTrades == sortedPrices.length)
+            sortedPrices = Arrays.copyOf(sortedPrices, numTrades * 2);
+        int index = Arrays.binarySearch(sortedPrices, 0, numTrades, price);
+        if (index < 0)
+            index = -index - 1;
+        System.arraycopy(sortedPrices, index, sortedPrices, index + 1, numTrades - index);
+        sortedPrices[index] = price;
+        numTrades++;
+    }
+
+    // Same result as MathUtils.getMedian applied to the sorted prices
+    public long getMedian() {
+        if (numTrades == 0)
+            return 0;
+
+        int middle = numTrades / 2;
+        if (numTrades % 2 == 1)
+            return sortedPrices[middle];
+        else
+            return MathUtils.roundDoubleToLong((sortedPrices[middle - 1] + sortedPrices[middle]) / 2.0);
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.trade.statistics;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+import java.util.Date;
+
+/**
+ * Intervals of the trade statistics candles. Ticks start at the beginning of the interval in the local time zone.
+ */
+public enum TickUnit {
+    YEAR,
+    MONTH,
+    WEEK,
+    DAY,
+    HOUR,
+    MINUTE_10;
+
+    public Date roundToTick(Date time) {
+        LocalDateTime tradeLocal = time.toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime();
+
+        switch (this) {
+            case YEAR:
+                return toDate(tradeLocal.withMonth(1).withDayOfYear(1).withHour(0).withMinute(0).withSecond(0).withNano(0));
+            case MONTH:
+                return toDate(tradeLocal.withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0).withNano(0));
+            case WEEK:
+                int dayOfWeek = tradeLocal.getDayOfWeek().getValue();
+                LocalDateTime firstDayOfWeek = ChronoUnit.DAYS.addTo(tradeLocal, 1 - dayOfWeek);
+                return toDate(firstDayOfWeek.withHour(0).withMinute(0).withSecond(0).withNano(0));
+            case DAY:
+                return toDate(tradeLocal.withHour(0).withMinute(0).withSecond(0).withNano(0));
+            case HOUR:
+                return toDate(tradeLocal.withMinute(0).withSecond(0).withNano(0));
+            case MINUTE_10:
+                return toDate(tradeLocal.withMinute(tradeLocal.getMinute() - tradeLocal.getMinute() % 10).withSecond(0).withNano(0));
+            default:
+                return toDate(tradeLocal);
+        }
+    }
+
+    private static Date toDate(LocalDateTime localDateTime) {
+        return Date.from(localDateTime.atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.trade.statistics;
+
+import com.google.inject.Inject;
+
+import javafx.collections.ObservableSet;
+import javafx.collections.SetChangeListener;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Maintains the candles of all markets for all tick units. Each new trade statistics object is added to the candle of
+ * its tick interval for each tick unit, so the charts only need to look up the candles of the displayed ticks instead
+ * of grouping all trade statistics at each change of the currency or the tick unit. Beside the candles per currency
+ * code we keep the candles of all markets combined, which are used for the show all entry of the charts.
+ * <p>
+ * We listen to the observable trade statistics set of the TradeStatisticsManager. As we register our listener at
+ * construction, listeners added later to the same set get called after our candles have been updated.
+ * <p>
+ * Not thread safe. All access is expected on the user thread.
+ */
+@Slf4j
+public class TradeStatisticsCandleService {
+    private final Map<String, Map<TickUnit, NavigableMap<Long, Candle>>> candlesByCurrencyCode = new HashMap<>();
+    private final Map<TickUnit, NavigableMap<Long, Candle>> candlesOfAllMarkets = new EnumMap<>(TickUnit.class);
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Inject
+    public TradeStatisticsCandleService(TradeStatisticsManager tradeStatisticsManager) {
+        ObservableSet<TradeStatistics2> observableTradeStatisticsSet = tradeStatisticsManager.getObservableTradeStatisticsSet();
+        long ts = System.currentTimeMillis();
+        observableTradeStatisticsSet.forEach(this::add);
+        log.info("Creating candles for {} trade statistics took {} ms",
+                observableTradeStatisticsSet.size(), System.currentTimeMillis() - ts);
+
+        // Trade statistics do not get removed, so we only need to handle added ones
+        observableTradeStatisticsSet.addListener((SetChangeListener<TradeStatistics2>) change -> {
+            if (change.wasAdded())
+                add(change.getElementAdded());
+        });
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @param startTime Start of the tick interval as returned by TickUnit.roundToTick
+     */
+    public Optional<Candle> getCandle(String currencyCode, TickUnit tickUnit, long startTime) {
+        return Optional.ofNullable(getCandlesMap(currencyCode, tickUnit).get(startTime));
+    }
+
+    /**
+     * @param startTime Start of the tick interval as returned by TickUnit.roundToTick
+     */
+    public Optional<Candle> getCandleOfAllMarkets(TickUnit tickUnit, long startTime) {
+        return Optional.ofNullable(candlesOfAllMarkets.getOrDefault(tickUnit, Collections.emptyNavigableMap()).get(startTime));
+    }
+
+    // Candles in the order of their start time
+    public Collection<Candle> getCandles(String currencyCode, TickUnit tickUnit) {
+        return Collections.unmodifiableCollection(getCandlesMap(currencyCode, tickUnit).values());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void add(TradeStatistics2 tradeStatistics) {
+        Map<TickUnit, NavigableMap<Long, Candle>> candlesByTickUnit = candlesByCurrencyCode.computeIfAbsent(
+                tradeStatistics.getCurrencyCode(), e -> new EnumMap<>(TickUnit.class));
+        for (TickUnit tickUnit : TickUnit.values()) {
+            long startTime = tickUnit.roundToTick(tradeStatistics.getTradeDate()).getTime();
+            addToCandle(candlesByTickUnit, tickUnit, startTime, tradeStatistics);
+            addToCandle(candlesOfAllMarkets, tickUnit, startTime, tradeStatistics);
+        }
+    }
+
+    private static void addToCandle(Map<TickUnit, NavigableMap<Long, Candle>> candlesByTickUnit,
+                                    TickUnit tickUnit,
+                                    long startTime,
+                                    TradeStatistics2 tradeStatistics) {
+        candlesByTickUnit.computeIfAbsent(tickUnit, e -> new TreeMap<>())
+                .computeIfAbsent(startTime, Candle::new)
+                .add(tradeStatistics);
+    }
+
+    private NavigableMap<Long, Candle> getCandlesMap(String currencyCode, TickUnit tickUnit) {
+        Map<TickUnit, NavigableMap<Long, Candle>> candlesByTickUnit = candlesByCurrencyCode.get(currencyCode);
+        if (candlesByTickUnit == null)
+            return Collections.emptyNavigableMap();
+
+        return candlesByTickUnit.getOrDefault(tickUnit, Collections.emptyNavigableMap());
+    }
+}
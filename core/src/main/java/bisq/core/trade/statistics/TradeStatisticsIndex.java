@@ -0,0 +1,147 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.trade.statistics;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+import lombok.EqualsAndHashCode;
+
+/**
+ * Indexes the trade statistics by offerId, by currency code and by trade date. The index gets updated with each added
+ * trade statistics object so lookups do not need to iterate over the whole trade statistics set.
+ * <p>
+ * Only one trade statistics object per offerId is accepted. Collections are returned in trade date order.
+ * <p>
+ * Not thread safe. All access is expected on the user thread.
+ */
+public class TradeStatisticsIndex {
+    private final Map<String, TradeStatistics2> byOfferId = new HashMap<>();
+    private final Map<String, NavigableMap<TradeDateKey, TradeStatistics2>> byCurrencyCode = new HashMap<>();
+    private final NavigableMap<TradeDateKey, TradeStatistics2> byTradeDate = new TreeMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @return false if we have already a trade statistics object with the same offerId, in which case the index is
+     * not changed.
+     */
+    public boolean add(TradeStatistics2 tradeStatistics) {
+        if (byOfferId.putIfAbsent(tradeStatistics.getOfferId(), tradeStatistics) != null)
+            return false;
+
+        TradeDateKey key = new TradeDateKey(tradeStatistics);
+        byCurrencyCode.computeIfAbsent(tradeStatistics.getCurrencyCode(), e -> new TreeMap<>()).put(key, tradeStatistics);
+        byTradeDate.put(key, tradeStatistics);
+        return true;
+    }
+
+    public boolean containsOfferId(String offerId) {
+        return byOfferId.containsKey(offerId);
+    }
+
+    public Optional<TradeStatistics2> getByOfferId(String offerId) {
+        return Optional.ofNullable(byOfferId.get(offerId));
+    }
+
+    public int size() {
+        return byOfferId.size();
+    }
+
+    public Set<String> getCurrencyCodes() {
+        return Collections.unmodifiableSet(byCurrencyCode.keySet());
+    }
+
+    public Collection<TradeStatistics2> getByCurrencyCode(String currencyCode) {
+        NavigableMap<TradeDateKey, TradeStatistics2> map = byCurrencyCode.get(currencyCode);
+        return map != null ? Collections.unmodifiableCollection(map.values()) : Collections.emptyList();
+    }
+
+    /**
+     * @param fromDate  Inclusive
+     * @param toDate    Exclusive
+     */
+    public Collection<TradeStatistics2> getByCurrencyCode(String currencyCode, Date fromDate, Date toDate) {
+        NavigableMap<TradeDateKey, TradeStatistics2> map = byCurrencyCode.get(currencyCode);
+        return map != null ? getRange(map, fromDate, toDate) : Collections.emptyList();
+    }
+
+    /**
+     * @param fromDate  Inclusive
+     * @param toDate    Exclusive
+     */
+    public Collection<TradeStatistics2> getByTradeDate(Date fromDate, Date toDate) {
+        return getRange(byTradeDate, fromDate, toDate);
+    }
+
+    // Trade statistics object with the most recent trade date for that currency
+    public Optional<TradeStatistics2> getLatest(String currencyCode) {
+        NavigableMap<TradeDateKey, TradeStatistics2> map = byCurrencyCode.get(currencyCode);
+        return map != null && !map.isEmpty() ? Optional.of(map.lastEntry().getValue()) : Optional.empty();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static Collection<TradeStatistics2> getRange(NavigableMap<TradeDateKey, TradeStatistics2> map,
+                                                         Date fromDate,
+                                                         Date toDate) {
+        if (!fromDate.before(toDate))
+            return Collections.emptyList();
+
+        // An empty offerId is sorted before all others so the bounds include/exclude all entries of that date
+        TradeDateKey fromKey = new TradeDateKey(fromDate.getTime(), "");
+        TradeDateKey toKey = new TradeDateKey(toDate.getTime(), "");
+        return Collections.unmodifiableCollection(map.subMap(fromKey, true, toKey, false).values());
+    }
+
+    // We sort by trade date and use the offerId to distinguish trades with the same date
+    @EqualsAndHashCode
+    private static final class TradeDateKey implements Comparable<TradeDateKey> {
+        private final long tradeDate;
+        private final String offerId;
+
+        TradeDateKey(TradeStatistics2 tradeStatistics) {
+            this(tradeStatistics.getTradeDate().getTime(), tradeStatistics.getOfferId());
+        }
+
+        TradeDateKey(long tradeDate, String offerId) {
+            this.tradeDate = tradeDate;
+            this.offerId = offerId;
+        }
+
+        @Override
+        public int compareTo(TradeDateKey other) {
+            int result = Long.compare(tradeDate, other.tradeDate);
+            return result != 0 ? result : offerId.compareTo(other.offerId);
+        }
+    }
+}
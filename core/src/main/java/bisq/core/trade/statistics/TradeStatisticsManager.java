@@ -26,7 +26,10 @@ import bisq.core.provider.price.PriceFeedService;
 import bisq.network.p2p.P2PService;
 import bisq.network.p2p.storage.persistence.AppendOnlyDataStoreService;
 
+import bisq.common.Timer;
+import bisq.common.UserThread;
 import bisq.common.storage.JsonFileManager;
+import bisq.common.storage.NdjsonFileManager;
 import bisq.common.storage.Storage;
 import bisq.common.util.Utilities;
 
@@ -39,21 +42,32 @@ import javafx.collections.ObservableSet;
 import java.io.File;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 @Slf4j
 public class TradeStatisticsManager {
+    // Delay for writing the trade statistics json file after a change, so a burst of new trade statistics (e.g. at
+    // startup) results in only one write
+    private static final long DUMP_DELAY_SEC = 5;
 
     private final JsonFileManager jsonFileManager;
+    // Only set if we dump incrementally
+    @Nullable
+    private final NdjsonFileManager ndjsonFileManager;
     private final P2PService p2PService;
     private final PriceFeedService priceFeedService;
     private final TradeStatistics2StorageService tradeStatistics2StorageService;
     private final boolean dumpStatistics;
     private final ObservableSet<TradeStatistics2> observableTradeStatisticsSet = FXCollections.observableSet();
+    private final TradeStatisticsIndex tradeStatisticsIndex = new TradeStatisticsIndex();
+    private Timer dumpTimer;
 
     @Inject
     public TradeStatisticsManager(P2PService p2PService,
@@ -61,12 +75,14 @@ public class TradeStatisticsManager {
                                   TradeStatistics2StorageService tradeStatistics2StorageService,
                                   AppendOnlyDataStoreService appendOnlyDataStoreService,
                                   @Named(Storage.STORAGE_DIR) File storageDir,
-                                  @Named(AppOptionKeys.DUMP_STATISTICS) boolean dumpStatistics) {
+                                  @Named(AppOptionKeys.DUMP_STATISTICS) boolean dumpStatistics,
+                                  @Named(AppOptionKeys.DUMP_INCREMENTAL) boolean dumpIncremental) {
         this.p2PService = p2PService;
         this.priceFeedService = priceFeedService;
         this.tradeStatistics2StorageService = tradeStatistics2StorageService;
         this.dumpStatistics = dumpStatistics;
         jsonFileManager = new JsonFileManager(storageDir);
+        ndjsonFileManager = dumpStatistics && dumpIncremental ? new NdjsonFileManager(storageDir, "trade_statistics") : null;
 
         appendOnlyDataStoreService.addService(tradeStatistics2StorageService);
     }
@@ -77,25 +93,52 @@ public class TradeStatisticsManager {
                 addToSet((TradeStatistics2) payload);
         });
 
+        // We only accept one trade statistics object per offerId, same as for the ones we receive later
         Set<TradeStatistics2> collect = tradeStatistics2StorageService.getMap().values().stream()
                 .filter(e -> e instanceof TradeStatistics2)
                 .map(e -> (TradeStatistics2) e)
                 .filter(TradeStatistics2::isValid)
+                .filter(tradeStatisticsIndex::add)
                 .collect(Collectors.toSet());
         observableTradeStatisticsSet.addAll(collect);
 
-        priceFeedService.applyLatestBisqMarketPrice(observableTradeStatisticsSet);
+        priceFeedService.applyLatestBisqMarketPrice(tradeStatisticsIndex);
+
+        if (dumpStatistics) {
+            dumpCurrencyLists();
+            if (ndjsonFileManager != null) {
+                ndjsonFileManager.append(tradeStatisticsIndex.getByTradeDate(new Date(0), new Date(Long.MAX_VALUE)).stream()
+                        .map(TradeStatisticsForJson::new)
+                        .collect(Collectors.toList()));
+            } else {
+                dumpTradeStatistics();
+            }
+        }
+    }
+
+    public void shutDown() {
+        // Write a pending dump before we shut down the file managers
+        if (dumpTimer != null) {
+            dumpTimer.stop();
+            dumpTradeStatistics();
+        }
 
-        dump();
+        jsonFileManager.shutDown();
+        if (ndjsonFileManager != null)
+            ndjsonFileManager.shutDown();
     }
 
     public ObservableSet<TradeStatistics2> getObservableTradeStatisticsSet() {
         return observableTradeStatisticsSet;
     }
 
+    public TradeStatisticsIndex getTradeStatisticsIndex() {
+        return tradeStatisticsIndex;
+    }
+
     private void addToSet(TradeStatistics2 tradeStatistics) {
         if (!observableTradeStatisticsSet.contains(tradeStatistics)) {
-            if (observableTradeStatisticsSet.stream().anyMatch(e -> e.getOfferId().equals(tradeStatistics.getOfferId()))) {
+            if (tradeStatisticsIndex.containsOfferId(tradeStatistics.getOfferId())) {
                 return;
             }
 
@@ -103,37 +146,42 @@ public class TradeStatisticsManager {
                 return;
             }
 
+            tradeStatisticsIndex.add(tradeStatistics);
             observableTradeStatisticsSet.add(tradeStatistics);
-            priceFeedService.applyLatestBisqMarketPrice(observableTradeStatisticsSet);
-            dump();
+            priceFeedService.applyLatestBisqMarketPrice(tradeStatisticsIndex);
+            if (dumpStatistics) {
+                if (ndjsonFileManager != null)
+                    ndjsonFileManager.append(new TradeStatisticsForJson(tradeStatistics));
+                else if (dumpTimer == null)
+                    dumpTimer = UserThread.runAfter(this::dumpTradeStatistics, DUMP_DELAY_SEC);
+            }
         }
     }
 
-    private void dump() {
-        if (dumpStatistics) {
-            ArrayList<CurrencyTuple> fiatCurrencyList = CurrencyUtil.getAllSortedFiatCurrencies().stream()
-                    .map(e -> new CurrencyTuple(e.getCode(), e.getName(), 8))
-                    .collect(Collectors.toCollection(ArrayList::new));
-            jsonFileManager.writeToDisc(Utilities.objectToJson(fiatCurrencyList), "fiat_currency_list");
-
-            ArrayList<CurrencyTuple> cryptoCurrencyList = CurrencyUtil.getAllSortedCryptoCurrencies().stream()
-                    .map(e -> new CurrencyTuple(e.getCode(), e.getName(), 8))
-                    .collect(Collectors.toCollection(ArrayList::new));
-            cryptoCurrencyList.add(0, new CurrencyTuple(Res.getBaseCurrencyCode(), Res.getBaseCurrencyName(), 8));
-            jsonFileManager.writeToDisc(Utilities.objectToJson(cryptoCurrencyList), "crypto_currency_list");
-
-            // We store the statistics as json so it is easy for further processing (e.g. for web based services)
-            // TODO This is just a quick solution for storing to one file.
-            // 1 statistic entry has 500 bytes as json.
-            // Need a more scalable solution later when we get more volume.
-            // The flag will only be activated by dedicated nodes, so it should not be too critical for the moment, but needs to
-            // get improved. Maybe a LevelDB like DB...? Could be impl. in a headless version only.
-            List<TradeStatisticsForJson> list = observableTradeStatisticsSet.stream().map(TradeStatisticsForJson::new)
-                    .sorted((o1, o2) -> (Long.compare(o2.tradeDate, o1.tradeDate)))
-                    .collect(Collectors.toList());
-            TradeStatisticsForJson[] array = new TradeStatisticsForJson[list.size()];
-            list.toArray(array);
-            jsonFileManager.writeToDisc(Utilities.objectToJson(array), "trade_statistics");
-        }
+    private void dumpCurrencyLists() {
+        ArrayList<CurrencyTuple> fiatCurrencyList = CurrencyUtil.getAllSortedFiatCurrencies().stream()
+                .map(e -> new CurrencyTuple(e.getCode(), e.getName(), 8))
+                .collect(Collectors.toCollection(ArrayList::new));
+        jsonFileManager.writeToDisc(Utilities.objectToJson(fiatCurrencyList), "fiat_currency_list");
+
+        ArrayList<CurrencyTuple> cryptoCurrencyList = CurrencyUtil.getAllSortedCryptoCurrencies().stream()
+                .map(e -> new CurrencyTuple(e.getCode(), e.getName(), 8))
+                .collect(Collectors.toCollection(ArrayList::new));
+        cryptoCurrencyList.add(0, new CurrencyTuple(Res.getBaseCurrencyCode(), Res.getBaseCurrencyName(), 8));
+        jsonFileManager.writeToDisc(Utilities.objectToJson(cryptoCurrencyList), "crypto_currency_list");
+    }
+
+    private void dumpTradeStatistics() {
+        dumpTimer = null;
+
+        // We store the statistics as json so it is easy for further processing (e.g. for web based services)
+        // 1 statistic entry has 500 bytes as json. As we write the whole history at each change, nodes with the
+        // dumpIncremental option append only the new entries to newline delimited json files instead.
+        List<TradeStatisticsForJson> list = observableTradeStatisticsSet.stream().map(TradeStatisticsForJson::new)
+                .sorted((o1, o2) -> (Long.compare(o2.tradeDate, o1.tradeDate)))
+                .collect(Collectors.toList());
+        TradeStatisticsForJson[] array = new TradeStatisticsForJson[list.size()];
+        list.toArray(array);
+        jsonFileManager.writeToDisc(Utilities.objectToJson(array), "trade_statistics");
     }
 }
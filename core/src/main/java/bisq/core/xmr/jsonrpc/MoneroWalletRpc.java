@@ -6,10 +6,16 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import bisq.common.util.Utilities;
 import bisq.core.xmr.jsonrpc.result.Address;
 import bisq.core.xmr.jsonrpc.result.AddressIndex;
 import bisq.core.xmr.jsonrpc.result.Balance;
@@ -22,11 +28,79 @@ public class MoneroWalletRpc {
 	protected Logger log = LoggerFactory.getLogger(MoneroWalletRpc.class);
 	
 	private MoneroRpcConnection rpcConnection; 
+	
+	// monero-wallet-rpc handles one request at a time, so a single thread is enough and keeps the requests ordered.
+	private final ExecutorService executor = Utilities.getSingleThreadExecutor("MoneroWalletRpc");
+	// In-flight read requests by method name (and params). Concurrent callers share the pending call.
+	private final Map<String, CompletableFuture<?>> inFlightRequests = new ConcurrentHashMap<>();
 
 	public MoneroWalletRpc(MoneroRpcConnection rpcConnection) {
 		this.rpcConnection = rpcConnection;
 	}
 	
+	// Must be called once the instance is not used anymore, otherwise its thread is kept. Requests which are already
+	// queued are still executed, new requests fail.
+	public void shutDown() {
+		executor.shutdown();
+	}
+	
+	// Async API. The futures complete on the wallet rpc thread; callers are responsible to map the results to the
+	// UI thread.
+	
+	public CompletableFuture<String> getPrimaryAddressAsync() {
+		return coalesce("get_address", this::getPrimaryAddress);
+	}
+	
+	public CompletableFuture<Balance> getBalanceDataAsync() {
+		return coalesce("get_balance", this::getBalanceData);
+	}
+	
+	public CompletableFuture<List<MoneroTransfer>> getTxsAsync(String txIds) {
+		return coalesce("get_transfers:" + txIds, () -> getTxs(txIds));
+	}
+	
+	public CompletableFuture<MoneroTx> sendAsync(Map<String, Object> request) {
+		return CompletableFuture.supplyAsync(() -> send(request), executor);
+	}
+	
+	public CompletableFuture<String> relayTxAsync(String txMetadata) {
+		return CompletableFuture.supplyAsync(() -> relayTx(txMetadata), executor);
+	}
+	
+	public CompletableFuture<Address> createAccountAddressAsync(int accountIndex, String label) {
+		return CompletableFuture.supplyAsync(() -> createAccountAddress(accountIndex, label), executor);
+	}
+	
+	public CompletableFuture<String> getSpendProofAsync(String txId, String message) {
+		return CompletableFuture.supplyAsync(() -> getSpendProof(txId, message), executor);
+	}
+	
+	@SuppressWarnings("unchecked")
+	private <T> CompletableFuture<T> coalesce(String key, Supplier<T> request) {
+		CompletableFuture<T> future = new CompletableFuture<>();
+		CompletableFuture<T> inFlight = (CompletableFuture<T>) inFlightRequests.putIfAbsent(key, future);
+		if(inFlight != null) {
+			log.debug("Joining in-flight request {}", key);
+			return inFlight;
+		}
+		try {
+			executor.execute(() -> {
+				try {
+					T result = request.get();
+					inFlightRequests.remove(key, future);
+					future.complete(result);
+				} catch (Throwable t) {
+					inFlightRequests.remove(key, future);
+					future.completeExceptionally(t);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			inFlightRequests.remove(key, future);
+			future.completeExceptionally(e);
+		}
+		return future;
+	}
+	
 	public String getPrimaryAddress() {
 //		Map<String, Object> params = new HashMap<>();
 //		params.put("account_index", 0);
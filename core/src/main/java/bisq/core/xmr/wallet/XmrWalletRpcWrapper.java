@@ -14,7 +14,9 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -49,7 +51,6 @@ import bisq.core.xmr.jsonrpc.MoneroSendPriority;
 import bisq.core.xmr.jsonrpc.MoneroWalletRpc;
 import bisq.core.xmr.jsonrpc.result.Address;
 import bisq.core.xmr.jsonrpc.result.MoneroTransfer;
-import bisq.core.xmr.jsonrpc.result.MoneroTx;
 import bisq.core.xmr.listeners.XmrBalanceListener;
 import bisq.core.xmr.wallet.listeners.WalletUiListener;
 import bisq.network.p2p.P2PService;
@@ -108,6 +109,7 @@ public class XmrWalletRpcWrapper {
 				if(!validator.validate(primaryAddress).isValid()) {
 					log.debug("Wallet RPC Connection not valid (MAINNET/TESTNET mix-up); shutting down...");
 					walletRpc.closeWallet();
+					walletRpc.shutDown();
 					walletRpc = null;
 				} else {
 			        arrivedPropertyListener = (observable, oldValue, newValue) -> {
@@ -127,53 +129,53 @@ public class XmrWalletRpcWrapper {
     }
         
     public void update(WalletUiListener listener, HashMap<String, Object> walletRpcData) { 
-		Runnable command = new Runnable() {
-			
-			@Override
-			public void run() {
-		    	checkNotNull(walletRpc, Res.get("mainView.networkWarning.localhostLost", "Monero"));
-		    	listener.playAnimation();
-				if(walletRpcData != null) {
-					long time0;
-					if(walletRpcData.containsKey("getBalance")) {
-						time0 = System.currentTimeMillis();
-						BigInteger balance = walletRpc.getBalance();
-						walletRpcData.put("getBalance", balance);
+		Platform.runLater(listener::playAnimation);
+		// Collected on the wallet rpc thread and applied to walletRpcData on the UI thread
+		Map<String, Object> results = Collections.synchronizedMap(new HashMap<>());
+		CompletableFuture<Void> future = requireWalletRpc().thenCompose(rpc -> {
+			List<CompletableFuture<?>> requests = new ArrayList<>();
+			if(walletRpcData != null) {
+				long time0 = System.currentTimeMillis();
+				// Balance and unlocked balance are delivered by the same get_balance call
+				if(walletRpcData.containsKey("getBalance") || walletRpcData.containsKey("getUnlockedBalance")) {
+					requests.add(rpc.getBalanceDataAsync().thenAccept(balance -> {
+						if(walletRpcData.containsKey("getBalance")) {
+							results.put("getBalance", balance.getBalance());
+						}
+						if(walletRpcData.containsKey("getUnlockedBalance")) {
+							results.put("getUnlockedBalance", balance.getUnlockedBalance());
+						}
 						log.debug("listen -time: {}ms - balance: {}", (System.currentTimeMillis() - time0), balance);
-					}
-					if(walletRpcData.containsKey("getUnlockedBalance")) {
-						time0 = System.currentTimeMillis();
-						BigInteger unlockedBalance = walletRpc.getUnlockedBalance();
-						walletRpcData.put("getUnlockedBalance", unlockedBalance);
-						log.debug("listen -time: {}ms - unlockedBalance: {}", (System.currentTimeMillis() - time0));
-					}
-					if(walletRpcData.containsKey("getPrimaryAddress")) {
-						time0 = System.currentTimeMillis();
-						primaryAddress = walletRpc.getPrimaryAddress();
-						walletRpcData.put("getPrimaryAddress", primaryAddress);
-						log.debug("listen -time: {}ms - address: {}", (System.currentTimeMillis() - time0), primaryAddress);
-					}
-					if(walletRpcData.containsKey("getTxs")) {
-						time0 = System.currentTimeMillis();
-						List<MoneroTransfer> txList = walletRpc.getTxs(null);
+					}));
+				}
+				if(walletRpcData.containsKey("getPrimaryAddress")) {
+					requests.add(rpc.getPrimaryAddressAsync().thenAccept(address -> {
+						results.put("getPrimaryAddress", address);
+						log.debug("listen -time: {}ms - address: {}", (System.currentTimeMillis() - time0), address);
+					}));
+				}
+				if(walletRpcData.containsKey("getTxs")) {
+					requests.add(rpc.getTxsAsync(null).thenAccept(txList -> {
 						if(txList != null && !txList.isEmpty()) {
-							walletRpcData.put("getTxs", transformTxWallet(txList));
+							results.put("getTxs", transformTxWallet(txList));
 							log.debug("listen -time: {}ms - transactions: {}", (System.currentTimeMillis() - time0), txList.size());
 						} else {
-							List<XmrTxListItem> list = Collections.emptyList();
-							walletRpcData.put("getTxs", list);
+							results.put("getTxs", Collections.<XmrTxListItem>emptyList());
 						}
-					}
+					}));
 				}
-				listener.onUpdateBalances(walletRpcData);
-				listener.stopAnimation();
 			}
-		};
-		try {
-			Platform.runLater(command);
-		} catch (Exception e) {
-			listener.popupErrorWindow(Res.get("shared.account.wallet.popup.error.startupFailed"));
-		}
+			return CompletableFuture.allOf(requests.toArray(new CompletableFuture[0]));
+		});
+		handleOnUiThread(future, ignore -> {
+			if(walletRpcData != null) {
+				walletRpcData.putAll(results);
+				if(results.containsKey("getPrimaryAddress")) {
+					primaryAddress = (String) results.get("getPrimaryAddress");
+				}
+			}
+			listener.onUpdateBalances(walletRpcData);
+		}, listener::popupErrorWindow, listener::stopAnimation);
     }
     
     private List<XmrTxListItem> transformTxWallet(List<MoneroTransfer> txList) {
@@ -193,123 +195,91 @@ public class XmrWalletRpcWrapper {
     }
     
     public void searchTx(WalletUiListener listener, String commaSeparatedIds) {
-		Runnable command = new Runnable() {
-			
-			@Override
-			public void run() {
-		    	checkNotNull(walletRpc, Res.get("mainView.networkWarning.localhostLost", "Monero"));
-				HashMap<String, Object> walletRpcData = new HashMap<>();
-				listener.playAnimation();
-				if(commaSeparatedIds != null && !commaSeparatedIds.isEmpty()) {
-					String searchParam = commaSeparatedIds.replaceAll(" ", "");
-					
-					searchParam.split(",");
-					long time0 = System.currentTimeMillis();
-					List<MoneroTransfer> txs = walletRpc.getTxs(searchParam);
-					walletRpcData.put("getTxs", transformTxWallet(txs));
-					log.debug("listen -time: {}ms - searchTx: {}", (System.currentTimeMillis() - time0), txs.size());
-				}
-				listener.onUpdateBalances(walletRpcData);
-				listener.stopAnimation();
+		Platform.runLater(listener::playAnimation);
+		CompletableFuture<HashMap<String, Object>> future = requireWalletRpc().thenCompose(rpc -> {
+			if(commaSeparatedIds == null || commaSeparatedIds.isEmpty()) {
+				return CompletableFuture.completedFuture(new HashMap<>());
 			}
-		};
-		try {
-			Platform.runLater(command);
-		} catch (Exception e) {
-        	listener.popupErrorWindow(Res.get("shared.account.wallet.popup.error.startupFailed"));
-		}
+			String searchParam = commaSeparatedIds.replaceAll(" ", "");
+			long time0 = System.currentTimeMillis();
+			return rpc.getTxsAsync(searchParam).thenApply(txs -> {
+				HashMap<String, Object> walletRpcData = new HashMap<>();
+				walletRpcData.put("getTxs", transformTxWallet(txs));
+				log.debug("listen -time: {}ms - searchTx: {}", (System.currentTimeMillis() - time0), txs.size());
+				return walletRpcData;
+			});
+		});
+		handleOnUiThread(future, listener::onUpdateBalances, listener::popupErrorWindow, listener::stopAnimation);
     }
     
     public void createTx(WalletUiListener listener, Integer accountIndex, String address, 
     		BigInteger amount, MoneroSendPriority priority, boolean doNotRelay, HashMap<String, Object> walletRpcData) { 
-		Runnable command = new Runnable() {
-			
-			@Override
-			public void run() {
-				checkNotNull(walletRpc, Res.get("mainView.networkWarning.localhostLost", "Monero"));
-				listener.playAnimation();
-				long time0 = System.currentTimeMillis();
-				Map<String, Object> destination = new HashMap<>();
-				destination.put("amount", amount);
-				destination.put("address", address);
-				List<Map<String, Object>> destinations = new ArrayList<Map<String,Object>>();
-				destinations.add(destination);
-				Map<String, Object> request = new HashMap<>();
-				request.put("destinations", destinations);
-				request.put("priority", priority.ordinal());
-				request.put("payment_id", MoneroWalletRpc.generatePaymentId());
-				request.put("get_tx_key", true);
-				request.put("get_tx_hex", false);
-				request.put("do_not_relay", true);
-				request.put("get_tx_metadata", true);
-				MoneroTx tx = walletRpc.send(request);
-				
-				walletRpcData.put("getBalance", walletRpc.getBalance());
-				walletRpcData.put("getUnlockedBalance", walletRpc.getUnlockedBalance());
-				walletRpcData.put("getFee", tx.getFee());
-				walletRpcData.put("getAmount", tx.getAmount());
-				walletRpcData.put("getAddress", address);
-				walletRpcData.put("getSize", tx.getSize());
-				if(doNotRelay) {
-					walletRpcData.put("txToRelay", tx.getTxMetadata());
-				}
-				log.debug("MoneroTxWallet => {}", walletRpcData);
-				log.debug("createTx -time: {}ms - createTx: {}", (System.currentTimeMillis() - time0), tx.getSize());
-				listener.onUpdateBalances(walletRpcData);
-				listener.stopAnimation();
-			}
-		};
-		try {
-			Platform.runLater(command);
-		} catch (Exception e) {
-			listener.popupErrorWindow(Res.get("shared.account.wallet.popup.error.startupFailed"));
-		}
+		Platform.runLater(listener::playAnimation);
+		Map<String, Object> destination = new HashMap<>();
+		destination.put("amount", amount);
+		destination.put("address", address);
+		List<Map<String, Object>> destinations = new ArrayList<Map<String,Object>>();
+		destinations.add(destination);
+		Map<String, Object> request = new HashMap<>();
+		request.put("destinations", destinations);
+		request.put("priority", priority.ordinal());
+		request.put("payment_id", MoneroWalletRpc.generatePaymentId());
+		request.put("get_tx_key", true);
+		request.put("get_tx_hex", false);
+		request.put("do_not_relay", true);
+		request.put("get_tx_metadata", true);
+		long time0 = System.currentTimeMillis();
+		// The balance is requested after the tx got created so it reflects the new state of the wallet
+		CompletableFuture<HashMap<String, Object>> future = requireWalletRpc().thenCompose(rpc -> rpc.sendAsync(request)
+				.thenCompose(tx -> rpc.getBalanceDataAsync().thenApply(balance -> {
+					HashMap<String, Object> results = new HashMap<>();
+					results.put("getBalance", balance.getBalance());
+					results.put("getUnlockedBalance", balance.getUnlockedBalance());
+					results.put("getFee", tx.getFee());
+					results.put("getAmount", tx.getAmount());
+					results.put("getAddress", address);
+					results.put("getSize", tx.getSize());
+					if(doNotRelay) {
+						results.put("txToRelay", tx.getTxMetadata());
+					}
+					log.debug("createTx -time: {}ms - createTx: {}", (System.currentTimeMillis() - time0), tx.getSize());
+					return results;
+				})));
+		handleOnUiThread(future, results -> {
+			walletRpcData.putAll(results);
+			log.debug("MoneroTxWallet => {}", walletRpcData);
+			listener.onUpdateBalances(walletRpcData);
+		}, listener::popupErrorWindow, listener::stopAnimation);
     }
     
     public void relayTx(WalletUiListener listener, HashMap<String, Object> walletRpcData) { 
-		Runnable command = new Runnable() {
-			
-			@Override
-			public void run() {
-				checkNotNull(walletRpc, Res.get("mainView.networkWarning.localhostLost", "Monero"));
-				listener.playAnimation();
-				String txToRelay = (String) walletRpcData.get("txToRelay");
-				if(txToRelay != null) {
-					long time0 = System.currentTimeMillis();
-					String txId = walletRpc.relayTx(txToRelay);
-					walletRpcData.put("txId", txId);
-					walletRpcData.put("getMetadata", txToRelay);
-					log.debug("relayTx metadata: {}", txToRelay);
-					log.debug("relayTx -time: {}ms - txId: {}", (System.currentTimeMillis() - time0), txId);
-				}
-				listener.stopAnimation();
+		Platform.runLater(listener::playAnimation);
+		String txToRelay = (String) walletRpcData.get("txToRelay");
+		CompletableFuture<String> future = requireWalletRpc().thenCompose(rpc -> {
+			if(txToRelay == null) {
+				return CompletableFuture.completedFuture(null);
 			}
-		};
-		try {
-			Platform.runLater(command);
-		} catch (Exception e) {
-			listener.popupErrorWindow(Res.get("shared.account.wallet.popup.error.startupFailed"));
-		}
+			long time0 = System.currentTimeMillis();
+			return rpc.relayTxAsync(txToRelay).thenApply(txId -> {
+				log.debug("relayTx metadata: {}", txToRelay);
+				log.debug("relayTx -time: {}ms - txId: {}", (System.currentTimeMillis() - time0), txId);
+				return txId;
+			});
+		});
+		handleOnUiThread(future, txId -> {
+			if(txToRelay != null) {
+				walletRpcData.put("txId", txId);
+				walletRpcData.put("getMetadata", txToRelay);
+			}
+		}, listener::popupErrorWindow, listener::stopAnimation);
     }
     
     public void createWallet(WalletUiListener listener, int accountIndex, String label) { 
-		Runnable command = new Runnable() {
-			
-			@Override
-			public void run() {
-				checkNotNull(walletRpc, Res.get("mainView.networkWarning.localhostLost", "Monero"));
-				listener.playAnimation();
-					long time0 = System.currentTimeMillis();
-					Address address = walletRpc.createAccountAddress(accountIndex, label);
-					log.debug("relayTx -time: {}ms - txId: {}", (System.currentTimeMillis() - time0), address.getAddress());
-				listener.stopAnimation();
-			}
-		};
-		try {
-			Platform.runLater(command);
-		} catch (Exception e) {
-			listener.popupErrorWindow(Res.get("shared.account.wallet.popup.error.startupFailed"));
-		}
+		Platform.runLater(listener::playAnimation);
+		long time0 = System.currentTimeMillis();
+		CompletableFuture<Address> future = requireWalletRpc().thenCompose(rpc -> rpc.createAccountAddressAsync(accountIndex, label));
+		handleOnUiThread(future, address -> log.debug("createWallet -time: {}ms - address: {}", (System.currentTimeMillis() - time0), address.getAddress()),
+				listener::popupErrorWindow, listener::stopAnimation);
     }
     
     public void openWalletRpcInstance(WalletUiListener listener) {
@@ -348,27 +318,37 @@ public class XmrWalletRpcWrapper {
     }
 	
 	public void handleTxProof(TxProofHandler handler, String txId, String message) {
-		Runnable command = new Runnable() {
-			
-			@Override
-			public void run() {
-				checkNotNull(walletRpc, Res.get("mainView.networkWarning.localhostLost", "Monero"));
-				handler.playAnimation();
-				if(handler != null) {
-					long time0 = System.currentTimeMillis();
-					String signature = walletRpc.getSpendProof(txId, message);
-					log.debug("relayTx -time: {}ms - txId: {}", (System.currentTimeMillis() - time0), txId);
-					log.debug("relayTx signature: {}", signature);
-					handler.update(txId, message, signature);
-				}
-				handler.stopAnimation();
+		Platform.runLater(handler::playAnimation);
+		long time0 = System.currentTimeMillis();
+		CompletableFuture<String> future = requireWalletRpc().thenCompose(rpc -> rpc.getSpendProofAsync(txId, message));
+		handleOnUiThread(future, signature -> {
+			log.debug("handleTxProof -time: {}ms - txId: {}", (System.currentTimeMillis() - time0), txId);
+			log.debug("handleTxProof signature: {}", signature);
+			handler.update(txId, message, signature);
+		}, handler::popupErrorWindow, handler::stopAnimation);
+	}
+	
+	private CompletableFuture<MoneroWalletRpc> requireWalletRpc() {
+		CompletableFuture<MoneroWalletRpc> future = new CompletableFuture<>();
+		if(walletRpc != null) {
+			future.complete(walletRpc);
+		} else {
+			future.completeExceptionally(new NullPointerException(Res.get("mainView.networkWarning.localhostLost", "Monero")));
+		}
+		return future;
+	}
+	
+	// The wallet rpc calls run on the MoneroWalletRpc thread. Only the final result is mapped to the UI thread.
+	private <T> void handleOnUiThread(CompletableFuture<T> future, Consumer<T> resultHandler, Consumer<String> errorHandler, Runnable stopAnimation) {
+		future.whenComplete((result, throwable) -> Platform.runLater(() -> {
+			if(throwable == null) {
+				resultHandler.accept(result);
+			} else {
+				log.error("Monero wallet rpc call failed", throwable);
+				errorHandler.accept(Res.get("shared.account.wallet.popup.error.startupFailed"));
 			}
-		};
-		try {
-			Platform.runLater(command);
-		} catch (Exception e) {
-			handler.popupErrorWindow(Res.get("shared.account.wallet.popup.error.startupFailed"));
-		}		
+			stopAnimation.run();
+		}));
 	}
 	
 	private void initWalletRpc() {
@@ -0,0 +1,159 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.btc.wallet;
+
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.model.blockchain.Block;
+import bisq.core.dao.state.model.blockchain.Tx;
+import bisq.core.dao.state.model.blockchain.TxOutput;
+import bisq.core.dao.state.model.blockchain.TxOutputKey;
+import bisq.core.dao.state.model.blockchain.TxOutputType;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BsqLockedBalanceIndexTest {
+    private final Map<String, Tx> txById = new HashMap<>();
+    private final Set<TxOutputKey> unspentKeys = new HashSet<>();
+    private List<Block> blocks = List.of();
+    private DaoStateService daoStateService;
+    private BsqLockedBalanceIndex index;
+
+    @Before
+    public void setUp() {
+        daoStateService = mock(DaoStateService.class);
+        when(daoStateService.getTx(anyString())).thenAnswer(invocation ->
+                Optional.ofNullable(txById.get(invocation.<String>getArgument(0))));
+        when(daoStateService.isUnspent(any())).thenAnswer(invocation ->
+                unspentKeys.contains(invocation.<TxOutputKey>getArgument(0)));
+        when(daoStateService.isUnlockingAndUnspent(any(TxOutput.class))).thenAnswer(invocation -> {
+            TxOutput txOutput = invocation.getArgument(0);
+            return txOutput.getTxOutputType() == TxOutputType.UNLOCK_OUTPUT && unspentKeys.contains(txOutput.getKey());
+        });
+        when(daoStateService.getUnspentBlindVoteStakeTxOutputs()).thenAnswer(invocation ->
+                getUnspentTxOutputs(TxOutputType.BLIND_VOTE_LOCK_STAKE_OUTPUT));
+        when(daoStateService.getLockupTxOutputs()).thenAnswer(invocation -> txById.values().stream()
+                .flatMap(tx -> tx.getTxOutputs().stream())
+                .filter(txOutput -> txOutput.getTxOutputType() == TxOutputType.LOCKUP_OUTPUT)
+                .collect(Collectors.toSet()));
+        when(daoStateService.getUnspentUnlockingTxOutputsStream()).thenAnswer(invocation ->
+                getUnspentTxOutputs(TxOutputType.UNLOCK_OUTPUT).stream());
+        when(daoStateService.getLastBlock()).thenAnswer(invocation ->
+                blocks.isEmpty() ? Optional.empty() : Optional.of(blocks.get(blocks.size() - 1)));
+        when(daoStateService.getBlockAtHeight(anyInt())).thenAnswer(invocation -> blocks.stream()
+                .filter(block -> block.getHeight() == invocation.<Integer>getArgument(0))
+                .findAny());
+
+        index = new BsqLockedBalanceIndex(daoStateService);
+        index.setVerifyMode(true);
+    }
+
+    @Test
+    public void testTxParsedAfterWalletConfirmation() {
+        Set<String> confirmedTxIds = Set.of("blindVoteTx");
+        index.update(confirmedTxIds);
+        assertEquals(0, index.getLockedForVotingBalance());
+
+        addTx("blindVoteTx", TxOutputType.BLIND_VOTE_LOCK_STAKE_OUTPUT, 1000);
+        index.update(confirmedTxIds);
+        assertEquals(1000, index.getLockedForVotingBalance());
+    }
+
+    @Test
+    public void testBalancesFollowDaoStateAndWalletChanges() {
+        addTx("blindVoteTx", TxOutputType.BLIND_VOTE_LOCK_STAKE_OUTPUT, 1000);
+        addTx("lockupTx", TxOutputType.LOCKUP_OUTPUT, 2000);
+        addTx("unlockTx", TxOutputType.UNLOCK_OUTPUT, 3000);
+        addTx("otherLockupTx", TxOutputType.LOCKUP_OUTPUT, 5000);
+
+        index.update(Set.of("blindVoteTx", "lockupTx", "unlockTx"));
+        assertEquals(1000, index.getLockedForVotingBalance());
+        assertEquals(2000, index.getLockupBondsBalance());
+        assertEquals(3000, index.getUnlockingBondsBalance());
+
+        // Vote reveal spends the stake and the unlock output gets spent
+        unspentKeys.remove(new TxOutputKey("blindVoteTx", 0));
+        unspentKeys.remove(new TxOutputKey("unlockTx", 0));
+        index.update(Set.of("blindVoteTx", "lockupTx", "unlockTx"));
+        assertEquals(0, index.getLockedForVotingBalance());
+        assertEquals(2000, index.getLockupBondsBalance());
+        assertEquals(0, index.getUnlockingBondsBalance());
+
+        // Wallet reorg removed the lockup tx
+        index.update(Set.of("blindVoteTx", "unlockTx"));
+        assertEquals(0, index.getLockupBondsBalance());
+    }
+
+    @Test
+    public void testIndexIsRebuiltAfterReorgAtSameHeight() {
+        blocks = List.of(new Block(10, 0, "hash10", "hash9"));
+        addTx("lockupTx", TxOutputType.LOCKUP_OUTPUT, 2000);
+        index.update(Set.of("lockupTx"));
+        assertEquals(2000, index.getLockupBondsBalance());
+
+        // The block containing the lockup tx got replaced and the tx is not parsed yet in the new chain. The chain
+        // height did not change.
+        blocks = List.of(new Block(10, 0, "otherHash10", "hash9"));
+        txById.remove("lockupTx");
+        index.update(Set.of("lockupTx"));
+        assertEquals(0, index.getLockupBondsBalance());
+
+        addTx("lockupTx", TxOutputType.LOCKUP_OUTPUT, 2000);
+        index.update(Set.of("lockupTx"));
+        assertEquals(2000, index.getLockupBondsBalance());
+    }
+
+    private void addTx(String txId, TxOutputType txOutputType, long value) {
+        Tx tx = Tx.fromProto(protobuf.BaseTx.newBuilder()
+                .setId(txId)
+                .setTx(protobuf.Tx.newBuilder()
+                        .addTxOutputs(protobuf.BaseTxOutput.newBuilder()
+                                .setTxId(txId)
+                                .setValue(value)
+                                .setTxOutput(protobuf.TxOutput.newBuilder()
+                                        .setTxOutputType(txOutputType.toProtoMessage())))
+                        .setTxType(protobuf.TxType.UNDEFINED_TX_TYPE))
+                .build());
+        txById.put(txId, tx);
+        unspentKeys.add(new TxOutputKey(txId, 0));
+    }
+
+    private Set<TxOutput> getUnspentTxOutputs(TxOutputType txOutputType) {
+        return txById.values().stream()
+                .flatMap(tx -> tx.getTxOutputs().stream())
+                .filter(txOutput -> txOutput.getTxOutputType() == txOutputType)
+                .filter(txOutput -> unspentKeys.contains(txOutput.getKey()))
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.btc.wallet;
+
+import bisq.core.app.BisqEnvironment;
+import bisq.core.btc.listeners.AddressConfidenceListener;
+import bisq.core.btc.listeners.TxConfidenceListener;
+import bisq.core.btc.setup.WalletsSetup;
+import bisq.core.provider.fee.FeeService;
+import bisq.core.user.Preferences;
+
+import bisq.common.UserThread;
+
+import org.bitcoinj.core.Address;
+import org.bitcoinj.core.Coin;
+import org.bitcoinj.core.Context;
+import org.bitcoinj.core.ECKey;
+import org.bitcoinj.core.NetworkParameters;
+import org.bitcoinj.core.Transaction;
+import org.bitcoinj.core.TransactionConfidence;
+import org.bitcoinj.core.TransactionOutput;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class WalletServiceTest {
+    private static class CountingAddressConfidenceListener extends AddressConfidenceListener {
+        private final List<TransactionConfidence> confidences = new ArrayList<>();
+
+        CountingAddressConfidenceListener(Address address) {
+            super(address);
+        }
+
+        @Override
+        public void onTransactionConfidenceChanged(TransactionConfidence confidence) {
+            confidences.add(confidence);
+        }
+    }
+
+    private static class CountingTxConfidenceListener extends TxConfidenceListener {
+        private final List<TransactionConfidence> confidences = new ArrayList<>();
+
+        CountingTxConfidenceListener(String txId) {
+            super(txId);
+        }
+
+        @Override
+        public void onTransactionConfidenceChanged(TransactionConfidence confidence) {
+            confidences.add(confidence);
+        }
+    }
+
+    private final List<Runnable> userThreadTasks = new ArrayList<>();
+    private Executor userThreadExecutor;
+    private NetworkParameters params;
+    private WalletService walletService;
+
+    @Before
+    public void setUp() {
+        // WalletService resolves the addresses of the outputs with the parameters of the base currency network
+        params = BisqEnvironment.getParameters();
+        Context.propagate(new Context(params));
+        WalletsSetup walletsSetup = mock(WalletsSetup.class);
+        when(walletsSetup.getParams()).thenReturn(params);
+        walletService = new WalletService(walletsSetup, mock(Preferences.class), mock(FeeService.class)) {
+            @Override
+            String getWalletAsString(boolean includePrivKeys) {
+                return "";
+            }
+
+            @Override
+            protected boolean isDustAttackUtxo(TransactionOutput output) {
+                return false;
+            }
+        };
+
+        // We queue the user thread tasks so we can see how many dispatches got scheduled
+        userThreadExecutor = UserThread.getExecutor();
+        UserThread.setExecutor(userThreadTasks::add);
+    }
+
+    @After
+    public void tearDown() {
+        UserThread.setExecutor(userThreadExecutor);
+    }
+
+    @Test
+    public void testConfidenceChangeIsOnlyDispatchedToAffectedListeners() {
+        Address address1 = new ECKey().toAddress(params);
+        Address address2 = new ECKey().toAddress(params);
+        Transaction tx1 = createTx(address1, Coin.COIN);
+        Transaction tx2 = createTx(address2, Coin.COIN);
+
+        CountingAddressConfidenceListener addressListener1 = new CountingAddressConfidenceListener(address1);
+        CountingAddressConfidenceListener addressListener2 = new CountingAddressConfidenceListener(address2);
+        CountingTxConfidenceListener txListener1 = new CountingTxConfidenceListener(tx1.getHashAsString());
+        CountingTxConfidenceListener txListener2 = new CountingTxConfidenceListener(tx2.getHashAsString());
+        walletService.addAddressConfidenceListener(addressListener1);
+        walletService.addAddressConfidenceListener(addressListener2);
+        walletService.addTxConfidenceListener(txListener1);
+        walletService.addTxConfidenceListener(txListener2);
+
+        onTransactionConfidenceChanged(tx1);
+        runUserThreadTasks();
+
+        assertEquals(1, addressListener1.confidences.size());
+        assertSame(tx1.getConfidence(), addressListener1.confidences.get(0));
+        assertEquals(1, txListener1.confidences.size());
+        assertSame(tx1.getConfidence(), txListener1.confidences.get(0));
+        assertEquals(0, addressListener2.confidences.size());
+        assertEquals(0, txListener2.confidences.size());
+    }
+
+    @Test
+    public void testCoalescedConfidenceChangesAreDeliveredOnce() {
+        Address address = new ECKey().toAddress(params);
+        Transaction tx1 = createTx(address, Coin.COIN);
+        Transaction tx2 = createTx(address, Coin.CENT);
+
+        CountingAddressConfidenceListener addressListener = new CountingAddressConfidenceListener(address);
+        CountingTxConfidenceListener txListener1 = new CountingTxConfidenceListener(tx1.getHashAsString());
+        CountingTxConfidenceListener txListener2 = new CountingTxConfidenceListener(tx2.getHashAsString());
+        walletService.addAddressConfidenceListener(addressListener);
+        walletService.addTxConfidenceListener(txListener1);
+        walletService.addTxConfidenceListener(txListener2);
+
+        // Like the burst of events bitcoinj fires for a new block
+        onTransactionConfidenceChanged(tx1);
+        onTransactionConfidenceChanged(tx2);
+        onTransactionConfidenceChanged(tx1);
+        assertEquals(1, userThreadTasks.size());
+
+        runUserThreadTasks();
+
+        assertEquals(1, addressListener.confidences.size());
+        assertEquals(1, txListener1.confidences.size());
+        assertEquals(1, txListener2.confidences.size());
+
+        // A later change gets dispatched again
+        onTransactionConfidenceChanged(tx2);
+        runUserThreadTasks();
+
+        assertEquals(2, addressListener.confidences.size());
+        assertEquals(1, txListener1.confidences.size());
+        assertEquals(2, txListener2.confidences.size());
+    }
+
+    private Transaction createTx(Address address, Coin amount) {
+        Transaction tx = new Transaction(params);
+        tx.addOutput(amount, address);
+        return tx;
+    }
+
+    @SuppressWarnings("deprecation")
+    private void onTransactionConfidenceChanged(Transaction tx) {
+        walletService.walletEventListener.onTransactionConfidenceChanged(walletService.getWallet(), tx);
+    }
+
+    private void runUserThreadTasks() {
+        while (!userThreadTasks.isEmpty())
+            userThreadTasks.remove(0).run();
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.node.explorer;
+
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.model.blockchain.Block;
+
+import bisq.common.storage.FileUtil;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ExportJsonFilesServiceTest {
+    private final LinkedList<Block> blocks = new LinkedList<>();
+    private File storageDir;
+    private ExportJsonFilesService exportJsonFilesService;
+
+    @Before
+    public void setUp() throws IOException {
+        storageDir = Files.createTempDirectory("ExportJsonFilesServiceTest").toFile();
+
+        DaoStateService daoStateService = mock(DaoStateService.class);
+        when(daoStateService.isParseBlockChainComplete()).thenReturn(true);
+        when(daoStateService.getBlocks()).thenReturn(blocks);
+        when(daoStateService.getChainHeight()).thenAnswer(invocation -> blocks.getLast().getHeight());
+        when(daoStateService.getBlockAtHeight(anyInt())).thenAnswer(invocation -> {
+            int height = invocation.getArgument(0);
+            return blocks.stream().filter(block -> block.getHeight() == height).findAny();
+        });
+        when(daoStateService.getTx(any())).thenReturn(Optional.empty());
+        when(daoStateService.getIssuanceSet(any())).thenReturn(Set.of());
+
+        exportJsonFilesService = new ExportJsonFilesService(daoStateService, storageDir, true, true);
+        exportJsonFilesService.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtil.deleteDirectory(storageDir);
+    }
+
+    @Test
+    public void testAllBlocksOfBackToBackExportsAreAppended() throws IOException {
+        for (int height = 100; height < 150; height++) {
+            addBlock(height, "hash");
+            exportJsonFilesService.maybeExportToJson();
+        }
+        exportJsonFilesService.shutDown();
+
+        List<String> lines = readBlocksNdjson();
+        assertEquals(50, lines.size());
+        for (int i = 0; i < 50; i++)
+            assertTrue(lines.get(i).contains("\"hash" + (100 + i) + "\""));
+    }
+
+    @Test
+    public void testBlocksAreExportedAgainAfterReorg() throws IOException {
+        for (int height = 100; height < 110; height++) {
+            addBlock(height, "hash");
+            exportJsonFilesService.maybeExportToJson();
+        }
+
+        // The last 3 blocks get replaced
+        for (int i = 0; i < 3; i++)
+            blocks.removeLast();
+        for (int height = 107; height < 110; height++)
+            addBlock(height, "reorgHash");
+        exportJsonFilesService.maybeExportToJson();
+        exportJsonFilesService.shutDown();
+
+        List<String> lines = readBlocksNdjson();
+        assertEquals(10, lines.size());
+        assertTrue(lines.get(6).contains("\"hash106\""));
+        assertTrue(lines.get(7).contains("\"reorgHash107\""));
+        assertTrue(lines.get(9).contains("\"reorgHash109\""));
+    }
+
+    private void addBlock(int height, String hashPrefix) {
+        String previousBlockHash = blocks.isEmpty() ? "" : blocks.getLast().getHash();
+        blocks.add(new Block(height, 0, hashPrefix + height, previousBlockHash));
+    }
+
+    private List<String> readBlocksNdjson() throws IOException {
+        return Files.readAllLines(Paths.get(storageDir.getAbsolutePath(), "json", "all", "blocks_000000.ndjson"),
+                StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.node.full;
+
+import bisq.core.dao.state.model.blockchain.Block;
+
+import bisq.common.util.Utilities;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BlockRequestPipelineTest {
+    // The futures of the requested blocks by height. They get completed by the tests in any order.
+    private Map<Integer, SettableFuture<RawBlock>> requests;
+    private int maxPendingRequests;
+    private List<Integer> deliveredHeights;
+    private boolean completed;
+    private Throwable error;
+
+    @Before
+    public void setUp() {
+        requests = new TreeMap<>();
+        maxPendingRequests = 0;
+        deliveredHeights = new ArrayList<>();
+        completed = false;
+        error = null;
+    }
+
+    @Test
+    public void testBlocksAreDeliveredInHeightOrder() {
+        BlockRequestPipeline pipeline = createPipeline(100, 109, 4);
+        pipeline.start();
+
+        // Complete the requests in reverse order
+        while (!completed) {
+            List<Integer> pendingHeights = getPendingHeights();
+            for (int i = pendingHeights.size() - 1; i >= 0; i--)
+                complete(pendingHeights.get(i));
+        }
+
+        assertEquals(10, deliveredHeights.size());
+        for (int i = 0; i < 10; i++)
+            assertEquals(100 + i, (int) deliveredHeights.get(i));
+        assertNull(error);
+    }
+
+    @Test
+    public void testRequestsInFlightAreBoundedByWindowSize() {
+        BlockRequestPipeline pipeline = createPipeline(100, 119, 3);
+        pipeline.start();
+
+        assertEquals(3, requests.size());
+
+        // Blocks after a missing one are held back and do not open the window for new requests
+        complete(101);
+        complete(102);
+        assertEquals(3, requests.size());
+        assertTrue(deliveredHeights.isEmpty());
+
+        complete(100);
+        assertEquals(List.of(100, 101, 102), deliveredHeights);
+        assertEquals(6, requests.size());
+
+        while (!completed)
+            complete(getPendingHeights().get(0));
+
+        assertEquals(20, deliveredHeights.size());
+        assertEquals(3, maxPendingRequests);
+    }
+
+    @Test
+    public void testFailedRequestCancelsPendingRequests() {
+        BlockRequestPipeline pipeline = createPipeline(100, 119, 3);
+        pipeline.start();
+
+        complete(100);
+        RuntimeException exception = new RuntimeException("rpc failed");
+        requests.get(101).setException(exception);
+
+        assertSame(exception, error);
+        assertTrue(requests.get(102).isCancelled());
+        assertTrue(requests.get(103).isCancelled());
+        assertEquals(List.of(100), deliveredHeights);
+        assertFalse(completed);
+    }
+
+    @Test
+    public void testCancelStopsDelivery() {
+        BlockRequestPipeline pipeline = createPipeline(100, 119, 3);
+        pipeline.start();
+
+        pipeline.cancel();
+        assertTrue(requests.get(100).isCancelled());
+
+        assertEquals(3, requests.size());
+        assertTrue(deliveredHeights.isEmpty());
+        assertFalse(completed);
+    }
+
+    @Test
+    public void testRejectedRequestFailsPipeline() {
+        RejectedExecutionException exception = new RejectedExecutionException("rejected");
+        IntFunction<ListenableFuture<RawBlock>> blockRequester = height -> {
+            if (height == 102)
+                throw exception;
+            return request(height);
+        };
+        BlockRequestPipeline pipeline = new BlockRequestPipeline(blockRequester,
+                100,
+                119,
+                3,
+                rawBlock -> deliveredHeights.add(rawBlock.getHeight()),
+                () -> completed = true,
+                throwable -> error = throwable);
+        pipeline.start();
+
+        complete(100);
+        complete(101);
+
+        assertEquals(List.of(100, 101), deliveredHeights);
+        assertSame(exception, error);
+        assertFalse(completed);
+    }
+
+    @Test
+    public void testPipelineAfterReorgsGetsAllBlocksWhileRequestsOfCanceledPipelinesAreRunning()
+            throws InterruptedException {
+        int windowSize = 2;
+        ListeningExecutorService executor = Utilities.getFixedThreadPoolExecutor("BlockRequestPipelineTest", windowSize);
+        CountDownLatch rpcBusy = new CountDownLatch(1);
+        IntFunction<ListenableFuture<RawBlock>> blockRequester = height -> executor.submit(() -> {
+            // Like a running RPC call which does not react on interrupts
+            Uninterruptibles.awaitUninterruptibly(rpcBusy);
+            return RawBlock.fromBlock(new Block(height, 0, "hash" + height, "hash" + (height - 1)));
+        });
+
+        // Two reorgs cancel the pipelines while their requests are still queued or running
+        for (int i = 0; i < 2; i++) {
+            BlockRequestPipeline canceledPipeline = new BlockRequestPipeline(blockRequester, 100, 119, windowSize,
+                    rawBlock -> fail("Canceled pipeline must not deliver blocks"), () -> {
+                    }, throwable -> error = throwable);
+            canceledPipeline.start();
+            canceledPipeline.cancel();
+        }
+
+        List<Integer> heights = new CopyOnWriteArrayList<>();
+        CountDownLatch completedLatch = new CountDownLatch(1);
+        new BlockRequestPipeline(blockRequester, 100, 119, windowSize,
+                rawBlock -> heights.add(rawBlock.getHeight()),
+                completedLatch::countDown,
+                throwable -> error = throwable).start();
+
+        rpcBusy.countDown();
+        assertTrue(completedLatch.await(5, TimeUnit.SECONDS));
+        executor.shutdownNow();
+
+        assertEquals(20, heights.size());
+        for (int i = 0; i < 20; i++)
+            assertEquals(100 + i, (int) heights.get(i));
+        assertNull(error);
+    }
+
+    private BlockRequestPipeline createPipeline(int fromHeight, int toHeight, int windowSize) {
+        return new BlockRequestPipeline(this::request,
+                fromHeight,
+                toHeight,
+                windowSize,
+                rawBlock -> deliveredHeights.add(rawBlock.getHeight()),
+                () -> completed = true,
+                throwable -> error = throwable);
+    }
+
+    private ListenableFuture<RawBlock> request(int height) {
+        SettableFuture<RawBlock> future = SettableFuture.create();
+        requests.put(height, future);
+        maxPendingRequests = Math.max(maxPendingRequests, getPendingHeights().size());
+        return future;
+    }
+
+    private void complete(int height) {
+        requests.get(height).set(RawBlock.fromBlock(new Block(height, 0, "hash" + height, "hash" + (height - 1))));
+    }
+
+    private List<Integer> getPendingHeights() {
+        List<Integer> pendingHeights = new ArrayList<>();
+        requests.forEach((height, future) -> {
+            if (!future.isDone())
+                pendingHeights.add(height);
+        });
+        return pendingHeights;
+    }
+}
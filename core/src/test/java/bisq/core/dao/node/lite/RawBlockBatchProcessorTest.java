@@ -0,0 +1,130 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.dao.node.lite;
+
+import bisq.core.dao.node.full.RawBlock;
+import bisq.core.dao.node.parser.exceptions.RequiredReorgFromSnapshotException;
+import bisq.core.dao.state.model.blockchain.Block;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RawBlockBatchProcessorTest {
+    @Test
+    public void testBlocksAreAppliedInOrder() throws InterruptedException {
+        List<RawBlock> rawBlocks = createChain(100, 1000);
+        List<RawBlock> appliedBlocks = new ArrayList<>();
+        List<Double> progress = new ArrayList<>();
+
+        Result result = process(rawBlocks, appliedBlocks::add, progress);
+
+        assertTrue(result.completed);
+        assertEquals(rawBlocks, appliedBlocks);
+        assertEquals(1d, progress.get(progress.size() - 1), 0);
+    }
+
+    @Test
+    public void testOnlyBlocksBeforeNotConnectingBlockAreApplied() throws InterruptedException {
+        List<RawBlock> rawBlocks = createChain(100, 500);
+        RawBlock notConnecting = RawBlock.fromBlock(new Block(350, 0, "hash350", "otherHash"));
+        rawBlocks.set(250, notConnecting);
+        List<RawBlock> appliedBlocks = new ArrayList<>();
+
+        Result result = process(rawBlocks, appliedBlocks::add, new ArrayList<>());
+
+        assertTrue(result.completed);
+        assertEquals(rawBlocks.subList(0, 250), appliedBlocks);
+    }
+
+    @Test
+    public void testReorgStopsProcessing() throws InterruptedException {
+        List<RawBlock> rawBlocks = createChain(100, 10);
+        List<RawBlock> appliedBlocks = new ArrayList<>();
+
+        Result result = process(rawBlocks, rawBlock -> {
+            if (rawBlock.getHeight() == 105)
+                throw new RequiredReorgFromSnapshotException(rawBlock);
+            appliedBlocks.add(rawBlock);
+        }, new ArrayList<>());
+
+        assertTrue(result.completed);
+        assertNull(result.error);
+        assertEquals(5, appliedBlocks.size());
+    }
+
+    @Test
+    public void testParsingErrorCallsErrorHandler() throws InterruptedException {
+        List<RawBlock> rawBlocks = createChain(100, 10);
+        List<RawBlock> appliedBlocks = new ArrayList<>();
+        IllegalStateException exception = new IllegalStateException("Parsing failed");
+
+        Result result = process(rawBlocks, rawBlock -> {
+            if (rawBlock.getHeight() == 105)
+                throw exception;
+            appliedBlocks.add(rawBlock);
+        }, new ArrayList<>());
+
+        assertEquals(exception, result.error);
+        assertEquals(5, appliedBlocks.size());
+    }
+
+    private static class Result {
+        boolean completed;
+        Throwable error;
+    }
+
+    // Starts the processor and waits until it called the result or error handler
+    private static Result process(List<RawBlock> rawBlocks,
+                                  RawBlockBatchProcessor.RawBlockHandler rawBlockHandler,
+                                  List<Double> progress) throws InterruptedException {
+        Result result = new Result();
+        CountDownLatch latch = new CountDownLatch(1);
+        new RawBlockBatchProcessor(rawBlocks,
+                rawBlockHandler,
+                progress::add,
+                () -> {
+                    result.completed = true;
+                    latch.countDown();
+                },
+                throwable -> {
+                    result.error = throwable;
+                    latch.countDown();
+                })
+                .start();
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        return result;
+    }
+
+    private static List<RawBlock> createChain(int fromHeight, int numBlocks) {
+        List<RawBlock> rawBlocks = new ArrayList<>();
+        for (int height = fromHeight; height < fromHeight + numBlocks; height++) {
+            rawBlocks.add(RawBlock.fromBlock(new Block(height, 0, "hash" + height, "hash" + (height - 1))));
+        }
+        return rawBlocks;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.dao.state;
+
+import bisq.core.dao.state.model.DaoState;
+import bisq.core.dao.state.model.blockchain.Block;
+import bisq.core.dao.state.model.blockchain.SpentInfo;
+import bisq.core.dao.state.model.blockchain.TxOutput;
+import bisq.core.dao.state.model.blockchain.TxOutputKey;
+import bisq.core.dao.state.model.governance.Cycle;
+import bisq.core.dao.state.model.governance.DaoPhase;
+import bisq.core.dao.state.model.governance.Issuance;
+import bisq.core.dao.state.model.governance.IssuanceType;
+import bisq.core.dao.state.model.governance.ParamChange;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+
+public class DaoStateHashChainSerializerTest {
+    private final Random random = new Random(42);
+
+    @Test
+    public void testSerializationMatchesDaoState() {
+        DaoState daoState = new DaoState();
+        DaoStateHashChainSerializer serializer = new DaoStateHashChainSerializer();
+        int height = 100;
+        for (int i = 0; i < 1000; i++) {
+            addTxOutput(daoState, height);
+        }
+
+        for (int i = 0; i < 50; i++) {
+            height++;
+            daoState.setChainHeight(height);
+            daoState.getBlocks().add(new Block(height, 1534800000 + height, "hash" + height, "hash" + (height - 1)));
+            mutate(daoState, height);
+
+            assertArrayEquals("Serialization differs at height " + height,
+                    daoState.getSerializedStateForHashChain(),
+                    serializer.getSerializedStateForHashChain(daoState));
+        }
+    }
+
+    @Test
+    public void testSerializationMatchesDaoStateAfterStateReplaced() {
+        DaoState daoState = new DaoState();
+        DaoStateHashChainSerializer serializer = new DaoStateHashChainSerializer();
+        daoState.getBlocks().add(new Block(100, 1534800100, "hash100", "hash99"));
+        for (int i = 0; i < 200; i++) {
+            addTxOutput(daoState, 100);
+        }
+        serializer.getSerializedStateForHashChain(daoState);
+
+        // A clone has the same content but new objects, like the state after applying a snapshot
+        DaoState clone = DaoState.getClone(daoState);
+        mutate(clone, 101);
+        assertArrayEquals(clone.getSerializedStateForHashChain(), serializer.getSerializedStateForHashChain(clone));
+    }
+
+    private void mutate(DaoState daoState, int height) {
+        for (int i = 0; i < 20; i++) {
+            addTxOutput(daoState, height);
+        }
+
+        // Spend some outputs
+        List<TxOutputKey> keys = new ArrayList<>(daoState.getUnspentTxOutputMap().keySet());
+        for (int i = 0; i < 10; i++) {
+            TxOutputKey key = keys.get(random.nextInt(keys.size()));
+            if (daoState.getUnspentTxOutputMap().remove(key) != null)
+                daoState.getSpentInfoMap().put(key, new SpentInfo(height, "spendingTx" + random.nextInt(), i));
+        }
+
+        // Replace an output with a changed one for the same key
+        TxOutputKey key = daoState.getUnspentTxOutputMap().firstKey();
+        daoState.getUnspentTxOutputMap().put(key, createTxOutput(key.getTxId(), key.getIndex(), height));
+
+        if (height % 5 == 0) {
+            String txId = "issuanceTx" + height;
+            daoState.getIssuanceMap().put(txId, new Issuance(txId, height, 1000 + height, null, IssuanceType.COMPENSATION));
+            daoState.getParamChangeList().add(new ParamChange("PARAM_" + height, String.valueOf(height), height + 10));
+            daoState.getConfiscatedLockupTxList().add("lockupTx" + height);
+        }
+        if (height % 10 == 0) {
+            daoState.getCycles().add(new Cycle(height,
+                    ImmutableList.of(new DaoPhase(DaoPhase.Phase.PROPOSAL, 3), new DaoPhase(DaoPhase.Phase.BREAK1, 1))));
+        }
+    }
+
+    private void addTxOutput(DaoState daoState, int height) {
+        String txId = Long.toHexString(random.nextLong());
+        int index = random.nextInt(5);
+        daoState.getUnspentTxOutputMap().put(new TxOutputKey(txId, index), createTxOutput(txId, index, height));
+    }
+
+    private TxOutput createTxOutput(String txId, int index, int height) {
+        return TxOutput.fromProto(protobuf.BaseTxOutput.newBuilder()
+                .setIndex(index)
+                .setValue(random.nextInt(1000000) + 1)
+                .setTxId(txId)
+                .setAddress("address" + random.nextInt())
+                .setBlockHeight(height)
+                .setTxOutput(protobuf.TxOutput.newBuilder()
+                        .setTxOutputType(protobuf.TxOutputType.BSQ_OUTPUT))
+                .build());
+    }
+}
@@ -69,4 +69,22 @@ public class DaoStateServiceTest {
                 stateService.isBlockHashKnown("fakeblockhash4")
         );
     }
+
+    @Test
+    public void testBlockIndexesAreRebuiltAtApplySnapshot() {
+        DaoStateService stateService = new DaoStateService(
+                new DaoState(),
+                new GenesisTxInfo("fakegenesistxid", 100, Coin.parseCoin("2.5").value),
+                new BsqFormatter());
+
+        Block block = new Block(100, 1534800000, "fakeblockhash100", null);
+        stateService.onNewBlockHeight(100);
+        stateService.onNewBlockWithEmptyTxs(block);
+        Assert.assertTrue(stateService.isBlockHashKnown("fakeblockhash100"));
+        Assert.assertEquals(block, stateService.getBlockAtHeight(100).orElse(null));
+
+        stateService.applySnapshot(new DaoState());
+        Assert.assertFalse(stateService.isBlockHashKnown("fakeblockhash100"));
+        Assert.assertFalse(stateService.getBlockAtHeight(100).isPresent());
+    }
 }
@@ -0,0 +1,89 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.dao.state.model;
+
+import bisq.core.dao.state.model.blockchain.Block;
+import bisq.core.dao.state.model.blockchain.SpentInfo;
+import bisq.core.dao.state.model.blockchain.TxOutput;
+import bisq.core.dao.state.model.blockchain.TxOutputKey;
+import bisq.core.dao.state.model.governance.Issuance;
+import bisq.core.dao.state.model.governance.IssuanceType;
+import bisq.core.dao.state.model.governance.ParamChange;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class DaoStateTest {
+
+    @Test
+    public void testSnapshotHasSameContentAsClone() {
+        DaoState daoState = createDaoState();
+
+        DaoState snapshot = DaoState.getSnapshot(daoState);
+
+        assertArrayEquals(DaoState.getClone(daoState).getBsqStateBuilder().build().toByteArray(),
+                snapshot.getBsqStateBuilder().build().toByteArray());
+        // The immutable model objects are shared
+        assertSame(daoState.getBlocks().getLast(), snapshot.getBlocks().getLast());
+        assertSame(daoState.getUnspentTxOutputMap().firstEntry().getValue(),
+                snapshot.getUnspentTxOutputMap().firstEntry().getValue());
+    }
+
+    @Test
+    public void testSnapshotIsNotAffectedByLaterChanges() {
+        DaoState daoState = createDaoState();
+        DaoState snapshot = DaoState.getSnapshot(daoState);
+        byte[] serializedSnapshot = snapshot.getBsqStateBuilder().build().toByteArray();
+
+        daoState.setChainHeight(102);
+        daoState.getBlocks().add(new Block(102, 1534800102, "hash102", "hash101"));
+        TxOutputKey spentKey = daoState.getUnspentTxOutputMap().firstKey();
+        daoState.getUnspentTxOutputMap().remove(spentKey);
+        daoState.getSpentInfoMap().put(spentKey, new SpentInfo(102, "spendingTx", 0));
+        daoState.getIssuanceMap().clear();
+        daoState.getParamChangeList().add(new ParamChange("PARAM", "2", 110));
+        daoState.getConfiscatedLockupTxList().add("lockupTx");
+
+        assertEquals(101, snapshot.getChainHeight());
+        assertEquals(2, snapshot.getBlocks().size());
+        assertArrayEquals(serializedSnapshot, snapshot.getBsqStateBuilder().build().toByteArray());
+    }
+
+    private static DaoState createDaoState() {
+        DaoState daoState = new DaoState();
+        daoState.setChainHeight(101);
+        daoState.getBlocks().add(new Block(100, 1534800100, "hash100", "hash99"));
+        daoState.getBlocks().add(new Block(101, 1534800101, "hash101", "hash100"));
+        for (int i = 0; i < 10; i++) {
+            String txId = "tx" + i;
+            daoState.getUnspentTxOutputMap().put(new TxOutputKey(txId, 0), TxOutput.fromProto(protobuf.BaseTxOutput.newBuilder()
+                    .setTxId(txId)
+                    .setValue(1000 + i)
+                    .setBlockHeight(100)
+                    .setTxOutput(protobuf.TxOutput.newBuilder().setTxOutputType(protobuf.TxOutputType.BSQ_OUTPUT))
+                    .build()));
+        }
+        daoState.getIssuanceMap().put("issuanceTx", new Issuance("issuanceTx", 101, 5000, null, IssuanceType.COMPENSATION));
+        daoState.getParamChangeList().add(new ParamChange("PARAM", "1", 105));
+        return daoState;
+    }
+}
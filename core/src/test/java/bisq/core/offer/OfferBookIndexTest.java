@@ -0,0 +1,133 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.offer;
+
+import bisq.common.UserThread;
+
+import com.google.common.util.concurrent.MoreExecutors;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.mockito.ArgumentCaptor;
+
+import static bisq.core.offer.OfferMaker.btcUsdOffer;
+import static bisq.core.offer.OfferMaker.counterCurrencyCode;
+import static bisq.core.offer.OfferMaker.id;
+import static bisq.core.offer.OfferMaker.price;
+import static com.natpryce.makeiteasy.MakeItEasy.make;
+import static com.natpryce.makeiteasy.MakeItEasy.with;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class OfferBookIndexTest {
+    private final List<Runnable> userThreadTasks = new ArrayList<>();
+    private final List<Collection<Offer>> addedBatches = new ArrayList<>();
+    private final List<Collection<Offer>> removedBatches = new ArrayList<>();
+    private OfferBookService.OfferBookChangedListener offerBookChangedListener;
+    private OfferBookIndex offerBookIndex;
+
+    @Before
+    public void setUp() {
+        UserThread.setExecutor(userThreadTasks::add);
+
+        OfferBookService offerBookService = mock(OfferBookService.class);
+        when(offerBookService.getOffers()).thenReturn(List.of(createOffer("1", "USD", 100)));
+        offerBookIndex = new OfferBookIndex(offerBookService);
+
+        ArgumentCaptor<OfferBookService.OfferBookChangedListener> captor =
+                ArgumentCaptor.forClass(OfferBookService.OfferBookChangedListener.class);
+        verify(offerBookService).addOfferBookChangedListener(captor.capture());
+        offerBookChangedListener = captor.getValue();
+
+        offerBookIndex.addListener((addedOffers, removedOffers) -> {
+            addedBatches.add(addedOffers);
+            removedBatches.add(removedOffers);
+        });
+    }
+
+    @After
+    public void tearDown() {
+        UserThread.setExecutor(MoreExecutors.directExecutor());
+    }
+
+    @Test
+    public void testSameOfferIsIgnoredAndChangedOfferIsReplaced() {
+        Offer offer = offerBookIndex.getOfferById("1").get();
+
+        offerBookChangedListener.onAdded(createOffer("1", "USD", 100));
+        assertSame(offer, offerBookIndex.getOfferById("1").get());
+        assertTrue(userThreadTasks.isEmpty());
+
+        Offer changedOffer = createOffer("1", "USD", 200);
+        offerBookChangedListener.onAdded(changedOffer);
+        assertSame(changedOffer, offerBookIndex.getOfferById("1").get());
+        assertEquals(1, offerBookIndex.size());
+
+        runUserThreadTasks();
+        assertEquals(1, addedBatches.size());
+        assertEquals(List.of(changedOffer), new ArrayList<>(addedBatches.get(0)));
+        assertEquals(List.of(offer), new ArrayList<>(removedBatches.get(0)));
+    }
+
+    @Test
+    public void testChangesAreDeliveredInOneBatch() {
+        Offer offer2 = createOffer("2", "EUR", 100);
+        Offer offer3 = createOffer("3", "EUR", 100);
+        offerBookChangedListener.onAdded(offer2);
+        offerBookChangedListener.onAdded(offer3);
+        offerBookChangedListener.onAdded(createOffer("4", "EUR", 100));
+        // Removed before it was reported, so it does not show up in the batch
+        offerBookChangedListener.onRemoved(createOffer("4", "EUR", 100));
+        offerBookChangedListener.onRemoved(createOffer("1", "USD", 100));
+
+        assertEquals(1, userThreadTasks.size());
+        runUserThreadTasks();
+
+        assertEquals(1, addedBatches.size());
+        assertEquals(List.of(offer2, offer3), new ArrayList<>(addedBatches.get(0)));
+        assertEquals(1, removedBatches.get(0).size());
+        assertEquals("1", removedBatches.get(0).iterator().next().getId());
+
+        assertEquals(List.of(offer2, offer3), new ArrayList<>(offerBookIndex.getOffers()));
+        assertFalse(offerBookIndex.getOfferById("4").isPresent());
+    }
+
+    private void runUserThreadTasks() {
+        List<Runnable> tasks = new ArrayList<>(userThreadTasks);
+        userThreadTasks.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    private static Offer createOffer(String offerId, String currencyCode, long offerPrice) {
+        return make(btcUsdOffer.but(with(id, offerId),
+                with(counterCurrencyCode, currencyCode),
+                with(price, offerPrice)));
+    }
+}
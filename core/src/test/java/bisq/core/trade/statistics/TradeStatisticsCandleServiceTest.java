@@ -0,0 +1,117 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.trade.statistics;
+
+import bisq.core.offer.OfferPayload;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableSet;
+
+import java.util.Date;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TradeStatisticsCandleServiceTest {
+    private final ObservableSet<TradeStatistics2> observableTradeStatisticsSet = FXCollections.observableSet();
+    private long dayStart;
+
+    @Before
+    public void setUp() {
+        dayStart = TickUnit.DAY.roundToTick(new Date()).getTime();
+    }
+
+    @Test
+    public void testCandlesAreCreatedFromExistingTradeStatistics() {
+        observableTradeStatisticsSet.add(createTradeStatistics("offer1", "EUR", 5200, dayStart + 1000));
+        observableTradeStatisticsSet.add(createTradeStatistics("offer2", "EUR", 5000, dayStart + 2000));
+        observableTradeStatisticsSet.add(createTradeStatistics("offer3", "EUR", 6000, dayStart + 3000));
+        observableTradeStatisticsSet.add(createTradeStatistics("offer4", "EUR", 5800, dayStart + 4000));
+        observableTradeStatisticsSet.add(createTradeStatistics("offer5", "USD", 7000, dayStart + 5000));
+        TradeStatisticsCandleService service = createService();
+
+        Candle candle = service.getCandle("EUR", TickUnit.DAY, dayStart).get();
+        assertEquals(dayStart, candle.getStartTime());
+        assertEquals(5200, candle.getOpen());
+        assertEquals(5800, candle.getClose());
+        assertEquals(6000, candle.getHigh());
+        assertEquals(5000, candle.getLow());
+        assertEquals(5500, candle.getMedian());
+        assertEquals(4, candle.getNumTrades());
+        assertEquals(400000, candle.getAccumulatedAmount());
+
+        assertEquals(5, service.getCandleOfAllMarkets(TickUnit.DAY, dayStart).get().getNumTrades());
+        assertEquals(1, service.getCandles("USD", TickUnit.DAY).size());
+        assertFalse(service.getCandle("JPY", TickUnit.DAY, dayStart).isPresent());
+    }
+
+    @Test
+    public void testCandlesAreUpdatedWithAddedTradeStatistics() {
+        TradeStatisticsCandleService service = createService();
+        observableTradeStatisticsSet.add(createTradeStatistics("offer1", "EUR", 5200, dayStart + 2000));
+        // Trade statistics do not arrive in trade date order
+        observableTradeStatisticsSet.add(createTradeStatistics("offer2", "EUR", 5000, dayStart + 1000));
+        // Previous day
+        observableTradeStatisticsSet.add(createTradeStatistics("offer3", "EUR", 6000, dayStart - 1000));
+
+        Candle candle = service.getCandle("EUR", TickUnit.DAY, dayStart).get();
+        assertEquals(5000, candle.getOpen());
+        assertEquals(5200, candle.getClose());
+        assertEquals(5100, candle.getMedian());
+        assertEquals(2, candle.getNumTrades());
+        assertEquals(2, service.getCandles("EUR", TickUnit.DAY).size());
+
+        long yearStart = TickUnit.YEAR.roundToTick(new Date(dayStart)).getTime();
+        int numTradesInYear = dayStart == yearStart ? 2 : 3;
+        assertEquals(numTradesInYear, service.getCandle("EUR", TickUnit.YEAR, yearStart).get().getNumTrades());
+    }
+
+    private TradeStatisticsCandleService createService() {
+        TradeStatisticsManager tradeStatisticsManager = mock(TradeStatisticsManager.class);
+        when(tradeStatisticsManager.getObservableTradeStatisticsSet()).thenReturn(observableTradeStatisticsSet);
+        return new TradeStatisticsCandleService(tradeStatisticsManager);
+    }
+
+    private static TradeStatistics2 createTradeStatistics(String offerId,
+                                                          String currencyCode,
+                                                          long tradePrice,
+                                                          long tradeDate) {
+        return new TradeStatistics2(OfferPayload.Direction.BUY,
+                "BTC",
+                currencyCode,
+                "SEPA",
+                0,
+                false,
+                0,
+                100000,
+                100000,
+                offerId,
+                tradePrice,
+                100000,
+                tradeDate,
+                "depositTxId",
+                null,
+                null);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.trade.statistics;
+
+import bisq.core.offer.OfferPayload;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TradeStatisticsIndexTest {
+    @Test
+    public void testDuplicateOfferIdIsRejected() {
+        TradeStatisticsIndex index = new TradeStatisticsIndex();
+        assertTrue(index.add(createTradeStatistics("offer1", "EUR", 1000)));
+        assertFalse(index.add(createTradeStatistics("offer1", "EUR", 2000)));
+
+        assertEquals(1, index.size());
+        assertEquals(1000, index.getByOfferId("offer1").get().getTradeDate().getTime());
+    }
+
+    @Test
+    public void testLookupByCurrencyCodeAndTradeDate() {
+        TradeStatisticsIndex index = new TradeStatisticsIndex();
+        index.add(createTradeStatistics("offer1", "EUR", 3000));
+        index.add(createTradeStatistics("offer2", "EUR", 1000));
+        index.add(createTradeStatistics("offer3", "USD", 2000));
+        index.add(createTradeStatistics("offer4", "EUR", 2000));
+
+        assertEquals(List.of("offer2", "offer4", "offer1"), getOfferIds(index.getByCurrencyCode("EUR")));
+        assertEquals(List.of("offer4"), getOfferIds(index.getByCurrencyCode("EUR", new Date(2000), new Date(3000))));
+        assertEquals(List.of("offer3", "offer4"), getOfferIds(index.getByTradeDate(new Date(1001), new Date(2001))));
+        assertTrue(index.getByCurrencyCode("JPY").isEmpty());
+        assertEquals("offer1", index.getLatest("EUR").get().getOfferId());
+        assertFalse(index.getLatest("JPY").isPresent());
+    }
+
+    private static List<String> getOfferIds(Iterable<TradeStatistics2> tradeStatistics) {
+        List<String> offerIds = new ArrayList<>();
+        tradeStatistics.forEach(e -> offerIds.add(e.getOfferId()));
+        return offerIds;
+    }
+
+    private static TradeStatistics2 createTradeStatistics(String offerId, String currencyCode, long tradeDate) {
+        return new TradeStatistics2(OfferPayload.Direction.BUY,
+                "BTC",
+                currencyCode,
+                "SEPA",
+                0,
+                false,
+                0,
+                100000,
+                100000,
+                offerId,
+                10000,
+                100000,
+                tradeDate,
+                "depositTxId",
+                null,
+                null);
+    }
+}
@@ -0,0 +1,101 @@
+package bisq.core.xmr.jsonrpc;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MoneroWalletRpcTest {
+
+	// Answers get_address requests without a running monero-wallet-rpc. Blocks until released so we can send
+	// requests while one is in flight.
+	private static class StubRpcConnection extends MoneroRpcConnection {
+		private final AtomicInteger numRequests = new AtomicInteger();
+		private final CountDownLatch requestStarted = new CountDownLatch(1);
+		private final CountDownLatch release = new CountDownLatch(1);
+
+		StubRpcConnection() {
+			super("http://localhost:18082");
+		}
+
+		@Override
+		public Map<String, Object> sendJsonRequest(String method) {
+			return sendJsonRequest(method, null);
+		}
+
+		@Override
+		public Map<String, Object> sendJsonRequest(String method, Object params) {
+			numRequests.incrementAndGet();
+			requestStarted.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			Map<String, Object> result = new HashMap<>();
+			result.put("address", "address" + numRequests.get());
+			Map<String, Object> response = new HashMap<>();
+			response.put("result", result);
+			return response;
+		}
+	}
+
+	private StubRpcConnection rpcConnection;
+	private MoneroWalletRpc walletRpc;
+
+	@Before
+	public void setUp() {
+		rpcConnection = new StubRpcConnection();
+		walletRpc = new MoneroWalletRpc(rpcConnection);
+	}
+
+	@After
+	public void tearDown() {
+		walletRpc.shutDown();
+	}
+
+	@Test
+	public void testConcurrentRequestsShareOneRpcCall() throws Exception {
+		CompletableFuture<String> first = walletRpc.getPrimaryAddressAsync();
+		assertTrue(rpcConnection.requestStarted.await(5, TimeUnit.SECONDS));
+		CompletableFuture<String> second = walletRpc.getPrimaryAddressAsync();
+
+		rpcConnection.release.countDown();
+
+		assertEquals("address1", first.get(5, TimeUnit.SECONDS));
+		assertEquals("address1", second.get(5, TimeUnit.SECONDS));
+		assertEquals(1, rpcConnection.numRequests.get());
+	}
+
+	@Test
+	public void testLaterRequestMakesNewRpcCall() throws Exception {
+		rpcConnection.release.countDown();
+		assertEquals("address1", walletRpc.getPrimaryAddressAsync().get(5, TimeUnit.SECONDS));
+
+		assertEquals("address2", walletRpc.getPrimaryAddressAsync().get(5, TimeUnit.SECONDS));
+		assertEquals(2, rpcConnection.numRequests.get());
+	}
+
+	@Test
+	public void testRequestAfterShutDownFails() throws Exception {
+		walletRpc.shutDown();
+
+		try {
+			walletRpc.getPrimaryAddressAsync().get(5, TimeUnit.SECONDS);
+			fail("Expected ExecutionException");
+		} catch (ExecutionException e) {
+			assertEquals(0, rpcConnection.numRequests.get());
+		}
+	}
+}
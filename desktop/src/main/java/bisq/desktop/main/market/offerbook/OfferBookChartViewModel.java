@@ -117,16 +117,21 @@ class OfferBookChartViewModel extends ActivatableViewModel {
         }
 
         offerBookListItems = offerBook.getOfferBookListItems();
+        // The OfferBook applies the changes of the OfferBookIndex in batches, so we get one change for all removed
+        // and one for all added offers of a batch.
         offerBookListItemsListener = c -> {
-            c.next();
-            if (c.wasAdded() || c.wasRemoved()) {
-                ArrayList<OfferBookListItem> list = new ArrayList<>(c.getRemoved());
-                list.addAll(c.getAddedSubList());
-                if (list.stream()
-                        .map(OfferBookListItem::getOffer)
-                        .anyMatch(e -> e.getOfferPayload().getCurrencyCode().equals(selectedTradeCurrencyProperty.get().getCode())))
-                    updateChartData();
+            boolean selectedCurrencyChanged = false;
+            while (c.next()) {
+                if (!selectedCurrencyChanged && (c.wasAdded() || c.wasRemoved())) {
+                    ArrayList<OfferBookListItem> list = new ArrayList<>(c.getRemoved());
+                    list.addAll(c.getAddedSubList());
+                    selectedCurrencyChanged = list.stream()
+                            .map(OfferBookListItem::getOffer)
+                            .anyMatch(e -> e.getOfferPayload().getCurrencyCode().equals(selectedTradeCurrencyProperty.get().getCode()));
+                }
             }
+            if (selectedCurrencyChanged)
+                updateChartData();
 
             fillTradeCurrencies();
         };
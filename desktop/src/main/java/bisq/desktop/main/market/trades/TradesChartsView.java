@@ -35,6 +35,7 @@ import bisq.core.locale.Res;
 import bisq.core.monetary.Price;
 import bisq.core.monetary.Volume;
 import bisq.core.offer.OfferPayload;
+import bisq.core.trade.statistics.TickUnit;
 import bisq.core.trade.statistics.TradeStatistics2;
 import bisq.core.util.BSFormatter;
 
@@ -161,7 +162,7 @@ public class TradesChartsView extends ActivatableViewAndModel<VBox, TradesCharts
 
         timeUnitChangeListener = (observable, oldValue, newValue) -> {
             if (newValue != null) {
-                model.setTickUnit((TradesChartsViewModel.TickUnit) newValue.getUserData());
+                model.setTickUnit((TickUnit) newValue.getUserData());
                 priceAxisX.setTickLabelFormatter(getTimeAxisStringConverter());
                 volumeAxisX.setTickLabelFormatter(getTimeAxisStringConverter());
             }
@@ -480,7 +481,7 @@ public class TradesChartsView extends ActivatableViewAndModel<VBox, TradesCharts
             public String toString(Number object) {
                 long index = MathUtils.doubleToLong((double) object);
                 long time = model.getTimeFromTickIndex(index);
-                if (model.tickUnit.ordinal() <= TradesChartsViewModel.TickUnit.DAY.ordinal())
+                if (model.tickUnit.ordinal() <= TickUnit.DAY.ordinal())
                     return index % 4 == 0 ? DisplayUtils.formatDate(new Date(time)) : "";
                 else
                     return index % 3 == 0 ? DisplayUtils.formatTime(new Date(time)) : "";
@@ -510,12 +511,12 @@ public class TradesChartsView extends ActivatableViewAndModel<VBox, TradesCharts
         HBox.setHgrow(spacer, Priority.ALWAYS);
 
         toggleGroup = new ToggleGroup();
-        ToggleButton year = getToggleButton(Res.get("time.year"), TradesChartsViewModel.TickUnit.YEAR, toggleGroup, "toggle-left");
-        ToggleButton month = getToggleButton(Res.get("time.month"), TradesChartsViewModel.TickUnit.MONTH, toggleGroup, "toggle-center");
-        ToggleButton week = getToggleButton(Res.get("time.week"), TradesChartsViewModel.TickUnit.WEEK, toggleGroup, "toggle-center");
-        ToggleButton day = getToggleButton(Res.get("time.day"), TradesChartsViewModel.TickUnit.DAY, toggleGroup, "toggle-center");
-        ToggleButton hour = getToggleButton(Res.get("time.hour"), TradesChartsViewModel.TickUnit.HOUR, toggleGroup, "toggle-center");
-        ToggleButton minute10 = getToggleButton(Res.get("time.minute10"), TradesChartsViewModel.TickUnit.MINUTE_10, toggleGroup, "toggle-right");
+        ToggleButton year = getToggleButton(Res.get("time.year"), TickUnit.YEAR, toggleGroup, "toggle-left");
+        ToggleButton month = getToggleButton(Res.get("time.month"), TickUnit.MONTH, toggleGroup, "toggle-center");
+        ToggleButton week = getToggleButton(Res.get("time.week"), TickUnit.WEEK, toggleGroup, "toggle-center");
+        ToggleButton day = getToggleButton(Res.get("time.day"), TickUnit.DAY, toggleGroup, "toggle-center");
+        ToggleButton hour = getToggleButton(Res.get("time.hour"), TickUnit.HOUR, toggleGroup, "toggle-center");
+        ToggleButton minute10 = getToggleButton(Res.get("time.minute10"), TickUnit.MINUTE_10, toggleGroup, "toggle-right");
 
         HBox toggleBox = new HBox();
         toggleBox.setSpacing(0);
@@ -531,7 +532,7 @@ public class TradesChartsView extends ActivatableViewAndModel<VBox, TradesCharts
         return hBox;
     }
 
-    private ToggleButton getToggleButton(String label, TradesChartsViewModel.TickUnit tickUnit, ToggleGroup toggleGroup, String style) {
+    private ToggleButton getToggleButton(String label, TickUnit tickUnit, ToggleGroup toggleGroup, String style) {
         ToggleButton toggleButton = new AutoTooltipToggleButton(label);
         toggleButton.setUserData(tickUnit);
         toggleButton.setToggleGroup(toggleGroup);
@@ -34,7 +34,10 @@ import bisq.core.locale.GlobalSettings;
 import bisq.core.locale.TradeCurrency;
 import bisq.core.monetary.Altcoin;
 import bisq.core.provider.price.PriceFeedService;
+import bisq.core.trade.statistics.Candle;
+import bisq.core.trade.statistics.TickUnit;
 import bisq.core.trade.statistics.TradeStatistics2;
+import bisq.core.trade.statistics.TradeStatisticsCandleService;
 import bisq.core.trade.statistics.TradeStatisticsManager;
 import bisq.core.user.Preferences;
 import bisq.core.util.BSFormatter;
@@ -58,22 +61,12 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.collections.SetChangeListener;
 
-import javafx.util.Pair;
-
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.time.ZonedDateTime;
-import java.time.temporal.ChronoUnit;
-
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nullable;
@@ -82,20 +75,8 @@ class TradesChartsViewModel extends ActivatableViewModel {
 
     private static final int TAB_INDEX = 2;
 
-    ///////////////////////////////////////////////////////////////////////////////////////////
-    // Enum
-    ///////////////////////////////////////////////////////////////////////////////////////////
-
-    public enum TickUnit {
-        YEAR,
-        MONTH,
-        WEEK,
-        DAY,
-        HOUR,
-        MINUTE_10
-    }
-
     private final TradeStatisticsManager tradeStatisticsManager;
+    private final TradeStatisticsCandleService tradeStatisticsCandleService;
     final Preferences preferences;
     private PriceFeedService priceFeedService;
     private Navigation navigation;
@@ -109,7 +90,7 @@ class TradesChartsViewModel extends ActivatableViewModel {
     final ObservableList<TradeStatistics2> tradeStatisticsByCurrency = FXCollections.observableArrayList();
     final ObservableList<XYChart.Data<Number, Number>> priceItems = FXCollections.observableArrayList();
     final ObservableList<XYChart.Data<Number, Number>> volumeItems = FXCollections.observableArrayList();
-    private Map<Long, Pair<Date, Set<TradeStatistics2>>> itemsPerInterval;
+    private Map<Long, Date> dateByTick;
 
     TickUnit tickUnit = TickUnit.DAY;
     final int maxTicks = 30;
@@ -121,8 +102,10 @@ class TradesChartsViewModel extends ActivatableViewModel {
 
     @SuppressWarnings("WeakerAccess")
     @Inject
-    public TradesChartsViewModel(TradeStatisticsManager tradeStatisticsManager, Preferences preferences, PriceFeedService priceFeedService, Navigation navigation, BSFormatter formatter) {
+    public TradesChartsViewModel(TradeStatisticsManager tradeStatisticsManager, TradeStatisticsCandleService tradeStatisticsCandleService,
+                                 Preferences preferences, PriceFeedService priceFeedService, Navigation navigation, BSFormatter formatter) {
         this.tradeStatisticsManager = tradeStatisticsManager;
+        this.tradeStatisticsCandleService = tradeStatisticsCandleService;
         this.preferences = preferences;
         this.priceFeedService = priceFeedService;
         this.navigation = navigation;
@@ -253,38 +236,30 @@ class TradesChartsViewModel extends ActivatableViewModel {
     }
 
     private void updateChartData() {
-        tradeStatisticsByCurrency.setAll(tradeStatisticsManager.getObservableTradeStatisticsSet().stream()
-                .filter(e -> showAllTradeCurrenciesProperty.get() || e.getCurrencyCode().equals(getCurrencyCode()))
-                .collect(Collectors.toList()));
+        tradeStatisticsByCurrency.setAll(showAllTradeCurrenciesProperty.get() ?
+                tradeStatisticsManager.getObservableTradeStatisticsSet() :
+                tradeStatisticsManager.getTradeStatisticsIndex().getByCurrencyCode(getCurrencyCode()));
 
-        // Generate date range and create sets for all ticks
-        itemsPerInterval = new HashMap<>();
+        // Generate date range for all ticks
+        dateByTick = new HashMap<>();
         Date time = new Date();
         for (long i = maxTicks + 1; i >= 0; --i) {
-            Set<TradeStatistics2> set = new HashSet<>();
-            Pair<Date, Set<TradeStatistics2>> pair = new Pair<>((Date) time.clone(), set);
-            itemsPerInterval.put(i, pair);
+            dateByTick.put(i, (Date) time.clone());
             time.setTime(time.getTime() - 1);
-            time = roundToTick(time, tickUnit);
+            time = tickUnit.roundToTick(time);
         }
 
-        // Get all entries for the defined time interval
-        tradeStatisticsByCurrency.stream().forEach(e -> {
-            for (long i = maxTicks; i > 0; --i) {
-                Pair<Date, Set<TradeStatistics2>> p = itemsPerInterval.get(i);
-                if (e.getTradeDate().after(p.getKey())) {
-                    p.getValue().add(e);
-                    break;
-                }
-            }
-        });
-
-        // create CandleData for defined time interval
-        List<CandleData> candleDataList = itemsPerInterval.entrySet().stream()
-                .filter(entry -> entry.getKey() >= 0 && !entry.getValue().getValue().isEmpty())
-                .map(entry -> getCandleData(entry.getKey(), entry.getValue().getValue()))
-                .collect(Collectors.toList());
-        candleDataList.sort((o1, o2) -> (o1.tick < o2.tick ? -1 : (o1.tick == o2.tick ? 0 : 1)));
+        // The candles are maintained by the TradeStatisticsCandleService, so we only look up the candles of the
+        // displayed ticks
+        List<CandleData> candleDataList = new ArrayList<>();
+        for (long i = 1; i <= maxTicks; i++) {
+            long startTime = dateByTick.get(i).getTime();
+            Optional<Candle> candle = showAllTradeCurrenciesProperty.get() ?
+                    tradeStatisticsCandleService.getCandleOfAllMarkets(tickUnit, startTime) :
+                    tradeStatisticsCandleService.getCandle(getCurrencyCode(), tickUnit, startTime);
+            if (candle.isPresent())
+                candleDataList.add(getCandleData(i, candle.get()));
+        }
 
         //noinspection Convert2Diamond
         priceItems.setAll(candleDataList.stream()
@@ -298,40 +273,13 @@ class TradesChartsViewModel extends ActivatableViewModel {
     }
 
     @VisibleForTesting
-    CandleData getCandleData(long tick, Set<TradeStatistics2> set) {
-        long open = 0;
-        long close = 0;
-        long high = 0;
-        long low = 0;
-        long accumulatedVolume = 0;
-        long accumulatedAmount = 0;
-        long numTrades = set.size();
-        List<Long> tradePrices = new ArrayList<>(set.size());
-
-        for (TradeStatistics2 item : set) {
-            long tradePriceAsLong = item.getTradePrice().getValue();
-			// Previously a check was done which inverted the low and high for
-			// crytocurrencies.
-			low = (low != 0) ? Math.min(low, tradePriceAsLong) : tradePriceAsLong;
-			high = (high != 0) ? Math.max(high, tradePriceAsLong) : tradePriceAsLong;
-
-            accumulatedVolume += (item.getTradeVolume() != null) ? item.getTradeVolume().getValue() : 0;
-            accumulatedAmount += item.getTradeAmount().getValue();
-            tradePrices.add(item.getTradePrice().getValue());
-        }
-        Collections.sort(tradePrices);
-
-        List<TradeStatistics2> list = new ArrayList<>(set);
-        list.sort((o1, o2) -> (o1.getTradeDate().getTime() < o2.getTradeDate().getTime() ? -1 : (o1.getTradeDate().getTime() == o2.getTradeDate().getTime() ? 0 : 1)));
-        if (list.size() > 0) {
-            open = list.get(0).getTradePrice().getValue();
-            close = list.get(list.size() - 1).getTradePrice().getValue();
-        }
+    CandleData getCandleData(long tick, Candle candle) {
+        long open = candle.getOpen();
+        long close = candle.getClose();
+        long accumulatedVolume = candle.getAccumulatedVolume();
+        long accumulatedAmount = candle.getAccumulatedAmount();
 
         long averagePrice;
-        Long[] prices = new Long[tradePrices.size()];
-        tradePrices.toArray(prices);
-        long medianPrice = MathUtils.getMedian(prices);
         boolean isBullish;
         if (CurrencyUtil.isCryptoCurrency(getCurrencyCode())) {
             isBullish = close < open;
@@ -348,37 +296,13 @@ class TradesChartsViewModel extends ActivatableViewModel {
         String dateString = tickUnit.ordinal() > TickUnit.DAY.ordinal() ?
                 DisplayUtils.formatDateTimeSpan(dateFrom, dateTo) :
                 DisplayUtils.formatDate(dateFrom) + " - " + DisplayUtils.formatDate(dateTo);
-        return new CandleData(tick, open, close, high, low, averagePrice, medianPrice, accumulatedAmount, accumulatedVolume,
-                numTrades, isBullish, dateString);
-    }
-
-    Date roundToTick(Date time, TickUnit tickUnit) {
-        ZonedDateTime zdt = time.toInstant().atZone(ZoneId.systemDefault());
-        LocalDateTime tradeLocal = zdt.toLocalDateTime();
-
-        switch (tickUnit) {
-            case YEAR:
-                return Date.from(tradeLocal.withMonth(1).withDayOfYear(1).withHour(0).withMinute(0).withSecond(0).withNano(0).atZone(ZoneId.systemDefault()).toInstant());
-            case MONTH:
-                return Date.from(tradeLocal.withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0).withNano(0).atZone(ZoneId.systemDefault()).toInstant());
-            case WEEK:
-                int dayOfWeek = tradeLocal.getDayOfWeek().getValue();
-                LocalDateTime firstDayOfWeek = ChronoUnit.DAYS.addTo(tradeLocal, 1 - dayOfWeek);
-                return Date.from(firstDayOfWeek.withHour(0).withMinute(0).withSecond(0).withNano(0).atZone(ZoneId.systemDefault()).toInstant());
-            case DAY:
-                return Date.from(tradeLocal.withHour(0).withMinute(0).withSecond(0).withNano(0).atZone(ZoneId.systemDefault()).toInstant());
-            case HOUR:
-                return Date.from(tradeLocal.withMinute(0).withSecond(0).withNano(0).atZone(ZoneId.systemDefault()).toInstant());
-            case MINUTE_10:
-                return Date.from(tradeLocal.withMinute(tradeLocal.getMinute() - tradeLocal.getMinute() % 10).withSecond(0).withNano(0).atZone(ZoneId.systemDefault()).toInstant());
-            default:
-                return Date.from(tradeLocal.atZone(ZoneId.systemDefault()).toInstant());
-        }
+        return new CandleData(tick, open, close, candle.getHigh(), candle.getLow(), averagePrice, candle.getMedian(),
+                accumulatedAmount, accumulatedVolume, candle.getNumTrades(), isBullish, dateString);
     }
 
     private long getTimeFromTick(long tick) {
-        if (itemsPerInterval == null || itemsPerInterval.get(tick) == null) return 0;
-        return itemsPerInterval.get(tick).getKey().getTime();
+        if (dateByTick == null || dateByTick.get(tick) == null) return 0;
+        return dateByTick.get(tick).getTime();
     }
 
     long getTimeFromTickIndex(long index) {
@@ -19,7 +19,7 @@ package bisq.desktop.main.offer.offerbook;
 
 import bisq.core.locale.CurrencyUtil;
 import bisq.core.offer.Offer;
-import bisq.core.offer.OfferBookService;
+import bisq.core.offer.OfferBookIndex;
 import bisq.core.trade.TradeManager;
 
 import javax.inject.Inject;
@@ -28,10 +28,12 @@ import javax.inject.Singleton;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.function.Predicate;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -48,8 +50,10 @@ import static bisq.core.offer.OfferPayload.Direction.BUY;
 @Singleton
 @Slf4j
 public class OfferBook {
-    private final OfferBookService offerBookService;
+    private final OfferBookIndex offerBookIndex;
     private final ObservableList<OfferBookListItem> offerBookListItems = FXCollections.observableArrayList();
+    // Items of offerBookListItems by offer ID
+    private final Map<String, OfferBookListItem> offerBookListItemsById = new HashMap<>();
     private final Map<String, Integer> buyOfferCountMap = new HashMap<>();
     private final Map<String, Integer> sellOfferCountMap = new HashMap<>();
 
@@ -58,49 +62,42 @@ public class OfferBook {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     @Inject
-    OfferBook(OfferBookService offerBookService, TradeManager tradeManager) {
-        this.offerBookService = offerBookService;
-
-        offerBookService.addOfferBookChangedListener(new OfferBookService.OfferBookChangedListener() {
-            @Override
-            public void onAdded(Offer offer) {
-                // We get onAdded called every time a new ProtectedStorageEntry is received.
-                // Mostly it is the same OfferPayload but the ProtectedStorageEntry is different.
-                // We filter here to only add new offers if the same offer (using equals) was not already added.
-                boolean hasSameOffer = offerBookListItems.stream()
-                        .anyMatch(item -> item.getOffer().equals(offer));
-                if (!hasSameOffer) {
-                    OfferBookListItem offerBookListItem = new OfferBookListItem(offer);
-                    // We don't use the contains method as the equals method in Offer takes state and errorMessage into account.
-                    // If we have an offer with same ID we remove it and add the new offer as it might have a changed state.
-                    Optional<OfferBookListItem> candidateWithSameId = offerBookListItems.stream()
-                            .filter(item -> item.getOffer().getId().equals(offer.getId()))
-                            .findAny();
-                    if (candidateWithSameId.isPresent()) {
-                        log.warn("We had an old offer in the list with the same Offer ID. Might be that the state or errorMessage was different. " +
-                                "old offerBookListItem={}, new offerBookListItem={}", candidateWithSameId.get(), offerBookListItem);
-                        offerBookListItems.remove(candidateWithSameId.get());
-                    }
-
-                    offerBookListItems.add(offerBookListItem);
-                } else {
-                    log.debug("We have the exact same offer already in our list and ignore the onAdded call. ID={}", offer.getId());
+    OfferBook(OfferBookIndex offerBookIndex, TradeManager tradeManager) {
+        this.offerBookIndex = offerBookIndex;
+
+        // The OfferBookIndex filters offers we have already and delivers the changes in batches, so we update
+        // our list with one remove and one add operation per batch.
+        offerBookIndex.addListener((addedOffers, removedOffers) -> {
+            Set<String> addedOfferIds = addedOffers.stream().map(Offer::getId).collect(Collectors.toSet());
+            Set<OfferBookListItem> itemsToRemove = new HashSet<>();
+            removedOffers.forEach(offer -> {
+                // A replaced offer is also contained in the added offers. We only treat it as removed if not.
+                if (!addedOfferIds.contains(offer.getId())) {
+                    // Update state in case that that offer is used in the take offer screen, so it gets updated correctly
+                    offer.setState(Offer.State.REMOVED);
+
+                    // clean up possible references in openOfferManager
+                    tradeManager.onOfferRemovedFromRemoteOfferBook(offer);
                 }
-            }
 
-            @Override
-            public void onRemoved(Offer offer) {
-                // Update state in case that that offer is used in the take offer screen, so it gets updated correctly
-                offer.setState(Offer.State.REMOVED);
-
-                // clean up possible references in openOfferManager
-                tradeManager.onOfferRemovedFromRemoteOfferBook(offer);
-                // We don't use the contains method as the equals method in Offer takes state and errorMessage into account.
-                Optional<OfferBookListItem> candidateToRemove = offerBookListItems.stream()
-                        .filter(item -> item.getOffer().getId().equals(offer.getId()))
-                        .findAny();
-                candidateToRemove.ifPresent(offerBookListItems::remove);
-            }
+                OfferBookListItem item = offerBookListItemsById.remove(offer.getId());
+                if (item != null)
+                    itemsToRemove.add(item);
+            });
+
+            List<OfferBookListItem> itemsToAdd = new ArrayList<>();
+            addedOffers.forEach(offer -> {
+                OfferBookListItem item = new OfferBookListItem(offer);
+                OfferBookListItem replacedItem = offerBookListItemsById.put(offer.getId(), item);
+                if (replacedItem != null)
+                    itemsToRemove.add(replacedItem);
+                itemsToAdd.add(item);
+            });
+
+            if (!itemsToRemove.isEmpty())
+                offerBookListItems.removeAll(itemsToRemove);
+            if (!itemsToAdd.isEmpty())
+                offerBookListItems.addAll(itemsToAdd);
         });
     }
 
@@ -112,19 +109,14 @@ public class OfferBook {
         try {
             // setAll causes sometimes an UnsupportedOperationException
             // Investigate why....
-            offerBookListItems.clear();
-            offerBookListItems.addAll(offerBookService.getOffers().stream()
-            		.filter(new Predicate<>() {
-
-						@Override
-						public boolean test(Offer o) {
-							return CurrencyUtil.isFiatCurrency(o.getCurrencyCode()) ? 
-									"BTC".equals(o.getOfferPayload().getBaseCurrencyCode()) :
-									"BTC".equals(o.getOfferPayload().getCounterCurrencyCode());
-						}
-					})
+            List<OfferBookListItem> items = offerBookIndex.getOffers().stream()
+                    .filter(OfferBook::isBtcMarketOffer)
                     .map(OfferBookListItem::new)
-                    .collect(Collectors.toList()));
+                    .collect(Collectors.toList());
+            offerBookListItemsById.clear();
+            items.forEach(item -> offerBookListItemsById.put(item.getOffer().getId(), item));
+            offerBookListItems.clear();
+            offerBookListItems.addAll(items);
 
             log.debug("offerBookListItems.size {}", offerBookListItems.size());
             fillOfferCountMaps();
@@ -142,6 +134,12 @@ public class OfferBook {
         return sellOfferCountMap;
     }
 
+    private static boolean isBtcMarketOffer(Offer offer) {
+        return CurrencyUtil.isFiatCurrency(offer.getCurrencyCode()) ?
+                "BTC".equals(offer.getOfferPayload().getBaseCurrencyCode()) :
+                "BTC".equals(offer.getOfferPayload().getCounterCurrencyCode());
+    }
+
     private void fillOfferCountMaps() {
         buyOfferCountMap.clear();
         sellOfferCountMap.clear();
@@ -3,6 +3,8 @@ package bisq.desktop.main.presentation;
 import bisq.core.btc.wallet.BsqWalletService;
 import bisq.core.btc.wallet.BtcWalletService;
 import bisq.core.dao.DaoFacade;
+import bisq.core.dao.node.BsqNode;
+import bisq.core.dao.node.BsqNodeProvider;
 import bisq.core.dao.state.DaoStateListener;
 import bisq.core.dao.state.DaoStateService;
 import bisq.core.dao.state.model.blockchain.Block;
@@ -36,8 +38,10 @@ public class DaoPresentation implements DaoStateListener {
     private final DaoFacade daoFacade;
     private final BsqWalletService bsqWalletService;
     private final DaoStateService daoStateService;
+    private final BsqNode bsqNode;
 
     private final ChangeListener<Number> walletChainHeightListener;
+    private final ChangeListener<Number> parseBlocksProgressListener;
 
     @Getter
     private final DoubleProperty bsqSyncProgress = new SimpleDoubleProperty(-1);
@@ -50,12 +54,14 @@ public class DaoPresentation implements DaoStateListener {
                            BtcWalletService btcWalletService,
                            BsqWalletService bsqWalletService,
                            DaoStateService daoStateService,
-                           DaoFacade daoFacade) {
+                           DaoFacade daoFacade,
+                           BsqNodeProvider bsqNodeProvider) {
         this.preferences = preferences;
         this.btcWalletService = btcWalletService;
         this.bsqWalletService = bsqWalletService;
         this.daoFacade = daoFacade;
         this.daoStateService = daoStateService;
+        this.bsqNode = bsqNodeProvider.getBsqNode();
 
         preferences.getDontShowAgainMapAsObservable().addListener((MapChangeListener<? super String, ? super Boolean>) change -> {
             if (change.getKey().equals(DAO_NEWS) && DevEnv.isDaoActivated()) {
@@ -69,6 +75,7 @@ public class DaoPresentation implements DaoStateListener {
         }
 
         walletChainHeightListener = (observable, oldValue, newValue) -> onUpdateAnyChainHeight();
+        parseBlocksProgressListener = (observable, oldValue, newValue) -> onUpdateAnyChainHeight();
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -84,7 +91,8 @@ public class DaoPresentation implements DaoStateListener {
         if (bsqWalletChainHeight > 0) {
             final boolean synced = bsqWalletChainHeight == bsqBlockChainHeight;
             if (bsqBlockChainHeight != bsqWalletChainHeight) {
-                bsqSyncProgress.set(-1);
+                // While a batch of blocks is parsed we show its progress, otherwise an indeterminate progress
+                bsqSyncProgress.set(bsqNode.getParseBlocksProgress().get());
             } else {
                 bsqSyncProgress.set(0);
             }
@@ -121,6 +129,7 @@ public class DaoPresentation implements DaoStateListener {
             showNotification.set(preferences.showAgain(DAO_NEWS));
 
         this.btcWalletService.getChainHeightProperty().addListener(walletChainHeightListener);
+        bsqNode.getParseBlocksProgress().addListener(parseBlocksProgressListener);
         daoStateService.addDaoStateListener(this);
 
         onUpdateAnyChainHeight();
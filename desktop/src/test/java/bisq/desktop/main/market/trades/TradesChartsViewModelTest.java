@@ -24,7 +24,10 @@ import bisq.core.locale.FiatCurrency;
 import bisq.core.monetary.Price;
 import bisq.core.offer.OfferPayload;
 import bisq.core.provider.price.PriceFeedService;
+import bisq.core.trade.statistics.Candle;
+import bisq.core.trade.statistics.TickUnit;
 import bisq.core.trade.statistics.TradeStatistics2;
+import bisq.core.trade.statistics.TradeStatisticsCandleService;
 import bisq.core.trade.statistics.TradeStatisticsManager;
 import bisq.core.user.Preferences;
 import bisq.core.util.BSFormatter;
@@ -59,10 +62,13 @@ import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class TradesChartsViewModelTest {
     TradesChartsViewModel model;
     TradeStatisticsManager tradeStatisticsManager;
+    TradeStatisticsCandleService tradeStatisticsCandleService;
+    ObservableSet<TradeStatistics2> observableTradeStatisticsSet = FXCollections.observableSet();
 
     private static final Logger log = LoggerFactory.getLogger(TradesChartsViewModelTest.class);
     DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss");
@@ -110,8 +116,10 @@ public class TradesChartsViewModelTest {
     @Before
     public void setup() throws IOException {
         tradeStatisticsManager = mock(TradeStatisticsManager.class);
-        model = new TradesChartsViewModel(tradeStatisticsManager, mock(Preferences.class), mock(PriceFeedService.class),
-                mock(Navigation.class), mock(BSFormatter.class));
+        when(tradeStatisticsManager.getObservableTradeStatisticsSet()).thenReturn(observableTradeStatisticsSet);
+        tradeStatisticsCandleService = new TradeStatisticsCandleService(tradeStatisticsManager);
+        model = new TradesChartsViewModel(tradeStatisticsManager, tradeStatisticsCandleService, mock(Preferences.class),
+                mock(PriceFeedService.class), mock(Navigation.class), mock(BSFormatter.class));
         dir = File.createTempFile("temp_tests1", "");
         //noinspection ResultOfMethodCallIgnored
         dir.delete();
@@ -135,15 +143,16 @@ public class TradesChartsViewModelTest {
         long volume = Fiat.parseFiat("EUR", "2200").value;
         boolean isBullish = true;
 
-        Set<TradeStatistics2> set = new HashSet<>();
-        final Date now = new Date();
+        final Date now = TickUnit.DAY.roundToTick(new Date());
 
-        set.add(new TradeStatistics2(offer, Price.parse("EUR", "520"), Coin.parseCoin("1"), new Date(now.getTime()), null, null));
-        set.add(new TradeStatistics2(offer, Price.parse("EUR", "500"), Coin.parseCoin("1"), new Date(now.getTime() + 100), null, null));
-        set.add(new TradeStatistics2(offer, Price.parse("EUR", "600"), Coin.parseCoin("1"), new Date(now.getTime() + 200), null, null));
-        set.add(new TradeStatistics2(offer, Price.parse("EUR", "580"), Coin.parseCoin("1"), new Date(now.getTime() + 300), null, null));
+        // The candle service listens to the trade statistics set
+        observableTradeStatisticsSet.add(new TradeStatistics2(offer, Price.parse("EUR", "520"), Coin.parseCoin("1"), new Date(now.getTime()), null, null));
+        observableTradeStatisticsSet.add(new TradeStatistics2(offer, Price.parse("EUR", "500"), Coin.parseCoin("1"), new Date(now.getTime() + 100), null, null));
+        observableTradeStatisticsSet.add(new TradeStatistics2(offer, Price.parse("EUR", "600"), Coin.parseCoin("1"), new Date(now.getTime() + 200), null, null));
+        observableTradeStatisticsSet.add(new TradeStatistics2(offer, Price.parse("EUR", "580"), Coin.parseCoin("1"), new Date(now.getTime() + 300), null, null));
 
-        CandleData candleData = model.getCandleData(model.roundToTick(now, TradesChartsViewModel.TickUnit.DAY).getTime(), set);
+        Candle candle = tradeStatisticsCandleService.getCandle("EUR", TickUnit.DAY, now.getTime()).get();
+        CandleData candleData = model.getCandleData(now.getTime(), candle);
         assertEquals(open, candleData.open);
         assertEquals(close, candleData.close);
         assertEquals(high, candleData.high);
@@ -204,7 +213,7 @@ public class TradesChartsViewModelTest {
         ObservableSet<TradeStatistics2> tradeStats = FXCollections.observableSet(set);
 
         // Run test for each tick type
-        for (TradesChartsViewModel.TickUnit tick : TradesChartsViewModel.TickUnit.values()) {
+        for (TickUnit tick : TickUnit.values()) {
 /*            new Expectations() {{
                 tradeStatisticsManager.getObservableTradeStatisticsSet();
                 result = tradeStats;
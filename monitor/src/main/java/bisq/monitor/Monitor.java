@@ -93,12 +93,11 @@ public class Monitor {
 
         // assemble Metrics
         // - create reporters
-        Reporter graphiteReporter = new GraphiteReporter();
-
         // only use ConsoleReporter if requested (for debugging for example)
         Properties properties = getProperties();
-        if ("true".equals(properties.getProperty("System.useConsoleReporter", "false")))
-            graphiteReporter = new ConsoleReporter();
+        Reporter graphiteReporter = "true".equals(properties.getProperty("System.useConsoleReporter", "false")) ?
+                new ConsoleReporter() :
+                new GraphiteReporter();
 
         // - add available metrics with their reporters
         metrics.add(new TorStartupTime(graphiteReporter));
@@ -134,6 +133,9 @@ public class Monitor {
                     log.info("shutting down active metrics...");
                     Metric.haltAllMetrics();
 
+                    log.info("shutting down reporter...");
+                    graphiteReporter.shutDown();
+
                     try {
                         log.info("shutting down tor...");
                         Tor tor = Tor.getDefault();
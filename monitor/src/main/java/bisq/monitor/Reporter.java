@@ -71,4 +71,10 @@ public abstract class Reporter extends Configurable {
      */
     public abstract void report(String key, String value, String timestamp, String prefix);
 
+    /**
+     * Delivers pending reports, if any, and releases resources. Called at shutdown.
+     */
+    public void shutDown() {
+    }
+
 }
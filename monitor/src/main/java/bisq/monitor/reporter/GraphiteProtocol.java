@@ -0,0 +1,112 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.monitor.reporter;
+
+import com.google.common.base.Charsets;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import java.util.List;
+
+/**
+ * The wire formats supported by carbon.
+ *
+ * @see <a href="https://graphite.readthedocs.io/en/latest/feeding-carbon.html">Feeding in your data</a>
+ */
+enum GraphiteProtocol {
+    /**
+     * One "path value timestamp\n" line per metric. Carbon listens on port 2003 by default.
+     */
+    PLAINTEXT {
+        @Override
+        void write(List<GraphiteMetric> metrics, OutputStream outputStream) throws IOException {
+            StringBuilder lines = new StringBuilder();
+            metrics.forEach(metric -> lines.append(metric.getPath())
+                    .append(' ').append(metric.getValue())
+                    .append(' ').append(metric.getTimestamp())
+                    .append('\n'));
+            outputStream.write(lines.toString().getBytes(Charsets.UTF_8));
+        }
+    },
+
+    /**
+     * A pickled list of (path, (timestamp, value)) tuples prefixed with its length as 4 byte unsigned big endian
+     * integer. Carbon listens on port 2004 by default.
+     */
+    PICKLE {
+        // Opcodes of the pickle protocol version 2
+        private static final int PROTO = 0x80;
+        private static final int EMPTY_LIST = ']';
+        private static final int MARK = '(';
+        private static final int APPENDS = 'e';
+        private static final int BINUNICODE = 'X';
+        private static final int BINFLOAT = 'G';
+        private static final int TUPLE2 = 0x86;
+        private static final int STOP = '.';
+
+        @Override
+        void write(List<GraphiteMetric> metrics, OutputStream outputStream) throws IOException {
+            ByteArrayOutputStream payload = new ByteArrayOutputStream();
+            payload.write(PROTO);
+            payload.write(2);
+            payload.write(EMPTY_LIST);
+            payload.write(MARK);
+            for (GraphiteMetric metric : metrics) {
+                writeString(metric.getPath(), payload);
+                writeDouble(metric.getTimestamp(), payload);
+                writeValue(metric.getValue(), payload);
+                payload.write(TUPLE2);
+                payload.write(TUPLE2);
+            }
+            payload.write(APPENDS);
+            payload.write(STOP);
+
+            outputStream.write(ByteBuffer.allocate(4).putInt(payload.size()).array());
+            payload.writeTo(outputStream);
+        }
+
+        private void writeValue(String value, ByteArrayOutputStream payload) throws IOException {
+            try {
+                writeDouble(Double.parseDouble(value), payload);
+            } catch (NumberFormatException e) {
+                // Carbon converts the value with float() so a numeric string works as well
+                writeString(value, payload);
+            }
+        }
+
+        private void writeString(String value, ByteArrayOutputStream payload) throws IOException {
+            byte[] bytes = value.getBytes(Charsets.UTF_8);
+            payload.write(BINUNICODE);
+            payload.write(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(bytes.length).array());
+            payload.write(bytes);
+        }
+
+        private void writeDouble(double value, ByteArrayOutputStream payload) throws IOException {
+            payload.write(BINFLOAT);
+            payload.write(ByteBuffer.allocate(8).putDouble(value).array());
+        }
+    };
+
+    abstract void write(List<GraphiteMetric> metrics, OutputStream outputStream) throws IOException;
+}
@@ -28,21 +28,57 @@ import bisq.common.app.Version;
 
 import org.berndpruenster.netlayer.tor.TorSocket;
 
-import com.google.common.base.Charsets;
-
 import java.net.Socket;
 
 import java.io.IOException;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Properties;
+
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * Reports our findings to a graphite service.
+ * <p>
+ * Metrics are handed over to a {@link GraphiteSender} which keeps the connection to the service open and writes the
+ * metrics in batches, either with the plaintext or with the pickle protocol (property <code>protocol</code>).
  *
  * @author Florian Reimair
  */
+@Slf4j
 public class GraphiteReporter extends Reporter {
+    private static final int QUEUE_CAPACITY = 10_000;
+    private static final long LINGER_MS = 100;
+    private static final long RETRY_DELAY_MS = 1000;
+    private static final long SHUT_DOWN_TIMEOUT_MS = 5000;
+
+    private final GraphiteSender sender = new GraphiteSender(this::connect, QUEUE_CAPACITY, LINGER_MS, RETRY_DELAY_MS);
+    private String serviceUrl;
+
+    @Override
+    public synchronized void configure(Properties properties) {
+        super.configure(properties);
+
+        String protocol = configuration.getProperty("protocol", "plaintext").trim();
+        try {
+            sender.setProtocol(GraphiteProtocol.valueOf(protocol.toUpperCase()));
+        } catch (IllegalArgumentException e) {
+            log.error("Unknown graphite protocol {}. We use plaintext.", protocol);
+            sender.setProtocol(GraphiteProtocol.PLAINTEXT);
+        }
+        sender.setMaxBatchSize(Integer.parseInt(configuration.getProperty("batchSize", "500").trim()));
+
+        String newServiceUrl = configuration.getProperty("serviceUrl");
+        if (serviceUrl != null && !serviceUrl.equals(newServiceUrl))
+            sender.reconnect();
+        serviceUrl = newServiceUrl;
+    }
+
+    @Override
+    public void shutDown() {
+        sender.shutDown(SHUT_DOWN_TIMEOUT_MS);
+    }
 
     @Override
     public void report(long value, String prefix) {
@@ -60,48 +96,30 @@ public class GraphiteReporter extends Reporter {
     @Override
     public void report(Map<String, String> values, String prefix) {
         String timestamp = String.valueOf(System.currentTimeMillis());
-        values.forEach((key, value) -> {
-
-            report(key, value, timestamp, prefix);
-            try {
-                // give Tor some slack
-                // TODO maybe use the pickle protocol?
-                // https://graphite.readthedocs.io/en/latest/feeding-carbon.html
-                Thread.sleep(100);
-            } catch (InterruptedException e) {
-                // TODO Auto-generated catch block
-                e.printStackTrace();
-            }
-        });
+        values.forEach((key, value) -> report(key, value, timestamp, prefix));
     }
 
     @Override
     public void report(String key, String value, String timeInMilliseconds, String prefix) {
         // https://graphite.readthedocs.io/en/latest/feeding-carbon.html
-        String report = "bisq" + (Version.getBaseCurrencyNetwork() != 0 ? "-" + BaseCurrencyNetwork.values()[Version.getBaseCurrencyNetwork()].getNetwork() : "")
+        String path = "bisq" + (Version.getBaseCurrencyNetwork() != 0 ? "-" + BaseCurrencyNetwork.values()[Version.getBaseCurrencyNetwork()].getNetwork() : "")
                 + (prefix.isEmpty() ? "" : "." + prefix)
-                + (key.isEmpty() ? "" : "." + key)
-                + " " + value + " " + Long.valueOf(timeInMilliseconds)/1000 + "\n";
-
-        try {
-            NodeAddress nodeAddress = OnionParser.getNodeAddress(configuration.getProperty("serviceUrl"));
-            Socket socket;
-            if (nodeAddress.getFullAddress().contains(".onion"))
-                socket = new TorSocket(nodeAddress.getHostName(), nodeAddress.getPort());
-            else
-                socket = new Socket(nodeAddress.getHostName(), nodeAddress.getPort());
-
-            socket.getOutputStream().write(report.getBytes(Charsets.UTF_8));
-            socket.close();
-        } catch (IOException e) {
-            // TODO Auto-generated catch block
-            e.printStackTrace();
-        }
+                + (key.isEmpty() ? "" : "." + key);
 
+        sender.send(new GraphiteMetric(path, value, Long.valueOf(timeInMilliseconds) / 1000));
     }
 
     @Override
     public void report(Map<String, String> values) {
         report(values, "");
     }
+
+    private Socket connect() throws IOException {
+        NodeAddress nodeAddress = OnionParser.getNodeAddress(configuration.getProperty("serviceUrl"));
+        log.info("Connecting to graphite service at {}", nodeAddress.getFullAddress());
+        if (nodeAddress.getFullAddress().contains(".onion"))
+            return new TorSocket(nodeAddress.getHostName(), nodeAddress.getPort());
+        else
+            return new Socket(nodeAddress.getHostName(), nodeAddress.getPort());
+    }
 }
@@ -0,0 +1,234 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.monitor.reporter;
+
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sends metrics to carbon over a persistent connection.
+ * <p>
+ * Metrics are put into a bounded queue and written in batches by a dedicated thread. If the queue is full the
+ * oldest metrics get dropped. If a batch cannot be written the connection is closed and the batch is retried on a new
+ * connection with an increasing delay, so a temporarily unavailable carbon service (or Tor circuit) does not lose the
+ * data that was queued up in the meantime.
+ */
+@Slf4j
+class GraphiteSender {
+
+    interface Connector {
+        Socket connect() throws IOException;
+    }
+
+    private static final long MAX_RETRY_DELAY_MS = TimeUnit.MINUTES.toMillis(1);
+
+    private final Connector connector;
+    private final BlockingQueue<GraphiteMetric> queue;
+    private final long lingerMs;
+    private final long retryDelayMs;
+    private final AtomicLong numDroppedMetrics = new AtomicLong();
+    private volatile GraphiteProtocol protocol = GraphiteProtocol.PLAINTEXT;
+    private volatile int maxBatchSize = 500;
+    private volatile boolean reconnectRequested;
+    private volatile boolean stopped;
+    private Thread thread;
+
+    // Only accessed by the sender thread
+    private Socket socket;
+    private OutputStream outputStream;
+
+    /**
+     * @param connector     opens a new connection to carbon
+     * @param queueCapacity max. number of metrics we keep in memory
+     * @param lingerMs      time we wait after the first metric of a batch arrived so that the metrics reported
+     *                      together end up in the same batch
+     * @param retryDelayMs  initial delay before we retry after a failed write
+     */
+    GraphiteSender(Connector connector, int queueCapacity, long lingerMs, long retryDelayMs) {
+        this.connector = connector;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.lingerMs = lingerMs;
+        this.retryDelayMs = retryDelayMs;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void send(GraphiteMetric metric) {
+        if (stopped)
+            return;
+
+        startIfNeeded();
+        while (!queue.offer(metric)) {
+            // Queue is full. We prefer the most recent data and drop the oldest metric.
+            if (queue.poll() != null && numDroppedMetrics.incrementAndGet() % 1000 == 1)
+                log.warn("Graphite queue is full. Dropped {} metrics so far.", numDroppedMetrics.get());
+        }
+    }
+
+    void setProtocol(GraphiteProtocol protocol) {
+        if (this.protocol != protocol) {
+            this.protocol = protocol;
+            reconnect();
+        }
+    }
+
+    void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+    }
+
+    /**
+     * Closes the current connection before the next batch is written, e.g. because the service address has changed.
+     */
+    void reconnect() {
+        reconnectRequested = true;
+    }
+
+    /**
+     * Tries to write the queued metrics within the given time and stops the sender thread.
+     */
+    void shutDown(long timeoutMs) {
+        stopped = true;
+        Thread thread;
+        synchronized (this) {
+            thread = this.thread;
+        }
+        if (thread == null)
+            return;
+
+        try {
+            thread.join(timeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread.interrupt();
+    }
+
+    int getNumQueuedMetrics() {
+        return queue.size();
+    }
+
+    long getNumDroppedMetrics() {
+        return numDroppedMetrics.get();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private synchronized void startIfNeeded() {
+        if (thread != null)
+            return;
+
+        thread = new Thread(this::run, "GraphiteSender");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        List<GraphiteMetric> batch = new ArrayList<>();
+        long delay = retryDelayMs;
+        try {
+            while (!stopped || !queue.isEmpty() || !batch.isEmpty()) {
+                if (batch.isEmpty()) {
+                    GraphiteMetric first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null)
+                        continue;
+
+                    if (!stopped)
+                        Thread.sleep(lingerMs);
+                    batch.add(first);
+                    queue.drainTo(batch, maxBatchSize - 1);
+                }
+
+                try {
+                    write(batch);
+                    batch.clear();
+                    delay = retryDelayMs;
+                } catch (IOException e) {
+                    log.warn("Could not send {} metrics to graphite. We retry in {} ms. {}",
+                            batch.size(), delay, e.toString());
+                    closeConnection();
+                    Thread.sleep(delay);
+                    delay = Math.min(delay * 2, MAX_RETRY_DELAY_MS);
+                }
+            }
+        } catch (InterruptedException e) {
+            log.warn("GraphiteSender got interrupted. {} metrics were not sent.", batch.size() + queue.size());
+        } finally {
+            closeConnection();
+        }
+    }
+
+    private void write(List<GraphiteMetric> batch) throws IOException {
+        if (reconnectRequested || (socket != null && isClosedByPeer(socket))) {
+            reconnectRequested = false;
+            closeConnection();
+        }
+
+        if (socket == null) {
+            socket = connector.connect();
+            outputStream = new BufferedOutputStream(socket.getOutputStream());
+        }
+
+        protocol.write(batch, outputStream);
+        outputStream.flush();
+    }
+
+    // Carbon never sends anything, so reading the end of stream tells us that the connection was closed. Without that
+    // check the first batch after the peer has closed the connection might be written to the local socket buffer
+    // without an error and would be lost.
+    private static boolean isClosedByPeer(Socket socket) {
+        try {
+            socket.setSoTimeout(1);
+            return socket.getInputStream().read() == -1;
+        } catch (SocketTimeoutException e) {
+            return false;
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    private void closeConnection() {
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException ignore) {
+            }
+        }
+        socket = null;
+        outputStream = null;
+    }
+}
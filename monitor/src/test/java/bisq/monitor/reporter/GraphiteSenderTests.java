@@ -0,0 +1,166 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.monitor.reporter;
+
+import com.google.common.base.Charsets;
+
+import java.net.ServerSocket;
+import java.net.Socket;
+
+import java.nio.ByteBuffer;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link GraphiteSender} against a local stand-in for the carbon plaintext listener.
+ */
+public class GraphiteSenderTests {
+
+    /**
+     * Accepts connections and collects the received lines. Closes a connection after closeAfterLines lines if set.
+     */
+    private static class CarbonListener implements Runnable {
+        private final ServerSocket serverSocket;
+        private final BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+        private final AtomicInteger numConnections = new AtomicInteger();
+        private volatile int closeAfterLines;
+
+        CarbonListener() throws IOException {
+            serverSocket = new ServerSocket(0);
+            new Thread(this, "CarbonListener").start();
+        }
+
+        @Override
+        public void run() {
+            while (!serverSocket.isClosed()) {
+                try (Socket socket = serverSocket.accept();
+                     BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                             Charsets.UTF_8))) {
+                    numConnections.incrementAndGet();
+                    int numLines = 0;
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        lines.add(line);
+                        if (++numLines == closeAfterLines)
+                            break;
+                    }
+                } catch (IOException ignore) {
+                }
+            }
+        }
+
+        List<String> awaitLines(int numLines) throws InterruptedException {
+            List<String> result = new ArrayList<>();
+            while (result.size() < numLines) {
+                String line = lines.poll(5, TimeUnit.SECONDS);
+                Assert.assertNotNull("Received only " + result.size() + " lines", line);
+                result.add(line);
+            }
+            return result;
+        }
+
+        void close() throws IOException {
+            serverSocket.close();
+        }
+    }
+
+    private CarbonListener carbonListener;
+    private GraphiteSender sender;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        carbonListener = new CarbonListener();
+        sender = new GraphiteSender(() -> new Socket("localhost", carbonListener.serverSocket.getLocalPort()),
+                1000, 10, 10);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        sender.shutDown(1000);
+        carbonListener.close();
+    }
+
+    @Test
+    public void sendsAllMetricsOverOneConnection() throws Exception {
+        for (int i = 0; i < 300; i++)
+            sender.send(new GraphiteMetric("bisq.test", String.valueOf(i), 1000 + i));
+
+        List<String> lines = carbonListener.awaitLines(300);
+        Assert.assertEquals("bisq.test 0 1000", lines.get(0));
+        Assert.assertEquals("bisq.test 299 1299", lines.get(299));
+        Assert.assertEquals(1, carbonListener.numConnections.get());
+    }
+
+    @Test
+    public void reconnectsAfterConnectionWasClosed() throws Exception {
+        carbonListener.closeAfterLines = 2;
+        sender.send(new GraphiteMetric("bisq.test", "1", 1000));
+        sender.send(new GraphiteMetric("bisq.test", "2", 1000));
+        carbonListener.awaitLines(2);
+        // give the listener some time to close the connection
+        Thread.sleep(200);
+
+        sender.send(new GraphiteMetric("bisq.test", "3", 1000));
+        Assert.assertEquals(Arrays.asList("bisq.test 3 1000"), carbonListener.awaitLines(1));
+        Assert.assertEquals(2, carbonListener.numConnections.get());
+    }
+
+    @Test
+    public void dropsOldestMetricsIfQueueIsFull() {
+        sender = new GraphiteSender(() -> {
+            throw new IOException("service not available");
+        }, 10, 0, 10_000);
+        // The failed batch the sender thread holds on to contains at most one metric
+        sender.setMaxBatchSize(1);
+        for (int i = 0; i < 100; i++)
+            sender.send(new GraphiteMetric("bisq.test", String.valueOf(i), 1000));
+
+        Assert.assertTrue(sender.getNumQueuedMetrics() <= 10);
+        Assert.assertTrue(sender.getNumDroppedMetrics() >= 89);
+    }
+
+    @Test
+    public void writesLengthPrefixedPickle() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        GraphiteProtocol.PICKLE.write(Arrays.asList(new GraphiteMetric("bisq.test", "42", 1000),
+                new GraphiteMetric("bisq.other", "n/a", 1000)), outputStream);
+
+        byte[] bytes = outputStream.toByteArray();
+        Assert.assertEquals(bytes.length - 4, ByteBuffer.wrap(bytes, 0, 4).getInt());
+        Assert.assertEquals((byte) 0x80, bytes[4]);
+        Assert.assertEquals(2, bytes[5]);
+        Assert.assertEquals('.', bytes[bytes.length - 1]);
+    }
+}
@@ -39,4 +39,6 @@ public class NetworkOptionKeys {
     public static final String MSG_THROTTLE_PER_10_SEC = "msgThrottlePer10Sec";
     public static final String SEND_MSG_THROTTLE_TRIGGER = "sendMsgThrottleTrigger";
     public static final String SEND_MSG_THROTTLE_SLEEP = "sendMsgThrottleSleep";
+    public static final String USE_STORE_JOURNAL = "useStoreJournal";
+    public static final String USE_NIO_TRANSPORT = "useNioTransport";
 }
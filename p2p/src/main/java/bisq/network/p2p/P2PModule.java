@@ -78,6 +78,12 @@ public class P2PModule extends AppModule {
         Boolean useLocalhostForP2P = environment.getProperty(NetworkOptionKeys.USE_LOCALHOST_FOR_P2P, boolean.class, false);
         bind(boolean.class).annotatedWith(Names.named(NetworkOptionKeys.USE_LOCALHOST_FOR_P2P)).toInstance(useLocalhostForP2P);
 
+        Boolean useStoreJournal = environment.getProperty(NetworkOptionKeys.USE_STORE_JOURNAL, boolean.class, false);
+        bind(boolean.class).annotatedWith(Names.named(NetworkOptionKeys.USE_STORE_JOURNAL)).toInstance(useStoreJournal);
+
+        Boolean useNioTransport = environment.getProperty(NetworkOptionKeys.USE_NIO_TRANSPORT, boolean.class, false);
+        bind(boolean.class).annotatedWith(Names.named(NetworkOptionKeys.USE_NIO_TRANSPORT)).toInstance(useNioTransport);
+
         File torDir = new File(environment.getRequiredProperty(NetworkOptionKeys.TOR_DIR));
         bind(File.class).annotatedWith(named(NetworkOptionKeys.TOR_DIR)).toInstance(torDir);
 
@@ -52,9 +52,12 @@ import bisq.common.app.Capability;
 import bisq.common.crypto.CryptoException;
 import bisq.common.crypto.KeyRing;
 import bisq.common.crypto.PubKeyRing;
+import bisq.common.crypto.SealedAndSigned;
+import bisq.common.crypto.Sig;
 import bisq.common.proto.ProtobufferException;
 import bisq.common.proto.network.NetworkEnvelope;
 import bisq.common.proto.persistable.PersistedDataHost;
+import bisq.common.util.ParallelExecutor;
 import bisq.common.util.Utilities;
 
 import com.google.inject.Inject;
@@ -62,6 +65,8 @@ import com.google.inject.Inject;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.SettableFuture;
 
 import org.fxmisc.easybind.EasyBind;
@@ -83,6 +88,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
@@ -130,6 +136,11 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
     private boolean isBootstrapped;
     private final KeepAliveManager keepAliveManager;
     private final Socks5ProxyProvider socks5ProxyProvider;
+    @Nullable
+    private byte[] mySignaturePubKeyBytes;
+    // Completes when the result of the last submitted mailbox entry decryption has been handled. Only accessed on the
+    // user thread.
+    private ListenableFuture<?> lastMailboxEntryHandled = Futures.immediateFuture(null);
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -514,38 +525,88 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
         NodeAddress nodeAddress = networkNode.getNodeAddress();
         // Seed nodes don't receive mailbox network_messages
         if (nodeAddress != null && !seedNodeRepository.isSeedNode(nodeAddress)) {
-            MailboxStoragePayload mailboxStoragePayload = protectedMailboxStorageEntry.getMailboxStoragePayload();
-            PrefixedSealedAndSignedMessage prefixedSealedAndSignedMessage = mailboxStoragePayload.getPrefixedSealedAndSignedMessage();
-            if (verifyAddressPrefixHash(prefixedSealedAndSignedMessage)) {
-                try {
-                    DecryptedMessageWithPubKey decryptedMessageWithPubKey = encryptionService.decryptAndVerify(
-                            prefixedSealedAndSignedMessage.getSealedAndSigned());
-                    if (decryptedMessageWithPubKey.getNetworkEnvelope() instanceof MailboxMessage) {
-                        MailboxMessage mailboxMessage = (MailboxMessage) decryptedMessageWithPubKey.getNetworkEnvelope();
-                        NodeAddress senderNodeAddress = mailboxMessage.getSenderNodeAddress();
-                        checkNotNull(senderNodeAddress, "senderAddress must not be null for mailbox network_messages");
-
-                        mailboxMap.put(mailboxMessage.getUid(), protectedMailboxStorageEntry);
-                        log.info("Received a {} mailbox message with messageUid {} and senderAddress {}", mailboxMessage.getClass().getSimpleName(), mailboxMessage.getUid(), senderNodeAddress);
-                        decryptedMailboxListeners.forEach(
-                                e -> e.onMailboxMessageAdded(decryptedMessageWithPubKey, senderNodeAddress));
-                    } else {
-                        log.warn("tryDecryptMailboxData: Expected MailboxMessage but got other type. " +
-                                "decryptedMsgWithPubKey.message={}", decryptedMessageWithPubKey.getNetworkEnvelope());
+            if (!isMailboxEntryForMe(protectedMailboxStorageEntry)) {
+                log.trace("Wrong blurredAddressHash or receiversPubKey. The message is not intended for us.");
+                return;
+            }
+
+            // The decryption (RSA, AES and signature verification) is expensive, so we run it on the shared worker pool
+            // and only handle the result on the user thread. Results are handled in the order the entries have been
+            // added, independent of which decryption completes first.
+            SealedAndSigned sealedAndSigned = protectedMailboxStorageEntry.getMailboxStoragePayload()
+                    .getPrefixedSealedAndSignedMessage().getSealedAndSigned();
+            ListenableFuture<DecryptedMessageWithPubKey> decrypted = ParallelExecutor.getExecutor().submit(() ->
+                    encryptionService.decryptAndVerify(sealedAndSigned));
+            ListenableFuture<?> previousMailboxEntryHandled = lastMailboxEntryHandled;
+            SettableFuture<Void> mailboxEntryHandled = SettableFuture.create();
+            lastMailboxEntryHandled = mailboxEntryHandled;
+            Futures.whenAllComplete(previousMailboxEntryHandled, decrypted).call(() -> {
+                UserThread.execute(() -> {
+                    try {
+                        onMailboxEntryDecryptionCompleted(protectedMailboxStorageEntry, decrypted);
+                    } finally {
+                        mailboxEntryHandled.set(null);
                     }
-                } catch (CryptoException e) {
-                    log.debug(e.toString());
-                    log.debug("Decryption of prefixedSealedAndSignedMessage.sealedAndSigned failed. " +
-                            "That is expected if the message is not intended for us.");
-                } catch (ProtobufferException e) {
-                    log.error("Protobuffer data could not be processed: {}", e.toString());
-                }
+                });
+                return null;
+            }, MoreExecutors.directExecutor());
+        }
+    }
+
+    private void onMailboxEntryDecryptionCompleted(ProtectedMailboxStorageEntry protectedMailboxStorageEntry,
+                                                   ListenableFuture<DecryptedMessageWithPubKey> decrypted) {
+        if (shutDownInProgress)
+            return;
+
+        try {
+            onMailboxEntryDecrypted(protectedMailboxStorageEntry, Futures.getDone(decrypted));
+        } catch (ExecutionException e) {
+            Throwable throwable = e.getCause();
+            if (throwable instanceof CryptoException) {
+                log.debug(throwable.toString());
+                log.debug("Decryption of prefixedSealedAndSignedMessage.sealedAndSigned failed. " +
+                        "That is expected if the message is not intended for us.");
+            } else if (throwable instanceof ProtobufferException) {
+                log.error("Protobuffer data could not be processed: {}", throwable.toString());
             } else {
-                log.trace("Wrong blurredAddressHash. The message is not intended for us.");
+                log.error("Processing of mailbox entry failed", throwable);
             }
+        } catch (Throwable t) {
+            log.error("Processing of mailbox entry failed", t);
         }
     }
 
+    private void onMailboxEntryDecrypted(ProtectedMailboxStorageEntry protectedMailboxStorageEntry,
+                                         DecryptedMessageWithPubKey decryptedMessageWithPubKey) {
+        if (decryptedMessageWithPubKey.getNetworkEnvelope() instanceof MailboxMessage) {
+            MailboxMessage mailboxMessage = (MailboxMessage) decryptedMessageWithPubKey.getNetworkEnvelope();
+            NodeAddress senderNodeAddress = mailboxMessage.getSenderNodeAddress();
+            checkNotNull(senderNodeAddress, "senderAddress must not be null for mailbox network_messages");
+
+            mailboxMap.put(mailboxMessage.getUid(), protectedMailboxStorageEntry);
+            log.info("Received a {} mailbox message with messageUid {} and senderAddress {}", mailboxMessage.getClass().getSimpleName(), mailboxMessage.getUid(), senderNodeAddress);
+            decryptedMailboxListeners.forEach(
+                    e -> e.onMailboxMessageAdded(decryptedMessageWithPubKey, senderNodeAddress));
+        } else {
+            log.warn("tryDecryptMailboxData: Expected MailboxMessage but got other type. " +
+                    "decryptedMsgWithPubKey.message={}", decryptedMessageWithPubKey.getNetworkEnvelope());
+        }
+    }
+
+    // Cheap check before we try to decrypt the entry. The sender uses our signature pubKey as receiversPubKey so that
+    // we can remove the entry after we have processed it. Entries for other receivers carry a different key.
+    private boolean isMailboxEntryForMe(ProtectedMailboxStorageEntry protectedMailboxStorageEntry) {
+        PrefixedSealedAndSignedMessage prefixedSealedAndSignedMessage = protectedMailboxStorageEntry
+                .getMailboxStoragePayload().getPrefixedSealedAndSignedMessage();
+        if (!verifyAddressPrefixHash(prefixedSealedAndSignedMessage))
+            return false;
+
+        if (mySignaturePubKeyBytes == null)
+            mySignaturePubKeyBytes = Sig.getPublicKeyBytes(keyRing.getSignatureKeyPair().getPublic());
+
+        return Arrays.equals(mySignaturePubKeyBytes, protectedMailboxStorageEntry.getReceiversPubKeyBytes());
+    }
+
     public void sendEncryptedMailboxMessage(NodeAddress peersNodeAddress, PubKeyRing peersPubKeyRing,
                                             NetworkEnvelope message,
                                             SendMailboxMessageListener sendMailboxMessageListener) {
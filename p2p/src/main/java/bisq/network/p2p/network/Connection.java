@@ -27,6 +27,7 @@ import bisq.network.p2p.SupportedCapabilitiesMessage;
 import bisq.network.p2p.peers.BanList;
 import bisq.network.p2p.peers.getdata.messages.GetDataRequest;
 import bisq.network.p2p.peers.getdata.messages.GetDataResponse;
+import bisq.network.p2p.peers.getdata.messages.GetDataResponseChunk;
 import bisq.network.p2p.peers.keepalive.messages.KeepAliveMessage;
 import bisq.network.p2p.peers.keepalive.messages.Ping;
 import bisq.network.p2p.storage.messages.AddDataMessage;
@@ -42,6 +43,8 @@ import bisq.common.app.Capabilities;
 import bisq.common.app.Capability;
 import bisq.common.app.HasCapabilities;
 import bisq.common.app.Version;
+import bisq.common.metrics.Histogram;
+import bisq.common.metrics.Metrics;
 import bisq.common.proto.ProtobufferException;
 import bisq.common.proto.network.NetworkEnvelope;
 import bisq.common.proto.network.NetworkProtoResolver;
@@ -59,6 +62,8 @@ import java.net.Socket;
 import java.net.SocketException;
 import java.net.SocketTimeoutException;
 
+import java.nio.channels.SocketChannel;
+
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
@@ -76,7 +81,7 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -126,6 +131,11 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
     //TODO decrease limits again after testing
     private static final int SOCKET_TIMEOUT = (int) TimeUnit.SECONDS.toMillis(120);
 
+    private static final Histogram RECEIVE_DURATION = Metrics.histogram("bisq_p2p_connection_receive_duration_seconds",
+            "Time for checking a received message and passing it to the message listeners", Metrics.DURATION_BUCKETS);
+    private static final Histogram RECEIVED_MESSAGE_SIZE = Metrics.histogram("bisq_p2p_connection_received_message_size_bytes",
+            "Size of the received messages", Metrics.SIZE_BUCKETS);
+
     public static int getPermittedMessageSize() {
         return PERMITTED_MESSAGE_SIZE;
     }
@@ -136,6 +146,8 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     private final Socket socket;
+    @Nullable
+    private final NioReactor nioReactor;
     // private final MessageListener messageListener;
     private final ConnectionListener connectionListener;
     @Getter
@@ -184,7 +196,19 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
                ConnectionListener connectionListener,
                @Nullable NodeAddress peersNodeAddress,
                NetworkProtoResolver networkProtoResolver) {
+        this(socket, messageListener, connectionListener, peersNodeAddress, networkProtoResolver, null);
+    }
+
+    // If a nioReactor is passed the socket must have been created from a SocketChannel. The reactor reads the
+    // messages from the channel instead of our own input handler thread.
+    Connection(Socket socket,
+               MessageListener messageListener,
+               ConnectionListener connectionListener,
+               @Nullable NodeAddress peersNodeAddress,
+               NetworkProtoResolver networkProtoResolver,
+               @Nullable NioReactor nioReactor) {
         this.socket = socket;
+        this.nioReactor = nioReactor;
         this.connectionListener = connectionListener;
         uid = UUID.randomUUID().toString();
         statistic = new Statistic();
@@ -210,10 +234,18 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
             // When you construct an ObjectInputStream, in the constructor the class attempts to read a header that
             // the associated ObjectOutputStream on the other end of the connection has written.
             // It will not return until that header has been read.
-            protoOutputStream = new SynchronizedProtoOutputStream(socket.getOutputStream(), statistic);
-            protoInputStream = socket.getInputStream();
-            // We create a thread for handling inputStream data
-            singleThreadExecutor.submit(this);
+            if (nioReactor != null) {
+                SocketChannel socketChannel = checkNotNull(socket.getChannel(), "socket must have a channel");
+                socketChannel.configureBlocking(false);
+                protoOutputStream = new SynchronizedProtoOutputStream(
+                        new NonBlockingChannelOutputStream(socketChannel, SOCKET_TIMEOUT), statistic);
+                nioReactor.register(socketChannel, this);
+            } else {
+                protoOutputStream = new SynchronizedProtoOutputStream(socket.getOutputStream(), statistic);
+                protoInputStream = socket.getInputStream();
+                // We create a thread for handling inputStream data
+                singleThreadExecutor.submit(this);
+            }
 
             if (peersNodeAddress != null)
                 setPeersNodeAddress(peersNodeAddress);
@@ -235,10 +267,17 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
 
     private final Object lock = new Object();
     private final Queue<BundleOfEnvelopes> queueOfBundles = new ConcurrentLinkedQueue<>();
-    private final ScheduledExecutorService bundleSender = Executors.newSingleThreadScheduledExecutor();
+    // Shared by all connections. The scheduled task only hands the bundle over to the writer of the connection, so
+    // a slow peer does not delay the bundles of other connections.
+    private static final ScheduledThreadPoolExecutor BUNDLE_SENDER = Utilities.getScheduledThreadPoolExecutor(
+            "Connection.bundleSender", 1, 1, 10);
 
     // Called from various threads
     public void sendMessage(NetworkEnvelope networkEnvelope) {
+        // We serialize the envelope only once, even if it gets bundled. Broadcasts pass an EncodedNetworkEnvelope
+        // which is shared by all connections.
+        EncodedNetworkEnvelope encodedEnvelope = EncodedNetworkEnvelope.of(networkEnvelope);
+        networkEnvelope = encodedEnvelope.getNetworkEnvelope();
         log.debug(">> Send networkEnvelope of type: " + networkEnvelope.getClass().getSimpleName());
 
         if (!stopped) {
@@ -246,8 +285,9 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
                 try {
                     String peersNodeAddress = peersNodeAddressOptional.map(NodeAddress::toString).orElse("null");
 
-                    protobuf.NetworkEnvelope proto = networkEnvelope.toProtoNetworkEnvelope();
-                    log.trace("Sending message: {}", Utilities.toTruncatedString(proto.toString(), 10000));
+                    protobuf.NetworkEnvelope proto = encodedEnvelope.toProtoNetworkEnvelope();
+                    if (log.isTraceEnabled())
+                        log.trace("Sending message: {}", Utilities.toTruncatedString(proto.toString(), 10000));
 
                     if (networkEnvelope instanceof Ping | networkEnvelope instanceof RefreshOfferMessage) {
                         // pings and offer refresh msg we don't want to log in production
@@ -264,7 +304,8 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
                                         "Write object to outputStream to peer: {} (uid={})\ntruncated message={} / size={}" +
                                         "\n>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>\n",
                                 peersNodeAddress, uid, Utilities.toTruncatedString(networkEnvelope), -1);
-                    } else if (networkEnvelope instanceof GetDataResponse && ((GetDataResponse) networkEnvelope).isGetUpdatedDataResponse()) {
+                    } else if ((networkEnvelope instanceof GetDataResponse && ((GetDataResponse) networkEnvelope).isGetUpdatedDataResponse()) ||
+                            (networkEnvelope instanceof GetDataResponseChunk && ((GetDataResponseChunk) networkEnvelope).isGetUpdatedDataResponse())) {
                         setPeerType(Connection.PeerType.PEER);
                     } else {
                         log.debug("\n\n>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>\n" +
@@ -287,22 +328,22 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
                             synchronized (lock) {
                                 // check if current envelope fits size
                                 // - no? create new envelope
-                                if (queueOfBundles.isEmpty() || queueOfBundles.element().toProtoNetworkEnvelope().getSerializedSize() + networkEnvelope.toProtoNetworkEnvelope().getSerializedSize() > MAX_PERMITTED_MESSAGE_SIZE * 0.9) {
+                                if (queueOfBundles.isEmpty() || queueOfBundles.element().toProtoNetworkEnvelope().getSerializedSize() + proto.getSerializedSize() > MAX_PERMITTED_MESSAGE_SIZE * 0.9) {
                                     // - no? create a bucket
                                     queueOfBundles.add(new BundleOfEnvelopes());
 
                                     // - and schedule it for sending
                                     lastSendTimeStamp += sendMsgThrottleSleep;
 
-                                    bundleSender.schedule(() -> {
+                                    BUNDLE_SENDER.schedule(() -> {
                                         if (!stopped) {
                                             synchronized (lock) {
                                                 BundleOfEnvelopes current = queueOfBundles.poll();
                                                 if (current != null) {
                                                     if (current.getEnvelopes().size() == 1) {
-                                                        protoOutputStream.writeEnvelope(current.getEnvelopes().get(0));
+                                                        protoOutputStream.writeEnvelopeAsync(current.getEnvelopes().get(0));
                                                     } else {
-                                                        protoOutputStream.writeEnvelope(current);
+                                                        protoOutputStream.writeEnvelopeAsync(current);
                                                     }
                                                 }
                                             }
@@ -311,7 +352,7 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
                                 }
 
                                 // - yes? add to bucket
-                                queueOfBundles.element().add(networkEnvelope);
+                                queueOfBundles.element().add(encodedEnvelope);
                             }
                             return;
                         }
@@ -322,7 +363,7 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
                     lastSendTimeStamp = now;
 
                     if (!stopped) {
-                        protoOutputStream.writeEnvelope(networkEnvelope);
+                        protoOutputStream.writeEnvelope(encodedEnvelope);
                     }
                 } catch (Throwable t) {
                     handleException(t);
@@ -334,6 +375,9 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
     }
 
     public boolean noCapabilityRequiredOrCapabilityIsSupported(Proto msg) {
+        if (msg instanceof EncodedNetworkEnvelope)
+            msg = ((EncodedNetworkEnvelope) msg).getNetworkEnvelope();
+
         boolean result;
         if (msg instanceof AddDataMessage) {
             final ProtectedStoragePayload protectedStoragePayload = (((AddDataMessage) msg).getProtectedStorageEntry()).getProtectedStoragePayload();
@@ -531,7 +575,8 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
             protoOutputStream.onConnectionShutdown();
 
             try {
-                protoInputStream.close();
+                if (protoInputStream != null)
+                    protoInputStream.close();
             } catch (IOException e) {
                 log.error(e.getMessage());
                 e.printStackTrace();
@@ -721,162 +766,8 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
                         return;
                     }
 
-                    NetworkEnvelope networkEnvelope = networkProtoResolver.fromProto(proto);
-                    lastReadTimeStamp = now;
-                    log.debug("<< Received networkEnvelope of type: {}", networkEnvelope.getClass().getSimpleName());
-                    int size = proto.getSerializedSize();
-                    // We comment out that part as only debug and trace log level is used. For debugging purposes
-                    // we leave the code though.
-                        /*if (networkEnvelope instanceof Pong || networkEnvelope instanceof RefreshOfferMessage) {
-                            // We only log Pong and RefreshOfferMsg when in dev environment (trace)
-                            log.trace("\n\n<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<\n" +
-                                            "New data arrived at inputHandler of connection {}.\n" +
-                                            "Received object (truncated)={} / size={}"
-                                            + "\n<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<\n",
-                                    connection,
-                                    Utilities.toTruncatedString(proto.toString()),
-                                    size);
-                        } else {
-                            // We want to log all incoming network_messages (except Pong and RefreshOfferMsg)
-                            // so we log before the data type checks
-                            //log.info("size={}; object={}", size, Utilities.toTruncatedString(rawInputObject.toString(), 100));
-                            log.debug("\n\n<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<\n" +
-                                            "New data arrived at inputHandler of connection {}.\n" +
-                                            "Received object (truncated)={} / size={}"
-                                            + "\n<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<\n",
-                                    connection,
-                                    Utilities.toTruncatedString(proto.toString()),
-                                    size);
-                        }*/
-
-                    // We want to track the size of each object even if it is invalid data
-                    statistic.addReceivedBytes(size);
-
-                    // We want to track the network_messages also before the checks, so do it early...
-                    statistic.addReceivedMessage(networkEnvelope);
-
-                    // First we check the size
-                    boolean exceeds;
-                    if (networkEnvelope instanceof ExtendedDataSizePermission) {
-                        exceeds = size > MAX_PERMITTED_MESSAGE_SIZE;
-                    } else {
-                        exceeds = size > PERMITTED_MESSAGE_SIZE;
-                    }
-
-                    if (networkEnvelope instanceof AddPersistableNetworkPayloadMessage &&
-                            !((AddPersistableNetworkPayloadMessage) networkEnvelope).getPersistableNetworkPayload().verifyHashSize()) {
-                        log.warn("PersistableNetworkPayload.verifyHashSize failed. hashSize={}; object={}",
-                                ((AddPersistableNetworkPayloadMessage) networkEnvelope).getPersistableNetworkPayload().getHash().length,
-                                Utilities.toTruncatedString(proto));
-                        if (reportInvalidRequest(RuleViolation.MAX_MSG_SIZE_EXCEEDED))
-                            return;
-                    }
-
-                    if (exceeds) {
-                        log.warn("size > MAX_MSG_SIZE. size={}; object={}", size, Utilities.toTruncatedString(proto));
-
-                        if (reportInvalidRequest(RuleViolation.MAX_MSG_SIZE_EXCEEDED))
-                            return;
-                    }
-
-                    if (violatesThrottleLimit() && reportInvalidRequest(RuleViolation.THROTTLE_LIMIT_EXCEEDED))
-                        return;
-
-                    // Check P2P network ID
-                    if (proto.getMessageVersion() != Version.getP2PMessageVersion()
-                            && reportInvalidRequest(RuleViolation.WRONG_NETWORK_ID)) {
-                        log.warn("RuleViolation.WRONG_NETWORK_ID. version of message={}, app version={}, " +
-                                        "proto.toTruncatedString={}", proto.getMessageVersion(),
-                                Version.getP2PMessageVersion(),
-                                Utilities.toTruncatedString(proto.toString()));
+                    if (!handleProto(proto, now))
                         return;
-                    }
-
-                    if (networkEnvelope instanceof SupportedCapabilitiesMessage) {
-                        Capabilities supportedCapabilities = ((SupportedCapabilitiesMessage) networkEnvelope).getSupportedCapabilities();
-                        if (supportedCapabilities != null) {
-                            if (!capabilities.equals(supportedCapabilities)) {
-                                capabilities.set(supportedCapabilities);
-
-                                // Capabilities can be empty. We only check for mandatory if we get some capabilities.
-                                if (!capabilities.isEmpty() && !Capabilities.hasMandatoryCapability(capabilities)) {
-                                    String senderNodeAddress = networkEnvelope instanceof SendersNodeAddressMessage ?
-                                            ((SendersNodeAddressMessage) networkEnvelope).getSenderNodeAddress().getFullAddress() :
-                                            "[unknown address]";
-                                    log.info("We close a connection to old node {}. " +
-                                                    "Capabilities of old node: {}, networkEnvelope class name={}",
-                                            senderNodeAddress, capabilities.prettyPrint(), networkEnvelope.getClass().getSimpleName());
-                                    shutDown(CloseConnectionReason.MANDATORY_CAPABILITIES_NOT_SUPPORTED);
-                                    return;
-                                }
-
-                                capabilitiesListeners.forEach(weakListener -> {
-                                    SupportedCapabilitiesListener supportedCapabilitiesListener = weakListener.get();
-                                    if (supportedCapabilitiesListener != null) {
-                                        UserThread.execute(() -> supportedCapabilitiesListener.onChanged(supportedCapabilities));
-                                    }
-                                });
-                            }
-                        }
-                    }
-
-                    if (networkEnvelope instanceof CloseConnectionMessage) {
-                        // If we get a CloseConnectionMessage we shut down
-                        if (log.isDebugEnabled()) {
-                            log.debug("CloseConnectionMessage received. Reason={}\n\t" +
-                                    "connection={}", proto.getCloseConnectionMessage().getReason(), this);
-                        }
-                        if (CloseConnectionReason.PEER_BANNED.name().equals(proto.getCloseConnectionMessage().getReason())) {
-                            log.warn("We got shut down because we are banned by the other peer. (InputHandler.run CloseConnectionMessage)");
-                            shutDown(CloseConnectionReason.PEER_BANNED);
-                        } else {
-                            shutDown(CloseConnectionReason.CLOSE_REQUESTED_BY_PEER);
-                        }
-                        return;
-                    } else if (!stopped) {
-                        // We don't want to get the activity ts updated by ping/pong msg
-                        if (!(networkEnvelope instanceof KeepAliveMessage))
-                            statistic.updateLastActivityTimestamp();
-
-                        if (networkEnvelope instanceof GetDataRequest)
-                            setPeerType(PeerType.INITIAL_DATA_REQUEST);
-
-                        // First a seed node gets a message from a peer (PreliminaryDataRequest using
-                        // AnonymousMessage interface) which does not have its hidden service
-                        // published, so it does not know its address. As the IncomingConnection does not have the
-                        // peersNodeAddress set that connection cannot be used for outgoing network_messages until we
-                        // get the address set.
-                        // At the data update message (DataRequest using SendersNodeAddressMessage interface)
-                        // after the HS is published we get the peer's address set.
-
-                        // There are only those network_messages used for new connections to a peer:
-                        // 1. PreliminaryDataRequest
-                        // 2. DataRequest (implements SendersNodeAddressMessage)
-                        // 3. GetPeersRequest (implements SendersNodeAddressMessage)
-                        // 4. DirectMessage (implements SendersNodeAddressMessage)
-                        if (networkEnvelope instanceof SendersNodeAddressMessage) {
-                            NodeAddress senderNodeAddress = ((SendersNodeAddressMessage) networkEnvelope).getSenderNodeAddress();
-                            if (senderNodeAddress != null) {
-                                Optional<NodeAddress> peersNodeAddressOptional = getPeersNodeAddressOptional();
-                                if (peersNodeAddressOptional.isPresent()) {
-                                    // If we have already the peers address we check again if it matches our stored one
-                                    checkArgument(peersNodeAddressOptional.get().equals(senderNodeAddress),
-                                            "senderNodeAddress not matching connections peer address.\n\t" +
-                                                    "message=" + networkEnvelope);
-                                } else {
-                                    // We must not shut down a banned peer at that moment as it would trigger a connection termination
-                                    // and we could not send the CloseConnectionMessage.
-                                    // We check for a banned peer inside setPeersNodeAddress() and shut down if banned.
-                                    setPeersNodeAddress(senderNodeAddress);
-                                }
-                            }
-                        }
-
-                        if (networkEnvelope instanceof PrefixedSealedAndSignedMessage)
-                            setPeerType(Connection.PeerType.DIRECT_MSG_PEER);
-
-                        onMessage(networkEnvelope, this);
-                    }
                 } catch (InvalidClassException e) {
                     log.error(e.getMessage());
                     e.printStackTrace();
@@ -893,4 +784,221 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
             handleException(t);
         }
     }
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Called from NioReactor thread
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Returns false if the reactor must not read any further messages from that connection.
+    boolean onProtoReceived(protobuf.NetworkEnvelope proto) {
+        if (stopped)
+            return false;
+
+        try {
+            // We do not sleep for throttling inbound messages as the reactor thread is shared by all connections.
+            // The throttle limits are still enforced by violatesThrottleLimit.
+            return handleProto(proto, System.currentTimeMillis());
+        } catch (ProtobufferException | NoClassDefFoundError e) {
+            log.error(e.getMessage());
+            e.printStackTrace();
+            reportInvalidRequest(RuleViolation.INVALID_DATA_TYPE);
+            return !stopped;
+        } catch (Throwable t) {
+            handleException(t);
+            return false;
+        }
+    }
+
+    void onEndOfStream() {
+        log.debug("Reached end of stream. That is expected if client got stopped without proper shutdown.");
+        shutDown(CloseConnectionReason.NO_PROTO_BUFFER_ENV);
+    }
+
+    void onMaxMessageSizeExceeded(int size) {
+        log.warn("We close connection as peer sent a message exceeding MAX_PERMITTED_MESSAGE_SIZE. size={}; connection={}",
+                size, this);
+        ruleViolation = RuleViolation.MAX_MSG_SIZE_EXCEEDED;
+        shutDown(CloseConnectionReason.RULE_VIOLATION);
+    }
+
+    void onReadFailed(Throwable t) {
+        if (!stopped)
+            handleException(t);
+    }
+
+    static int getMaxPermittedMessageSize() {
+        return MAX_PERMITTED_MESSAGE_SIZE;
+    }
+
+    // Performs the checks on a received message and delivers it to the message listeners. Returns false if we
+    // must not read any further messages from that connection.
+    private boolean handleProto(protobuf.NetworkEnvelope proto, long now) throws ProtobufferException {
+        long startNanos = System.nanoTime();
+        try {
+            return processProto(proto, now);
+        } finally {
+            RECEIVE_DURATION.observeNanosSince(startNanos);
+        }
+    }
+
+    private boolean processProto(protobuf.NetworkEnvelope proto, long now) throws ProtobufferException {
+        NetworkEnvelope networkEnvelope = networkProtoResolver.fromProto(proto);
+        lastReadTimeStamp = now;
+        log.debug("<< Received networkEnvelope of type: {}", networkEnvelope.getClass().getSimpleName());
+        int size = proto.getSerializedSize();
+        // We comment out that part as only debug and trace log level is used. For debugging purposes
+        // we leave the code though.
+        /*if (networkEnvelope instanceof Pong || networkEnvelope instanceof RefreshOfferMessage) {
+            // We only log Pong and RefreshOfferMsg when in dev environment (trace)
+            log.trace("\n\n<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<\n" +
+                            "New data arrived at inputHandler of connection {}.\n" +
+                            "Received object (truncated)={} / size={}"
+                            + "\n<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<\n",
+                    connection,
+                    Utilities.toTruncatedString(proto.toString()),
+                    size);
+        } else {
+            // We want to log all incoming network_messages (except Pong and RefreshOfferMsg)
+            // so we log before the data type checks
+            //log.info("size={}; object={}", size, Utilities.toTruncatedString(rawInputObject.toString(), 100));
+            log.debug("\n\n<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<\n" +
+                            "New data arrived at inputHandler of connection {}.\n" +
+                            "Received object (truncated)={} / size={}"
+                            + "\n<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<\n",
+                    connection,
+                    Utilities.toTruncatedString(proto.toString()),
+                    size);
+        }*/
+
+        // We want to track the size of each object even if it is invalid data
+        statistic.addReceivedBytes(size);
+        RECEIVED_MESSAGE_SIZE.observe(size);
+
+        // We want to track the network_messages also before the checks, so do it early...
+        statistic.addReceivedMessage(networkEnvelope);
+
+        // First we check the size
+        boolean exceeds;
+        if (networkEnvelope instanceof ExtendedDataSizePermission) {
+            exceeds = size > MAX_PERMITTED_MESSAGE_SIZE;
+        } else {
+            exceeds = size > PERMITTED_MESSAGE_SIZE;
+        }
+
+        if (networkEnvelope instanceof AddPersistableNetworkPayloadMessage &&
+                !((AddPersistableNetworkPayloadMessage) networkEnvelope).getPersistableNetworkPayload().verifyHashSize()) {
+            log.warn("PersistableNetworkPayload.verifyHashSize failed. hashSize={}; object={}",
+                    ((AddPersistableNetworkPayloadMessage) networkEnvelope).getPersistableNetworkPayload().getHash().length,
+                    Utilities.toTruncatedString(proto));
+            if (reportInvalidRequest(RuleViolation.MAX_MSG_SIZE_EXCEEDED))
+                return false;
+        }
+
+        if (exceeds) {
+            log.warn("size > MAX_MSG_SIZE. size={}; object={}", size, Utilities.toTruncatedString(proto));
+
+            if (reportInvalidRequest(RuleViolation.MAX_MSG_SIZE_EXCEEDED))
+                return false;
+        }
+
+        if (violatesThrottleLimit() && reportInvalidRequest(RuleViolation.THROTTLE_LIMIT_EXCEEDED))
+            return false;
+
+        // Check P2P network ID
+        if (proto.getMessageVersion() != Version.getP2PMessageVersion()
+                && reportInvalidRequest(RuleViolation.WRONG_NETWORK_ID)) {
+            log.warn("RuleViolation.WRONG_NETWORK_ID. version of message={}, app version={}, " +
+                            "proto.toTruncatedString={}", proto.getMessageVersion(),
+                    Version.getP2PMessageVersion(),
+                    Utilities.toTruncatedString(proto.toString()));
+            return false;
+        }
+
+        if (networkEnvelope instanceof SupportedCapabilitiesMessage) {
+            Capabilities supportedCapabilities = ((SupportedCapabilitiesMessage) networkEnvelope).getSupportedCapabilities();
+            if (supportedCapabilities != null) {
+                if (!capabilities.equals(supportedCapabilities)) {
+                    capabilities.set(supportedCapabilities);
+
+                    // Capabilities can be empty. We only check for mandatory if we get some capabilities.
+                    if (!capabilities.isEmpty() && !Capabilities.hasMandatoryCapability(capabilities)) {
+                        String senderNodeAddress = networkEnvelope instanceof SendersNodeAddressMessage ?
+                                ((SendersNodeAddressMessage) networkEnvelope).getSenderNodeAddress().getFullAddress() :
+                                "[unknown address]";
+                        log.info("We close a connection to old node {}. " +
+                                        "Capabilities of old node: {}, networkEnvelope class name={}",
+                                senderNodeAddress, capabilities.prettyPrint(), networkEnvelope.getClass().getSimpleName());
+                        shutDown(CloseConnectionReason.MANDATORY_CAPABILITIES_NOT_SUPPORTED);
+                        return false;
+                    }
+
+                    capabilitiesListeners.forEach(weakListener -> {
+                        SupportedCapabilitiesListener supportedCapabilitiesListener = weakListener.get();
+                        if (supportedCapabilitiesListener != null) {
+                            UserThread.execute(() -> supportedCapabilitiesListener.onChanged(supportedCapabilities));
+                        }
+                    });
+                }
+            }
+        }
+
+        if (networkEnvelope instanceof CloseConnectionMessage) {
+            // If we get a CloseConnectionMessage we shut down
+            if (log.isDebugEnabled()) {
+                log.debug("CloseConnectionMessage received. Reason={}\n\t" +
+                        "connection={}", proto.getCloseConnectionMessage().getReason(), this);
+            }
+            if (CloseConnectionReason.PEER_BANNED.name().equals(proto.getCloseConnectionMessage().getReason())) {
+                log.warn("We got shut down because we are banned by the other peer. (InputHandler.run CloseConnectionMessage)");
+                shutDown(CloseConnectionReason.PEER_BANNED);
+            } else {
+                shutDown(CloseConnectionReason.CLOSE_REQUESTED_BY_PEER);
+            }
+            return false;
+        } else if (!stopped) {
+            // We don't want to get the activity ts updated by ping/pong msg
+            if (!(networkEnvelope instanceof KeepAliveMessage))
+                statistic.updateLastActivityTimestamp();
+
+            if (networkEnvelope instanceof GetDataRequest)
+                setPeerType(PeerType.INITIAL_DATA_REQUEST);
+
+            // First a seed node gets a message from a peer (PreliminaryDataRequest using
+            // AnonymousMessage interface) which does not have its hidden service
+            // published, so it does not know its address. As the IncomingConnection does not have the
+            // peersNodeAddress set that connection cannot be used for outgoing network_messages until we
+            // get the address set.
+            // At the data update message (DataRequest using SendersNodeAddressMessage interface)
+            // after the HS is published we get the peer's address set.
+
+            // There are only those network_messages used for new connections to a peer:
+            // 1. PreliminaryDataRequest
+            // 2. DataRequest (implements SendersNodeAddressMessage)
+            // 3. GetPeersRequest (implements SendersNodeAddressMessage)
+            // 4. DirectMessage (implements SendersNodeAddressMessage)
+            if (networkEnvelope instanceof SendersNodeAddressMessage) {
+                NodeAddress senderNodeAddress = ((SendersNodeAddressMessage) networkEnvelope).getSenderNodeAddress();
+                if (senderNodeAddress != null) {
+                    Optional<NodeAddress> peersNodeAddressOptional = getPeersNodeAddressOptional();
+                    if (peersNodeAddressOptional.isPresent()) {
+                        // If we have already the peers address we check again if it matches our stored one
+                        checkArgument(peersNodeAddressOptional.get().equals(senderNodeAddress),
+                                "senderNodeAddress not matching connections peer address.\n\t" +
+                                        "message=" + networkEnvelope);
+                    } else {
+                        // We must not shut down a banned peer at that moment as it would trigger a connection termination
+                        // and we could not send the CloseConnectionMessage.
+                        // We check for a banned peer inside setPeersNodeAddress() and shut down if banned.
+                        setPeersNodeAddress(senderNodeAddress);
+                    }
+                }
+            }
+
+            if (networkEnvelope instanceof PrefixedSealedAndSignedMessage)
+                setPeerType(Connection.PeerType.DIRECT_MSG_PEER);
+
+            onMessage(networkEnvelope, this);
+        }
+        return true;
+    }
 }
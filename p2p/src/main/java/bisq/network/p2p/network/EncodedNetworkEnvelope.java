@@ -0,0 +1,99 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.network.p2p.network;
+
+import bisq.common.proto.network.NetworkEnvelope;
+
+import com.google.protobuf.CodedOutputStream;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * Wraps a NetworkEnvelope and serializes it only once. The first connection which sends it builds the proto and the
+ * length delimited bytes, all others write the cached bytes. Used for broadcasts where the same message is sent to
+ * many peers and inside Connection so a bundled envelope is not serialized again.
+ * <p>
+ * Capability checks, statistics and logging use the wrapped envelope.
+ */
+@EqualsAndHashCode(callSuper = true, of = "networkEnvelope")
+public final class EncodedNetworkEnvelope extends NetworkEnvelope {
+    @Getter
+    private final NetworkEnvelope networkEnvelope;
+    private final Supplier<protobuf.NetworkEnvelope> proto;
+    private final Supplier<byte[]> delimitedBytes;
+
+    public static EncodedNetworkEnvelope of(NetworkEnvelope networkEnvelope) {
+        return networkEnvelope instanceof EncodedNetworkEnvelope ?
+                (EncodedNetworkEnvelope) networkEnvelope :
+                new EncodedNetworkEnvelope(networkEnvelope);
+    }
+
+    private EncodedNetworkEnvelope(NetworkEnvelope networkEnvelope) {
+        super(networkEnvelope.getMessageVersion());
+        this.networkEnvelope = networkEnvelope;
+        proto = Suppliers.memoize(networkEnvelope::toProtoNetworkEnvelope);
+        delimitedBytes = Suppliers.memoize(this::encodeDelimited);
+    }
+
+    @Override
+    public protobuf.NetworkEnvelope toProtoNetworkEnvelope() {
+        return proto.get();
+    }
+
+    @Override
+    public protobuf.NetworkEnvelope toProtoMessage() {
+        return proto.get();
+    }
+
+    public int getSerializedSize() {
+        return proto.get().getSerializedSize();
+    }
+
+    // Same result as toProtoNetworkEnvelope().writeDelimitedTo(outputStream)
+    void writeDelimitedTo(OutputStream outputStream) throws IOException {
+        outputStream.write(delimitedBytes.get());
+    }
+
+    private byte[] encodeDelimited() {
+        int size = getSerializedSize();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(CodedOutputStream.computeUInt32SizeNoTag(size) + size);
+        try {
+            proto.get().writeDelimitedTo(outputStream);
+        } catch (IOException e) {
+            // Cannot happen with a ByteArrayOutputStream
+            throw new IllegalStateException(e);
+        }
+        return outputStream.toByteArray();
+    }
+
+    @Override
+    public String toString() {
+        return "EncodedNetworkEnvelope{" +
+                "\n     networkEnvelope=" + networkEnvelope +
+                "\n} " + super.toString();
+    }
+}
@@ -21,6 +21,8 @@ import bisq.common.proto.network.NetworkProtoResolver;
 
 import java.net.Socket;
 
+import org.jetbrains.annotations.Nullable;
+
 public class InboundConnection extends Connection {
     public InboundConnection(Socket socket,
                              MessageListener messageListener,
@@ -28,4 +30,12 @@ public class InboundConnection extends Connection {
                              NetworkProtoResolver networkProtoResolver) {
         super(socket, messageListener, connectionListener, null, networkProtoResolver);
     }
+
+    InboundConnection(Socket socket,
+                      MessageListener messageListener,
+                      ConnectionListener connectionListener,
+                      NetworkProtoResolver networkProtoResolver,
+                      @Nullable NioReactor nioReactor) {
+        super(socket, messageListener, connectionListener, null, networkProtoResolver, nioReactor);
+    }
 }
@@ -22,9 +22,13 @@ import bisq.network.p2p.NodeAddress;
 import bisq.common.UserThread;
 import bisq.common.proto.network.NetworkProtoResolver;
 
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
 
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
 import java.io.IOException;
 
 import java.util.concurrent.TimeUnit;
@@ -49,13 +53,22 @@ public class LocalhostNetworkNode extends NetworkNode {
         LocalhostNetworkNode.simulateTorDelayHiddenService = simulateTorDelayHiddenService;
     }
 
+    private final boolean useNioTransport;
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public LocalhostNetworkNode(int port, NetworkProtoResolver networkProtoResolver) {
+        this(port, networkProtoResolver, false);
+    }
+
+    // If useNioTransport is set all connections are served by one selector thread instead of an input handler
+    // thread per connection.
+    public LocalhostNetworkNode(int port, NetworkProtoResolver networkProtoResolver, boolean useNioTransport) {
         super(port, networkProtoResolver);
+        this.useNioTransport = useNioTransport;
     }
 
     @Override
@@ -65,6 +78,14 @@ public class LocalhostNetworkNode extends NetworkNode {
 
         createExecutorService();
 
+        if (useNioTransport && nioReactor == null) {
+            try {
+                nioReactor = new NioReactor("NioReactor-" + servicePort);
+            } catch (IOException e) {
+                log.error("Could not open selector. We use the blocking transport. " + e.getMessage());
+            }
+        }
+
         // simulate tor connection delay
         UserThread.runAfter(() -> {
             nodeAddressProperty.set(new NodeAddress("localhost", servicePort));
@@ -74,7 +95,13 @@ public class LocalhostNetworkNode extends NetworkNode {
             // simulate tor HS publishing delay
             UserThread.runAfter(() -> {
                 try {
-                    startServer(new ServerSocket(servicePort));
+                    if (nioReactor != null) {
+                        ServerSocketChannel serverSocketChannel = ServerSocketChannel.open();
+                        serverSocketChannel.bind(new InetSocketAddress(servicePort));
+                        startServer(serverSocketChannel.socket());
+                    } else {
+                        startServer(new ServerSocket(servicePort));
+                    }
                 } catch (IOException e) {
                     e.printStackTrace();
                     log.error("Exception at startServer: " + e.getMessage());
@@ -87,6 +114,11 @@ public class LocalhostNetworkNode extends NetworkNode {
     // Called from NetworkNode thread
     @Override
     protected Socket createSocket(NodeAddress peerNodeAddress) throws IOException {
+        if (nioReactor != null) {
+            InetSocketAddress address = new InetSocketAddress(peerNodeAddress.getHostName(), peerNodeAddress.getPort());
+            return SocketChannel.open(address).socket();
+        }
+
         return new Socket(peerNodeAddress.getHostName(), peerNodeAddress.getPort());
     }
 }
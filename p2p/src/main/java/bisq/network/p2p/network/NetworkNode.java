@@ -72,6 +72,9 @@ public abstract class NetworkNode implements MessageListener {
     final CopyOnWriteArraySet<SetupListener> setupListeners = new CopyOnWriteArraySet<>();
     ListeningExecutorService executorService;
     private Server server;
+    // Only set if the selector based transport is used
+    @Nullable
+    NioReactor nioReactor;
 
     private volatile boolean shutDownInProgress;
     // accessed from different threads
@@ -191,7 +194,8 @@ public abstract class NetworkNode implements MessageListener {
                                 NetworkNode.this,
                                 connectionListener,
                                 peersNodeAddress,
-                                networkProtoResolver);
+                                networkProtoResolver,
+                                nioReactor);
 
                         if (log.isDebugEnabled()) {
                             log.debug("\n\n%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%\n" +
@@ -331,6 +335,10 @@ public abstract class NetworkNode implements MessageListener {
             }
 
             getAllConnections().stream().forEach(c -> c.shutDown(CloseConnectionReason.APP_SHUT_DOWN));
+
+            // Sending the CloseConnectionMessage does not depend on the reactor
+            if (nioReactor != null)
+                nioReactor.shutDown();
             log.debug("NetworkNode shutdown complete");
         }
         if (shutDownCompleteHandler != null) shutDownCompleteHandler.run();
@@ -428,7 +436,8 @@ public abstract class NetworkNode implements MessageListener {
         server = new Server(serverSocket,
                 NetworkNode.this,
                 connectionListener,
-                networkProtoResolver);
+                networkProtoResolver,
+                nioReactor);
         executorService.submit(server);
     }
 
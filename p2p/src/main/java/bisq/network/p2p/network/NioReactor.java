@@ -0,0 +1,254 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.network.p2p.network;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Selector based transport for clearnet connections. A single thread accepts the inbound connections and reads the
+ * length delimited NetworkEnvelopes of all registered connections, so we do not need an input handler thread per
+ * connection. Each complete envelope is passed to Connection.onProtoReceived which applies the same checks as the
+ * input handler of the blocking transport and delivers the message on the user thread.
+ * <p>
+ * Writing is not done by the reactor (see NonBlockingChannelOutputStream).
+ */
+@Slf4j
+class NioReactor implements Runnable {
+    private static final int INITIAL_BUFFER_SIZE = 16 * 1024;
+    // A varint32 has max. 5 bytes
+    private static final int MAX_LENGTH_PREFIX_SIZE = 5;
+    private static final int INCOMPLETE = -1;
+
+    private final Selector selector;
+    private final Queue<Runnable> pendingTasks = new ConcurrentLinkedQueue<>();
+    private volatile boolean stopped;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    NioReactor(String name) throws IOException {
+        selector = Selector.open();
+        Thread thread = new Thread(this, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Called from any thread. The acceptHandler is called on the reactor thread.
+    void registerServer(ServerSocketChannel serverSocketChannel, Consumer<SocketChannel> acceptHandler)
+            throws IOException {
+        serverSocketChannel.configureBlocking(false);
+        execute(() -> {
+            try {
+                serverSocketChannel.register(selector, SelectionKey.OP_ACCEPT, acceptHandler);
+            } catch (ClosedChannelException e) {
+                log.debug("Server socket got closed before it was registered");
+            }
+        });
+    }
+
+    // Called from any thread. The channel must be in non-blocking mode.
+    void register(SocketChannel socketChannel, Connection connection) {
+        execute(() -> {
+            try {
+                socketChannel.register(selector, SelectionKey.OP_READ, new EnvelopeReader(connection));
+            } catch (ClosedChannelException e) {
+                log.debug("Channel got closed before it was registered. connection={}", connection);
+            }
+        });
+    }
+
+    void shutDown() {
+        stopped = true;
+        selector.wakeup();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Runnable
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void run() {
+        while (!stopped) {
+            try {
+                selector.select();
+
+                Runnable task;
+                while ((task = pendingTasks.poll()) != null)
+                    task.run();
+
+                Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+                while (iterator.hasNext()) {
+                    SelectionKey key = iterator.next();
+                    iterator.remove();
+                    if (!key.isValid())
+                        continue;
+
+                    if (key.isAcceptable())
+                        accept(key);
+                    else if (key.isReadable())
+                        ((EnvelopeReader) key.attachment()).read(key);
+                }
+            } catch (Throwable t) {
+                log.error("Error in selector loop", t);
+            }
+        }
+
+        try {
+            selector.close();
+        } catch (IOException e) {
+            log.debug("Exception at closing selector. " + e.getMessage());
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void execute(Runnable task) {
+        pendingTasks.add(task);
+        selector.wakeup();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void accept(SelectionKey key) throws IOException {
+        ServerSocketChannel serverSocketChannel = (ServerSocketChannel) key.channel();
+        Consumer<SocketChannel> acceptHandler = (Consumer<SocketChannel>) key.attachment();
+        SocketChannel socketChannel;
+        while ((socketChannel = serverSocketChannel.accept()) != null)
+            acceptHandler.accept(socketChannel);
+    }
+
+    // Returns the decoded varint32 or INCOMPLETE if the buffer does not contain all bytes of it yet.
+    private static int readRawVarint32(ByteBuffer buffer) throws StreamCorruptedException {
+        int result = 0;
+        for (int shift = 0; shift < 7 * MAX_LENGTH_PREFIX_SIZE; shift += 7) {
+            if (!buffer.hasRemaining())
+                return INCOMPLETE;
+
+            byte b = buffer.get();
+            result |= (b & 0x7f) << shift;
+            if (b >= 0)
+                return result;
+        }
+        throw new StreamCorruptedException("Malformed length prefix");
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // EnvelopeReader
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Accumulates the received bytes of one connection until we have complete envelopes.
+    // Only accessed from the reactor thread.
+    private static class EnvelopeReader {
+        private final Connection connection;
+        private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+
+        EnvelopeReader(Connection connection) {
+            this.connection = connection;
+        }
+
+        void read(SelectionKey key) {
+            SocketChannel socketChannel = (SocketChannel) key.channel();
+            try {
+                if (socketChannel.read(buffer) == -1) {
+                    key.cancel();
+                    connection.onEndOfStream();
+                    return;
+                }
+
+                buffer.flip();
+                int requiredCapacity = 0;
+                while (buffer.hasRemaining()) {
+                    int frameStart = buffer.position();
+                    int size = readRawVarint32(buffer);
+                    if (size == INCOMPLETE) {
+                        buffer.position(frameStart);
+                        break;
+                    }
+
+                    if (size < 0 || size > Connection.getMaxPermittedMessageSize()) {
+                        key.cancel();
+                        connection.onMaxMessageSizeExceeded(size);
+                        return;
+                    }
+
+                    if (buffer.remaining() < size) {
+                        requiredCapacity = buffer.position() - frameStart + size;
+                        buffer.position(frameStart);
+                        break;
+                    }
+
+                    ByteBuffer frame = buffer.slice();
+                    frame.limit(size);
+                    protobuf.NetworkEnvelope proto = protobuf.NetworkEnvelope.parseFrom(frame);
+                    buffer.position(buffer.position() + size);
+
+                    if (!connection.onProtoReceived(proto)) {
+                        key.cancel();
+                        return;
+                    }
+                }
+                buffer.compact();
+
+                if (requiredCapacity > buffer.capacity()) {
+                    buffer = reallocate(requiredCapacity);
+                } else if (buffer.position() == 0 && buffer.capacity() > INITIAL_BUFFER_SIZE) {
+                    // We don't keep the memory of a large message for an idle connection
+                    buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+                }
+            } catch (IOException e) {
+                // InvalidProtocolBufferException is an IOException as well
+                key.cancel();
+                connection.onReadFailed(e);
+            }
+        }
+
+        private ByteBuffer reallocate(int capacity) {
+            ByteBuffer newBuffer = ByteBuffer.allocate(capacity);
+            buffer.flip();
+            newBuffer.put(buffer);
+            return newBuffer;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.network.p2p.network;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+
+import java.net.SocketTimeoutException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * OutputStream for a SocketChannel which is registered at the NioReactor and therefore must stay in non-blocking mode.
+ * If the socket send buffer is full we wait on a private selector until the channel gets writable again.
+ * Used by SynchronizedProtoOutputStream, so all writes are done from its single thread.
+ */
+@NotThreadSafe
+class NonBlockingChannelOutputStream extends OutputStream {
+    private final SocketChannel socketChannel;
+    private final long timeoutMs;
+    @Nullable
+    private Selector writeSelector;
+
+    NonBlockingChannelOutputStream(SocketChannel socketChannel, long timeoutMs) {
+        this.socketChannel = socketChannel;
+        this.timeoutMs = timeoutMs;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, length);
+        while (buffer.hasRemaining()) {
+            if (socketChannel.write(buffer) == 0)
+                awaitWritable();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (writeSelector != null)
+                writeSelector.close();
+        } finally {
+            socketChannel.close();
+        }
+    }
+
+    private void awaitWritable() throws IOException {
+        if (writeSelector == null) {
+            writeSelector = Selector.open();
+            socketChannel.register(writeSelector, SelectionKey.OP_WRITE);
+        }
+
+        if (writeSelector.select(timeoutMs) == 0)
+            throw new SocketTimeoutException("Channel did not get writable within " + timeoutMs + " ms");
+
+        writeSelector.selectedKeys().clear();
+    }
+}
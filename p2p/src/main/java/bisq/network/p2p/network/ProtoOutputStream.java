@@ -19,6 +19,8 @@ package bisq.network.p2p.network;
 
 import bisq.network.p2p.peers.keepalive.messages.KeepAliveMessage;
 
+import bisq.common.metrics.Histogram;
+import bisq.common.metrics.Metrics;
 import bisq.common.proto.network.NetworkEnvelope;
 
 import java.io.IOException;
@@ -32,6 +34,10 @@ import javax.annotation.concurrent.NotThreadSafe;
 @NotThreadSafe
 class ProtoOutputStream {
     private static final Logger log = LoggerFactory.getLogger(ProtoOutputStream.class);
+    private static final Histogram SEND_DURATION = Metrics.histogram("bisq_p2p_connection_send_duration_seconds",
+            "Time for writing a message to the connection", Metrics.DURATION_BUCKETS);
+    private static final Histogram SENT_MESSAGE_SIZE = Metrics.histogram("bisq_p2p_connection_sent_message_size_bytes",
+            "Size of the sent messages", Metrics.SIZE_BUCKETS);
 
     private final OutputStream delegate;
     private final Statistic statistic;
@@ -59,11 +65,25 @@ class ProtoOutputStream {
     }
 
     private void writeEnvelopeOrThrow(NetworkEnvelope envelope) throws IOException {
-        protobuf.NetworkEnvelope proto = envelope.toProtoNetworkEnvelope();
-        proto.writeDelimitedTo(delegate);
-        delegate.flush();
+        long startNanos = System.nanoTime();
+        int size;
+        if (envelope instanceof EncodedNetworkEnvelope) {
+            EncodedNetworkEnvelope encodedEnvelope = (EncodedNetworkEnvelope) envelope;
+            encodedEnvelope.writeDelimitedTo(delegate);
+            delegate.flush();
 
-        statistic.addSentBytes(proto.getSerializedSize());
+            envelope = encodedEnvelope.getNetworkEnvelope();
+            size = encodedEnvelope.getSerializedSize();
+        } else {
+            protobuf.NetworkEnvelope proto = envelope.toProtoNetworkEnvelope();
+            proto.writeDelimitedTo(delegate);
+            delegate.flush();
+
+            size = proto.getSerializedSize();
+        }
+        SEND_DURATION.observeNanosSince(startNanos);
+        SENT_MESSAGE_SIZE.observe(size);
+        statistic.addSentBytes(size);
         statistic.addSentMessage(envelope);
 
         if (!(envelope instanceof KeepAliveMessage)) {
@@ -23,6 +23,8 @@ import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketException;
 
+import java.nio.channels.ServerSocketChannel;
+
 import java.io.IOException;
 
 import java.util.Set;
@@ -31,6 +33,10 @@ import java.util.concurrent.CopyOnWriteArraySet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.jetbrains.annotations.Nullable;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
 // Runs in UserThread
 class Server implements Runnable {
     private static final Logger log = LoggerFactory.getLogger(Server.class);
@@ -43,13 +49,17 @@ class Server implements Runnable {
     private final Set<Connection> connections = new CopyOnWriteArraySet<>();
     private volatile boolean stopped;
     private final NetworkProtoResolver networkProtoResolver;
+    @Nullable
+    private final NioReactor nioReactor;
 
 
     public Server(ServerSocket serverSocket,
                   MessageListener messageListener,
                   ConnectionListener connectionListener,
-                  NetworkProtoResolver networkProtoResolver) {
+                  NetworkProtoResolver networkProtoResolver,
+                  @Nullable NioReactor nioReactor) {
         this.networkProtoResolver = networkProtoResolver;
+        this.nioReactor = nioReactor;
         this.serverSocket = serverSocket;
         this.messageListener = messageListener;
         this.connectionListener = connectionListener;
@@ -57,6 +67,22 @@ class Server implements Runnable {
 
     @Override
     public void run() {
+        if (nioReactor != null) {
+            // The reactor accepts the inbound connections, so we don't block our thread
+            try {
+                ServerSocketChannel serverSocketChannel = checkNotNull(serverSocket.getChannel(),
+                        "serverSocket must have a channel");
+                nioReactor.registerServer(serverSocketChannel, socketChannel -> {
+                    if (!stopped)
+                        addInboundConnection(socketChannel.socket());
+                });
+            } catch (Throwable t) {
+                log.error("Registering server socket at reactor failed. " + t.getMessage());
+                t.printStackTrace();
+            }
+            return;
+        }
+
         try {
             // Thread created by NetworkNode
             Thread.currentThread().setName("Server-" + serverSocket.getLocalPort());
@@ -64,24 +90,8 @@ class Server implements Runnable {
                 while (!stopped && !Thread.currentThread().isInterrupted()) {
                     log.debug("Ready to accept new clients on port " + serverSocket.getLocalPort());
                     final Socket socket = serverSocket.accept();
-                    if (!stopped && !Thread.currentThread().isInterrupted()) {
-                        log.debug("Accepted new client on localPort/port " + socket.getLocalPort() + "/" + socket.getPort());
-                        InboundConnection connection = new InboundConnection(socket,
-                                messageListener,
-                                connectionListener,
-                                networkProtoResolver);
-
-                        log.debug("\n\n%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%\n" +
-                                "Server created new inbound connection:"
-                                + "\nlocalPort/port={}/{}"
-                                + "\nconnection.uid={}", serverSocket.getLocalPort(), socket.getPort(), connection.getUid()
-                                + "\n%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%\n");
-
-                        if (!stopped)
-                            connections.add(connection);
-                        else
-                            connection.shutDown(CloseConnectionReason.APP_SHUT_DOWN);
-                    }
+                    if (!stopped && !Thread.currentThread().isInterrupted())
+                        addInboundConnection(socket);
                 }
             } catch (IOException e) {
                 if (!stopped)
@@ -93,6 +103,26 @@ class Server implements Runnable {
         }
     }
 
+    private void addInboundConnection(Socket socket) {
+        log.debug("Accepted new client on localPort/port " + socket.getLocalPort() + "/" + socket.getPort());
+        InboundConnection connection = new InboundConnection(socket,
+                messageListener,
+                connectionListener,
+                networkProtoResolver,
+                nioReactor);
+
+        log.debug("\n\n%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%\n" +
+                "Server created new inbound connection:"
+                + "\nlocalPort/port={}/{}"
+                + "\nconnection.uid={}", serverSocket.getLocalPort(), socket.getPort(), connection.getUid()
+                + "\n%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%\n");
+
+        if (!stopped)
+            connections.add(connection);
+        else
+            connection.shutDown(CloseConnectionReason.APP_SHUT_DOWN);
+    }
+
     public void shutDown() {
         if (!stopped) {
             stopped = true;
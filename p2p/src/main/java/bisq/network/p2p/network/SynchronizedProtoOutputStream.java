@@ -25,6 +25,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -60,6 +61,21 @@ class SynchronizedProtoOutputStream extends ProtoOutputStream {
         }
     }
 
+    // Does not wait until the envelope is written. Used by callers which must not get blocked by a slow peer.
+    void writeEnvelopeAsync(NetworkEnvelope envelope) {
+        try {
+            executorService.execute(() -> {
+                try {
+                    super.writeEnvelope(envelope);
+                } catch (Throwable t) {
+                    log.error("Failed to write envelope. Throwable={}", t.toString());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Envelope not written as connection is already shut down");
+        }
+    }
+
     void onConnectionShutdown() {
         try {
             executorService.shutdownNow();
@@ -19,6 +19,7 @@ package bisq.network.p2p.peers;
 
 import bisq.network.p2p.NodeAddress;
 import bisq.network.p2p.network.Connection;
+import bisq.network.p2p.network.EncodedNetworkEnvelope;
 import bisq.network.p2p.network.NetworkNode;
 import bisq.network.p2p.storage.messages.BroadcastMessage;
 
@@ -36,6 +37,7 @@ import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -145,6 +147,8 @@ public class BroadcastHandler implements PeerManager.Listener {
             }, timeoutDelay);
 
             log.debug("Broadcast message to {} peers out of {} total connected peers.", numPeers, connectedPeersSet.size());
+            // The message gets serialized only once for all peers
+            EncodedNetworkEnvelope encodedMessage = EncodedNetworkEnvelope.of(message);
             for (int i = 0; i < numPeers; i++) {
                 if (stopped)
                     break;  // do not continue sending after a timeout or a cancellation
@@ -152,7 +156,7 @@ public class BroadcastHandler implements PeerManager.Listener {
                 final long minDelay = (i + 1) * delay;
                 final long maxDelay = (i + 2) * delay;
                 final Connection connection = connectedPeersList.get(i);
-                UserThread.runAfterRandomDelay(() -> sendToPeer(connection, message), minDelay, maxDelay, TimeUnit.MILLISECONDS);
+                UserThread.runAfterRandomDelay(() -> sendToPeer(connection, encodedMessage), minDelay, maxDelay, TimeUnit.MILLISECONDS);
             }
         } else {
             onFault("Message not broadcasted because we have no available peers yet.\n\t" +
@@ -160,14 +164,15 @@ public class BroadcastHandler implements PeerManager.Listener {
         }
     }
 
-    private void sendToPeer(Connection connection, BroadcastMessage message) {
-        String errorMessage = "Message not broadcasted because we have stopped the handler already.\n\t" +
+    private void sendToPeer(Connection connection, EncodedNetworkEnvelope encodedMessage) {
+        // We create the error message only if needed as toString of a large message is expensive
+        Supplier<String> errorMessage = () -> "Message not broadcasted because we have stopped the handler already.\n\t" +
                 "message = " + Utilities.toTruncatedString(message);
         if (!stopped) {
             if (!connection.isStopped()) {
                 if (connection.noCapabilityRequiredOrCapabilityIsSupported(message)) {
                     NodeAddress nodeAddress = connection.getPeersNodeAddressOptional().get();
-                    SettableFuture<Connection> future = networkNode.sendMessage(connection, message);
+                    SettableFuture<Connection> future = networkNode.sendMessage(connection, encodedMessage);
                     Futures.addCallback(future, new FutureCallback<Connection>() {
                         @Override
                         public void onSuccess(Connection connection) {
@@ -188,7 +193,7 @@ public class BroadcastHandler implements PeerManager.Listener {
                                 }
                             } else {
                                 // TODO investigate why that is called very often at seed nodes
-                                onFault("stopped at onSuccess: " + errorMessage, false);
+                                onFault("stopped at onSuccess: " + errorMessage.get(), false);
                             }
                         }
 
@@ -199,9 +204,9 @@ public class BroadcastHandler implements PeerManager.Listener {
                                 log.info("Broadcast to " + nodeAddress + " failed.\n\t" +
                                         "ErrorMessage=" + throwable.getMessage());
                                 if (numOfCompletedBroadcasts + numOfFailedBroadcasts == numPeers)
-                                    onFault("stopped at onFailure: " + errorMessage);
+                                    onFault("stopped at onFailure: " + errorMessage.get());
                             } else {
-                                onFault("stopped at onFailure: " + errorMessage);
+                                onFault("stopped at onFailure: " + errorMessage.get());
                             }
                         }
                     });
@@ -210,7 +215,7 @@ public class BroadcastHandler implements PeerManager.Listener {
                 onFault("Connection stopped already", false);
             }
         } else {
-            onFault("stopped at sendToPeer: " + errorMessage, false);
+            onFault("stopped at sendToPeer: " + errorMessage.get(), false);
         }
     }
 
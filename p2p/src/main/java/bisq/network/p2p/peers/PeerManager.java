@@ -558,6 +558,26 @@ public class PeerManager implements ConnectionListener, PersistedDataHost {
         return persistedPeers;
     }
 
+    // Capabilities of the peer from our connection or if not available from the persisted or reported peers
+    public Optional<Capabilities> findPeersCapabilities(NodeAddress nodeAddress) {
+        Optional<Capabilities> capabilitiesFromConnection = networkNode.getConfirmedConnections().stream()
+                .filter(connection -> connection.getPeersNodeAddressOptional().isPresent() &&
+                        connection.getPeersNodeAddressOptional().get().equals(nodeAddress))
+                .map(Connection::getCapabilities)
+                .filter(capabilities -> !capabilities.isEmpty())
+                .findAny();
+        if (capabilitiesFromConnection.isPresent())
+            return capabilitiesFromConnection;
+
+        Set<Peer> allPeers = new HashSet<>(getPersistedPeers());
+        allPeers.addAll(getReportedPeers());
+        return allPeers.stream()
+                .filter(peer -> peer.getNodeAddress().equals(nodeAddress))
+                .map(Peer::getCapabilities)
+                .filter(capabilities -> !capabilities.isEmpty())
+                .findAny();
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     //  Misc
@@ -19,9 +19,12 @@ package bisq.network.p2p.peers.getdata;
 
 import bisq.network.p2p.network.CloseConnectionReason;
 import bisq.network.p2p.network.Connection;
+import bisq.network.p2p.network.MessageListener;
 import bisq.network.p2p.network.NetworkNode;
 import bisq.network.p2p.peers.getdata.messages.GetDataRequest;
 import bisq.network.p2p.peers.getdata.messages.GetDataResponse;
+import bisq.network.p2p.peers.getdata.messages.GetDataResponseChunk;
+import bisq.network.p2p.peers.getdata.messages.GetDataResponseChunkAck;
 import bisq.network.p2p.peers.getdata.messages.GetUpdatedDataRequest;
 import bisq.network.p2p.storage.P2PDataStorage;
 import bisq.network.p2p.storage.payload.CapabilityRequiringPayload;
@@ -31,6 +34,9 @@ import bisq.network.p2p.storage.payload.ProtectedStoragePayload;
 
 import bisq.common.Timer;
 import bisq.common.UserThread;
+import bisq.common.app.Capabilities;
+import bisq.common.app.Capability;
+import bisq.common.proto.network.NetworkEnvelope;
 import bisq.common.util.Utilities;
 
 import com.google.common.util.concurrent.FutureCallback;
@@ -42,6 +48,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -49,9 +56,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 
 @Slf4j
-public class GetDataRequestHandler {
+public class GetDataRequestHandler implements MessageListener {
     private static final long TIMEOUT = 90;
     private static final int MAX_ENTRIES = 10000;
+    // Chunks stay below PERMITTED_MESSAGE_SIZE of normal messages with a good margin
+    private static final int MAX_CHUNK_SIZE = 100 * 1024;
+    private static final int MAX_UNACKED_CHUNKS = 4;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -75,6 +85,14 @@ public class GetDataRequestHandler {
     private Timer timeoutTimer;
     private boolean stopped;
 
+    // Only used if we send the response in chunks
+    private Connection connection;
+    private GetDataResponseChunker chunker;
+    private int requestNonce;
+    private int numSentChunks;
+    private int numAckedChunks;
+    private boolean chunkSendInProgress;
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
@@ -93,20 +111,103 @@ public class GetDataRequestHandler {
 
     public void handle(GetDataRequest getDataRequest, final Connection connection) {
         long ts = System.currentTimeMillis();
-        GetDataResponse getDataResponse = new GetDataResponse(getFilteredProtectedStorageEntries(getDataRequest, connection),
-                getFilteredPersistableNetworkPayload(getDataRequest, connection),
-                getDataRequest.getNonce(),
-                getDataRequest instanceof GetUpdatedDataRequest);
-
-        if (timeoutTimer == null) {
-            timeoutTimer = UserThread.runAfter(() -> {  // setup before sending to avoid race conditions
-                        String errorMessage = "A timeout occurred for getDataResponse " +
-                                " on connection:" + connection;
-                        handleFault(errorMessage, CloseConnectionReason.SEND_MSG_TIMEOUT, connection);
-                    },
-                    TIMEOUT, TimeUnit.SECONDS);
+        Predicate<P2PDataStorage.ByteArray> isExcludedKey = getExcludedKeyPredicate(getDataRequest);
+        Set<ProtectedStorageEntry> dataSet = getFilteredProtectedStorageEntries(isExcludedKey, connection);
+        Set<PersistableNetworkPayload> persistableNetworkPayloadSet = getFilteredPersistableNetworkPayload(isExcludedKey, connection);
+        boolean isGetUpdatedDataResponse = getDataRequest instanceof GetUpdatedDataRequest;
+
+        if (timeoutTimer == null)
+            startTimeoutTimer(connection); // setup before sending to avoid race conditions
+
+        if (connection.getCapabilities().containsAll(new Capabilities(Capability.GET_DATA_RESPONSE_CHUNKS))) {
+            this.connection = connection;
+            chunker = new GetDataResponseChunker(dataSet, persistableNetworkPayloadSet, getDataRequest.getNonce(),
+                    isGetUpdatedDataResponse, MAX_CHUNK_SIZE);
+            requestNonce = getDataRequest.getNonce();
+            networkNode.addMessageListener(this);
+            sendNextChunk();
+        } else {
+            sendGetDataResponse(new GetDataResponse(dataSet,
+                    persistableNetworkPayloadSet,
+                    getDataRequest.getNonce(),
+                    isGetUpdatedDataResponse), connection);
+        }
+        log.info("handle GetDataRequest took {} ms", System.currentTimeMillis() - ts);
+    }
+
+    public void stop() {
+        cleanup();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // MessageListener implementation
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void onMessage(NetworkEnvelope networkEnvelope, Connection connection) {
+        if (!(networkEnvelope instanceof GetDataResponseChunkAck) || !connection.equals(this.connection))
+            return;
+
+        GetDataResponseChunkAck ack = (GetDataResponseChunkAck) networkEnvelope;
+        if (stopped || ack.getRequestNonce() != requestNonce) {
+            log.debug("We got a GetDataResponseChunkAck which does not match our request. ack={}", ack);
+            return;
+        }
+
+        numAckedChunks = Math.max(numAckedChunks, ack.getChunkIndex() + 1);
+        if (!chunker.hasNext() && numAckedChunks == numSentChunks) {
+            log.info("All {} chunks of the getData response have been confirmed by peer {}", numSentChunks,
+                    connection.getPeersNodeAddressOptional());
+            cleanup();
+            listener.onComplete();
+        } else {
+            stopTimeoutTimer();
+            startTimeoutTimer(connection);
+            sendNextChunk();
         }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // NetworkNode.sendMessage uses a thread pool, so we only send the next chunk after the previous was written to
+    // not change their order.
+    private void sendNextChunk() {
+        if (stopped || chunkSendInProgress || !chunker.hasNext() || numSentChunks - numAckedChunks >= MAX_UNACKED_CHUNKS)
+            return;
+
+        GetDataResponseChunk chunk = chunker.next();
+        numSentChunks++;
+        chunkSendInProgress = true;
+        SettableFuture<Connection> future = networkNode.sendMessage(connection, chunk);
+        Futures.addCallback(future, new FutureCallback<>() {
+            @Override
+            public void onSuccess(Connection connection) {
+                chunkSendInProgress = false;
+                if (!stopped) {
+                    log.trace("Send chunk {} to {} succeeded.", chunk.getChunkIndex(),
+                            connection.getPeersNodeAddressOptional());
+                    sendNextChunk();
+                }
+            }
+
+            @Override
+            public void onFailure(@NotNull Throwable throwable) {
+                chunkSendInProgress = false;
+                if (!stopped) {
+                    String errorMessage = "Sending chunk " + chunk.getChunkIndex() + " of getDataResponse to " +
+                            connection + " failed. That is expected if the peer is offline. " +
+                            "Exception: " + throwable.getMessage();
+                    handleFault(errorMessage, CloseConnectionReason.SEND_MSG_FAILURE, connection);
+                }
+            }
+        });
+    }
 
+    private void sendGetDataResponse(GetDataResponse getDataResponse, Connection connection) {
         SettableFuture<Connection> future = networkNode.sendMessage(connection, getDataResponse);
         Futures.addCallback(future, new FutureCallback<>() {
             @Override
@@ -133,20 +234,45 @@ public class GetDataRequestHandler {
                 }
             }
         });
-        log.info("handle GetDataRequest took {} ms", System.currentTimeMillis() - ts);
     }
 
-    private Set<PersistableNetworkPayload> getFilteredPersistableNetworkPayload(GetDataRequest getDataRequest,
+    private void startTimeoutTimer(Connection connection) {
+        timeoutTimer = UserThread.runAfter(() -> {
+                    String errorMessage = "A timeout occurred for getDataResponse " +
+                            " on connection:" + connection;
+                    handleFault(errorMessage, CloseConnectionReason.SEND_MSG_TIMEOUT, connection);
+                },
+                TIMEOUT, TimeUnit.SECONDS);
+    }
+
+    private void stopTimeoutTimer() {
+        if (timeoutTimer != null) {
+            timeoutTimer.stop();
+            timeoutTimer = null;
+        }
+    }
+
+    private Predicate<P2PDataStorage.ByteArray> getExcludedKeyPredicate(GetDataRequest getDataRequest) {
+        KeyBloomFilter excludedKeysFilter = getDataRequest.getExcludedKeysFilter();
+        if (excludedKeysFilter != null) {
+            log.info("The getData request uses a bloom filter for the excluded keys. {}", excludedKeysFilter);
+            return key -> excludedKeysFilter.mightContain(key.bytes);
+        }
+
+        Set<P2PDataStorage.ByteArray> excludedKeysAsByteArray = P2PDataStorage.ByteArray.convertBytesSetToByteArraySet(getDataRequest.getExcludedKeys());
+        return excludedKeysAsByteArray::contains;
+    }
+
+    private Set<PersistableNetworkPayload> getFilteredPersistableNetworkPayload(Predicate<P2PDataStorage.ByteArray> isExcludedKey,
                                                                                 Connection connection) {
         Set<P2PDataStorage.ByteArray> tempLookupSet = new HashSet<>();
         String connectionInfo = "connectionInfo" + connection.getPeersNodeAddressOptional()
                 .map(e -> "node address " + e.getFullAddress())
                 .orElseGet(() -> "connection UID " + connection.getUid());
 
-        Set<P2PDataStorage.ByteArray> excludedKeysAsByteArray = P2PDataStorage.ByteArray.convertBytesSetToByteArraySet(getDataRequest.getExcludedKeys());
         AtomicInteger maxSize = new AtomicInteger(MAX_ENTRIES);
         Set<PersistableNetworkPayload> result = dataStorage.getAppendOnlyDataStoreMap().entrySet().stream()
-                .filter(e -> !excludedKeysAsByteArray.contains(e.getKey()))
+                .filter(e -> !isExcludedKey.test(e.getKey()))
                 .filter(e -> maxSize.decrementAndGet() >= 0)
                 .map(Map.Entry::getValue)
                 .filter(connection::noCapabilityRequiredOrCapabilityIsSupported)
@@ -165,7 +291,7 @@ public class GetDataRequestHandler {
         return result;
     }
 
-    private Set<ProtectedStorageEntry> getFilteredProtectedStorageEntries(GetDataRequest getDataRequest,
+    private Set<ProtectedStorageEntry> getFilteredProtectedStorageEntries(Predicate<P2PDataStorage.ByteArray> isExcludedKey,
                                                                           Connection connection) {
         Set<ProtectedStorageEntry> filteredDataSet = new HashSet<>();
         Set<Integer> lookupSet = new HashSet<>();
@@ -174,9 +300,8 @@ public class GetDataRequestHandler {
                 .orElseGet(() -> "connection UID " + connection.getUid());
 
         AtomicInteger maxSize = new AtomicInteger(MAX_ENTRIES);
-        Set<P2PDataStorage.ByteArray> excludedKeysAsByteArray = P2PDataStorage.ByteArray.convertBytesSetToByteArraySet(getDataRequest.getExcludedKeys());
         Set<ProtectedStorageEntry> filteredSet = dataStorage.getMap().entrySet().stream()
-                .filter(e -> !excludedKeysAsByteArray.contains(e.getKey()))
+                .filter(e -> !isExcludedKey.test(e.getKey()))
                 .filter(e -> maxSize.decrementAndGet() >= 0)
                 .map(Map.Entry::getValue)
                 .collect(Collectors.toSet());
@@ -211,15 +336,6 @@ public class GetDataRequestHandler {
         return filteredDataSet;
     }
 
-    public void stop() {
-        cleanup();
-    }
-
-
-    ///////////////////////////////////////////////////////////////////////////////////////////
-    // Private
-    ///////////////////////////////////////////////////////////////////////////////////////////
-
     private void handleFault(String errorMessage, CloseConnectionReason closeConnectionReason, Connection connection) {
         if (!stopped) {
             log.info(errorMessage + "\n\tcloseConnectionReason=" + closeConnectionReason);
@@ -232,9 +348,7 @@ public class GetDataRequestHandler {
 
     private void cleanup() {
         stopped = true;
-        if (timeoutTimer != null) {
-            timeoutTimer.stop();
-            timeoutTimer = null;
-        }
+        networkNode.removeMessageListener(this);
+        stopTimeoutTimer();
     }
 }
@@ -0,0 +1,84 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.network.p2p.peers.getdata;
+
+import bisq.network.p2p.peers.getdata.messages.GetDataResponseChunk;
+import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
+import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Splits the data of a GetDataResponse into GetDataResponseChunks of about maxChunkSize bytes. The chunks are created
+ * on demand so only the chunk which gets sent is serialized. Each chunk contains at least one item, so a single item
+ * larger than maxChunkSize results in a larger chunk.
+ */
+class GetDataResponseChunker {
+    private final Iterator<ProtectedStorageEntry> protectedStorageEntries;
+    private final Iterator<PersistableNetworkPayload> persistableNetworkPayloads;
+    private final int requestNonce;
+    private final boolean isGetUpdatedDataResponse;
+    private final int maxChunkSize;
+    private int nextChunkIndex;
+    private boolean lastChunkCreated;
+
+    GetDataResponseChunker(Collection<ProtectedStorageEntry> protectedStorageEntries,
+                           Collection<PersistableNetworkPayload> persistableNetworkPayloads,
+                           int requestNonce,
+                           boolean isGetUpdatedDataResponse,
+                           int maxChunkSize) {
+        this.protectedStorageEntries = protectedStorageEntries.iterator();
+        this.persistableNetworkPayloads = persistableNetworkPayloads.iterator();
+        this.requestNonce = requestNonce;
+        this.isGetUpdatedDataResponse = isGetUpdatedDataResponse;
+        this.maxChunkSize = maxChunkSize;
+    }
+
+    boolean hasNext() {
+        return !lastChunkCreated;
+    }
+
+    // If there is no data at all we create one empty chunk, so the peer gets informed that we are done.
+    GetDataResponseChunk next() {
+        List<ProtectedStorageEntry> dataSet = new ArrayList<>();
+        List<PersistableNetworkPayload> persistableNetworkPayloadList = new ArrayList<>();
+        int size = 0;
+        while (size < maxChunkSize && protectedStorageEntries.hasNext()) {
+            ProtectedStorageEntry protectedStorageEntry = protectedStorageEntries.next();
+            size += protectedStorageEntry.toProtoMessage().getSerializedSize();
+            dataSet.add(protectedStorageEntry);
+        }
+        while (size < maxChunkSize && persistableNetworkPayloads.hasNext()) {
+            PersistableNetworkPayload persistableNetworkPayload = persistableNetworkPayloads.next();
+            size += persistableNetworkPayload.toProtoMessage().getSerializedSize();
+            persistableNetworkPayloadList.add(persistableNetworkPayload);
+        }
+
+        lastChunkCreated = !protectedStorageEntries.hasNext() && !persistableNetworkPayloads.hasNext();
+        return new GetDataResponseChunk(dataSet,
+                persistableNetworkPayloadList,
+                requestNonce,
+                isGetUpdatedDataResponse,
+                nextChunkIndex++,
+                lastChunkCreated);
+    }
+}
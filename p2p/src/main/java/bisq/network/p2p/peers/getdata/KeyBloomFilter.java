@@ -0,0 +1,145 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.peers.getdata;
+
+import bisq.common.proto.network.NetworkPayload;
+
+import com.google.protobuf.ByteString;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import java.util.Collection;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Bloom filter over the keys a node already has. Sent in GetDataRequests instead of the list of excluded keys to peers
+ * which support it. The filter needs about 1.8 bytes per key at a false positive rate of 0.1% compared to the 20 or 32
+ * bytes of a key.
+ * <p>
+ * A false positive means the peer does not deliver an entry we are missing. As each request uses a random tweak for the
+ * hash functions the false positives are different at each request, so a missed entry gets delivered with the next
+ * request or by the other seed node.
+ */
+@EqualsAndHashCode
+@Getter
+public final class KeyBloomFilter implements NetworkPayload {
+    // 4 MB. A bigger filter would exceed the max. message size of a request.
+    static final int MAX_SIZE_IN_BYTES = 4 * 1024 * 1024;
+    private static final int MAX_NUM_HASH_FUNCTIONS = 30;
+
+    private final byte[] bits;
+    private final int numHashFunctions;
+    private final int tweak;
+    private final transient HashFunction hashFunction;
+
+    public static KeyBloomFilter create(Collection<byte[]> keys, double falsePositiveRate, int tweak) {
+        int numKeys = Math.max(1, keys.size());
+        // Optimal number of bits: -n * ln(p) / ln(2)^2
+        long numBits = (long) (-numKeys * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int sizeInBytes = (int) Math.min(MAX_SIZE_IN_BYTES, Math.max(1, (numBits + 7) / 8));
+        // Optimal number of hash functions: m / n * ln(2)
+        int numHashFunctions = (int) Math.round((double) sizeInBytes * 8 / numKeys * Math.log(2));
+        numHashFunctions = Math.max(1, Math.min(MAX_NUM_HASH_FUNCTIONS, numHashFunctions));
+
+        KeyBloomFilter filter = new KeyBloomFilter(new byte[sizeInBytes], numHashFunctions, tweak);
+        keys.forEach(filter::put);
+        return filter;
+    }
+
+    private KeyBloomFilter(byte[] bits, int numHashFunctions, int tweak) {
+        checkArgument(bits.length > 0 && bits.length <= MAX_SIZE_IN_BYTES,
+                "Invalid size of bloom filter. size=" + bits.length);
+        checkArgument(numHashFunctions > 0 && numHashFunctions <= MAX_NUM_HASH_FUNCTIONS,
+                "Invalid number of hash functions. numHashFunctions=" + numHashFunctions);
+        this.bits = bits;
+        this.numHashFunctions = numHashFunctions;
+        this.tweak = tweak;
+        hashFunction = Hashing.murmur3_128(tweak);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // PROTO BUFFER
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public protobuf.KeyBloomFilter toProtoMessage() {
+        return protobuf.KeyBloomFilter.newBuilder()
+                .setBits(ByteString.copyFrom(bits))
+                .setNumHashFunctions(numHashFunctions)
+                .setTweak(tweak)
+                .build();
+    }
+
+    public static KeyBloomFilter fromProto(protobuf.KeyBloomFilter proto) {
+        return new KeyBloomFilter(proto.getBits().toByteArray(), proto.getNumHashFunctions(), proto.getTweak());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public boolean mightContain(byte[] key) {
+        long[] hashes = hash(key);
+        long numBits = (long) bits.length * 8;
+        for (int i = 0; i < numHashFunctions; i++) {
+            long index = ((hashes[0] + i * hashes[1]) & Long.MAX_VALUE) % numBits;
+            if ((bits[(int) (index >>> 3)] & (1 << (index & 7))) == 0)
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "KeyBloomFilter{" +
+                "\n     sizeInBytes=" + bits.length +
+                ",\n     numHashFunctions=" + numHashFunctions +
+                ",\n     tweak=" + tweak +
+                "\n}";
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void put(byte[] key) {
+        long[] hashes = hash(key);
+        long numBits = (long) bits.length * 8;
+        for (int i = 0; i < numHashFunctions; i++) {
+            long index = ((hashes[0] + i * hashes[1]) & Long.MAX_VALUE) % numBits;
+            bits[(int) (index >>> 3)] |= (1 << (index & 7));
+        }
+    }
+
+    // Double hashing (Kirsch-Mitzenmacher) with the two halves of a 128 bit murmur3 hash
+    private long[] hash(byte[] key) {
+        ByteBuffer buffer = ByteBuffer.wrap(hashFunction.hashBytes(key).asBytes()).order(ByteOrder.LITTLE_ENDIAN);
+        return new long[]{buffer.getLong(), buffer.getLong()};
+    }
+}
@@ -25,6 +25,8 @@ import bisq.network.p2p.network.NetworkNode;
 import bisq.network.p2p.peers.PeerManager;
 import bisq.network.p2p.peers.getdata.messages.GetDataRequest;
 import bisq.network.p2p.peers.getdata.messages.GetDataResponse;
+import bisq.network.p2p.peers.getdata.messages.GetDataResponseChunk;
+import bisq.network.p2p.peers.getdata.messages.GetDataResponseChunkAck;
 import bisq.network.p2p.peers.getdata.messages.GetUpdatedDataRequest;
 import bisq.network.p2p.peers.getdata.messages.PreliminaryGetDataRequest;
 import bisq.network.p2p.storage.P2PDataStorage;
@@ -37,6 +39,7 @@ import bisq.common.Timer;
 import bisq.common.UserThread;
 import bisq.common.app.Capabilities;
 import bisq.common.app.Capability;
+import bisq.common.handlers.ResultHandler;
 import bisq.common.proto.network.NetworkEnvelope;
 import bisq.common.proto.network.NetworkPayload;
 
@@ -44,12 +47,12 @@ import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.SettableFuture;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -60,6 +63,8 @@ import org.jetbrains.annotations.Nullable;
 @Slf4j
 class RequestDataHandler implements MessageListener {
     private static final long TIMEOUT = 90;
+    // About 1.8 bytes per key. See KeyBloomFilter for the handling of false positives.
+    private static final double EXCLUDED_KEYS_FILTER_FALSE_POSITIVE_RATE = 0.001;
     private NodeAddress peersNodeAddress;
 
     /**
@@ -92,6 +97,8 @@ class RequestDataHandler implements MessageListener {
     private Timer timeoutTimer;
     private final int nonce = new Random().nextInt();
     private boolean stopped;
+    // Index of the next expected GetDataResponseChunk if the peer sends the response in chunks
+    private int nextChunkIndex;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -137,10 +144,24 @@ class RequestDataHandler implements MessageListener {
 
             excludedKeys.addAll(excludedKeysFromPersistedEntryMap);
 
-            if (isPreliminaryDataRequest)
-                getDataRequest = new PreliminaryGetDataRequest(nonce, excludedKeys);
-            else
-                getDataRequest = new GetUpdatedDataRequest(networkNode.getNodeAddress(), nonce, excludedKeys);
+            boolean peerSupportsKeyBloomFilter = peerManager.findPeersCapabilities(nodeAddress)
+                    .map(capabilities -> capabilities.containsAll(new Capabilities(Capability.GET_DATA_KEY_BLOOM_FILTER)))
+                    .orElse(false);
+            if (peerSupportsKeyBloomFilter) {
+                // We use a new tweak at each request so false positives differ between requests and peers
+                KeyBloomFilter excludedKeysFilter = KeyBloomFilter.create(excludedKeys,
+                        EXCLUDED_KEYS_FILTER_FALSE_POSITIVE_RATE, new Random().nextInt());
+                if (isPreliminaryDataRequest)
+                    getDataRequest = new PreliminaryGetDataRequest(nonce, excludedKeysFilter);
+                else
+                    getDataRequest = new GetUpdatedDataRequest(networkNode.getNodeAddress(), nonce, excludedKeysFilter);
+            } else {
+                // Peer is an old node or we don't know its capabilities yet (e.g. at the first request to a seed node)
+                if (isPreliminaryDataRequest)
+                    getDataRequest = new PreliminaryGetDataRequest(nonce, excludedKeys);
+                else
+                    getDataRequest = new GetUpdatedDataRequest(networkNode.getNodeAddress(), nonce, excludedKeys);
+            }
 
             if (timeoutTimer == null) {
                 timeoutTimer = UserThread.runAfter(() -> {  // setup before sending to avoid race conditions
@@ -208,7 +229,9 @@ class RequestDataHandler implements MessageListener {
                     if (log.isDebugEnabled()) logContents(networkEnvelope, dataSet, persistableNetworkPayloadSet);
 
                     if (getDataResponse.getRequestNonce() == nonce) {
-                        stopTimeoutTimer();
+                        // The timeout stays active until the entries have been applied
+                        restartTimeoutTimer("A timeout occurred at processing the getDataResponse from nodeAddress:" +
+                                peersNodeAddress);
                         if (!connection.getPeersNodeAddressOptional().isPresent()) {
                             log.error("RequestDataHandler.onMessage: connection.getPeersNodeAddressOptional() must be present " +
                                     "at that moment");
@@ -217,43 +240,20 @@ class RequestDataHandler implements MessageListener {
 
                         final NodeAddress sender = connection.getPeersNodeAddressOptional().get();
 
-                        long ts = System.currentTimeMillis();
-                        AtomicInteger counter = new AtomicInteger();
-                        dataSet.forEach(e -> {
-                            // We don't broadcast here (last param) as we are only connected to the seed node and would be pointless
-                            dataStorage.addProtectedStorageEntry(e, sender, null, false, false);
-                            counter.getAndIncrement();
+                        // The signatures of the protectedStorageEntries get verified on a worker pool, so we
+                        // process the persistableNetworkPayloads in the meantime.
+                        processProtectedStorageEntries(dataSet, sender, () -> {
+                            if (stopped) {
+                                log.warn("We have stopped already while processing the getDataResponse.");
+                                return;
+                            }
 
+                            cleanup();
+                            listener.onComplete();
+                            firstRequest = false;
                         });
-                        log.info("Processing {} protectedStorageEntries took {} ms.", counter.get(), System.currentTimeMillis() - ts);
-
-                        // engage the firstRequest logic only if we are a seed node. Normal clients get here twice at most.
-                        if (!Capabilities.app.containsAll(Capability.SEED_NODE))
-                            firstRequest = true;
-
-                        if (persistableNetworkPayloadSet != null && firstRequest) {
-                            ts = System.currentTimeMillis();
-                            persistableNetworkPayloadSet.forEach(e -> {
-                                if (e instanceof LazyProcessedPayload) {
-                                    // We use an optimized method as many checks are not required in that case to avoid
-                                    // performance issues.
-                                    // Processing 82645 items took now 61 ms compared to earlier version where it took ages (> 2min).
-                                    // Usually we only get about a few hundred or max. a few 1000 items. 82645 is all
-                                    // trade stats stats and all account age witness data.
-                                    dataStorage.addPersistableNetworkPayloadFromInitialRequest(e);
-                                } else {
-                                    // We don't broadcast here as we are only connected to the seed node and would be pointless
-                                    dataStorage.addPersistableNetworkPayload(e, sender, false,
-                                            false, false, false);
-                                }
-                            });
-                            log.info("Processing {} persistableNetworkPayloads took {} ms.",
-                                    persistableNetworkPayloadSet.size(), System.currentTimeMillis() - ts);
-                        }
-
-                        cleanup();
-                        listener.onComplete();
-                        firstRequest = false;
+                        if (persistableNetworkPayloadSet != null)
+                            processPersistableNetworkPayloads(persistableNetworkPayloadSet, sender);
                     } else {
                         log.warn("Nonce not matching. That can happen rarely if we get a response after a canceled " +
                                         "handshake (timeout causes connection close but peer might have sent a msg before " +
@@ -267,6 +267,16 @@ class RequestDataHandler implements MessageListener {
             } else {
                 log.debug("We got the message from another connection and ignore it on that handler. That is expected if we have several requests open.");
             }
+        } else if (networkEnvelope instanceof GetDataResponseChunk) {
+            if (connection.getPeersNodeAddressOptional().isPresent() && connection.getPeersNodeAddressOptional().get().equals(peersNodeAddress)) {
+                if (!stopped) {
+                    onGetDataResponseChunk((GetDataResponseChunk) networkEnvelope, connection);
+                } else {
+                    log.warn("We have stopped already. We ignore that GetDataResponseChunk.");
+                }
+            } else {
+                log.debug("We got the message from another connection and ignore it on that handler. That is expected if we have several requests open.");
+            }
         }
     }
 
@@ -278,9 +288,93 @@ class RequestDataHandler implements MessageListener {
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    // The chunks are applied to the data storage as they arrive, so we never hold the whole data set of the
+    // response in memory.
+    private void onGetDataResponseChunk(GetDataResponseChunk chunk, Connection connection) {
+        if (chunk.getRequestNonce() != nonce) {
+            log.warn("Nonce not matching. We drop that GetDataResponseChunk. nonce={} / requestNonce={}",
+                    nonce, chunk.getRequestNonce());
+            return;
+        }
+
+        if (chunk.getChunkIndex() != nextChunkIndex) {
+            handleFault("We received chunk " + chunk.getChunkIndex() + " but expected chunk " + nextChunkIndex +
+                    " from nodeAddress:" + peersNodeAddress, peersNodeAddress, CloseConnectionReason.RULE_VIOLATION);
+            return;
+        }
+        nextChunkIndex++;
+        // The timeout stays active until the chunk has been applied and is restarted for the next chunk afterwards
+        restartTimeoutTimer("A timeout occurred at processing chunk " + chunk.getChunkIndex() +
+                " of the getData response from nodeAddress:" + peersNodeAddress);
+
+        if (log.isDebugEnabled())
+            logContents(chunk, chunk.getDataSet(), chunk.getPersistableNetworkPayloadList());
+
+        NodeAddress sender = connection.getPeersNodeAddressOptional().get();
+        processProtectedStorageEntries(chunk.getDataSet(), sender, () -> {
+            if (stopped) {
+                log.warn("We have stopped already while processing chunk {}.", chunk.getChunkIndex());
+                return;
+            }
+
+            // We confirm after processing, so the peer does not send faster than we can apply the data
+            networkNode.sendMessage(connection, new GetDataResponseChunkAck(nonce, chunk.getChunkIndex()));
+
+            if (chunk.isLastChunk()) {
+                log.info("We received all {} chunks of the getData response from {}", nextChunkIndex, peersNodeAddress);
+                cleanup();
+                listener.onComplete();
+                firstRequest = false;
+            } else {
+                restartTimeoutTimer("A timeout occurred at receiving chunk " + nextChunkIndex +
+                        " of the getData response from nodeAddress:" + peersNodeAddress);
+            }
+        });
+        processPersistableNetworkPayloads(chunk.getPersistableNetworkPayloadList(), sender);
+    }
+
+    // The resultHandler is called on the user thread after the entries have been added. We don't broadcast them as we
+    // are only connected to the seed node and it would be pointless.
+    private void processProtectedStorageEntries(Collection<ProtectedStorageEntry> dataSet,
+                                                NodeAddress sender,
+                                                ResultHandler resultHandler) {
+        long ts = System.currentTimeMillis();
+        dataStorage.addProtectedStorageEntries(dataSet, sender, () -> {
+            log.info("Processing {} protectedStorageEntries took {} ms.", dataSet.size(), System.currentTimeMillis() - ts);
+            resultHandler.handleResult();
+        });
+    }
+
+    private void processPersistableNetworkPayloads(Collection<PersistableNetworkPayload> persistableNetworkPayloads,
+                                                   NodeAddress sender) {
+        // engage the firstRequest logic only if we are a seed node. Normal clients get here twice at most.
+        if (!Capabilities.app.containsAll(Capability.SEED_NODE))
+            firstRequest = true;
+
+        if (firstRequest) {
+            long ts = System.currentTimeMillis();
+            persistableNetworkPayloads.forEach(e -> {
+                if (e instanceof LazyProcessedPayload) {
+                    // We use an optimized method as many checks are not required in that case to avoid
+                    // performance issues.
+                    // Processing 82645 items took now 61 ms compared to earlier version where it took ages (> 2min).
+                    // Usually we only get about a few hundred or max. a few 1000 items. 82645 is all
+                    // trade stats stats and all account age witness data.
+                    dataStorage.addPersistableNetworkPayloadFromInitialRequest(e);
+                } else {
+                    // We don't broadcast here as we are only connected to the seed node and would be pointless
+                    dataStorage.addPersistableNetworkPayload(e, sender, false,
+                            false, false, false);
+                }
+            });
+            log.info("Processing {} persistableNetworkPayloads took {} ms.",
+                    persistableNetworkPayloads.size(), System.currentTimeMillis() - ts);
+        }
+    }
+
     private void logContents(NetworkEnvelope networkEnvelope,
-                             Set<ProtectedStorageEntry> dataSet,
-                             Set<PersistableNetworkPayload> persistableNetworkPayloadSet) {
+                             Collection<ProtectedStorageEntry> dataSet,
+                             @Nullable Collection<PersistableNetworkPayload> persistableNetworkPayloadSet) {
         Map<String, Set<NetworkPayload>> payloadByClassName = new HashMap<>();
         dataSet.stream().forEach(e -> {
             final ProtectedStoragePayload protectedStoragePayload = e.getProtectedStoragePayload();
@@ -341,6 +435,15 @@ class RequestDataHandler implements MessageListener {
         stopTimeoutTimer();
     }
 
+    private void restartTimeoutTimer(String errorMessage) {
+        stopTimeoutTimer();
+        timeoutTimer = UserThread.runAfter(() -> {
+                    if (!stopped)
+                        handleFault(errorMessage, peersNodeAddress, CloseConnectionReason.SEND_MSG_TIMEOUT);
+                },
+                TIMEOUT);
+    }
+
     private void stopTimeoutTimer() {
         if (timeoutTimer != null) {
             timeoutTimer.stop();
@@ -0,0 +1,158 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.network.p2p.peers.getdata.messages;
+
+import bisq.network.p2p.ExtendedDataSizePermission;
+import bisq.network.p2p.SupportedCapabilitiesMessage;
+import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
+import bisq.network.p2p.storage.payload.ProtectedMailboxStorageEntry;
+import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
+
+import bisq.common.app.Capabilities;
+import bisq.common.app.Version;
+import bisq.common.proto.network.NetworkEnvelope;
+import bisq.common.proto.network.NetworkProtoResolver;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+
+import javax.annotation.Nullable;
+
+/**
+ * Part of the data of a GetDataResponse. If the requesting peer has the capability GET_DATA_RESPONSE_CHUNKS we send
+ * the data as an ordered sequence of chunks instead of one GetDataResponse. Each chunk gets confirmed by a
+ * GetDataResponseChunkAck.
+ */
+@EqualsAndHashCode(callSuper = true)
+@Value
+public final class GetDataResponseChunk extends NetworkEnvelope implements SupportedCapabilitiesMessage, ExtendedDataSizePermission {
+    private final List<ProtectedStorageEntry> dataSet;
+    private final List<PersistableNetworkPayload> persistableNetworkPayloadList;
+
+    private final int requestNonce;
+    private final boolean isGetUpdatedDataResponse;
+    private final int chunkIndex;
+    private final boolean isLastChunk;
+    @Nullable
+    private final Capabilities supportedCapabilities;
+
+    public GetDataResponseChunk(List<ProtectedStorageEntry> dataSet,
+                                List<PersistableNetworkPayload> persistableNetworkPayloadList,
+                                int requestNonce,
+                                boolean isGetUpdatedDataResponse,
+                                int chunkIndex,
+                                boolean isLastChunk) {
+        this(dataSet,
+                persistableNetworkPayloadList,
+                requestNonce,
+                isGetUpdatedDataResponse,
+                chunkIndex,
+                isLastChunk,
+                Capabilities.app,
+                Version.getP2PMessageVersion());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // PROTO BUFFER
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private GetDataResponseChunk(List<ProtectedStorageEntry> dataSet,
+                                 List<PersistableNetworkPayload> persistableNetworkPayloadList,
+                                 int requestNonce,
+                                 boolean isGetUpdatedDataResponse,
+                                 int chunkIndex,
+                                 boolean isLastChunk,
+                                 @Nullable Capabilities supportedCapabilities,
+                                 int messageVersion) {
+        super(messageVersion);
+
+        this.dataSet = dataSet;
+        this.persistableNetworkPayloadList = persistableNetworkPayloadList;
+        this.requestNonce = requestNonce;
+        this.isGetUpdatedDataResponse = isGetUpdatedDataResponse;
+        this.chunkIndex = chunkIndex;
+        this.isLastChunk = isLastChunk;
+        this.supportedCapabilities = supportedCapabilities;
+    }
+
+    @Override
+    public protobuf.NetworkEnvelope toProtoNetworkEnvelope() {
+        final protobuf.GetDataResponseChunk.Builder builder = protobuf.GetDataResponseChunk.newBuilder()
+                .addAllDataSet(dataSet.stream()
+                        .map(protectedStorageEntry -> protectedStorageEntry instanceof ProtectedMailboxStorageEntry ?
+                                protobuf.StorageEntryWrapper.newBuilder()
+                                        .setProtectedMailboxStorageEntry((protobuf.ProtectedMailboxStorageEntry) protectedStorageEntry.toProtoMessage())
+                                        .build()
+                                :
+                                protobuf.StorageEntryWrapper.newBuilder()
+                                        .setProtectedStorageEntry((protobuf.ProtectedStorageEntry) protectedStorageEntry.toProtoMessage())
+                                        .build())
+                        .collect(Collectors.toList()))
+                .addAllPersistableNetworkPayloadItems(persistableNetworkPayloadList.stream()
+                        .map(PersistableNetworkPayload::toProtoMessage)
+                        .collect(Collectors.toList()))
+                .setRequestNonce(requestNonce)
+                .setIsGetUpdatedDataResponse(isGetUpdatedDataResponse)
+                .setChunkIndex(chunkIndex)
+                .setIsLastChunk(isLastChunk);
+
+        Optional.ofNullable(supportedCapabilities).ifPresent(e -> builder.addAllSupportedCapabilities(Capabilities.toIntList(supportedCapabilities)));
+
+        return getNetworkEnvelopeBuilder()
+                .setGetDataResponseChunk(builder)
+                .build();
+    }
+
+    public static GetDataResponseChunk fromProto(protobuf.GetDataResponseChunk proto,
+                                                 NetworkProtoResolver resolver,
+                                                 int messageVersion) {
+        List<ProtectedStorageEntry> dataSet = proto.getDataSetList().stream()
+                .map(entry -> (ProtectedStorageEntry) resolver.fromProto(entry))
+                .collect(Collectors.toList());
+        List<PersistableNetworkPayload> persistableNetworkPayloadList = proto.getPersistableNetworkPayloadItemsList().stream()
+                .map(e -> (PersistableNetworkPayload) resolver.fromProto(e))
+                .collect(Collectors.toList());
+
+        return new GetDataResponseChunk(dataSet,
+                persistableNetworkPayloadList,
+                proto.getRequestNonce(),
+                proto.getIsGetUpdatedDataResponse(),
+                proto.getChunkIndex(),
+                proto.getIsLastChunk(),
+                Capabilities.fromIntList(proto.getSupportedCapabilitiesList()),
+                messageVersion);
+    }
+
+    @Override
+    public String toString() {
+        return "GetDataResponseChunk{" +
+                "\n     dataSet.size()=" + dataSet.size() +
+                ",\n     persistableNetworkPayloadList.size()=" + persistableNetworkPayloadList.size() +
+                ",\n     requestNonce=" + requestNonce +
+                ",\n     isGetUpdatedDataResponse=" + isGetUpdatedDataResponse +
+                ",\n     chunkIndex=" + chunkIndex +
+                ",\n     isLastChunk=" + isLastChunk +
+                "\n} " + super.toString();
+    }
+}
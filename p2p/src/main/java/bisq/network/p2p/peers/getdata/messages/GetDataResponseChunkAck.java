@@ -0,0 +1,61 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.network.p2p.peers.getdata.messages;
+
+import bisq.common.app.Version;
+import bisq.common.proto.network.NetworkEnvelope;
+
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+
+// Confirms that a GetDataResponseChunk was processed. The sender does not send more than a few unconfirmed chunks.
+@EqualsAndHashCode(callSuper = true)
+@Value
+public final class GetDataResponseChunkAck extends NetworkEnvelope {
+    private final int requestNonce;
+    private final int chunkIndex;
+
+    public GetDataResponseChunkAck(int requestNonce, int chunkIndex) {
+        this(requestNonce, chunkIndex, Version.getP2PMessageVersion());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // PROTO BUFFER
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private GetDataResponseChunkAck(int requestNonce, int chunkIndex, int messageVersion) {
+        super(messageVersion);
+        this.requestNonce = requestNonce;
+        this.chunkIndex = chunkIndex;
+    }
+
+    @Override
+    public protobuf.NetworkEnvelope toProtoNetworkEnvelope() {
+        return getNetworkEnvelopeBuilder()
+                .setGetDataResponseChunkAck(protobuf.GetDataResponseChunkAck.newBuilder()
+                        .setRequestNonce(requestNonce)
+                        .setChunkIndex(chunkIndex))
+                .build();
+    }
+
+    public static GetDataResponseChunkAck fromProto(protobuf.GetDataResponseChunkAck proto, int messageVersion) {
+        return new GetDataResponseChunkAck(proto.getRequestNonce(), proto.getChunkIndex(), messageVersion);
+    }
+}
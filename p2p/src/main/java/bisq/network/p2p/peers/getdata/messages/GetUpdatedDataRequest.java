@@ -19,12 +19,15 @@ package bisq.network.p2p.peers.getdata.messages;
 
 import bisq.network.p2p.NodeAddress;
 import bisq.network.p2p.SendersNodeAddressMessage;
+import bisq.network.p2p.peers.getdata.KeyBloomFilter;
 
 import bisq.common.app.Version;
 import bisq.common.proto.ProtoUtil;
 
 import com.google.protobuf.ByteString;
 
+import java.util.HashSet;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -32,6 +35,8 @@ import lombok.EqualsAndHashCode;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 import static com.google.common.base.Preconditions.checkNotNull;
 
 
@@ -50,6 +55,17 @@ public final class GetUpdatedDataRequest extends GetDataRequest implements Sende
         this(senderNodeAddress,
                 nonce,
                 excludedKeys,
+                null,
+                Version.getP2PMessageVersion());
+    }
+
+    public GetUpdatedDataRequest(NodeAddress senderNodeAddress,
+                                 int nonce,
+                                 KeyBloomFilter excludedKeysFilter) {
+        this(senderNodeAddress,
+                nonce,
+                new HashSet<>(),
+                excludedKeysFilter,
                 Version.getP2PMessageVersion());
     }
 
@@ -61,10 +77,12 @@ public final class GetUpdatedDataRequest extends GetDataRequest implements Sende
     private GetUpdatedDataRequest(NodeAddress senderNodeAddress,
                                   int nonce,
                                   Set<byte[]> excludedKeys,
+                                  @Nullable KeyBloomFilter excludedKeysFilter,
                                   int messageVersion) {
         super(messageVersion,
                 nonce,
-                excludedKeys);
+                excludedKeys,
+                excludedKeysFilter);
         checkNotNull(senderNodeAddress, "senderNodeAddress must not be null at GetUpdatedDataRequest");
         this.senderNodeAddress = senderNodeAddress;
     }
@@ -77,6 +95,7 @@ public final class GetUpdatedDataRequest extends GetDataRequest implements Sende
                 .addAllExcludedKeys(excludedKeys.stream()
                         .map(ByteString::copyFrom)
                         .collect(Collectors.toList()));
+        Optional.ofNullable(excludedKeysFilter).ifPresent(e -> builder.setExcludedKeysFilter(e.toProtoMessage()));
 
         NetworkEnvelope proto = getNetworkEnvelopeBuilder()
                 .setGetUpdatedDataRequest(builder)
@@ -90,6 +109,7 @@ public final class GetUpdatedDataRequest extends GetDataRequest implements Sende
         return new GetUpdatedDataRequest(NodeAddress.fromProto(proto.getSenderNodeAddress()),
                 proto.getNonce(),
                 ProtoUtil.byteSetFromProtoByteStringList(proto.getExcludedKeysList()),
+                proto.hasExcludedKeysFilter() ? KeyBloomFilter.fromProto(proto.getExcludedKeysFilter()) : null,
                 messageVersion);
     }
 }
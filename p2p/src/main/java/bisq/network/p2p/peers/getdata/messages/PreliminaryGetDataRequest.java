@@ -19,6 +19,7 @@ package bisq.network.p2p.peers.getdata.messages;
 
 import bisq.network.p2p.AnonymousMessage;
 import bisq.network.p2p.SupportedCapabilitiesMessage;
+import bisq.network.p2p.peers.getdata.KeyBloomFilter;
 
 import bisq.common.app.Capabilities;
 import bisq.common.app.Version;
@@ -26,6 +27,7 @@ import bisq.common.proto.ProtoUtil;
 
 import com.google.protobuf.ByteString;
 
+import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -49,7 +51,12 @@ public final class PreliminaryGetDataRequest extends GetDataRequest implements A
 
     public PreliminaryGetDataRequest(int nonce,
                                      Set<byte[]> excludedKeys) {
-        this(nonce, excludedKeys, Capabilities.app, Version.getP2PMessageVersion());
+        this(nonce, excludedKeys, null, Capabilities.app, Version.getP2PMessageVersion());
+    }
+
+    public PreliminaryGetDataRequest(int nonce,
+                                     KeyBloomFilter excludedKeysFilter) {
+        this(nonce, new HashSet<>(), excludedKeysFilter, Capabilities.app, Version.getP2PMessageVersion());
     }
 
 
@@ -59,9 +66,10 @@ public final class PreliminaryGetDataRequest extends GetDataRequest implements A
 
     private PreliminaryGetDataRequest(int nonce,
                                       Set<byte[]> excludedKeys,
+                                      @Nullable KeyBloomFilter excludedKeysFilter,
                                       @Nullable Capabilities supportedCapabilities,
                                       int messageVersion) {
-        super(messageVersion, nonce, excludedKeys);
+        super(messageVersion, nonce, excludedKeys, excludedKeysFilter);
 
         this.supportedCapabilities = supportedCapabilities;
     }
@@ -75,6 +83,7 @@ public final class PreliminaryGetDataRequest extends GetDataRequest implements A
                         .collect(Collectors.toList()));
 
         Optional.ofNullable(supportedCapabilities).ifPresent(e -> builder.addAllSupportedCapabilities(Capabilities.toIntList(supportedCapabilities)));
+        Optional.ofNullable(excludedKeysFilter).ifPresent(e -> builder.setExcludedKeysFilter(e.toProtoMessage()));
 
         NetworkEnvelope proto = getNetworkEnvelopeBuilder()
                 .setPreliminaryGetDataRequest(builder)
@@ -91,6 +100,7 @@ public final class PreliminaryGetDataRequest extends GetDataRequest implements A
 
         return new PreliminaryGetDataRequest(proto.getNonce(),
                 ProtoUtil.byteSetFromProtoByteStringList(proto.getExcludedKeysList()),
+                proto.hasExcludedKeysFilter() ? KeyBloomFilter.fromProto(proto.getExcludedKeysFilter()) : null,
                 supportedCapabilities,
                 messageVersion);
     }
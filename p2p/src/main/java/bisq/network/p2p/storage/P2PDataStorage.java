@@ -49,15 +49,19 @@ import bisq.network.p2p.storage.persistence.SequenceNumberMap;
 
 import bisq.common.Timer;
 import bisq.common.UserThread;
+import bisq.common.handlers.ResultHandler;
 import bisq.common.crypto.CryptoException;
 import bisq.common.crypto.Hash;
 import bisq.common.crypto.Sig;
+import bisq.common.metrics.Counter;
+import bisq.common.metrics.Metrics;
 import bisq.common.proto.network.NetworkEnvelope;
 import bisq.common.proto.network.NetworkPayload;
 import bisq.common.proto.persistable.PersistablePayload;
 import bisq.common.proto.persistable.PersistedDataHost;
 import bisq.common.storage.Storage;
 import bisq.common.util.Hex;
+import bisq.common.util.ParallelExecutor;
 import bisq.common.util.Tuple2;
 import bisq.common.util.Utilities;
 
@@ -66,6 +70,11 @@ import com.google.protobuf.ByteString;
 import javax.inject.Inject;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -74,6 +83,8 @@ import java.security.PublicKey;
 
 import java.time.Clock;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
@@ -84,6 +95,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
 import java.util.stream.Collectors;
 
 import lombok.EqualsAndHashCode;
@@ -102,6 +114,17 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
     @VisibleForTesting
     public static int CHECK_TTL_INTERVAL_SEC = 60;
+    // We don't split smaller batches as the overhead of the thread handoff would dominate
+    private static final int MIN_VALIDATION_BATCH_SIZE = 50;
+
+    private static final Counter PROTECTED_ENTRIES_ADDED = Metrics.counter("bisq_p2p_storage_added_total",
+            "Number of entries added to the P2P data storage", "map", "protected");
+    private static final Counter APPEND_ONLY_ENTRIES_ADDED = Metrics.counter("bisq_p2p_storage_added_total",
+            "Number of entries added to the P2P data storage", "map", "append_only");
+    private static final Counter PROTECTED_ENTRIES_REMOVED = Metrics.counter("bisq_p2p_storage_removed_total",
+            "Number of entries removed from the P2P data storage", "map", "protected");
+    private static final Counter PROTECTED_ENTRIES_UPDATED = Metrics.counter("bisq_p2p_storage_updated_total",
+            "Number of entries replaced by an entry with a higher sequence number", "map", "protected");
 
     private final Broadcaster broadcaster;
     private final AppendOnlyDataStoreService appendOnlyDataStoreService;
@@ -121,6 +144,9 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     private final Set<ProtectedDataStoreListener> protectedDataStoreListeners = new CopyOnWriteArraySet<>();
     private final Clock clock;
 
+    // Completes when the last batch of addProtectedStorageEntries has been applied. Only accessed on the user thread.
+    private ListenableFuture<?> lastBatchApplied = Futures.immediateFuture(null);
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -145,6 +171,12 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
         this.sequenceNumberMapStorage = sequenceNumberMapStorage;
         sequenceNumberMapStorage.setNumMaxBackupFiles(5);
+
+        String help = "Number of entries in the P2P data storage";
+        Metrics.gauge("bisq_p2p_storage_entries", help, map::size, "map", "protected");
+        Metrics.gauge("bisq_p2p_storage_entries", help, () -> appendOnlyDataStoreService.getMap().size(),
+                "map", "append_only");
+        Metrics.gauge("bisq_p2p_storage_entries", help, sequenceNumberMap::size, "map", "sequence_numbers");
     }
 
     @Override
@@ -173,6 +205,8 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     public void shutDown() {
         if (removeExpiredEntriesTimer != null)
             removeExpiredEntriesTimer.stop();
+
+        appendOnlyDataStoreService.shutDown();
     }
 
     public void onBootstrapComplete() {
@@ -194,6 +228,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                             toRemoveSet.add(protectedStorageEntry);
                             log.debug("We found an expired data entry. We remove the protectedData:\n\t" + Utilities.toTruncatedString(protectedStorageEntry));
                             map.remove(hashOfPayload);
+                            PROTECTED_ENTRIES_REMOVED.inc();
                         }
                     });
 
@@ -322,6 +357,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                 if (!(payload instanceof DateTolerantPayload) || !checkDate || ((DateTolerantPayload) payload).isDateInTolerance(clock)) {
                     if (!containsKey) {
                         appendOnlyDataStoreService.put(hashAsByteArray, payload);
+                        APPEND_ONLY_ENTRIES_ADDED.inc();
                         appendOnlyDataStoreListeners.forEach(e -> e.onAdded(payload));
                     }
                     if (allowBroadcast)
@@ -353,6 +389,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         if (payload.verifyHashSize()) {
             ByteArray hashAsByteArray = new ByteArray(hash);
             appendOnlyDataStoreService.put(hashAsByteArray, payload);
+            APPEND_ONLY_ENTRIES_ADDED.inc();
             return true;
         } else {
             log.warn("We got a hash exceeding our permitted size");
@@ -370,8 +407,76 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                                             @Nullable BroadcastHandler.Listener listener,
                                             boolean isDataOwner,
                                             boolean allowBroadcast) {
+        ByteArray hashOfPayload = get32ByteHashAsByteArray(protectedStorageEntry.getProtectedStoragePayload());
+        return addProtectedStorageEntry(protectedStorageEntry, hashOfPayload, () -> checkSignature(protectedStorageEntry),
+                sender, listener, isDataOwner, allowBroadcast, true);
+    }
+
+    /**
+     * Adds a batch of entries, e.g. from a getData response, without broadcasting them. The hashes of the payloads
+     * and the signatures are computed in parallel on the validation executor. Afterwards all entries get applied in one
+     * pass on the user thread. Batches are applied in the order they have been submitted.
+     *
+     * @param resultHandler Called on the user thread after the entries have been applied
+     */
+    public void addProtectedStorageEntries(Collection<ProtectedStorageEntry> protectedStorageEntries,
+                                           @Nullable NodeAddress sender,
+                                           ResultHandler resultHandler) {
+        // Payloads and sequence numbers of the received entries are not mutated, so the validation can run off the
+        // user thread. Everything which depends on our current state is checked when the entries get applied.
+        List<ProtectedStorageEntry> entries = new ArrayList<>(protectedStorageEntries);
+        // Verifying the signatures of a large getData response is expensive, so we do it on the shared worker pool
+        int batchSize = ParallelExecutor.getBatchSize(entries.size(), MIN_VALIDATION_BATCH_SIZE);
+        List<ListenableFuture<List<ValidatedProtectedStorageEntry>>> futures = Lists.partition(entries, batchSize).stream()
+                .map(batch -> ParallelExecutor.getExecutor().submit(() -> batch.stream()
+                        .map(ValidatedProtectedStorageEntry::new)
+                        .collect(Collectors.toList())))
+                .collect(Collectors.toList());
+        ListenableFuture<List<List<ValidatedProtectedStorageEntry>>> validatedEntries = Futures.allAsList(futures);
+
+        ListenableFuture<?> previousBatchApplied = lastBatchApplied;
+        SettableFuture<Void> batchApplied = SettableFuture.create();
+        lastBatchApplied = batchApplied;
+        Futures.whenAllComplete(previousBatchApplied, validatedEntries).call(() -> {
+            UserThread.execute(() -> {
+                try {
+                    applyValidatedEntries(Futures.getDone(validatedEntries), sender);
+                } catch (Throwable t) {
+                    log.error("Adding protectedStorageEntries failed. {}", t.toString());
+                    t.printStackTrace();
+                } finally {
+                    batchApplied.set(null);
+                }
+                resultHandler.handleResult();
+            });
+            return null;
+        }, MoreExecutors.directExecutor());
+    }
+
+    private void applyValidatedEntries(List<List<ValidatedProtectedStorageEntry>> validatedEntries,
+                                       @Nullable NodeAddress sender) {
+        int numAdded = 0;
+        for (List<ValidatedProtectedStorageEntry> batch : validatedEntries) {
+            for (ValidatedProtectedStorageEntry validatedEntry : batch) {
+                if (addProtectedStorageEntry(validatedEntry.getProtectedStorageEntry(), validatedEntry.getHashOfPayload(),
+                        validatedEntry::isSignatureValid, sender, null, false, false, false))
+                    numAdded++;
+            }
+        }
+        // We persist once for the whole batch instead of cloning the sequenceNumberMap for each entry
+        if (numAdded > 0)
+            persistSequenceNumberMap();
+    }
+
+    private boolean addProtectedStorageEntry(ProtectedStorageEntry protectedStorageEntry,
+                                             ByteArray hashOfPayload,
+                                             BooleanSupplier signatureCheck,
+                                             @Nullable NodeAddress sender,
+                                             @Nullable BroadcastHandler.Listener listener,
+                                             boolean isDataOwner,
+                                             boolean allowBroadcast,
+                                             boolean persistSequenceNumberMap) {
         ProtectedStoragePayload protectedStoragePayload = protectedStorageEntry.getProtectedStoragePayload();
-        ByteArray hashOfPayload = get32ByteHashAsByteArray(protectedStoragePayload);
 
         if (protectedStoragePayload instanceof AddOncePayload &&
                 removedAddOncePayloads.contains(hashOfPayload)) {
@@ -383,7 +488,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         boolean sequenceNrValid = isSequenceNrValid(protectedStorageEntry.getSequenceNumber(), hashOfPayload);
         boolean result = sequenceNrValid &&
                 checkPublicKeys(protectedStorageEntry, true)
-                && checkSignature(protectedStorageEntry);
+                && signatureCheck.getAsBoolean();
 
         boolean containsKey = map.containsKey(hashOfPayload);
         if (containsKey) {
@@ -397,6 +502,10 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
             if (!containsKey || hasSequenceNrIncreased) {
                 // At startup we don't have the item so we store it. At updates of the seq nr we store as well.
                 map.put(hashOfPayload, protectedStorageEntry);
+                if (containsKey)
+                    PROTECTED_ENTRIES_UPDATED.inc();
+                else
+                    PROTECTED_ENTRIES_ADDED.inc();
                 hashMapChangedListeners.forEach(e -> e.onAdded(protectedStorageEntry));
                 // printData("after add");
             } else {
@@ -405,8 +514,8 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
             if (hasSequenceNrIncreased) {
                 sequenceNumberMap.put(hashOfPayload, new MapValue(protectedStorageEntry.getSequenceNumber(), System.currentTimeMillis()));
-                // We set the delay higher as we might receive a batch of items
-                sequenceNumberMapStorage.queueUpForSave(SequenceNumberMap.clone(sequenceNumberMap), 2000);
+                if (persistSequenceNumberMap)
+                    persistSequenceNumberMap();
 
                 if (allowBroadcast)
                     broadcastProtectedStorageEntry(protectedStorageEntry, sender, listener, isDataOwner);
@@ -426,6 +535,11 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         return result;
     }
 
+    private void persistSequenceNumberMap() {
+        // We set the delay higher as we might receive a batch of items
+        sequenceNumberMapStorage.queueUpForSave(SequenceNumberMap.clone(sequenceNumberMap), 2000);
+    }
+
     private void broadcastProtectedStorageEntry(ProtectedStorageEntry protectedStorageEntry,
                                                 @Nullable NodeAddress sender,
                                                 @Nullable BroadcastHandler.Listener broadcastListener,
@@ -672,6 +786,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
     private void doRemoveProtectedExpirableData(ProtectedStorageEntry protectedStorageEntry, ByteArray hashOfPayload) {
         map.remove(hashOfPayload);
+        PROTECTED_ENTRIES_REMOVED.inc();
         log.trace("Data removed from our map. We broadcast the message to our peers.");
         hashMapChangedListeners.forEach(e -> e.onRemoved(protectedStorageEntry));
     }
@@ -723,7 +838,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         }
     }
 
-    private boolean checkSignature(PublicKey ownerPubKey, byte[] hashOfDataAndSeqNr, byte[] signature) {
+    private static boolean checkSignature(PublicKey ownerPubKey, byte[] hashOfDataAndSeqNr, byte[] signature) {
         try {
             boolean result = Sig.verify(ownerPubKey, hashOfDataAndSeqNr, signature);
             if (!result)
@@ -737,7 +852,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         }
     }
 
-    private boolean checkSignature(ProtectedStorageEntry protectedStorageEntry) {
+    private static boolean checkSignature(ProtectedStorageEntry protectedStorageEntry) {
         byte[] hashOfDataAndSeqNr = P2PDataStorage.get32ByteHash(new DataAndSeqNrPair(protectedStorageEntry.getProtectedStoragePayload(), protectedStorageEntry.getSequenceNumber()));
         return checkSignature(protectedStorageEntry.getOwnerPubKey(), hashOfDataAndSeqNr, protectedStorageEntry.getSignature());
     }
@@ -879,6 +994,22 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     // Static class
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    /**
+     * Result of the validation of a received entry which does not depend on our state.
+     */
+    @Getter
+    private static final class ValidatedProtectedStorageEntry {
+        private final ProtectedStorageEntry protectedStorageEntry;
+        private final ByteArray hashOfPayload;
+        private final boolean isSignatureValid;
+
+        private ValidatedProtectedStorageEntry(ProtectedStorageEntry protectedStorageEntry) {
+            this.protectedStorageEntry = protectedStorageEntry;
+            hashOfPayload = new ByteArray(get32ByteHash(protectedStorageEntry.getProtectedStoragePayload()));
+            isSignatureValid = checkSignature(protectedStorageEntry);
+        }
+    }
+
     /**
      * Used as container for calculating cryptographic hash of data and sequenceNumber.
      */
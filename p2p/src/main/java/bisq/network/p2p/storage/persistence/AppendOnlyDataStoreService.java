@@ -17,17 +17,19 @@
 
 package bisq.network.p2p.storage.persistence;
 
+import bisq.network.NetworkOptionKeys;
 import bisq.network.p2p.storage.P2PDataStorage;
 import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
 
 import bisq.common.proto.persistable.PersistableEnvelope;
+import bisq.common.proto.persistable.PersistenceProtoResolver;
 
 import javax.inject.Inject;
+import javax.inject.Named;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -36,12 +38,17 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class AppendOnlyDataStoreService {
-    private List<MapStoreService<? extends PersistableEnvelope, PersistableNetworkPayload>> services = new ArrayList<>();
+    private final List<MapStoreService<? extends PersistableEnvelope, PersistableNetworkPayload>> services = new ArrayList<>();
 
     // We do not add PersistableNetworkPayloadListService to the services list as it it deprecated and used only to
     // transfer old persisted data to the new data structure.
     @SuppressWarnings("deprecation")
     private PersistableNetworkPayloadListService persistableNetworkPayloadListService;
+    private final PersistenceProtoResolver persistenceProtoResolver;
+    private final boolean useStoreJournal;
+    // The services handle disjoint payload types, so their maps have disjoint keys
+    private final Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> mapView =
+            new MergedMapView<>(services, MapStoreService::getMap);
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -50,11 +57,19 @@ public class AppendOnlyDataStoreService {
 
     @SuppressWarnings("deprecation")
     @Inject
-    public AppendOnlyDataStoreService(PersistableNetworkPayloadListService persistableNetworkPayloadListService) {
+    public AppendOnlyDataStoreService(PersistableNetworkPayloadListService persistableNetworkPayloadListService,
+                                      PersistenceProtoResolver persistenceProtoResolver,
+                                      @Named(NetworkOptionKeys.USE_STORE_JOURNAL) boolean useStoreJournal) {
         this.persistableNetworkPayloadListService = persistableNetworkPayloadListService;
+        this.persistenceProtoResolver = persistenceProtoResolver;
+        this.useStoreJournal = useStoreJournal;
     }
 
     public void addService(MapStoreService<? extends PersistableEnvelope, PersistableNetworkPayload> service) {
+        if (useStoreJournal) {
+            service.enableJournal(bytes -> PersistableNetworkPayload.fromProto(
+                    protobuf.PersistableNetworkPayload.parseFrom(bytes), persistenceProtoResolver));
+        }
         services.add(service);
     }
 
@@ -64,6 +79,10 @@ public class AppendOnlyDataStoreService {
         // transferDeprecatedDataStructure();
     }
 
+    public void shutDown() {
+        services.forEach(MapStoreService::shutDown);
+    }
+
     // Only needed for one time converting the old data store to the new ones. Can be removed after next release when we
     // are sure that no issues occurred.
     private void transferDeprecatedDataStructure() {
@@ -75,10 +94,9 @@ public class AppendOnlyDataStoreService {
         persistableNetworkPayloadListService.removeFile();
     }
 
+    // Returns a live read-only view. Callers which need a snapshot have to copy it.
     public Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> getMap() {
-        return services.stream()
-                .flatMap(service -> service.getMap().entrySet().stream())
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        return mapView;
     }
 
     public void put(P2PDataStorage.ByteArray hashAsByteArray, PersistableNetworkPayload payload) {
@@ -0,0 +1,269 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage.persistence;
+
+import bisq.network.p2p.storage.P2PDataStorage;
+
+import bisq.common.proto.persistable.PersistablePayload;
+import bisq.common.util.Utilities;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import com.google.common.io.CountingInputStream;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only journal for a MapStoreService. Instead of rewriting the whole store file for each added or removed
+ * entry we append a length-delimited MapStoreJournalRecord to the journal file. Records are written in group commits
+ * (all records queued up within GROUP_COMMIT_DELAY_MS are written with one fsync).
+ * <p>
+ * After COMPACTION_THRESHOLD records the journal gets rotated and the full snapshot is written. The rotated journal is
+ * only deleted after the snapshot was written successfully. At startup both the rotated and the current journal are
+ * replayed on top of the snapshot. Replay is idempotent so records which are already contained in the snapshot do no
+ * harm. A partially written record at the end of the journal (e.g. after a crash) is discarded. A record with a
+ * payload we cannot parse is skipped.
+ * <p>
+ * All file access happens on the journal executor. The owning MapStoreService has to call shutDown at shut down to
+ * write the pending records.
+ */
+@Slf4j
+class MapStoreJournal<R extends PersistablePayload> {
+    private static final long GROUP_COMMIT_DELAY_MS = 100;
+    private static final int COMPACTION_THRESHOLD = 1000;
+
+    interface PayloadParser<R> {
+        R parse(byte[] bytes) throws InvalidProtocolBufferException;
+    }
+
+    private final File journalFile;
+    private final File compactingJournalFile;
+    private final PayloadParser<R> payloadParser;
+    private final ScheduledThreadPoolExecutor executor;
+    private final ConcurrentLinkedQueue<protobuf.MapStoreJournalRecord> pendingRecords = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushPending = new AtomicBoolean();
+    // Writes the snapshot synchronously and returns true if it was successful
+    private BooleanSupplier snapshotWriter;
+    private int numRecordsSinceCompaction;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    MapStoreJournal(File storageDir, String fileName, PayloadParser<R> payloadParser) {
+        this.journalFile = new File(storageDir, fileName + ".journal");
+        this.compactingJournalFile = new File(storageDir, fileName + ".journal.compacting");
+        this.payloadParser = payloadParser;
+
+        executor = Utilities.getScheduledThreadPoolExecutor("MapStoreJournal-" + fileName, 1, 1, 5);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void setSnapshotWriter(BooleanSupplier snapshotWriter) {
+        this.snapshotWriter = snapshotWriter;
+    }
+
+    void appendPut(P2PDataStorage.ByteArray hash, R payload) {
+        append(protobuf.MapStoreJournalRecord.newBuilder()
+                .setHash(ByteString.copyFrom(hash.bytes))
+                .setPayload(payload.toProtoMessage().toByteString())
+                .build());
+    }
+
+    void appendRemove(P2PDataStorage.ByteArray hash) {
+        append(protobuf.MapStoreJournalRecord.newBuilder()
+                .setHash(ByteString.copyFrom(hash.bytes))
+                .build());
+    }
+
+    /**
+     * Applies all journal records to the given map. Must be called after the snapshot was read and before any new
+     * records are appended.
+     *
+     * @return number of applied records
+     */
+    int replay(Map<P2PDataStorage.ByteArray, R> map) {
+        int numRecords = replayFile(compactingJournalFile, map) + replayFile(journalFile, map);
+        if (numRecords > 0) {
+            log.info("Replayed {} records from journal {}", numRecords, journalFile.getName());
+            // We persist the recovered state to the snapshot so the journal does not grow across restarts
+            numRecordsSinceCompaction = COMPACTION_THRESHOLD;
+            executor.execute(this::maybeCompact);
+        } else if (compactingJournalFile.exists() && !compactingJournalFile.delete()) {
+            log.warn("Could not delete {}", compactingJournalFile);
+        }
+        return numRecords;
+    }
+
+    void shutDown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Write what is left in case the scheduled flush did not run anymore
+        flush();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void append(protobuf.MapStoreJournalRecord record) {
+        pendingRecords.add(record);
+        if (flushPending.getAndSet(true))
+            return;   // Already pending. Record will be written with the next group commit.
+
+        executor.schedule(() -> {
+            try {
+                flush();
+                maybeCompact();
+            } catch (Throwable t) {
+                log.error("Error at writing journal " + journalFile, t);
+            }
+        }, GROUP_COMMIT_DELAY_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void flush() {
+        flushPending.set(false);
+        if (pendingRecords.isEmpty())
+            return;
+
+        List<protobuf.MapStoreJournalRecord> records = new ArrayList<>();
+        protobuf.MapStoreJournalRecord record;
+        while ((record = pendingRecords.poll()) != null) {
+            records.add(record);
+        }
+
+        try (FileOutputStream fileOutputStream = new FileOutputStream(journalFile, true)) {
+            for (protobuf.MapStoreJournalRecord item : records) {
+                item.writeDelimitedTo(fileOutputStream);
+            }
+            fileOutputStream.flush();
+            fileOutputStream.getFD().sync();
+            numRecordsSinceCompaction += records.size();
+        } catch (IOException e) {
+            log.error("Could not write {} records to journal {}. {}", records.size(), journalFile, e.toString());
+        }
+    }
+
+    private synchronized void maybeCompact() {
+        if (numRecordsSinceCompaction < COMPACTION_THRESHOLD || snapshotWriter == null)
+            return;
+
+        // If a previous compaction failed the rotated journal still exists and we keep it until we have a snapshot.
+        if (!compactingJournalFile.exists() && journalFile.exists() && !journalFile.renameTo(compactingJournalFile)) {
+            log.warn("Could not rotate journal {}", journalFile);
+            return;
+        }
+
+        long ts = System.currentTimeMillis();
+        // All records in the rotated journal have been applied to the map before they got appended, so the snapshot
+        // contains them.
+        if (snapshotWriter.getAsBoolean()) {
+            if (compactingJournalFile.exists() && !compactingJournalFile.delete())
+                log.warn("Could not delete {}", compactingJournalFile);
+            numRecordsSinceCompaction = 0;
+            log.info("Compacted journal {} in {} ms", journalFile.getName(), System.currentTimeMillis() - ts);
+        } else {
+            log.warn("Writing snapshot failed. We keep journal {}", compactingJournalFile);
+        }
+    }
+
+    private int replayFile(File file, Map<P2PDataStorage.ByteArray, R> map) {
+        if (!file.exists())
+            return 0;
+
+        int numRecords = 0;
+        long validLength = 0;
+        boolean incomplete = false;
+        try (CountingInputStream inputStream = new CountingInputStream(new FileInputStream(file))) {
+            while (true) {
+                protobuf.MapStoreJournalRecord record;
+                try {
+                    record = protobuf.MapStoreJournalRecord.parseDelimitedFrom(inputStream);
+                } catch (InvalidProtocolBufferException | EOFException e) {
+                    // Expected if we crashed while writing the last group commit
+                    log.warn("Journal {} has a corrupted or incomplete record after {} records. " +
+                            "We discard the remaining data. {}", file.getName(), numRecords, e.toString());
+                    incomplete = true;
+                    break;
+                }
+                if (record == null)
+                    break;
+
+                validLength = inputStream.getCount();
+                P2PDataStorage.ByteArray hash = new P2PDataStorage.ByteArray(record.getHash().toByteArray());
+                if (record.getPayload().isEmpty()) {
+                    map.remove(hash);
+                } else {
+                    R payload;
+                    try {
+                        payload = payloadParser.parse(record.getPayload().toByteArray());
+                    } catch (InvalidProtocolBufferException | RuntimeException e) {
+                        // The record itself is complete, so we skip it and continue with the next one
+                        log.warn("Could not parse the payload of a record in journal {}. We skip that record. {}",
+                                file.getName(), e.toString());
+                        continue;
+                    }
+                    map.putIfAbsent(hash, payload);
+                }
+                numRecords++;
+            }
+        } catch (IOException e) {
+            log.error("Could not read journal {}. {}", file.getName(), e.toString());
+        }
+
+        // We truncate after the input stream is closed
+        if (incomplete)
+            truncate(file, validLength);
+        return numRecords;
+    }
+
+    private void truncate(File file, long length) {
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            randomAccessFile.setLength(length);
+        } catch (IOException e) {
+            log.error("Could not truncate journal {}. {}", file, e.toString());
+        }
+    }
+}
@@ -29,15 +29,20 @@ import java.util.Map;
 
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 /**
  * Handles persisted data which is stored in a map.
+ * <p>
+ * If the journal is enabled, changes are appended to a MapStoreJournal instead of rewriting the whole store file.
  *
  * @param <T>
  * @param <R>
  */
 @Slf4j
 public abstract class MapStoreService<T extends PersistableEnvelope, R extends PersistablePayload> extends StoreService<T> {
-
+    @Nullable
+    private MapStoreJournal<R> journal;
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
@@ -58,17 +63,51 @@ public abstract class MapStoreService<T extends PersistableEnvelope, R extends P
 
     R putIfAbsent(P2PDataStorage.ByteArray hash, R payload) {
         R previous = getMap().putIfAbsent(hash, payload);
-        persist();
+        if (journal != null) {
+            if (previous == null)
+                journal.appendPut(hash, payload);
+        } else {
+            persist();
+        }
         return previous;
     }
 
     R remove(P2PDataStorage.ByteArray hash) {
         final R result = getMap().remove(hash);
-        persist();
+        if (journal != null) {
+            if (result != null)
+                journal.appendRemove(hash);
+        } else {
+            persist();
+        }
         return result;
     }
 
     boolean containsKey(P2PDataStorage.ByteArray hash) {
         return getMap().containsKey(hash);
     }
+
+    void shutDown() {
+        if (journal != null)
+            journal.shutDown();
+    }
+
+    // Must be called before the store is read
+    void enableJournal(MapStoreJournal.PayloadParser<R> payloadParser) {
+        journal = new MapStoreJournal<>(new File(absolutePathOfStorageDir), getFileName(), payloadParser);
+        journal.setSnapshotWriter(() -> storage.saveNow(store));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Protected
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    protected void readStore() {
+        super.readStore();
+
+        if (journal != null)
+            journal.replay(getMap());
+    }
 }
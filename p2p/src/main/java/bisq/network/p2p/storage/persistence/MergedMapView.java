@@ -0,0 +1,99 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage.persistence;
+
+import com.google.common.collect.Iterators;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Live read-only view over a number of maps with disjoint keys. Lookups delegate to the underlying maps and iteration
+ * walks them one after the other, so no entries are copied. The maps are requested from their sources at each access,
+ * so a map which gets replaced (e.g. after reading the store from disk) is reflected as well.
+ */
+class MergedMapView<S, K, V> extends AbstractMap<K, V> {
+    private final Collection<S> sources;
+    private final Function<S, Map<K, V>> mapGetter;
+    private final Set<Entry<K, V>> entrySet = new AbstractSet<>() {
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return Iterators.concat(sources.stream()
+                    .map(source -> Collections.unmodifiableMap(mapGetter.apply(source)).entrySet().iterator())
+                    .iterator());
+        }
+
+        @Override
+        public int size() {
+            return MergedMapView.this.size();
+        }
+    };
+
+    MergedMapView(Collection<S> sources, Function<S, Map<K, V>> mapGetter) {
+        this.sources = sources;
+        this.mapGetter = mapGetter;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return entrySet;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (S source : sources) {
+            size += mapGetter.apply(source).size();
+        }
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (S source : sources) {
+            if (!mapGetter.apply(source).isEmpty())
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        for (S source : sources) {
+            if (mapGetter.apply(source).containsKey(key))
+                return true;
+        }
+        return false;
+    }
+
+    @Override
+    public V get(Object key) {
+        for (S source : sources) {
+            V value = mapGetter.apply(source).get(key);
+            if (value != null)
+                return value;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.network.p2p;
+
+import bisq.network.Socks5ProxyProvider;
+import bisq.network.crypto.EncryptionService;
+import bisq.network.p2p.network.NetworkNode;
+import bisq.network.p2p.peers.Broadcaster;
+import bisq.network.p2p.peers.PeerManager;
+import bisq.network.p2p.peers.getdata.RequestDataManager;
+import bisq.network.p2p.peers.keepalive.KeepAliveManager;
+import bisq.network.p2p.peers.peerexchange.PeerExchangeManager;
+import bisq.network.p2p.seed.SeedNodeRepository;
+import bisq.network.p2p.storage.P2PDataStorage;
+import bisq.network.p2p.storage.payload.MailboxStoragePayload;
+import bisq.network.p2p.storage.payload.ProtectedMailboxStorageEntry;
+
+import bisq.common.UserThread;
+import bisq.common.crypto.CryptoException;
+import bisq.common.crypto.KeyRing;
+import bisq.common.crypto.KeyStorage;
+import bisq.common.crypto.SealedAndSigned;
+import bisq.common.crypto.Sig;
+import bisq.common.storage.FileUtil;
+
+import java.nio.file.Files;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.security.PublicKey;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class P2PServiceTest {
+    private static final int NUM_ENTRIES = 12;
+
+    private final NodeAddress myNodeAddress = new NodeAddress("myaddress.onion", 9999);
+    private final NodeAddress senderNodeAddress = new NodeAddress("sender.onion", 9999);
+    private File keyStorageDir;
+    private KeyRing keyRing;
+    private EncryptionService encryptionService;
+    private Executor userThreadExecutor;
+    private ExecutorService testUserThreadExecutor;
+
+    @Before
+    public void setUp() throws IOException {
+        keyStorageDir = Files.createTempDirectory("P2PServiceTest").toFile();
+        keyRing = new KeyRing(new KeyStorage(keyStorageDir));
+        encryptionService = mock(EncryptionService.class);
+
+        userThreadExecutor = UserThread.getExecutor();
+        testUserThreadExecutor = Executors.newSingleThreadExecutor();
+        UserThread.setExecutor(testUserThreadExecutor);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        UserThread.setExecutor(userThreadExecutor);
+        testUserThreadExecutor.shutdownNow();
+        FileUtil.deleteDirectory(keyStorageDir);
+    }
+
+    @Test
+    public void testMailboxEntriesAreHandledInOrder() throws Exception {
+        List<ProtectedMailboxStorageEntry> entries = new ArrayList<>();
+        Map<SealedAndSigned, Integer> indexBySealedAndSigned = new ConcurrentHashMap<>();
+        for (int i = 0; i < NUM_ENTRIES; i++) {
+            ProtectedMailboxStorageEntry entry = createMailboxEntry("uid" + i);
+            entries.add(entry);
+            indexBySealedAndSigned.put(getSealedAndSigned(entry), i);
+        }
+
+        // Earlier entries take longer to decrypt, so the decryptions complete in reverse order. Every third entry is
+        // not intended for us and its decryption fails.
+        when(encryptionService.decryptAndVerify(any())).thenAnswer(invocation -> {
+            SealedAndSigned sealedAndSigned = invocation.getArgument(0);
+            int index = indexBySealedAndSigned.get(sealedAndSigned);
+            Thread.sleep((NUM_ENTRIES - index) * 10);
+            if (index % 3 == 0)
+                throw new CryptoException("Not intended for us");
+            PrefixedSealedAndSignedMessage message = entries.get(index).getMailboxStoragePayload()
+                    .getPrefixedSealedAndSignedMessage();
+            return new DecryptedMessageWithPubKey(message, keyRing.getSignatureKeyPair().getPublic());
+        });
+
+        P2PService p2PService = createP2PService();
+        List<String> receivedUids = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(NUM_ENTRIES - (NUM_ENTRIES + 2) / 3);
+        p2PService.addDecryptedMailboxListener((decryptedMessageWithPubKey, senderNodeAddress) -> {
+            receivedUids.add(((MailboxMessage) decryptedMessageWithPubKey.getNetworkEnvelope()).getUid());
+            latch.countDown();
+        });
+
+        UserThread.execute(() -> entries.forEach(p2PService::onAdded));
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        List<String> expectedUids = new ArrayList<>();
+        for (int i = 0; i < NUM_ENTRIES; i++) {
+            if (i % 3 != 0)
+                expectedUids.add("uid" + i);
+        }
+        assertEquals(expectedUids, receivedUids);
+    }
+
+    @Test
+    public void testMailboxEntryForOtherReceiverIsNotDecrypted() throws Exception {
+        PublicKey otherReceiversPubKey = Sig.generateKeyPair().getPublic();
+        NodeAddress otherNodeAddress = new NodeAddress("other.onion", 9999);
+        P2PService p2PService = createP2PService();
+        List<DecryptedMessageWithPubKey> received = new CopyOnWriteArrayList<>();
+        p2PService.addDecryptedMailboxListener((decryptedMessageWithPubKey, senderNodeAddress) ->
+                received.add(decryptedMessageWithPubKey));
+
+        UserThread.execute(() -> {
+            p2PService.onAdded(createMailboxEntry("uid1", otherReceiversPubKey, myNodeAddress));
+            p2PService.onAdded(createMailboxEntry("uid2", keyRing.getSignatureKeyPair().getPublic(), otherNodeAddress));
+        });
+        // The filter runs on the user thread, so both entries have been processed once that task is done
+        testUserThreadExecutor.submit(() -> {
+        }).get(10, TimeUnit.SECONDS);
+
+        verify(encryptionService, never()).decryptAndVerify(any());
+        assertTrue(received.isEmpty());
+    }
+
+    @Test
+    public void testMailboxEntryForMeIsDelivered() throws Exception {
+        ProtectedMailboxStorageEntry entry = createMailboxEntry("uid1");
+        PrefixedSealedAndSignedMessage message = entry.getMailboxStoragePayload().getPrefixedSealedAndSignedMessage();
+        when(encryptionService.decryptAndVerify(any())).thenReturn(
+                new DecryptedMessageWithPubKey(message, keyRing.getSignatureKeyPair().getPublic()));
+
+        P2PService p2PService = createP2PService();
+        List<NodeAddress> senderNodeAddresses = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        p2PService.addDecryptedMailboxListener((decryptedMessageWithPubKey, senderNodeAddress) -> {
+            senderNodeAddresses.add(senderNodeAddress);
+            latch.countDown();
+        });
+
+        UserThread.execute(() -> p2PService.onAdded(entry));
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(Collections.singletonList(senderNodeAddress), senderNodeAddresses);
+        verify(encryptionService, times(1)).decryptAndVerify(getSealedAndSigned(entry));
+    }
+
+    private P2PService createP2PService() {
+        NetworkNode networkNode = mock(NetworkNode.class);
+        when(networkNode.getNodeAddress()).thenReturn(myNodeAddress);
+        return new P2PService(networkNode,
+                mock(PeerManager.class),
+                mock(P2PDataStorage.class),
+                mock(RequestDataManager.class),
+                mock(PeerExchangeManager.class),
+                mock(KeepAliveManager.class),
+                mock(Broadcaster.class),
+                mock(SeedNodeRepository.class),
+                mock(Socks5ProxyProvider.class),
+                encryptionService,
+                keyRing);
+    }
+
+    private ProtectedMailboxStorageEntry createMailboxEntry(String uid) {
+        return createMailboxEntry(uid, keyRing.getSignatureKeyPair().getPublic(), myNodeAddress);
+    }
+
+    private ProtectedMailboxStorageEntry createMailboxEntry(String uid,
+                                                            PublicKey receiversPubKey,
+                                                            NodeAddress receiversNodeAddress) {
+        SealedAndSigned sealedAndSigned = new SealedAndSigned(new byte[]{1}, uid.getBytes(), new byte[]{3},
+                keyRing.getPubKeyRing().getSignaturePubKey());
+        PrefixedSealedAndSignedMessage message = new PrefixedSealedAndSignedMessage(senderNodeAddress,
+                sealedAndSigned, receiversNodeAddress.getAddressPrefixHash(), uid);
+        MailboxStoragePayload payload = new MailboxStoragePayload(message,
+                keyRing.getPubKeyRing().getSignaturePubKey(), receiversPubKey);
+        return new ProtectedMailboxStorageEntry(payload, keyRing.getSignatureKeyPair().getPublic(), 1,
+                new byte[]{4}, receiversPubKey);
+    }
+
+    private static SealedAndSigned getSealedAndSigned(ProtectedMailboxStorageEntry entry) {
+        return entry.getMailboxStoragePayload().getPrefixedSealedAndSignedMessage().getSealedAndSigned();
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.network.p2p.network;
+
+import bisq.network.p2p.peers.keepalive.messages.Ping;
+
+import bisq.common.app.Version;
+import bisq.common.proto.network.NetworkEnvelope;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class EncodedNetworkEnvelopeTest {
+
+    @Before
+    public void setUp() {
+        Version.setBaseCryptoNetworkId(0);
+    }
+
+    @Test
+    public void testWritesSameBytesAsProto() throws IOException {
+        Ping ping = new Ping(42, 123);
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        ping.toProtoNetworkEnvelope().writeDelimitedTo(expected);
+
+        EncodedNetworkEnvelope encodedEnvelope = EncodedNetworkEnvelope.of(ping);
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        encodedEnvelope.writeDelimitedTo(actual);
+
+        assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+        assertEquals(ping.toProtoNetworkEnvelope(), encodedEnvelope.toProtoNetworkEnvelope());
+        assertEquals(ping.toProtoNetworkEnvelope().getSerializedSize(), encodedEnvelope.getSerializedSize());
+    }
+
+    @Test
+    public void testSerializesOnlyOnce() throws IOException {
+        AtomicInteger numSerializations = new AtomicInteger();
+        Ping ping = new Ping(42, 123);
+        NetworkEnvelope countingEnvelope = new NetworkEnvelope(ping.getMessageVersion()) {
+            @Override
+            public protobuf.NetworkEnvelope toProtoNetworkEnvelope() {
+                numSerializations.incrementAndGet();
+                return ping.toProtoNetworkEnvelope();
+            }
+        };
+
+        EncodedNetworkEnvelope encodedEnvelope = EncodedNetworkEnvelope.of(countingEnvelope);
+        assertSame(encodedEnvelope, EncodedNetworkEnvelope.of(encodedEnvelope));
+        assertSame(countingEnvelope, encodedEnvelope.getNetworkEnvelope());
+        assertEquals(0, numSerializations.get());
+
+        for (int i = 0; i < 3; i++) {
+            encodedEnvelope.writeDelimitedTo(new ByteArrayOutputStream());
+            encodedEnvelope.toProtoNetworkEnvelope();
+        }
+        assertEquals(1, numSerializations.get());
+    }
+}
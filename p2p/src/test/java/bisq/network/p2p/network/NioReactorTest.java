@@ -0,0 +1,149 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.network.p2p.network;
+
+import bisq.network.p2p.peers.keepalive.messages.Ping;
+
+import bisq.common.proto.network.NetworkProtoResolver;
+
+import com.google.protobuf.CodedOutputStream;
+
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+import java.nio.channels.ServerSocketChannel;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class NioReactorTest {
+    private NioReactor nioReactor;
+    private ServerSocketChannel serverSocketChannel;
+    private Server server;
+    private final List<Integer> receivedNonces = new CopyOnWriteArrayList<>();
+    private final AtomicReference<CloseConnectionReason> closeConnectionReason = new AtomicReference<>();
+    private CountDownLatch messageLatch;
+    private final CountDownLatch disconnectLatch = new CountDownLatch(1);
+
+    @Before
+    public void setUp() throws Exception {
+        NetworkProtoResolver networkProtoResolver = mock(NetworkProtoResolver.class);
+        when(networkProtoResolver.fromProto(any(protobuf.NetworkEnvelope.class))).thenAnswer(invocation -> {
+            protobuf.NetworkEnvelope proto = invocation.getArgument(0);
+            return Ping.fromProto(proto.getPing(), proto.getMessageVersion());
+        });
+
+        nioReactor = new NioReactor("NioReactorTest");
+        serverSocketChannel = ServerSocketChannel.open();
+        serverSocketChannel.bind(new InetSocketAddress("localhost", 0));
+        server = new Server(serverSocketChannel.socket(),
+                (networkEnvelope, connection) -> {
+                    receivedNonces.add(((Ping) networkEnvelope).getNonce());
+                    messageLatch.countDown();
+                },
+                new ConnectionListener() {
+                    @Override
+                    public void onConnection(Connection connection) {
+                    }
+
+                    @Override
+                    public void onDisconnect(CloseConnectionReason reason, Connection connection) {
+                        closeConnectionReason.set(reason);
+                        disconnectLatch.countDown();
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                    }
+                },
+                networkProtoResolver,
+                nioReactor);
+        // Returns immediately as the reactor accepts the connections
+        server.run();
+    }
+
+    @After
+    public void tearDown() {
+        server.shutDown();
+        nioReactor.shutDown();
+    }
+
+    @Test
+    public void testFragmentedAndCoalescedEnvelopesAreDeliveredInOrder() throws Exception {
+        int numMessages = 100;
+        messageLatch = new CountDownLatch(numMessages);
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        for (int i = 0; i < numMessages; i++) {
+            new Ping(i, 0).toProtoNetworkEnvelope().writeDelimitedTo(byteArrayOutputStream);
+        }
+        byte[] bytes = byteArrayOutputStream.toByteArray();
+
+        try (Socket socket = connect()) {
+            OutputStream outputStream = socket.getOutputStream();
+            // Chunks of 7 bytes split the length prefix and the envelopes at arbitrary positions
+            for (int offset = 0; offset < bytes.length; offset += 7) {
+                outputStream.write(bytes, offset, Math.min(7, bytes.length - offset));
+                outputStream.flush();
+                if (offset % 70 == 0)
+                    Thread.sleep(1);
+            }
+
+            assertTrue(messageLatch.await(10, TimeUnit.SECONDS));
+        }
+
+        for (int i = 0; i < numMessages; i++) {
+            assertEquals(i, (int) receivedNonces.get(i));
+        }
+    }
+
+    @Test
+    public void testTooLargeEnvelopeClosesConnection() throws Exception {
+        messageLatch = new CountDownLatch(1);
+        try (Socket socket = connect()) {
+            CodedOutputStream codedOutputStream = CodedOutputStream.newInstance(socket.getOutputStream());
+            codedOutputStream.writeUInt32NoTag(Connection.getMaxPermittedMessageSize() + 1);
+            codedOutputStream.flush();
+
+            assertTrue(disconnectLatch.await(10, TimeUnit.SECONDS));
+            assertEquals(CloseConnectionReason.RULE_VIOLATION, closeConnectionReason.get());
+        }
+        assertTrue(receivedNonces.isEmpty());
+    }
+
+    private Socket connect() throws IOException {
+        return new Socket("localhost", serverSocketChannel.socket().getLocalPort());
+    }
+}
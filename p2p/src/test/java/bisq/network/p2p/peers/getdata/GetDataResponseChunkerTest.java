@@ -0,0 +1,104 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.network.p2p.peers.getdata;
+
+import bisq.network.p2p.peers.getdata.messages.GetDataResponseChunk;
+import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
+
+import com.google.protobuf.ByteString;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class GetDataResponseChunkerTest {
+    private static final int NONCE = 42;
+
+    @Test
+    public void testEmptyResponseResultsInOneLastChunk() {
+        GetDataResponseChunker chunker = new GetDataResponseChunker(Collections.emptyList(), Collections.emptyList(),
+                NONCE, false, 1000);
+
+        assertTrue(chunker.hasNext());
+        GetDataResponseChunk chunk = chunker.next();
+        assertEquals(0, chunk.getChunkIndex());
+        assertEquals(NONCE, chunk.getRequestNonce());
+        assertTrue(chunk.isLastChunk());
+        assertTrue(chunk.getDataSet().isEmpty());
+        assertTrue(chunk.getPersistableNetworkPayloadList().isEmpty());
+        assertFalse(chunker.hasNext());
+    }
+
+    @Test
+    public void testChunksAreBoundedAndContainAllItemsInOrder() {
+        List<PersistableNetworkPayload> payloads = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            payloads.add(new TestPayload(i));
+        }
+        int itemSize = payloads.get(0).toProtoMessage().getSerializedSize();
+        int maxChunkSize = 4000;
+        GetDataResponseChunker chunker = new GetDataResponseChunker(Collections.emptyList(), payloads,
+                NONCE, true, maxChunkSize);
+
+        List<PersistableNetworkPayload> received = new ArrayList<>();
+        int chunkIndex = 0;
+        while (chunker.hasNext()) {
+            GetDataResponseChunk chunk = chunker.next();
+            assertEquals(chunkIndex++, chunk.getChunkIndex());
+            assertTrue(chunk.isGetUpdatedDataResponse());
+            assertEquals(!chunker.hasNext(), chunk.isLastChunk());
+            assertTrue(chunk.getPersistableNetworkPayloadList().size() * itemSize < maxChunkSize + itemSize);
+            received.addAll(chunk.getPersistableNetworkPayloadList());
+        }
+
+        assertEquals(13, chunkIndex);
+        assertEquals(payloads, received);
+    }
+
+    private static class TestPayload implements PersistableNetworkPayload {
+        private final byte[] hash = new byte[1000];
+
+        TestPayload(int index) {
+            hash[0] = (byte) index;
+        }
+
+        @Override
+        public protobuf.PersistableNetworkPayload toProtoMessage() {
+            return protobuf.PersistableNetworkPayload.newBuilder()
+                    .setAccountAgeWitness(protobuf.AccountAgeWitness.newBuilder().setHash(ByteString.copyFrom(hash)))
+                    .build();
+        }
+
+        @Override
+        public byte[] getHash() {
+            return hash;
+        }
+
+        @Override
+        public boolean verifyHashSize() {
+            return true;
+        }
+    }
+}
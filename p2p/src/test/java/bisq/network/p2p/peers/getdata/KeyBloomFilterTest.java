@@ -0,0 +1,73 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.peers.getdata;
+
+import bisq.common.crypto.Hash;
+
+import java.nio.ByteBuffer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class KeyBloomFilterTest {
+    @Test
+    public void testContainsAllKeys() {
+        List<byte[]> keys = createKeys(0, 10_000);
+        KeyBloomFilter filter = KeyBloomFilter.create(keys, 0.001, 1);
+        keys.forEach(key -> assertTrue(filter.mightContain(key)));
+    }
+
+    @Test
+    public void testFalsePositiveRate() {
+        KeyBloomFilter filter = KeyBloomFilter.create(createKeys(0, 10_000), 0.001, 1);
+        long numFalsePositives = createKeys(10_000, 110_000).stream().filter(filter::mightContain).count();
+        // Expected are about 100
+        assertTrue("numFalsePositives=" + numFalsePositives, numFalsePositives < 300);
+        // About 1.8 bytes per key
+        assertTrue(filter.getBits().length < 20_000);
+    }
+
+    @Test
+    public void testEmptyFilter() {
+        KeyBloomFilter filter = KeyBloomFilter.create(new ArrayList<>(), 0.001, 1);
+        assertFalse(filter.mightContain(createKeys(0, 1).get(0)));
+    }
+
+    @Test
+    public void testProtoRoundTrip() {
+        List<byte[]> keys = createKeys(0, 100);
+        KeyBloomFilter filter = KeyBloomFilter.create(keys, 0.001, 42);
+        KeyBloomFilter fromProto = KeyBloomFilter.fromProto(filter.toProtoMessage());
+        assertEquals(filter, fromProto);
+        keys.forEach(key -> assertTrue(fromProto.mightContain(key)));
+    }
+
+    private static List<byte[]> createKeys(int from, int to) {
+        List<byte[]> keys = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            keys.add(Hash.getSha256Ripemd160hash(ByteBuffer.allocate(4).putInt(i).array()));
+        }
+        return keys;
+    }
+}
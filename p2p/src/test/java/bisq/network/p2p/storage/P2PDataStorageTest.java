@@ -2,27 +2,108 @@ package bisq.network.p2p.storage;
 
 import bisq.network.p2p.network.NetworkNode;
 import bisq.network.p2p.peers.Broadcaster;
+import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
+import bisq.network.p2p.storage.payload.ProtectedStoragePayload;
 import bisq.network.p2p.storage.persistence.AppendOnlyDataStoreService;
 import bisq.network.p2p.storage.persistence.ProtectedDataStoreService;
 import bisq.network.p2p.storage.persistence.ResourceDataStoreService;
 
+import bisq.common.crypto.CryptoException;
+import bisq.common.crypto.Sig;
 import bisq.common.storage.Storage;
 
+import java.security.KeyPair;
+
 import java.time.Clock;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class P2PDataStorageTest {
     @Test
     public void canStart1Instance() {
-        P2PDataStorage storage = new P2PDataStorage(mock(NetworkNode.class),
+        createStorage();
+    }
+
+    @Test
+    public void testAddProtectedStorageEntriesRejectsInvalidSignatures() throws CryptoException, InterruptedException {
+        P2PDataStorage storage = createStorage();
+        KeyPair keyPair = Sig.generateKeyPair();
+        List<ProtectedStorageEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            entries.add(createEntry(keyPair, "payload" + i, i % 10 == 0));
+        }
+
+        CountDownLatch latch = new CountDownLatch(1);
+        storage.addProtectedStorageEntries(entries, null, latch::countDown);
+        assertTrue(latch.await(30, TimeUnit.SECONDS));
+
+        assertEquals(180, storage.getMap().size());
+        for (int i = 0; i < entries.size(); i++) {
+            P2PDataStorage.ByteArray hashOfPayload = new P2PDataStorage.ByteArray(
+                    P2PDataStorage.get32ByteHash(entries.get(i).getProtectedStoragePayload()));
+            assertEquals(i % 10 != 0, storage.getMap().containsKey(hashOfPayload));
+        }
+        storage.shutDown();
+    }
+
+    @Test
+    public void testAddProtectedStorageEntriesAppliesBatchesInOrder() throws CryptoException, InterruptedException {
+        P2PDataStorage storage = createStorage();
+        KeyPair keyPair = Sig.generateKeyPair();
+        List<Integer> completedBatches = new ArrayList<>();
+        CountDownLatch latch = new CountDownLatch(3);
+        for (int i = 0; i < 3; i++) {
+            int batchIndex = i;
+            List<ProtectedStorageEntry> entries = new ArrayList<>();
+            // The first batch is the largest, so its validation finishes last
+            for (int j = 0; j < 100 / (i + 1); j++) {
+                entries.add(createEntry(keyPair, "payload" + i + "-" + j, false));
+            }
+            storage.addProtectedStorageEntries(entries, null, () -> {
+                synchronized (completedBatches) {
+                    completedBatches.add(batchIndex);
+                }
+                latch.countDown();
+            });
+        }
+        assertTrue(latch.await(30, TimeUnit.SECONDS));
+
+        assertEquals(List.of(0, 1, 2), completedBatches);
+        assertFalse(storage.getMap().isEmpty());
+        storage.shutDown();
+    }
+
+    private static P2PDataStorage createStorage() {
+        return new P2PDataStorage(mock(NetworkNode.class),
                 mock(Broadcaster.class),
                 mock(AppendOnlyDataStoreService.class),
                 mock(ProtectedDataStoreService.class), mock(ResourceDataStoreService.class),
                 mock(Storage.class), Clock.systemUTC());
+    }
 
+    private static ProtectedStorageEntry createEntry(KeyPair keyPair, String message, boolean invalidSignature)
+            throws CryptoException {
+        ProtectedStoragePayload payload = mock(ProtectedStoragePayload.class);
+        when(payload.getOwnerPubKey()).thenReturn(keyPair.getPublic());
+        when(payload.toProtoMessage()).thenReturn(protobuf.StoragePayload.newBuilder()
+                .setAlert(protobuf.Alert.newBuilder().setMessage(message))
+                .build());
+        int sequenceNumber = 1;
+        byte[] hashOfDataAndSeqNr = P2PDataStorage.get32ByteHash(
+                new P2PDataStorage.DataAndSeqNrPair(payload, invalidSignature ? sequenceNumber + 1 : sequenceNumber));
+        byte[] signature = Sig.sign(keyPair.getPrivate(), hashOfDataAndSeqNr);
+        return new ProtectedStorageEntry(payload, keyPair.getPublic(), sequenceNumber, signature);
     }
 
 }
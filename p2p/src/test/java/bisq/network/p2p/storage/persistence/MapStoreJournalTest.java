@@ -0,0 +1,128 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage.persistence;
+
+import bisq.network.p2p.storage.P2PDataStorage;
+
+import bisq.common.storage.FileUtil;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import java.nio.file.Files;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MapStoreJournalTest {
+    private static final String FILE_NAME = "TestStore";
+
+    private File dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("MapStoreJournalTest").toFile();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtil.deleteDirectory(dir);
+    }
+
+    @Test
+    public void testReplayAppliesPutsAndRemovals() {
+        MapStoreJournal<P2PDataStorage.ByteArray> journal = createJournal();
+        journal.appendPut(hash(1), hash(1));
+        journal.appendPut(hash(2), hash(2));
+        journal.appendRemove(hash(1));
+        journal.shutDown();
+
+        Map<P2PDataStorage.ByteArray, P2PDataStorage.ByteArray> map = new HashMap<>();
+        assertEquals(3, createJournal().replay(map));
+        assertEquals(1, map.size());
+        assertTrue(map.containsKey(hash(2)));
+        assertFalse(map.containsKey(hash(1)));
+    }
+
+    @Test
+    public void testIncompleteRecordIsDiscarded() throws IOException {
+        MapStoreJournal<P2PDataStorage.ByteArray> journal = createJournal();
+        journal.appendPut(hash(1), hash(1));
+        journal.appendPut(hash(2), hash(2));
+        journal.shutDown();
+
+        File journalFile = new File(dir, FILE_NAME + ".journal");
+        long validLength = journalFile.length();
+        // Simulate a crash in the middle of writing a record: length prefix of 100 bytes but only 2 bytes of data
+        try (FileOutputStream fileOutputStream = new FileOutputStream(journalFile, true)) {
+            fileOutputStream.write(new byte[]{100, 1, 2});
+        }
+
+        Map<P2PDataStorage.ByteArray, P2PDataStorage.ByteArray> map = new HashMap<>();
+        assertEquals(2, createJournal().replay(map));
+        assertEquals(2, map.size());
+        assertEquals(validLength, journalFile.length());
+    }
+
+    @Test
+    public void testRecordWithInvalidPayloadIsSkipped() {
+        MapStoreJournal<P2PDataStorage.ByteArray> journal = createJournal();
+        journal.appendPut(hash(1), hash(1));
+        journal.appendPut(hash(2), hash(2));
+        journal.shutDown();
+
+        File journalFile = new File(dir, FILE_NAME + ".journal");
+        long length = journalFile.length();
+
+        Map<P2PDataStorage.ByteArray, P2PDataStorage.ByteArray> map = new HashMap<>();
+        MapStoreJournal<P2PDataStorage.ByteArray> rejectingJournal = new MapStoreJournal<>(dir, FILE_NAME, bytes -> {
+            P2PDataStorage.ByteArray payload = parse(bytes);
+            if (payload.equals(hash(1)))
+                throw new InvalidProtocolBufferException("invalid payload");
+            return payload;
+        });
+        assertEquals(1, rejectingJournal.replay(map));
+        assertEquals(1, map.size());
+        assertTrue(map.containsKey(hash(2)));
+        // The journal is not truncated
+        assertEquals(length, journalFile.length());
+    }
+
+    private MapStoreJournal<P2PDataStorage.ByteArray> createJournal() {
+        return new MapStoreJournal<>(dir, FILE_NAME, MapStoreJournalTest::parse);
+    }
+
+    private static P2PDataStorage.ByteArray parse(byte[] bytes) throws InvalidProtocolBufferException {
+        return P2PDataStorage.ByteArray.fromProto(protobuf.ByteArray.parseFrom(bytes));
+    }
+
+    private static P2PDataStorage.ByteArray hash(int value) {
+        return new P2PDataStorage.ByteArray(new byte[]{(byte) value, 0, 0, 0});
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage.persistence;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class MergedMapViewTest {
+    @Test
+    public void testViewReflectsUnderlyingMaps() {
+        Map<String, Integer> map1 = new HashMap<>();
+        Map<String, Integer> map2 = new HashMap<>();
+        List<Map<String, Integer>> maps = Arrays.asList(map1, map2);
+        Map<String, Integer> view = new MergedMapView<>(maps, map -> map);
+        assertTrue(view.isEmpty());
+
+        map1.put("a", 1);
+        map2.put("b", 2);
+        map2.put("c", 3);
+
+        assertEquals(3, view.size());
+        assertEquals(Integer.valueOf(2), view.get("b"));
+        assertNull(view.get("d"));
+        assertTrue(view.containsKey("a"));
+        assertFalse(view.containsKey("d"));
+        assertEquals(new HashSet<>(Arrays.asList("a", "b", "c")), new HashSet<>(view.keySet()));
+        assertEquals(new HashSet<>(Arrays.asList(1, 2, 3)), new HashSet<>(view.values()));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testViewIsReadOnly() {
+        Map<String, Integer> map = new HashMap<>();
+        map.put("a", 1);
+        Map<String, Integer> view = new MergedMapView<>(Arrays.asList(map), m -> m);
+        view.entrySet().iterator().next().setValue(2);
+    }
+}
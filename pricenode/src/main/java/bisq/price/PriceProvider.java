@@ -17,12 +17,16 @@
 
 package bisq.price;
 
+import bisq.common.metrics.Histogram;
+import bisq.common.metrics.Metrics;
+
 import org.springframework.context.SmartLifecycle;
 
 import java.time.Duration;
 
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 import org.slf4j.Logger;
@@ -36,6 +40,10 @@ public abstract class PriceProvider<T> implements SmartLifecycle, Supplier<T> {
 
     protected final Duration refreshInterval;
 
+    private final Histogram refreshDuration = Metrics.histogram("bisq_price_provider_refresh_duration_seconds",
+            "Time for requesting the data from the upstream provider", Metrics.DURATION_BUCKETS,
+            "provider", this.getClass().getSimpleName());
+
     private T cachedResult;
 
     public PriceProvider(Duration refreshInterval) {
@@ -73,11 +81,12 @@ public abstract class PriceProvider<T> implements SmartLifecycle, Supplier<T> {
     }
 
     private void refresh() {
-        long ts = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
 
         cachedResult = doGet();
 
-        log.info("refresh took {} ms.", (System.currentTimeMillis() - ts));
+        refreshDuration.observeNanosSince(startNanos);
+        log.info("refresh took {} ms.", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
 
         onRefresh();
     }
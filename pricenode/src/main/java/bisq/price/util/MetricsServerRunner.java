@@ -0,0 +1,46 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.price.util;
+
+import bisq.common.CommonOptionKeys;
+import bisq.common.metrics.MetricsServer;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Starts the local Prometheus endpoint for the node-internal metrics if the metricsPort property is set.
+ */
+@Component
+class MetricsServerRunner implements DisposableBean {
+
+    public MetricsServerRunner(Environment env) throws IOException {
+        int port = env.getProperty(CommonOptionKeys.METRICS_PORT, Integer.class, 0);
+        if (port > 0)
+            MetricsServer.start(port);
+    }
+
+    @Override
+    public void destroy() {
+        MetricsServer.stop();
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.relay;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.turo.pushy.apns.ApnsClient;
+import com.turo.pushy.apns.ApnsClientBuilder;
+import com.turo.pushy.apns.PushNotificationResponse;
+import com.turo.pushy.apns.util.ApnsPayloadBuilder;
+import com.turo.pushy.apns.util.SimpleApnsPushNotification;
+import com.turo.pushy.apns.util.concurrent.PushNotificationFuture;
+
+/**
+ * Sends notifications to iOS devices over the APNs HTTP/2 connections of pushy, which multiplex all concurrent
+ * requests.
+ */
+class ApnsPushSender implements PushSender {
+    private static final Logger log = LoggerFactory.getLogger(ApnsPushSender.class);
+
+    private final String appleBundleId;
+
+    private ApnsClient productionApnsClient;
+    private ApnsClient devApnsClient; // used for iOS development in XCode
+
+    ApnsPushSender(String appleCertPwPath, String appleCertPath, String appleBundleId) {
+        this.appleBundleId = appleBundleId;
+
+        try {
+            InputStream certInputStream = new FileInputStream(appleCertPwPath);
+            Scanner scanner = new Scanner(certInputStream);
+            String password = scanner.next();
+            productionApnsClient = new ApnsClientBuilder()
+                .setApnsServer(ApnsClientBuilder.PRODUCTION_APNS_HOST)
+                .setClientCredentials(new File(appleCertPath), password)
+                .build();
+            devApnsClient = new ApnsClientBuilder()
+                .setApnsServer(ApnsClientBuilder.DEVELOPMENT_APNS_HOST)
+                .setClientCredentials(new File(appleCertPath), password)
+                .build();
+        } catch (IOException e) {
+            log.error(e.toString());
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public CompletableFuture<String> send(PushNotification notification) {
+        ApnsPayloadBuilder payloadBuilder = new ApnsPayloadBuilder();
+        if (notification.isUseSound())
+            payloadBuilder.setSoundFileName("default");
+        payloadBuilder.setAlertBody("Bisq notification");
+        payloadBuilder.setContentAvailable(notification.isContentAvailable());
+        payloadBuilder.addCustomProperty("encrypted", notification.getEncryptedMessage());
+        final String payload = payloadBuilder.buildWithDefaultMaximumLength();
+        log.debug("payload " + payload);
+        SimpleApnsPushNotification simpleApnsPushNotification = new SimpleApnsPushNotification(notification.getToken(),
+            appleBundleId, payload);
+
+        ApnsClient apnsClient = notification.isProduction() ? productionApnsClient : devApnsClient;
+        PushNotificationFuture<SimpleApnsPushNotification, PushNotificationResponse<SimpleApnsPushNotification>>
+            notificationFuture = apnsClient.sendNotification(simpleApnsPushNotification);
+
+        CompletableFuture<String> result = new CompletableFuture<>();
+        notificationFuture.addListener(future -> {
+            if (!future.isSuccess()) {
+                result.completeExceptionally(future.cause());
+                return;
+            }
+
+            PushNotificationResponse<SimpleApnsPushNotification> pushNotificationResponse = notificationFuture.getNow();
+            if (pushNotificationResponse.isAccepted()) {
+                log.info("Push notification accepted by APNs gateway.");
+                result.complete(SUCCESS);
+            } else {
+                String msg1 = "Notification rejected by the APNs gateway: " +
+                    pushNotificationResponse.getRejectionReason();
+                String msg2 = "";
+                if (pushNotificationResponse.getTokenInvalidationTimestamp() != null)
+                    msg2 = " and the token is invalid as of " +
+                        pushNotificationResponse.getTokenInvalidationTimestamp();
+
+                log.info(msg1 + msg2);
+                result.complete("Error: " + msg1 + msg2);
+            }
+        });
+        return result;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.relay;
+
+import com.google.common.util.concurrent.MoreExecutors;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.api.core.ApiFuture;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.FirebaseOptions;
+import com.google.firebase.messaging.FirebaseMessaging;
+import com.google.firebase.messaging.Message;
+import com.google.firebase.messaging.Notification;
+
+/**
+ * Sends notifications to Android devices with the asynchronous Firebase Cloud Messaging API.
+ */
+class FcmPushSender implements PushSender {
+    private static final Logger log = LoggerFactory.getLogger(FcmPushSender.class);
+    private static final String ANDROID_DATABASE_URL = "https://bisqnotifications.firebaseio.com";
+
+    FcmPushSender(String androidCertPath) {
+        try {
+            InputStream androidCertStream = new FileInputStream(androidCertPath);
+            FirebaseOptions options = new FirebaseOptions.Builder()
+                .setCredentials(GoogleCredentials.fromStream(androidCertStream))
+                .setDatabaseUrl(ANDROID_DATABASE_URL)
+                .build();
+            FirebaseApp.initializeApp(options);
+        } catch (IOException e) {
+            log.error(e.toString());
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public CompletableFuture<String> send(PushNotification notification) {
+        Message.Builder messageBuilder = Message.builder();
+        Notification fcmNotification = new Notification("Bisq", "Notification");
+        messageBuilder.setNotification(fcmNotification);
+        messageBuilder.putData("encrypted", notification.getEncryptedMessage());
+        messageBuilder.setToken(notification.getToken());
+        if (notification.isUseSound())
+            messageBuilder.putData("sound", "default");
+        Message message = messageBuilder.build();
+
+        CompletableFuture<String> result = new CompletableFuture<>();
+        ApiFuture<String> sendFuture = FirebaseMessaging.getInstance().sendAsync(message);
+        sendFuture.addListener(() -> {
+            try {
+                sendFuture.get();
+                result.complete(SUCCESS);
+            } catch (ExecutionException e) {
+                log.error(e.getCause().toString());
+                result.complete("Error: " + e.getCause().toString());
+            } catch (InterruptedException e) {
+                result.completeExceptionally(e);
+            }
+        }, MoreExecutors.directExecutor());
+        return result;
+    }
+}
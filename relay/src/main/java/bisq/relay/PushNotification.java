@@ -0,0 +1,69 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.relay;
+
+/**
+ * A push notification request received at the relay endpoint.
+ */
+final class PushNotification {
+    private final boolean isAndroid;
+    private final boolean isProduction;
+    private final boolean isContentAvailable;
+    private final String token;
+    private final String encryptedMessage;
+    private final boolean useSound;
+
+    PushNotification(boolean isAndroid,
+                     boolean isProduction,
+                     boolean isContentAvailable,
+                     String token,
+                     String encryptedMessage,
+                     boolean useSound) {
+        this.isAndroid = isAndroid;
+        this.isProduction = isProduction;
+        this.isContentAvailable = isContentAvailable;
+        this.token = token;
+        this.encryptedMessage = encryptedMessage;
+        this.useSound = useSound;
+    }
+
+    boolean isAndroid() {
+        return isAndroid;
+    }
+
+    boolean isProduction() {
+        return isProduction;
+    }
+
+    boolean isContentAvailable() {
+        return isContentAvailable;
+    }
+
+    String getToken() {
+        return token;
+    }
+
+    String getEncryptedMessage() {
+        return encryptedMessage;
+    }
+
+    boolean isUseSound() {
+        return useSound;
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.relay;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sends a notification to a push service (APNs or FCM) without blocking the caller.
+ */
+interface PushSender {
+    // Used in Bisq app to check for success state. We won't want a code dependency just for that string so we keep it
+    // duplicated in core and here. Must not be changed.
+    String SUCCESS = "success";
+
+    /**
+     * @return a future which completes with {@link #SUCCESS} if the push service accepted the notification or with
+     * an error message starting with "Error: " if it was rejected. It completes exceptionally if the push service
+     * could not be reached.
+     */
+    CompletableFuture<String> send(PushNotification notification);
+}
@@ -87,7 +87,8 @@ public class RelayMain {
 
         port(port);
 
-        relayService = new RelayService(appleCertPwPath, appleCertPath, appleBundleId, androidCertPath);
+        relayService = new RelayService(new ApnsPushSender(appleCertPwPath, appleCertPath, appleBundleId),
+            new FcmPushSender(androidCertPath));
 
         handleRelay();
 
@@ -103,12 +104,17 @@ public class RelayMain {
             String encryptedMessage = new String(Hex.decodeHex(request.queryParams("msg").toCharArray()), "UTF-8");
             log.info("isAndroid={}\nuseSound={}\napsTokenHex={}\nencryptedMessage={}", isAndroid, useSound, token,
                 encryptedMessage);
-            if (isAndroid) {
-                return relayService.sendAndroidMessage(token, encryptedMessage, useSound);
+            boolean isProduction = !isAndroid && request.queryParams("isProduction").equalsIgnoreCase("true");
+            boolean isContentAvailable = !isAndroid && request.queryParams("isContentAvailable").equalsIgnoreCase("true");
+            PushNotification notification = new PushNotification(isAndroid, isProduction, isContentAvailable, token,
+                encryptedMessage, useSound);
+
+            // We respond as soon as the notification is queued. The delivery result is only logged.
+            if (relayService.relay(notification)) {
+                return PushSender.SUCCESS;
             } else {
-                boolean isProduction = request.queryParams("isProduction").equalsIgnoreCase("true");
-                boolean isContentAvailable = request.queryParams("isContentAvailable").equalsIgnoreCase("true");
-                return relayService.sendAppleMessage(isProduction, isContentAvailable, token, encryptedMessage, useSound);
+                response.status(503);
+                return "Error: Relay is busy, try again later.";
             }
         });
     }
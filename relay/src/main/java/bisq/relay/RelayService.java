@@ -15,142 +15,120 @@
  * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
  */
 
-package bisq.relay;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.IOException;
-import java.io.InputStream;
+package bisq.relay;
 
-import java.util.Scanner;
-import java.util.concurrent.ExecutionException;
+import bisq.common.util.Utilities;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-
-
-import com.google.auth.oauth2.GoogleCredentials;
-import com.google.firebase.FirebaseApp;
-import com.google.firebase.FirebaseOptions;
-import com.google.firebase.messaging.FirebaseMessaging;
-import com.google.firebase.messaging.FirebaseMessagingException;
-import com.google.firebase.messaging.Message;
-import com.google.firebase.messaging.Notification;
-import com.turo.pushy.apns.ApnsClient;
-import com.turo.pushy.apns.ApnsClientBuilder;
-import com.turo.pushy.apns.PushNotificationResponse;
-import com.turo.pushy.apns.util.ApnsPayloadBuilder;
-import com.turo.pushy.apns.util.SimpleApnsPushNotification;
-import com.turo.pushy.apns.util.concurrent.PushNotificationFuture;
-
+/**
+ * Queues the incoming notifications and delivers them asynchronously, so the request thread does not wait for the
+ * push services.
+ * <p>
+ * A dispatcher thread takes the queued notifications in batches and hands them to the APNs or FCM sender. The number
+ * of requests waiting for a response from the push services is bounded. If the queue is full new notifications are
+ * rejected so the caller can signal backpressure to the client.
+ */
 class RelayService {
-    private static final Logger log = LoggerFactory.getLogger(RelayMain.class);
-    private static final String ANDROID_DATABASE_URL = "https://bisqnotifications.firebaseio.com";
-    // Used in Bisq app to check for success state. We won't want a code dependency just for that string so we keep it
-    // duplicated in core and here. Must not be changed.
-    private static final String SUCCESS = "success";
-
-    private final String appleBundleId;
-
-    private ApnsClient productionApnsClient;
-    private ApnsClient devApnsClient; // used for iOS development in XCode
-
-    RelayService(String appleCertPwPath, String appleCertPath, String appleBundleId, String androidCertPath) {
-        this.appleBundleId = appleBundleId;
+    private static final Logger log = LoggerFactory.getLogger(RelayService.class);
+    private static final int QUEUE_CAPACITY = 10_000;
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final int MAX_CONCURRENT_REQUESTS = 100;
+    private static final long SEND_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(30);
+
+    private final PushSender appleSender;
+    private final PushSender androidSender;
+    private final BlockingQueue<PushNotification> queue;
+    private final int maxBatchSize;
+    private final Semaphore inFlightPermits;
+    private final long sendTimeoutMs;
+    private final ExecutorService dispatcher = Utilities.getSingleThreadExecutor("RelayService.dispatcher");
+
+    RelayService(PushSender appleSender, PushSender androidSender) {
+        this(appleSender, androidSender, QUEUE_CAPACITY, MAX_BATCH_SIZE, MAX_CONCURRENT_REQUESTS, SEND_TIMEOUT_MS);
+    }
 
-        setupForAndroid(androidCertPath);
-        setupForApple(appleCertPwPath, appleCertPath);
+    RelayService(PushSender appleSender,
+                 PushSender androidSender,
+                 int queueCapacity,
+                 int maxBatchSize,
+                 int maxConcurrentRequests,
+                 long sendTimeoutMs) {
+        this.appleSender = appleSender;
+        this.androidSender = androidSender;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatchSize = maxBatchSize;
+        this.inFlightPermits = new Semaphore(maxConcurrentRequests);
+        this.sendTimeoutMs = sendTimeoutMs;
+
+        dispatcher.execute(this::dispatch);
     }
 
-    private void setupForAndroid(String androidCertPath) {
-        try {
-            InputStream androidCertStream = new FileInputStream(androidCertPath);
-            FirebaseOptions options = new FirebaseOptions.Builder()
-                .setCredentials(GoogleCredentials.fromStream(androidCertStream))
-                .setDatabaseUrl(ANDROID_DATABASE_URL)
-                .build();
-            FirebaseApp.initializeApp(options);
-        } catch (IOException e) {
-            log.error(e.toString());
-            e.printStackTrace();
-        }
+    /**
+     * @return true if the notification was accepted for delivery, false if the queue is full
+     */
+    boolean relay(PushNotification notification) {
+        boolean accepted = queue.offer(notification);
+        if (!accepted)
+            log.warn("Notification queue is full. We reject the notification.");
+        return accepted;
     }
 
-    private void setupForApple(String appleCertPwPath, String appleCertPath) {
-        try {
-            InputStream certInputStream = new FileInputStream(appleCertPwPath);
-            Scanner scanner = new Scanner(certInputStream);
-            String password = scanner.next();
-            productionApnsClient = new ApnsClientBuilder()
-                .setApnsServer(ApnsClientBuilder.PRODUCTION_APNS_HOST)
-                .setClientCredentials(new File(appleCertPath), password)
-                .build();
-            devApnsClient = new ApnsClientBuilder()
-                .setApnsServer(ApnsClientBuilder.DEVELOPMENT_APNS_HOST)
-                .setClientCredentials(new File(appleCertPath), password)
-                .build();
-        } catch (IOException e) {
-            log.error(e.toString());
-            e.printStackTrace();
-        }
+    void shutDown() {
+        dispatcher.shutdownNow();
     }
 
-    String sendAppleMessage(boolean isProduction, boolean isContentAvailable, String apsTokenHex, String encryptedMessage, boolean useSound) {
-        ApnsPayloadBuilder payloadBuilder = new ApnsPayloadBuilder();
-        if (useSound)
-            payloadBuilder.setSoundFileName("default");
-        payloadBuilder.setAlertBody("Bisq notification");
-        payloadBuilder.setContentAvailable(isContentAvailable);
-        payloadBuilder.addCustomProperty("encrypted", encryptedMessage);
-        final String payload = payloadBuilder.buildWithDefaultMaximumLength();
-        log.info("payload " + payload);
-        SimpleApnsPushNotification simpleApnsPushNotification = new SimpleApnsPushNotification(apsTokenHex, appleBundleId, payload);
+    int getNumQueuedNotifications() {
+        return queue.size();
+    }
 
-        ApnsClient apnsClient = isProduction ? productionApnsClient : devApnsClient;
-        PushNotificationFuture<SimpleApnsPushNotification, PushNotificationResponse<SimpleApnsPushNotification>>
-            notificationFuture = apnsClient.sendNotification(simpleApnsPushNotification);
+    private void dispatch() {
+        List<PushNotification> batch = new ArrayList<>();
         try {
-            PushNotificationResponse<SimpleApnsPushNotification> pushNotificationResponse = notificationFuture.get();
-            if (pushNotificationResponse.isAccepted()) {
-                log.info("Push notification accepted by APNs gateway.");
-                return SUCCESS;
-            } else {
-                String msg1 = "Notification rejected by the APNs gateway: " +
-                    pushNotificationResponse.getRejectionReason();
-                String msg2 = "";
-                if (pushNotificationResponse.getTokenInvalidationTimestamp() != null)
-                    msg2 = " and the token is invalid as of " +
-                        pushNotificationResponse.getTokenInvalidationTimestamp();
-
-                log.info(msg1 + msg2);
-                return "Error: " + msg1 + msg2;
+            while (!Thread.currentThread().isInterrupted()) {
+                batch.add(queue.take());
+                queue.drainTo(batch, maxBatchSize - 1);
+                for (PushNotification notification : batch) {
+                    // Blocks if too many requests are waiting for a response. The queue takes up new notifications
+                    // in the meantime.
+                    inFlightPermits.acquire();
+                    CompletableFuture<String> future = send(notification);
+                    // The permit is only released when the push service has responded. The timeout is applied to a
+                    // copy, so it only reports a slow request but does not free its slot.
+                    future.whenComplete((result, throwable) -> inFlightPermits.release());
+                    future.copy().orTimeout(sendTimeoutMs, TimeUnit.MILLISECONDS).whenComplete((result, throwable) -> {
+                        if (throwable != null)
+                            log.error("Sending notification failed. {}", throwable.toString());
+                        else if (!PushSender.SUCCESS.equals(result))
+                            log.warn("Notification was not accepted. {}", result);
+                    });
+                }
+                batch.clear();
             }
-        } catch (InterruptedException | ExecutionException e) {
-            log.error(e.toString());
-            e.printStackTrace();
-            return "Error: " + e.toString();
+        } catch (InterruptedException e) {
+            log.info("Dispatcher stopped. {} notifications were not sent.", batch.size() + queue.size());
         }
     }
 
-    String sendAndroidMessage(String apsTokenHex, String encryptedMessage, boolean useSound) {
-        Message.Builder messageBuilder = Message.builder();
-        Notification notification = new Notification("Bisq", "Notification");
-        messageBuilder.setNotification(notification);
-        messageBuilder.putData("encrypted", encryptedMessage);
-        messageBuilder.setToken(apsTokenHex);
-        if (useSound)
-            messageBuilder.putData("sound", "default");
-        Message message = messageBuilder.build();
+    private CompletableFuture<String> send(PushNotification notification) {
+        PushSender sender = notification.isAndroid() ? androidSender : appleSender;
         try {
-            FirebaseMessaging firebaseMessaging = FirebaseMessaging.getInstance();
-            firebaseMessaging.send(message);
-            return SUCCESS;
-        } catch (FirebaseMessagingException e) {
-            log.error(e.toString());
-            e.printStackTrace();
-            return "Error: " + e.toString();
+            return sender.send(notification);
+        } catch (Throwable t) {
+            CompletableFuture<String> failed = new CompletableFuture<>();
+            failed.completeExceptionally(t);
+            return failed;
         }
     }
 }
@@ -0,0 +1,140 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.relay;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RelayServiceTest {
+
+    // Stands in for the APNs or FCM client. Completes the futures only if autoComplete is set.
+    private static class StubPushSender implements PushSender {
+        private final boolean autoComplete;
+        private final List<PushNotification> notifications = new CopyOnWriteArrayList<>();
+        private final List<CompletableFuture<String>> pending = new CopyOnWriteArrayList<>();
+
+        StubPushSender(boolean autoComplete) {
+            this.autoComplete = autoComplete;
+        }
+
+        @Override
+        public CompletableFuture<String> send(PushNotification notification) {
+            notifications.add(notification);
+            CompletableFuture<String> future = new CompletableFuture<>();
+            if (autoComplete)
+                future.complete(SUCCESS);
+            else
+                pending.add(future);
+            return future;
+        }
+    }
+
+    private RelayService relayService;
+
+    @After
+    public void tearDown() {
+        relayService.shutDown();
+    }
+
+    @Test
+    public void testNotificationsAreSentWithSenderOfPlatform() throws InterruptedException {
+        StubPushSender appleSender = new StubPushSender(true);
+        StubPushSender androidSender = new StubPushSender(true);
+        relayService = new RelayService(appleSender, androidSender);
+
+        assertTrue(relayService.relay(notification(true, "a1")));
+        assertTrue(relayService.relay(notification(false, "i1")));
+        assertTrue(relayService.relay(notification(true, "a2")));
+
+        await(() -> androidSender.notifications.size() == 2 && appleSender.notifications.size() == 1);
+        assertEquals("a1", androidSender.notifications.get(0).getToken());
+        assertEquals("a2", androidSender.notifications.get(1).getToken());
+        assertEquals("i1", appleSender.notifications.get(0).getToken());
+    }
+
+    @Test
+    public void testNumberOfConcurrentRequestsIsBounded() throws InterruptedException {
+        StubPushSender androidSender = new StubPushSender(false);
+        relayService = new RelayService(new StubPushSender(true), androidSender, 100, 10, 2, 10_000);
+
+        for (int i = 0; i < 5; i++)
+            assertTrue(relayService.relay(notification(true, "a" + i)));
+
+        await(() -> androidSender.notifications.size() == 2);
+        Thread.sleep(100);
+        assertEquals(2, androidSender.notifications.size());
+
+        androidSender.pending.get(0).complete(PushSender.SUCCESS);
+        await(() -> androidSender.notifications.size() == 3);
+    }
+
+    @Test
+    public void testTimedOutRequestKeepsItsSlotUntilSenderCompletes() throws InterruptedException {
+        StubPushSender androidSender = new StubPushSender(false);
+        relayService = new RelayService(new StubPushSender(true), androidSender, 100, 10, 1, 50);
+
+        assertTrue(relayService.relay(notification(true, "a1")));
+        assertTrue(relayService.relay(notification(true, "a2")));
+
+        await(() -> androidSender.notifications.size() == 1);
+        Thread.sleep(200);
+        assertEquals(1, androidSender.notifications.size());
+        assertFalse(androidSender.pending.get(0).isDone());
+
+        androidSender.pending.get(0).complete(PushSender.SUCCESS);
+        await(() -> androidSender.notifications.size() == 2);
+    }
+
+    @Test
+    public void testNotificationIsRejectedIfQueueIsFull() throws InterruptedException {
+        StubPushSender androidSender = new StubPushSender(false);
+        relayService = new RelayService(new StubPushSender(true), androidSender, 2, 1, 1, 10_000);
+
+        assertTrue(relayService.relay(notification(true, "a1")));
+        await(() -> androidSender.notifications.size() == 1);
+        // The dispatcher takes that one from the queue and waits for a free request slot
+        assertTrue(relayService.relay(notification(true, "a2")));
+        await(() -> relayService.getNumQueuedNotifications() == 0);
+
+        assertTrue(relayService.relay(notification(true, "a3")));
+        assertTrue(relayService.relay(notification(true, "a4")));
+        assertFalse(relayService.relay(notification(true, "a5")));
+    }
+
+    private static PushNotification notification(boolean isAndroid, String token) {
+        return new PushNotification(isAndroid, false, false, token, "encrypted", false);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue("Condition not met in time", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+}